@@ -0,0 +1,62 @@
+package com.sweta.portfolio.analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * An ordered list of pages (e.g. home, projects, contact) and how many sessions reached each step.
+ *
+ * A session reaches step i when it views step i's page after having reached step i-1; other
+ * pages in between do not break the funnel. The caller keeps each session's progress (the
+ * number of steps reached so far) and passes it to advance with every page view, so
+ * evaluating a view is one int comparison and the funnel itself holds only the counters.
+ */
+public final class Funnel {
+
+    private final String name;
+    private final String[] pages;
+    private final int[] steps;
+    private final AtomicLongArray reached;
+
+    public Funnel(String name, String[] pages, PageDictionary dictionary) {
+        if (pages.length < 2) {
+            throw new IllegalArgumentException("Funnel " + name + " needs at least two steps");
+        }
+        this.name = name;
+        this.pages = pages.clone();
+        this.steps = new int[pages.length];
+        for (int i = 0; i < pages.length; i++) {
+            steps[i] = dictionary.intern(pages[i]);
+        }
+        this.reached = new AtomicLongArray(pages.length);
+    }
+
+    /**
+     * Progress after the session with the given progress viewed page (a dictionary id)
+     */
+    public int advance(int progress, int page) {
+        if (progress < steps.length && steps[progress] == page && page != PageDictionary.OTHER) {
+            reached.incrementAndGet(progress);
+            return progress + 1;
+        }
+        return progress;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int length() {
+        return steps.length;
+    }
+
+    public String page(int step) {
+        return pages[step];
+    }
+
+    /**
+     * Sessions that reached the step
+     */
+    public long reached(int step) {
+        return reached.get(step);
+    }
+}
@@ -0,0 +1,387 @@
+package com.sweta.portfolio.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Read-only IP range index for country/city lookups.
+ *
+ * Ranges are kept in sorted primitive arrays (IPv4 as one long, IPv6 as two longs compared
+ * unsigned) and found by binary search on the range start. Locations are deduplicated into one
+ * table the ranges point into, so a lookup parses the address in place, searches and returns a
+ * shared GeoLocation without allocating. IPv4-mapped IPv6 addresses are looked up as IPv4, and
+ * loopback/private addresses resolve to GeoLocation.LOCAL without a search.
+ * Ranges must not overlap; when they do the one with the highest start wins.
+ * Immutable once built, so safe to share between threads.
+ */
+public final class GeoIpIndex {
+
+    private static final long MAPPED_IPV4_PREFIX = 0xFFFFL;
+
+    // Scratch for the two halves of a parsed IPv6 address
+    private static final ThreadLocal<long[]> IPV6_SCRATCH = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final long[] v4Start;
+    private final long[] v4End;
+    private final int[] v4Location;
+
+    private final long[] v6StartHigh;
+    private final long[] v6StartLow;
+    private final long[] v6EndHigh;
+    private final long[] v6EndLow;
+    private final int[] v6Location;
+
+    private final GeoLocation[] locations;
+
+    private GeoIpIndex(Builder builder) {
+        List<Range> v4 = new ArrayList<>();
+        List<Range> v6 = new ArrayList<>();
+        for (Range range : builder.ranges) {
+            (range.v6 ? v6 : v4).add(range);
+        }
+        Comparator<Range> byStart = (a, b) -> a.startHigh != b.startHigh
+                ? Long.compareUnsigned(a.startHigh, b.startHigh)
+                : Long.compareUnsigned(a.startLow, b.startLow);
+        v4.sort(byStart);
+        v6.sort(byStart);
+
+        v4Start = new long[v4.size()];
+        v4End = new long[v4.size()];
+        v4Location = new int[v4.size()];
+        for (int i = 0; i < v4.size(); i++) {
+            Range range = v4.get(i);
+            v4Start[i] = range.startLow;
+            v4End[i] = range.endLow;
+            v4Location[i] = range.location;
+        }
+
+        v6StartHigh = new long[v6.size()];
+        v6StartLow = new long[v6.size()];
+        v6EndHigh = new long[v6.size()];
+        v6EndLow = new long[v6.size()];
+        v6Location = new int[v6.size()];
+        for (int i = 0; i < v6.size(); i++) {
+            Range range = v6.get(i);
+            v6StartHigh[i] = range.startHigh;
+            v6StartLow[i] = range.startLow;
+            v6EndHigh[i] = range.endHigh;
+            v6EndLow[i] = range.endLow;
+            v6Location[i] = range.location;
+        }
+
+        locations = builder.locations.toArray(new GeoLocation[0]);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return v4Start.length + v6StartHigh.length;
+    }
+
+    /**
+     * Location of an IPv4 or IPv6 address in text form, null when no range covers it
+     * (or the text is not an address)
+     */
+    public GeoLocation lookup(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return null;
+        }
+        if (ip.indexOf(':') < 0) {
+            long address = parseIpv4(ip, 0, ip.length());
+            return address < 0 ? null : lookupIpv4(address);
+        }
+        long[] parsed = IPV6_SCRATCH.get();
+        if (!parseIpv6(ip, parsed)) {
+            return null;
+        }
+        long high = parsed[0];
+        long low = parsed[1];
+        if (high == 0 && (low >>> 32) == MAPPED_IPV4_PREFIX) {
+            return lookupIpv4(low & 0xFFFFFFFFL);
+        }
+        return lookupIpv6(high, low);
+    }
+
+    private GeoLocation lookupIpv4(long address) {
+        if (isLocalIpv4(address)) {
+            return GeoLocation.LOCAL;
+        }
+        // Last range starting at or before the address
+        int lo = 0;
+        int hi = v4Start.length - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (v4Start[mid] <= address) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found >= 0 && address <= v4End[found] ? locations[v4Location[found]] : null;
+    }
+
+    private GeoLocation lookupIpv6(long high, long low) {
+        if (isLocalIpv6(high, low)) {
+            return GeoLocation.LOCAL;
+        }
+        int lo = 0;
+        int hi = v6StartHigh.length - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(v6StartHigh[mid], v6StartLow[mid], high, low) <= 0) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found >= 0 && compare(high, low, v6EndHigh[found], v6EndLow[found]) <= 0
+                ? locations[v6Location[found]] : null;
+    }
+
+    // 127/8, 10/8, 172.16/12, 192.168/16, 169.254/16
+    private static boolean isLocalIpv4(long address) {
+        long first = address >>> 24;
+        long firstTwo = address >>> 16;
+        return first == 127 || first == 10 || (address >>> 20) == 0xAC1 || firstTwo == 0xC0A8 || firstTwo == 0xA9FE;
+    }
+
+    // ::1, fc00::/7 (unique local), fe80::/10 (link local)
+    private static boolean isLocalIpv6(long high, long low) {
+        return (high == 0 && low == 1) || (high >>> 57) == 0x7E || (high >>> 54) == 0x3FA;
+    }
+
+    private static int compare(long aHigh, long aLow, long bHigh, long bLow) {
+        return aHigh != bHigh ? Long.compareUnsigned(aHigh, bHigh) : Long.compareUnsigned(aLow, bLow);
+    }
+
+    /**
+     * Dotted quad in text[from, to) as an unsigned 32-bit value, -1 when malformed
+     */
+    static long parseIpv4(String text, int from, int to) {
+        long address = 0;
+        int octets = 0;
+        int i = from;
+        while (i < to) {
+            int value = 0;
+            int digits = 0;
+            while (i < to && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                value = value * 10 + (text.charAt(i) - '0');
+                digits++;
+                i++;
+                if (digits > 3) {
+                    return -1;
+                }
+            }
+            if (digits == 0 || value > 255) {
+                return -1;
+            }
+            address = (address << 8) | value;
+            octets++;
+            if (i < to) {
+                if (text.charAt(i) != '.' || octets == 4) {
+                    return -1;
+                }
+                i++;
+                if (i == to) {
+                    return -1;
+                }
+            }
+        }
+        return octets == 4 ? address : -1;
+    }
+
+    /**
+     * IPv6 text (with "::" compression, an embedded IPv4 tail or a %zone) into out[0] (high 64 bits)
+     * and out[1] (low 64 bits), false when malformed
+     */
+    static boolean parseIpv6(String text, long[] out) {
+        int end = text.indexOf('%');
+        if (end < 0) {
+            end = text.length();
+        }
+        // Groups before "::" accumulate in head, groups after it in tail
+        long headHigh = 0;
+        long headLow = 0;
+        long tailHigh = 0;
+        long tailLow = 0;
+        int headGroups = 0;
+        int tailGroups = 0;
+        boolean compressed = false;
+
+        int i = 0;
+        if (text.startsWith("::")) {
+            compressed = true;
+            i = 2;
+        }
+        while (i < end) {
+            int start = i;
+            int value = 0;
+            int digit;
+            while (i < end && i - start < 4 && (digit = hexDigit(text.charAt(i))) >= 0) {
+                value = (value << 4) | digit;
+                i++;
+            }
+            if (i < end && text.charAt(i) == '.') {
+                // Embedded IPv4 tail, e.g. ::ffff:192.0.2.1, counts as two groups
+                long ipv4 = parseIpv4(text, start, end);
+                if (ipv4 < 0) {
+                    return false;
+                }
+                if (compressed) {
+                    tailHigh = (tailHigh << 32) | (tailLow >>> 32);
+                    tailLow = (tailLow << 32) | ipv4;
+                    tailGroups += 2;
+                } else {
+                    headHigh = (headHigh << 32) | (headLow >>> 32);
+                    headLow = (headLow << 32) | ipv4;
+                    headGroups += 2;
+                }
+                i = end;
+                break;
+            }
+            if (i == start) {
+                return false;
+            }
+            if (compressed) {
+                tailHigh = (tailHigh << 16) | (tailLow >>> 48);
+                tailLow = (tailLow << 16) | value;
+                tailGroups++;
+            } else {
+                headHigh = (headHigh << 16) | (headLow >>> 48);
+                headLow = (headLow << 16) | value;
+                headGroups++;
+            }
+            if (i == end) {
+                break;
+            }
+            if (text.charAt(i) != ':') {
+                return false;
+            }
+            i++;
+            if (i < end && text.charAt(i) == ':') {
+                if (compressed) {
+                    return false;
+                }
+                compressed = true;
+                i++;
+            } else if (i == end) {
+                return false;
+            }
+        }
+
+        int groups = headGroups + tailGroups;
+        if (compressed ? groups > 7 : groups != 8) {
+            return false;
+        }
+        // Move the head groups to the top, the tail is already at the bottom
+        int shift = 16 * (8 - headGroups);
+        if (shift >= 128) {
+            headHigh = 0;
+            headLow = 0;
+        } else if (shift >= 64) {
+            headHigh = headLow << (shift - 64);
+            headLow = 0;
+        } else if (shift > 0) {
+            headHigh = (headHigh << shift) | (headLow >>> (64 - shift));
+            headLow = headLow << shift;
+        }
+        out[0] = headHigh | tailHigh;
+        out[1] = headLow | tailLow;
+        return true;
+    }
+
+    // ASCII only, unlike Character.digit which also takes fullwidth and other Unicode digits
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static final class Range {
+
+        private final boolean v6;
+        private final long startHigh;
+        private final long startLow;
+        private final long endHigh;
+        private final long endLow;
+        private final int location;
+
+        Range(boolean v6, long startHigh, long startLow, long endHigh, long endLow, int location) {
+            this.v6 = v6;
+            this.startHigh = startHigh;
+            this.startLow = startLow;
+            this.endHigh = endHigh;
+            this.endLow = endLow;
+            this.location = location;
+        }
+    }
+
+    public static final class Builder {
+
+        private final List<Range> ranges = new ArrayList<>();
+        private final List<GeoLocation> locations = new ArrayList<>();
+        private final Map<GeoLocation, Integer> locationIds = new HashMap<>();
+        private final long[] start = new long[2];
+        private final long[] end = new long[2];
+
+        private Builder() {
+        }
+
+        /**
+         * Add the inclusive range startIp..endIp (both IPv4 or both IPv6).
+         * The country name comes from the code (English), the city may be null.
+         */
+        public Builder add(String startIp, String endIp, String countryCode, String city) {
+            String code = countryCode == null || countryCode.isBlank() ? null : countryCode.trim().toUpperCase(Locale.ROOT);
+            String country = code == null ? null : new Locale("", code).getDisplayCountry(Locale.ENGLISH);
+            GeoLocation location = new GeoLocation(code, country, city == null || city.isBlank() ? null : city.trim());
+            int id = locationIds.computeIfAbsent(location, key -> {
+                locations.add(key);
+                return locations.size() - 1;
+            });
+
+            boolean v6 = startIp.indexOf(':') >= 0;
+            if (v6) {
+                if (!parseIpv6(startIp, start) || !parseIpv6(endIp, end)) {
+                    throw new IllegalArgumentException("Invalid IPv6 range " + startIp + " - " + endIp);
+                }
+                ranges.add(new Range(true, start[0], start[1], end[0], end[1], id));
+            } else {
+                long first = parseIpv4(startIp, 0, startIp.length());
+                long last = parseIpv4(endIp, 0, endIp.length());
+                if (first < 0 || last < 0) {
+                    throw new IllegalArgumentException("Invalid IPv4 range " + startIp + " - " + endIp);
+                }
+                ranges.add(new Range(false, 0, first, 0, last, id));
+            }
+            return this;
+        }
+
+        public GeoIpIndex build() {
+            return new GeoIpIndex(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GeoIpIndex[" + v4Start.length + " IPv4 ranges, " + v6StartHigh.length + " IPv6 ranges, "
+                + locations.length + " locations]";
+    }
+}
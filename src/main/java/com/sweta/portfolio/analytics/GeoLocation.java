@@ -0,0 +1,26 @@
+package com.sweta.portfolio.analytics;
+
+/**
+ * Where an IP address is: ISO 3166 alpha-2 country code, English country name and city.
+ * Any part can be null when the database does not know it.
+ */
+public record GeoLocation(String countryCode, String country, String city) {
+
+    public static final GeoLocation UNKNOWN = new GeoLocation(null, null, null);
+
+    // Loopback and private networks, i.e. local development or a proxy that hides the client
+    public static final GeoLocation LOCAL = new GeoLocation(null, null, "Local Development");
+
+    /**
+     * Human readable form, e.g. "Amsterdam, Netherlands"
+     */
+    public String label() {
+        if (city != null && country != null) {
+            return city + ", " + country;
+        }
+        if (country != null) {
+            return country;
+        }
+        return city != null ? city : "Unknown";
+    }
+}
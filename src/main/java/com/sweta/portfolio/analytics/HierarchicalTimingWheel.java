@@ -0,0 +1,245 @@
+package com.sweta.portfolio.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (as in Kafka's request purgatory / Varghese and Lauck).
+ *
+ * Level 0 has wheelSize buckets of tickMillis each; every next level has wheelSize buckets
+ * as wide as the whole level below and is created only when a timeout lands beyond it.
+ * Scheduling and cancelling are O(1) (a doubly linked bucket list), and every advance by one
+ * tick flushes one bucket; timeouts in a higher level cascade down as their bucket comes due.
+ *
+ * Timeouts fire on the first advance at or after the start of their tick, so they can fire up
+ * to one tick before the exact deadline. Callers that need the precise deadline re-check it.
+ * All methods are synchronized; each call is O(1) apart from advance, which is O(ticks + due).
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final Level level0;
+
+    // Timeouts scheduled with a deadline that had already passed, fired on the next advance
+    private final List<Timeout<T>> overdue = new ArrayList<>();
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMillis must be positive and wheelSize at least 2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.level0 = new Level(tickMillis, startMillis, null);
+    }
+
+    /**
+     * Schedule item to fire at deadlineMillis, the handle can cancel it
+     */
+    public synchronized Timeout<T> schedule(T item, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(this, item, deadlineMillis);
+        if (!level0.add(timeout)) {
+            overdue.add(timeout);
+            timeout.overdue = true;
+        }
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Move the clock to nowMillis and hand every due item to onExpired.
+     * Callbacks run after the buckets were flushed, so they may schedule again.
+     */
+    public void advance(long nowMillis, Consumer<T> onExpired) {
+        List<Timeout<T>> due;
+        synchronized (this) {
+            due = new ArrayList<>(overdue);
+            overdue.forEach(timeout -> timeout.overdue = false);
+            overdue.clear();
+            while (level0.currentTime + tickMillis <= nowMillis) {
+                tick(level0.currentTime + tickMillis, due);
+            }
+            size -= due.size();
+        }
+        for (Timeout<T> timeout : due) {
+            onExpired.accept(timeout.item);
+        }
+    }
+
+    /**
+     * Number of scheduled timeouts that have neither fired nor been cancelled
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        for (Level level = level0; level != null; level = level.overflow) {
+            for (Bucket<T> bucket : level.buckets) {
+                bucket.clear();
+            }
+        }
+        overdue.forEach(timeout -> timeout.overdue = false);
+        overdue.clear();
+        size = 0;
+    }
+
+    private synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket != null) {
+            timeout.bucket.remove(timeout);
+        } else if (timeout.overdue) {
+            overdue.remove(timeout);
+            timeout.overdue = false;
+        } else {
+            return false;
+        }
+        size--;
+        return true;
+    }
+
+    // One step of level 0. Every level whose bucket boundary is reached moves its clock first,
+    // then the buckets are flushed top down, so cascaded timeouts land in the right lower bucket
+    private void tick(long time, List<Timeout<T>> due) {
+        Level top = level0;
+        level0.currentTime = time;
+        while (top.overflow != null && time % top.overflow.tickMillis == 0) {
+            top = top.overflow;
+            top.currentTime = time;
+        }
+        for (Level level = top; level != null; level = level.underflow) {
+            flush(level, time, due);
+        }
+    }
+
+    private void flush(Level level, long time, List<Timeout<T>> due) {
+        Bucket<T> bucket = level.buckets[level.index(time)];
+        Timeout<T> timeout;
+        while ((timeout = bucket.poll()) != null) {
+            // Back in at the top: lands in a lower level, or is due now
+            if (!level0.add(timeout)) {
+                due.add(timeout);
+            }
+        }
+    }
+
+    /**
+     * Handle of a scheduled item
+     */
+    public static final class Timeout<T> {
+
+        private final HierarchicalTimingWheel<T> wheel;
+        private final T item;
+        private final long deadline;
+
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private boolean overdue;
+
+        private Timeout(HierarchicalTimingWheel<T> wheel, T item, long deadline) {
+            this.wheel = wheel;
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * Remove the timeout, returns false when it already fired or was cancelled
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+    }
+
+    private final class Level {
+
+        private final long tickMillis;
+        private final long interval;
+        private final Bucket<T>[] buckets;
+        private long currentTime;
+        private Level overflow;
+        private final Level underflow;
+
+        @SuppressWarnings("unchecked")
+        Level(long tickMillis, long startMillis, Level underflow) {
+            this.underflow = underflow;
+            this.tickMillis = tickMillis;
+            this.interval = tickMillis * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket<>();
+            }
+            this.currentTime = startMillis - (startMillis % tickMillis);
+        }
+
+        // false when the deadline falls within the current tick, i.e. it is due
+        boolean add(Timeout<T> timeout) {
+            long deadline = timeout.deadline;
+            if (deadline < currentTime + tickMillis) {
+                return false;
+            }
+            if (deadline < currentTime + interval) {
+                buckets[index(deadline)].add(timeout);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(interval, currentTime, this);
+            }
+            return overflow.add(timeout);
+        }
+
+        int index(long time) {
+            return (int) ((time / tickMillis) % wheelSize);
+        }
+    }
+
+    /**
+     * Circular doubly linked list with a sentinel
+     */
+    private static final class Bucket<T> {
+
+        private final Timeout<T> head = new Timeout<>(null, null, 0);
+
+        Bucket() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        void add(Timeout<T> timeout) {
+            Timeout<T> tail = head.prev;
+            timeout.next = head;
+            timeout.prev = tail;
+            tail.next = timeout;
+            head.prev = timeout;
+            timeout.bucket = this;
+        }
+
+        void remove(Timeout<T> timeout) {
+            timeout.prev.next = timeout.next;
+            timeout.next.prev = timeout.prev;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        Timeout<T> poll() {
+            Timeout<T> first = head.next;
+            if (first == head) {
+                return null;
+            }
+            remove(first);
+            return first;
+        }
+
+        void clear() {
+            while (poll() != null) {
+                // unlink every timeout so stale handles cannot touch this bucket
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.sweta.portfolio.analytics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Interns page names to dense int ids (0 .. capacity-1), so per-page state can live in
+ * primitive arrays indexed by id instead of maps keyed by string.
+ *
+ * Ids are handed out in first-seen order and never reused. Id 0 is OTHER, which every page
+ * seen after the dictionary filled up maps to, so a flood of made-up page names cannot grow
+ * the arrays built on top of it. Thread-safe; looking up a known page is one map get.
+ */
+public final class PageDictionary {
+
+    public static final int OTHER = 0;
+    public static final String OTHER_NAME = "(other)";
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> names;
+    private final int capacity;
+    private int size;
+
+    public PageDictionary(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2");
+        }
+        this.capacity = capacity;
+        this.names = new AtomicReferenceArray<>(capacity);
+        names.set(OTHER, OTHER_NAME);
+        ids.put(OTHER_NAME, OTHER);
+        size = 1;
+    }
+
+    /**
+     * Id of the page, assigning the next free one on first sight (OTHER once full)
+     */
+    public int intern(String page) {
+        Integer id = ids.get(page);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(page);
+            if (id != null) {
+                return id;
+            }
+            if (size == capacity) {
+                return OTHER;
+            }
+            int assigned = size++;
+            names.set(assigned, page);
+            ids.put(page, assigned);
+            return assigned;
+        }
+    }
+
+    /**
+     * Id of an already interned page, -1 if it was never seen
+     */
+    public int idOf(String page) {
+        Integer id = ids.get(page);
+        return id != null ? id : -1;
+    }
+
+    public String name(int id) {
+        return names.get(id);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,196 @@
+package com.sweta.portfolio.analytics;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Attributes a visit, by its referrer URL and the URL it landed on, to a TrafficSource.
+ *
+ * UTM tags win: utm_source/utm_medium/utm_campaign in the landing URL's query string are taken as they are
+ * (lowercased, at most MAX_LENGTH characters). Without them, gclid marks a Google Ads click
+ * and an external host becomes the source: well-known search engines and social networks get
+ * their name and organic/social medium, any other host (without "www.") is a referral.
+ * A missing or malformed referrer, or one on an internal host (the portfolio itself), is a direct visit.
+ *
+ * The URL is scanned by hand rather than with java.net.URI, so malformed referrers still get a source.
+ * Stateless and thread-safe; ReferrerRollupService caches the results per distinct referrer and landing URL.
+ */
+public final class ReferrerParser {
+
+    public static final int MAX_LENGTH = 100;
+
+    // Registrable domain -> {source name, medium}; subdomains (l.facebook.com, m.youtube.com) match too
+    private static final Map<String, String[]> KNOWN_HOSTS = Map.ofEntries(
+            Map.entry("bing.com", new String[]{"bing", "organic"}),
+            Map.entry("duckduckgo.com", new String[]{"duckduckgo", "organic"}),
+            Map.entry("yahoo.com", new String[]{"yahoo", "organic"}),
+            Map.entry("yandex.ru", new String[]{"yandex", "organic"}),
+            Map.entry("baidu.com", new String[]{"baidu", "organic"}),
+            Map.entry("ecosia.org", new String[]{"ecosia", "organic"}),
+            Map.entry("linkedin.com", new String[]{"linkedin", "social"}),
+            Map.entry("lnkd.in", new String[]{"linkedin", "social"}),
+            Map.entry("twitter.com", new String[]{"twitter", "social"}),
+            Map.entry("x.com", new String[]{"twitter", "social"}),
+            Map.entry("t.co", new String[]{"twitter", "social"}),
+            Map.entry("facebook.com", new String[]{"facebook", "social"}),
+            Map.entry("instagram.com", new String[]{"instagram", "social"}),
+            Map.entry("reddit.com", new String[]{"reddit", "social"}),
+            Map.entry("news.ycombinator.com", new String[]{"hackernews", "social"}),
+            Map.entry("youtube.com", new String[]{"youtube", "social"}),
+            Map.entry("github.com", new String[]{"github", "referral"})
+    );
+
+    private ReferrerParser() {
+    }
+
+    /**
+     * Source of a referrer URL; internalHosts are lowercase host names of the site itself
+     */
+    public static TrafficSource parse(String referrer, Set<String> internalHosts) {
+        return parse(referrer, null, internalHosts);
+    }
+
+    /**
+     * Source of a visit from its referrer and the URL it landed on (absolute or a path). UTM tags
+     * and gclid are read from the landing URL when there is one, since a referrer's query string
+     * belongs to the other site; without it they are read from the referrer (a Referer header
+     * sent by the page itself carries the landing URL).
+     */
+    public static TrafficSource parse(String referrer, String landingUrl, Set<String> internalHosts) {
+        String url = referrer != null ? referrer.trim() : "";
+        // A Referer is an absolute URL; anything else has no usable host
+        int hostStart = url.indexOf("://");
+        hostStart = hostStart >= 0 ? hostStart + 3 : url.length();
+        int hostEnd = hostEnd(url, hostStart);
+        String host = host(url, hostStart, hostEnd);
+
+        Tags tags;
+        if (landingUrl != null) {
+            String landing = landingUrl.trim();
+            int scheme = landing.indexOf("://");
+            tags = tags(landing, scheme >= 0 ? hostEnd(landing, scheme + 3) : 0);
+        } else {
+            tags = tags(url, hostEnd);
+        }
+
+        if (tags.source != null) {
+            return new TrafficSource(tags.source, orNone(tags.medium), orNone(tags.campaign));
+        }
+        if (tags.gclid) {
+            return new TrafficSource("google", "cpc", orNone(tags.campaign));
+        }
+        if (host.isEmpty() || internalHosts.contains(host)) {
+            return TrafficSource.DIRECT;
+        }
+        String[] known = known(host);
+        if (known != null) {
+            return new TrafficSource(known[0], known[1], orNone(tags.campaign));
+        }
+        String source = host.startsWith("www.") ? host.substring(4) : host;
+        return new TrafficSource(truncate(source), "referral", orNone(tags.campaign));
+    }
+
+    private static int hostEnd(String url, int hostStart) {
+        int hostEnd = hostStart;
+        while (hostEnd < url.length() && "/?#".indexOf(url.charAt(hostEnd)) < 0) {
+            hostEnd++;
+        }
+        return hostEnd;
+    }
+
+    // UTM tags and gclid in the query string of the url, which starts at or after from
+    private static Tags tags(String url, int from) {
+        int queryStart = url.indexOf('?', from);
+        int fragment = url.indexOf('#', from);
+        String utmSource = null;
+        String utmMedium = null;
+        String utmCampaign = null;
+        boolean gclid = false;
+        if (queryStart >= 0 && (fragment < 0 || queryStart < fragment)) {
+            int queryEnd = fragment >= 0 ? fragment : url.length();
+            int pos = queryStart + 1;
+            while (pos < queryEnd) {
+                int next = url.indexOf('&', pos);
+                if (next < 0 || next > queryEnd) {
+                    next = queryEnd;
+                }
+                int equals = url.indexOf('=', pos);
+                if (equals > pos && equals < next) {
+                    String name = url.substring(pos, equals);
+                    switch (name) {
+                        case "utm_source" -> utmSource = value(url, equals + 1, next);
+                        case "utm_medium" -> utmMedium = value(url, equals + 1, next);
+                        case "utm_campaign" -> utmCampaign = value(url, equals + 1, next);
+                        case "gclid" -> gclid = true;
+                        default -> { }
+                    }
+                }
+                pos = next + 1;
+            }
+        }
+        return new Tags(utmSource, utmMedium, utmCampaign, gclid);
+    }
+
+    private static String host(String url, int start, int end) {
+        int at = url.lastIndexOf('@', end - 1);
+        if (at >= start) {
+            start = at + 1; // user info
+        }
+        int colon = url.indexOf(':', start);
+        if (colon >= 0 && colon < end) {
+            end = colon; // port
+        }
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '.' && c != '-') {
+                return "";
+            }
+        }
+        return url.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+
+    private static String[] known(String host) {
+        // google.com, google.co.uk, www.google.de, ...
+        if (host.startsWith("google.") || host.contains(".google.")) {
+            return new String[]{"google", "organic"};
+        }
+        String domain = host;
+        while (true) {
+            String[] known = KNOWN_HOSTS.get(domain);
+            if (known != null) {
+                return known;
+            }
+            int dot = domain.indexOf('.');
+            if (dot < 0 || domain.indexOf('.', dot + 1) < 0) {
+                return null;
+            }
+            domain = domain.substring(dot + 1);
+        }
+    }
+
+    private static String value(String url, int start, int end) {
+        String raw = url.substring(start, end);
+        String decoded;
+        try {
+            decoded = URLDecoder.decode(raw, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            decoded = raw;
+        }
+        decoded = decoded.trim().toLowerCase(Locale.ROOT);
+        return decoded.isEmpty() ? null : truncate(decoded);
+    }
+
+    private static String orNone(String value) {
+        return value != null ? value : TrafficSource.NONE;
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_LENGTH ? value.substring(0, MAX_LENGTH) : value;
+    }
+
+    private record Tags(String source, String medium, String campaign, boolean gclid) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.sweta.portfolio.analytics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Approximate per-key event counts over a sliding window, e.g. requests per client IP per minute.
+ *
+ * Counts are kept for the current and the previous fixed window only; the sliding count is
+ * the current window's count plus the previous one's, weighted by how much of it still falls
+ * inside the sliding window. Moving to the next window swaps the maps instead of expiring
+ * keys one by one, so memory is bounded by the keys of two windows, capped at maxKeys new
+ * keys per window. Later keys are not tracked and count as over any limit: that many distinct
+ * keys in one window is itself a flood (e.g. a botnet rotating IPs), and letting the untracked
+ * ones through would make the cap a way around the limit. Thread-safe.
+ */
+public final class SlidingWindowCounter {
+
+    private final long windowMillis;
+    private final int maxKeys;
+
+    private volatile long windowStart;
+    private volatile ConcurrentHashMap<String, AtomicInteger> current = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<String, AtomicInteger> previous = new ConcurrentHashMap<>();
+
+    public SlidingWindowCounter(long windowMillis, int maxKeys, long nowMillis) {
+        if (windowMillis <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("windowMillis and maxKeys must be positive");
+        }
+        this.windowMillis = windowMillis;
+        this.maxKeys = maxKeys;
+        this.windowStart = nowMillis - nowMillis % windowMillis;
+    }
+
+    /**
+     * Count one event for the key, returns its count over the last windowMillis including this one,
+     * or positive infinity when the window already tracks maxKeys other keys
+     */
+    public double increment(String key, long nowMillis) {
+        roll(nowMillis);
+        ConcurrentHashMap<String, AtomicInteger> counts = current;
+        AtomicInteger count = counts.get(key);
+        if (count == null) {
+            if (counts.size() >= maxKeys) {
+                return Double.POSITIVE_INFINITY;
+            }
+            count = counts.computeIfAbsent(key, k -> new AtomicInteger());
+        }
+        int inWindow = count.incrementAndGet();
+        AtomicInteger before = previous.get(key);
+        if (before == null) {
+            return inWindow;
+        }
+        double overlap = 1.0 - (double) (nowMillis - windowStart) / windowMillis;
+        return inWindow + before.get() * Math.max(0, overlap);
+    }
+
+    private void roll(long nowMillis) {
+        if (nowMillis - windowStart < windowMillis) {
+            return;
+        }
+        synchronized (this) {
+            long start = windowStart;
+            if (nowMillis - start < windowMillis) {
+                return;
+            }
+            long elapsedWindows = (nowMillis - start) / windowMillis;
+            // A gap of more than one window leaves nothing worth carrying over
+            previous = elapsedWindows == 1 ? current : new ConcurrentHashMap<>();
+            current = new ConcurrentHashMap<>();
+            windowStart = start + elapsedWindows * windowMillis;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.sweta.portfolio.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy hitters (Metwally, Agrawal, El Abbadi): approximate counts of the most
+ * frequent items in a stream using at most capacity counters.
+ *
+ * While fewer than capacity distinct items were seen every count is exact. After that a new
+ * item replaces the item with the smallest count and inherits that count as its error, so a
+ * count overestimates the true one by at most its error, and any item occurring more than
+ * total/capacity times is guaranteed to be present. Eviction scans for the minimum, which is
+ * fine for the small capacities used here. Synchronized; drain() empties it for the next interval.
+ */
+public final class SpaceSaving<T> {
+
+    private final int capacity;
+    private final Map<T, Counter<T>> counters;
+    private boolean evicted;
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 4 / 3 + 1);
+    }
+
+    public void add(T item) {
+        add(item, 1);
+    }
+
+    public synchronized void add(T item, long count) {
+        Counter<T> counter = counters.get(item);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter<>(item, 0);
+            } else {
+                Counter<T> min = null;
+                for (Counter<T> candidate : counters.values()) {
+                    if (min == null || candidate.count < min.count) {
+                        min = candidate;
+                    }
+                }
+                counters.remove(min.item);
+                counter = new Counter<>(item, min.count);
+                counter.count = min.count;
+                evicted = true;
+            }
+            counters.put(item, counter);
+        }
+        counter.count += count;
+    }
+
+    /**
+     * Current counters, largest count first
+     */
+    public synchronized List<Entry<T>> top() {
+        List<Entry<T>> entries = new ArrayList<>(counters.size());
+        counters.values().forEach(counter -> entries.add(new Entry<>(counter.item, counter.count, counter.error)));
+        entries.sort(Comparator.comparingLong(Entry<T>::count).reversed());
+        return entries;
+    }
+
+    /**
+     * Current counters, leaving the sketch empty
+     */
+    public synchronized List<Entry<T>> drain() {
+        List<Entry<T>> entries = top();
+        counters.clear();
+        evicted = false;
+        return entries;
+    }
+
+    /**
+     * Whether any item was evicted, i.e. the counts are no longer exact
+     */
+    public synchronized boolean isApproximate() {
+        return evicted;
+    }
+
+    public synchronized boolean isEmpty() {
+        return counters.isEmpty();
+    }
+
+    /**
+     * An item's count, an upper bound of its true count that is at most error too high
+     */
+    public record Entry<T>(T item, long count, long error) {
+    }
+
+    private static final class Counter<T> {
+
+        private final T item;
+        private final long error;
+        private long count;
+
+        Counter(T item, long error) {
+            this.item = item;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.sweta.portfolio.analytics;
+
+/**
+ * Where a visit came from, in the usual campaign terms: source (e.g. google, linkedin.com,
+ * newsletter), medium (organic, social, referral, email, cpc, ...) and campaign.
+ * Direct visits (no or an internal referrer, no UTM tags) are DIRECT.
+ */
+public record TrafficSource(String source, String medium, String campaign) {
+
+    public static final String NONE = "(none)";
+
+    public static final TrafficSource DIRECT = new TrafficSource("(direct)", NONE, NONE);
+}
@@ -0,0 +1,84 @@
+package com.sweta.portfolio.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Page-to-page transition counts in a dense capacity x capacity matrix of atomic longs,
+ * indexed by PageDictionary ids (row = from, column = to).
+ *
+ * Recording a transition is two lock-free increments: the cell and the row total the
+ * share of a transition is computed against. With the default 256 pages the matrix is 512 KB
+ * and a top-N query scans it once in a few tens of microseconds, no allocation per cell.
+ */
+public final class TransitionMatrix {
+
+    private final int capacity;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray outgoing;
+
+    public TransitionMatrix(int capacity) {
+        this.capacity = capacity;
+        this.counts = new AtomicLongArray(capacity * capacity);
+        this.outgoing = new AtomicLongArray(capacity);
+    }
+
+    public void record(int from, int to) {
+        counts.incrementAndGet(from * capacity + to);
+        outgoing.incrementAndGet(from);
+    }
+
+    public long count(int from, int to) {
+        return counts.get(from * capacity + to);
+    }
+
+    /**
+     * Transitions that left the page, the denominator for a transition's share
+     */
+    public long outgoing(int from) {
+        return outgoing.get(from);
+    }
+
+    /**
+     * The limit most frequent transitions among the first pages ids, most frequent first
+     */
+    public List<Transition> top(int pages, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        if (limit == 0) {
+            // Nothing to keep, and the scan below reads the floor from a non-empty queue
+            return List.of();
+        }
+        int rows = Math.min(pages, capacity);
+        PriorityQueue<Transition> best = new PriorityQueue<>(limit + 1, Comparator.comparingLong(Transition::count));
+        long floor = 0;
+        for (int from = 0; from < rows; from++) {
+            if (outgoing.get(from) <= floor && best.size() == limit) {
+                continue; // no cell in this row can beat the current minimum
+            }
+            int row = from * capacity;
+            for (int to = 0; to < rows; to++) {
+                long count = counts.get(row + to);
+                if (count > floor || (count > 0 && best.size() < limit)) {
+                    best.add(new Transition(from, to, count));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                    if (best.size() == limit) {
+                        floor = best.peek().count();
+                    }
+                }
+            }
+        }
+        List<Transition> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingLong(Transition::count).reversed());
+        return result;
+    }
+
+    public record Transition(int from, int to, long count) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.sweta.portfolio.analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Per-page view counts of the last window and of the window before it, kept in per-second buckets.
+ *
+ * Writers increment the current second's bucket array, one slot per page id in a small ring of
+ * open seconds (AtomicIntegerArray, no allocation). Once a second is over, advance() folds it:
+ * the bucket is read and zeroed for reuse, copied into the history ring of the last two windows,
+ * and the running sums move along - the new second is added to the current window, the second
+ * leaving it moves to the previous window, and the one leaving that is dropped. So recording is
+ * O(1), advancing is O(pages) per second and reading a window sum is O(1).
+ *
+ * record() is thread-safe; advance() and the sums belong to a single (scheduler) thread.
+ * A view recorded just as its second is folded can land in a later second, and views arriving
+ * while advance() is more than OPEN_SECONDS behind are dropped.
+ */
+public final class TrendWindow {
+
+    // Seconds that accept views before they are folded, enough for a late scheduler tick
+    private static final int OPEN_SECONDS = 8;
+
+    private final int pages;
+    private final int windowSeconds;
+    private final AtomicIntegerArray open;
+    private final int[] history;
+    private final long[] current;
+    private final long[] previous;
+
+    // First second not folded yet, i.e. the oldest one still accepting views
+    private volatile long firstOpen;
+
+    public TrendWindow(int pages, int windowSeconds, long nowMillis) {
+        if (pages <= 0 || windowSeconds <= 0) {
+            throw new IllegalArgumentException("pages and windowSeconds must be positive");
+        }
+        this.pages = pages;
+        this.windowSeconds = windowSeconds;
+        this.open = new AtomicIntegerArray(OPEN_SECONDS * pages);
+        this.history = new int[2 * windowSeconds * pages];
+        this.current = new long[pages];
+        this.previous = new long[pages];
+        this.firstOpen = Math.floorDiv(nowMillis, 1000);
+    }
+
+    /**
+     * Count one view of the page id at the given time; false when the second no longer (or not yet) accepts views
+     */
+    public boolean record(int page, long nowMillis) {
+        long second = Math.floorDiv(nowMillis, 1000);
+        long first = firstOpen;
+        if (second < first || second >= first + OPEN_SECONDS) {
+            return false;
+        }
+        open.incrementAndGet(Math.floorMod(second, OPEN_SECONDS) * pages + page);
+        return true;
+    }
+
+    /**
+     * Fold every second before the one nowMillis is in into the window sums
+     */
+    public void advance(long nowMillis) {
+        long now = Math.floorDiv(nowMillis, 1000);
+        long second = firstOpen;
+        if (now - second > 2L * windowSeconds + OPEN_SECONDS) {
+            // Stalled for longer than both windows: nothing in them is still valid
+            reset(now);
+            return;
+        }
+        for (; second < now; second++) {
+            fold(second);
+            firstOpen = second + 1;
+        }
+    }
+
+    /**
+     * Views of the page id over the last windowSeconds completed seconds
+     */
+    public long current(int page) {
+        return current[page];
+    }
+
+    /**
+     * Views of the page id over the windowSeconds before that
+     */
+    public long previous(int page) {
+        return previous[page];
+    }
+
+    public int windowSeconds() {
+        return windowSeconds;
+    }
+
+    private void fold(long second) {
+        int openBase = Math.floorMod(second, OPEN_SECONDS) * pages;
+        // The slot of this second two windows ago, whose views are leaving the previous window
+        int newest = Math.floorMod(second, 2 * windowSeconds) * pages;
+        // The second leaving the current window for the previous one
+        int middle = Math.floorMod(second - windowSeconds, 2 * windowSeconds) * pages;
+        for (int page = 0; page < pages; page++) {
+            int views = open.getAndSet(openBase + page, 0);
+            int moving = history[middle + page];
+            previous[page] += moving - history[newest + page];
+            current[page] += views - moving;
+            history[newest + page] = views;
+        }
+    }
+
+    private void reset(long now) {
+        for (int i = 0; i < open.length(); i++) {
+            open.set(i, 0);
+        }
+        Arrays.fill(history, 0);
+        Arrays.fill(current, 0);
+        Arrays.fill(previous, 0);
+        firstOpen = now;
+    }
+}
@@ -0,0 +1,60 @@
+package com.sweta.portfolio.analytics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded memoizing cache for values derived from request data (User-Agent, Referer, ...).
+ *
+ * Bounded with two generations instead of LRU bookkeeping: new entries go to the current
+ * generation, and when it is full it becomes the previous one and the old previous is dropped.
+ * Hits in the previous generation are copied forward, so keys still in use survive the rotation.
+ * A hit is one ConcurrentHashMap get, no locking. Holds at most 2 x generationSize entries.
+ */
+public final class TwoGenerationCache<K, V> {
+
+    private final int generationSize;
+
+    private volatile ConcurrentHashMap<K, V> current = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<K, V> previous = new ConcurrentHashMap<>();
+
+    public TwoGenerationCache(int generationSize) {
+        this.generationSize = Math.max(1, generationSize);
+    }
+
+    /**
+     * Cached value of the key, computing (and caching) it on a miss
+     */
+    public V get(K key, Function<? super K, ? extends V> compute) {
+        V value = current.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = previous.get(key);
+        if (value == null) {
+            value = compute.apply(key);
+        }
+        remember(key, value);
+        return value;
+    }
+
+    public void clear() {
+        synchronized (this) {
+            current = new ConcurrentHashMap<>();
+            previous = new ConcurrentHashMap<>();
+        }
+    }
+
+    private void remember(K key, V value) {
+        ConcurrentHashMap<K, V> generation = current;
+        generation.put(key, value);
+        if (generation.size() >= generationSize) {
+            synchronized (this) {
+                if (current == generation) {
+                    previous = generation;
+                    current = new ConcurrentHashMap<>();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.sweta.portfolio.analytics;
+
+/**
+ * What a User-Agent header says about the client: browser and OS family,
+ * device class (Desktop, Mobile, Tablet, Bot or Unknown) and whether it is a crawler/tool.
+ */
+public record UserAgent(String browser, String os, String deviceType, boolean bot) {
+
+    public static final UserAgent UNKNOWN = new UserAgent("Unknown", "Unknown", "Unknown", false);
+}
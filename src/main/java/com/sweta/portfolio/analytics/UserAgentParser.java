@@ -0,0 +1,78 @@
+package com.sweta.portfolio.analytics;
+
+import java.util.regex.Pattern;
+
+/**
+ * User-Agent classification with precompiled, case-insensitive patterns (no lowercased copy).
+ *
+ * Rules are checked in order and the first match wins, so the more specific tokens come first:
+ * Edge and Opera also send "Chrome", Chrome also sends "Safari", iPads also send "Mac OS X".
+ * Stateless and thread-safe; UserAgentService caches the results per distinct header.
+ */
+public final class UserAgentParser {
+
+    private static final int FLAGS = Pattern.CASE_INSENSITIVE;
+
+    private static final Pattern BOT = Pattern.compile(
+            "\\bbot\\b|bot[/;)_-]|crawl|spider|slurp|archiver|facebookexternalhit|embedly|preview|monitor|lighthouse"
+                    + "|headless|phantomjs|curl/|wget/|python-requests|python-urllib|httpclient|okhttp|go-http-client"
+                    + "|java/|axios/|postman", FLAGS);
+
+    private static final Rule[] BROWSERS = {
+            new Rule("Edge", Pattern.compile("\\bEdg(e|A|iOS)?/", FLAGS)),
+            new Rule("Opera", Pattern.compile("\\bOPR/|\\bOpera\\b", FLAGS)),
+            new Rule("Samsung Internet", Pattern.compile("SamsungBrowser/", FLAGS)),
+            new Rule("Firefox", Pattern.compile("\\bFirefox/|\\bFxiOS/", FLAGS)),
+            new Rule("Chrome", Pattern.compile("\\bChrome/|\\bCriOS/|\\bChromium/", FLAGS)),
+            new Rule("Safari", Pattern.compile("\\bVersion/[\\d.]+.*\\bSafari/|\\bMobile/\\w+\\s*$", FLAGS)),
+            new Rule("Internet Explorer", Pattern.compile("\\bMSIE\\b|\\bTrident/", FLAGS))
+    };
+
+    private static final Rule[] OPERATING_SYSTEMS = {
+            new Rule("Windows", Pattern.compile("\\bWindows\\b", FLAGS)),
+            new Rule("iOS", Pattern.compile("\\b(iPhone|iPad|iPod)\\b", FLAGS)),
+            new Rule("Android", Pattern.compile("\\bAndroid\\b", FLAGS)),
+            new Rule("ChromeOS", Pattern.compile("\\bCrOS\\b", FLAGS)),
+            new Rule("macOS", Pattern.compile("\\bMac OS X\\b|\\bMacintosh\\b", FLAGS)),
+            new Rule("Linux", Pattern.compile("\\bLinux\\b|\\bX11\\b", FLAGS))
+    };
+
+    // Android tablets leave out "Mobile", Android phones include it
+    private static final Pattern TABLET = Pattern.compile("\\biPad\\b|\\bTablet\\b|\\bKindle\\b|\\bSilk/|\\bAndroid\\b(?!.*\\bMobile\\b)", FLAGS);
+    private static final Pattern MOBILE = Pattern.compile("\\bMobi|\\biPhone\\b|\\biPod\\b|\\bAndroid\\b|\\bWindows Phone\\b", FLAGS);
+
+    private UserAgentParser() {
+    }
+
+    public static UserAgent parse(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return UserAgent.UNKNOWN;
+        }
+        boolean bot = BOT.matcher(userAgent).find();
+        String browser = first(BROWSERS, userAgent);
+        String os = first(OPERATING_SYSTEMS, userAgent);
+        String deviceType;
+        if (bot) {
+            deviceType = "Bot";
+        } else if (TABLET.matcher(userAgent).find()) {
+            deviceType = "Tablet";
+        } else if (MOBILE.matcher(userAgent).find()) {
+            deviceType = "Mobile";
+        } else {
+            deviceType = "Desktop";
+        }
+        return new UserAgent(browser, os, deviceType, bot);
+    }
+
+    private static String first(Rule[] rules, String userAgent) {
+        for (Rule rule : rules) {
+            if (rule.pattern.matcher(userAgent).find()) {
+                return rule.name;
+            }
+        }
+        return "Other";
+    }
+
+    private record Rule(String name, Pattern pattern) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.sweta.portfolio.config;
+
+import com.sweta.portfolio.service.BotFilterService;
+import com.sweta.portfolio.service.BotFilterService.Verdict;
+import com.sweta.portfolio.service.ClientIpService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Runs BotFilterService in front of the visitor tracking endpoints. Rejected requests get an
+ * empty 204 before the body is read, so no event is built, serialized or published for them.
+ * Admitted automated requests carry BotFilterService.BOT_ATTRIBUTE, so their events are flagged as bots.
+ */
+@Component
+@RequiredArgsConstructor
+public class BotFilterInterceptor implements HandlerInterceptor {
+
+    private final BotFilterService botFilterService;
+    private final ClientIpService clientIpService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if ("OPTIONS".equals(request.getMethod())) {
+            return true;
+        }
+        boolean sessionStart = request.getRequestURI().endsWith("/visitor/session");
+        Verdict verdict = botFilterService.classify(clientIpService.resolve(request), request.getHeader("User-Agent"), sessionStart);
+        if (verdict == Verdict.HUMAN) {
+            return true;
+        }
+        if (botFilterService.admit(verdict)) {
+            request.setAttribute(BotFilterService.BOT_ATTRIBUTE, Boolean.TRUE);
+            return true;
+        }
+        response.setStatus(HttpStatus.NO_CONTENT.value());
+        return false;
+    }
+}
@@ -0,0 +1,65 @@
+package com.sweta.portfolio.config;
+
+import com.sweta.portfolio.kafka.BroadcastRelayConsumer;
+import com.sweta.portfolio.kafka.ContactEventConsumer;
+import com.sweta.portfolio.kafka.ContactStatusConsumer;
+import com.sweta.portfolio.kafka.NodeStatsConsumer;
+import com.sweta.portfolio.kafka.VisitorEventConsumer;
+import com.sweta.portfolio.kafka.transport.EventHandler;
+import com.sweta.portfolio.kafka.transport.EventTransportRouter;
+import com.sweta.portfolio.kafka.transport.InProcessEventTransport;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+public class EventTransportConfig {
+
+    @Value("${kafka.topics.contact-events}")
+    private String contactEventsTopic;
+
+    @Value("${kafka.topics.visitor-events}")
+    private String visitorEventsTopic;
+
+    @Value("${kafka.topics.contact-status}")
+    private String contactStatusTopic;
+
+    @Value("${kafka.topics.node-stats}")
+    private String nodeStatsTopic;
+
+    @Value("${kafka.topics.ws-broadcasts}")
+    private String wsBroadcastsTopic;
+
+    /**
+     * Subscribe the consumers to the in-process bus for every topic routed there.
+     * Runs once all singletons exist, so the handlers are the transactional proxies,
+     * the same beans the Kafka listeners are invoked on.
+     */
+    @Bean
+    public SmartInitializingSingleton inProcessSubscriptions(EventTransportRouter router,
+                                                             InProcessEventTransport inProcessTransport,
+                                                             ContactEventConsumer contactEventConsumer,
+                                                             VisitorEventConsumer visitorEventConsumer,
+                                                             ContactStatusConsumer contactStatusConsumer,
+                                                             NodeStatsConsumer nodeStatsConsumer,
+                                                             BroadcastRelayConsumer broadcastRelayConsumer) {
+        return () -> {
+            Map<String, EventHandler> handlers = new LinkedHashMap<>();
+            handlers.put(contactEventsTopic, contactEventConsumer::onContactEvent);
+            handlers.put(visitorEventsTopic, (key, event) -> visitorEventConsumer.consumeVisitorEvent(event));
+            handlers.put(contactStatusTopic, contactStatusConsumer::onStatusEvent);
+            handlers.put(nodeStatsTopic, nodeStatsConsumer::onNodeStats);
+            handlers.put(wsBroadcastsTopic, broadcastRelayConsumer::onBroadcast);
+
+            handlers.forEach((topic, handler) -> {
+                if (router.isInProcess(topic)) {
+                    inProcessTransport.subscribe(topic, handler);
+                }
+            });
+        };
+    }
+}
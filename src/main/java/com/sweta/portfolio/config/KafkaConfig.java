@@ -1,6 +1,7 @@
 package com.sweta.portfolio.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,6 +21,15 @@ public class KafkaConfig {
     @Value("${kafka.topics.visitor-events}")
     private String visitorEventsTopic;
     
+    @Value("${kafka.topics.contact-status}")
+    private String contactStatusTopic;
+    
+    @Value("${kafka.topics.node-stats}")
+    private String nodeStatsTopic;
+    
+    @Value("${kafka.topics.ws-broadcasts}")
+    private String wsBroadcastsTopic;
+    
     /**
      * Create Kafka topic for contact events
      * This topic will store all contact-related events
@@ -46,6 +56,51 @@ public class KafkaConfig {
                 .build();
     }
     
+    /**
+     * Create compacted topic for contact lifecycle status
+     * Keyed by contactId, so compaction keeps the latest status of every contact
+     * and new instances can rebuild their local status store by reading it from the start
+     */
+    @Bean
+    public NewTopic contactStatusTopic() {
+        return TopicBuilder
+                .name(contactStatusTopic)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+    
+    /**
+     * Create compacted topic for the partial live stats of every backend node
+     * Keyed by node id, so compaction keeps one record per node (a tombstone once it leaves);
+     * a single partition keeps it cheap for every node to read the whole topic
+     */
+    @Bean
+    public NewTopic nodeStatsTopic() {
+        return TopicBuilder
+                .name(nodeStatsTopic)
+                .partitions(1)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+    
+    /**
+     * Create topic for WebSocket broadcasts every node relays to its own clients
+     * Keyed by destination, so each destination stays in order; nodes only read new records,
+     * so an hour of retention is plenty
+     */
+    @Bean
+    public NewTopic wsBroadcastsTopic() {
+        return TopicBuilder
+                .name(wsBroadcastsTopic)
+                .partitions(3)
+                .replicas(1)
+                .config(TopicConfig.RETENTION_MS_CONFIG, "3600000")
+                .build();
+    }
+    
     /**
      * Configure JSON message converter
      * This allows Kafka to send/receive JSON messages
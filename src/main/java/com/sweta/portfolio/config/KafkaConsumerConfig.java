@@ -2,17 +2,20 @@ package com.sweta.portfolio.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import com.sweta.portfolio.kafka.serde.EventDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -32,25 +35,16 @@ public class KafkaConsumerConfig {
      */
     @Bean
     public ConsumerFactory<String, Object> consumerFactory() {
-        Map<String, Object> props = new HashMap<>();
-        
-        // Kafka broker configuration
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
-        
-        // Deserializer configuration
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
-        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class.getName());
-        
-        // JSON deserializer specific configuration
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
-        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "com.fasterxml.jackson.databind.JsonNode");
-        
-        return new DefaultKafkaConsumerFactory<>(props);
+        return new DefaultKafkaConsumerFactory<>(consumerProps("earliest"));
+    }
+    
+    /**
+     * Consumers of the ws-broadcasts topic: a node only relays what is broadcast while it runs,
+     * so its throw-away group starts at the end of the topic instead of replaying the last hour
+     */
+    @Bean
+    public ConsumerFactory<String, Object> broadcastRelayConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerProps("latest"));
     }
     
     /**
@@ -75,4 +69,53 @@ public class KafkaConsumerConfig {
         
         return factory;
     }
+    
+    /**
+     * Container of the visitor-events listener: VisitorEventConsumer commits the offsets itself once
+     * its checkpoint covers them, seeks on assignment and checkpoints before partitions are revoked.
+     * Idle events give it the consumer thread to commit on while no records arrive.
+     * Lazy because registering the listener of VisitorEventConsumer looks this factory up.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> visitorEventsContainerFactory(
+            @Lazy ConsumerAwareRebalanceListener visitorEventConsumer,
+            @Value("${visitor.checkpoint.interval:30s}") Duration checkpointInterval) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setConsumerRebalanceListener(visitorEventConsumer);
+        factory.getContainerProperties().setIdleEventInterval(checkpointInterval.toMillis());
+        factory.setConcurrency(1);
+        factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler());
+        return factory;
+    }
+    
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> broadcastRelayContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(broadcastRelayConsumerFactory());
+        factory.setConcurrency(1);
+        factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler());
+        return factory;
+    }
+    
+    private Map<String, Object> consumerProps(String autoOffsetReset) {
+        Map<String, Object> props = new HashMap<>();
+        
+        // Kafka broker configuration
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        
+        // Deserializer configuration
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        // Binds each record straight to its event class (picked from the eventType header/field)
+        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, EventDeserializer.class.getName());
+        
+        return props;
+    }
 }
\ No newline at end of file
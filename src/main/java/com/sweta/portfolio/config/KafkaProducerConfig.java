@@ -2,13 +2,13 @@ package com.sweta.portfolio.config;
 
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
+import com.sweta.portfolio.kafka.serde.EventSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -19,16 +19,23 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
     
+    @Value("${kafka.serialization.binary-topics:}")
+    private String binaryTopics;
+    
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configs = new HashMap<>();
         configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         
-        // Important: This tells the producer NOT to add type headers
-        // We'll handle the JSON as generic objects
-        configs.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        // JSON with the shared mapper; adds only an "eventType" header (no Java class names)
+        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, EventSerializer.class);
+        
+        // Topics listed here get the compact binary format instead of JSON
+        configs.put(EventSerializer.BINARY_TOPICS_CONFIG, binaryTopics);
+        
+        // Wait up to 5ms for more records, so a beacon batch (or a burst) leaves as one produce request
+        configs.put(ProducerConfig.LINGER_MS_CONFIG, 5);
         
         return new DefaultKafkaProducerFactory<>(configs);
     }
@@ -0,0 +1,57 @@
+package com.sweta.portfolio.config;
+
+import com.sweta.portfolio.kafka.streams.VisitorAnalyticsTopology;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.kstream.KStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@EnableKafkaStreams
+@Profile("!ci")
+public class KafkaStreamsConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    @Value("${kafka.topics.visitor-events}")
+    private String visitorEventsTopic;
+
+    @Value("${kafka.streams.state-dir:${java.io.tmpdir}/portfolio-streams}")
+    private String stateDir;
+
+    /**
+     * Kafka Streams configuration
+     * The state dir holds the local RocksDB window stores
+     */
+    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
+    public KafkaStreamsConfiguration kafkaStreamsConfiguration() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationName + "-visitor-analytics");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+        props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        return new KafkaStreamsConfiguration(props);
+    }
+
+    /**
+     * Register the visitor analytics topology
+     */
+    @Bean
+    public KStream<String, Object> visitorAnalyticsStream(StreamsBuilder streamsBuilder) {
+        return VisitorAnalyticsTopology.build(streamsBuilder, visitorEventsTopic);
+    }
+}
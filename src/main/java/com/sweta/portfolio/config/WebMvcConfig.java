@@ -0,0 +1,22 @@
+package com.sweta.portfolio.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final BotFilterInterceptor botFilterInterceptor;
+
+    /**
+     * Bot filtering only guards the endpoints that publish visitor events
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(botFilterInterceptor)
+                .addPathPatterns("/visitor/session", "/visitor/pageview", "/visitor/events", "/visitor/heartbeat");
+    }
+}
@@ -98,6 +98,17 @@ public class ContactController {
         return ResponseEntity.ok(contact);
     }
 
+    /**
+     * Get the latest status of a contact
+     * GET /api/contacts/{id}/status
+     */
+    @GetMapping("/{id}/status")
+    @Operation(summary = "Get contact status",
+            description = "Latest lifecycle status, served from the local status store")
+    public ResponseEntity<Map<String, String>> getContactStatus(@PathVariable String id) {
+        return ResponseEntity.ok(contactService.getContactStatus(id));
+    }
+
     /**
      * Get contact analytics
      * GET /api/contacts/analytics
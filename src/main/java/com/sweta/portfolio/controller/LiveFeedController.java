@@ -0,0 +1,32 @@
+package com.sweta.portfolio.controller;
+
+import com.sweta.portfolio.dto.WebSocketMessages.FeedUpdate;
+import com.sweta.portfolio.service.DeltaFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+/**
+ * STOMP side of the delta feeds (see DeltaFeed)
+ */
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class LiveFeedController {
+
+    private final DeltaFeedService deltaFeedService;
+
+    /**
+     * Subscribing to /app/snapshot/{feed} answers once, on that subscription, with the feed's full state
+     */
+    @SubscribeMapping("/snapshot/{feed}")
+    public FeedUpdate snapshot(@DestinationVariable String feed) {
+        // No reply for an unknown feed
+        return deltaFeedService.snapshot(feed).orElseGet(() -> {
+            log.debug("Snapshot requested for unknown feed {}", feed);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.sweta.portfolio.controller;
+
+import com.sweta.portfolio.dto.WindowedStatDTO;
+import com.sweta.portfolio.service.VisitorAnalyticsQueryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/visitor/analytics")
+@RequiredArgsConstructor
+@Slf4j
+@Profile("!ci")
+@Tag(name = "Visitor Analytics", description = "Windowed visitor aggregates computed by Kafka Streams")
+public class VisitorAnalyticsController {
+
+    private static final int MAX_MINUTES = 24 * 60;
+
+    private final VisitorAnalyticsQueryService queryService;
+
+    /**
+     * Page views per page per minute
+     * GET /visitor/analytics/page-views?minutes=15
+     */
+    @GetMapping("/page-views")
+    @Operation(summary = "Page views per minute")
+    public ResponseEntity<List<WindowedStatDTO>> getPageViews(@RequestParam(defaultValue = "15") int minutes) {
+        return query(minutes, queryService::getPageViewsPerMinute);
+    }
+
+    /**
+     * Sessions per device type over sliding 5 minute windows
+     * GET /visitor/analytics/devices?minutes=15
+     */
+    @GetMapping("/devices")
+    @Operation(summary = "Sessions per device type")
+    public ResponseEntity<List<WindowedStatDTO>> getDevices(@RequestParam(defaultValue = "15") int minutes) {
+        return query(minutes, queryService::getSessionsPerDevice);
+    }
+
+    /**
+     * Average time spent per page per minute
+     * GET /visitor/analytics/time-spent?minutes=15
+     */
+    @GetMapping("/time-spent")
+    @Operation(summary = "Average time spent per page")
+    public ResponseEntity<List<WindowedStatDTO>> getTimeSpent(@RequestParam(defaultValue = "15") int minutes) {
+        return query(minutes, queryService::getAverageTimeSpent);
+    }
+
+    private ResponseEntity<List<WindowedStatDTO>> query(int minutes, Function<Duration, List<WindowedStatDTO>> query) {
+        if (minutes <= 0 || minutes > MAX_MINUTES) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(query.apply(Duration.ofMinutes(minutes)));
+        } catch (IllegalStateException | InvalidStateStoreException e) {
+            // Streams still starting or rebalancing - the stores come back shortly
+            log.warn("Visitor analytics store not available: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
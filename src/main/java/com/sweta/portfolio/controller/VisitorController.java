@@ -2,18 +2,34 @@ package com.sweta.portfolio.controller;
 
 
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
 
+import com.sweta.portfolio.dto.TrendingPageDTO;
+import com.sweta.portfolio.dto.VisitorEventDTO;
+import com.sweta.portfolio.dto.VisitorSessionDTO;
+import com.sweta.portfolio.service.ClientIpService;
+import com.sweta.portfolio.service.TrendingPageService;
 import com.sweta.portfolio.service.VisitorTrackingService;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -25,9 +41,20 @@ import java.util.HashMap;
 public class VisitorController {
 
     private final VisitorTrackingService visitorTrackingService;
+    private final ObjectMapper objectMapper;
+    private final TrendingPageService trendingPageService;
+    private final ClientIpService clientIpService;
+    
+    @Value("${visitor.events.max-batch-size:50}")
+    private int maxBatchSize;
+    
+    @Value("${visitor.events.max-body-size:64KB}")
+    private DataSize maxBodySize;
+    
     private static final String SUCCESS_STATUS = "SUCCESS";
     private static final String ERROR_STATUS = "ERROR";
     private static final String UP_STATUS = "UP";
+    private static final int MAX_TRENDING = 100;
     
     // Response field keys
     private static final String STATUS_KEY = "status";
@@ -35,20 +62,28 @@ public class VisitorController {
     private static final String SESSION_ID_KEY = "sessionId";
     /**
      * Track when someone visits the portfolio
-     * Called automatically when Angular app loads
+     * Called automatically when Angular app loads, with document.referrer and the landing URL
+     * in the JSON body or as query parameters (the body wins); without a referrer the Referer header is used
      */
     @PostMapping("/session")
-    public ResponseEntity<Map<String, String>> trackSession(HttpServletRequest request,HttpServletResponse response) {
+    public ResponseEntity<Map<String, String>> trackSession(@RequestBody(required = false) VisitorSessionDTO body,
+                                                            @RequestParam(required = false) String referrer,
+                                                            @RequestParam(required = false) String landingUrl,
+                                                            HttpServletRequest request, HttpServletResponse response) {
         log.info("=== Received session tracking request ===");
         try {
-            visitorTrackingService.trackVisitorSession(request,response);
+            if (body != null) {
+                referrer = body.getReferrer() != null ? body.getReferrer() : referrer;
+                landingUrl = body.getLandingUrl() != null ? body.getLandingUrl() : landingUrl;
+            }
+            String sessionId = visitorTrackingService.trackVisitorSession(request, response, referrer, landingUrl);
             
             Map<String, String> responseMap = new HashMap<>();
             responseMap.put(STATUS_KEY, SUCCESS_STATUS);
-            responseMap.put(SESSION_ID_KEY, request.getSession().getId());
+            responseMap.put(SESSION_ID_KEY, sessionId);
             responseMap.put(MESSAGE_KEY, "Session tracked successfully");
             
-            log.info("Session tracked successfully: {}", request.getSession().getId());
+            log.info("Session tracked successfully: {}", sessionId);
             return ResponseEntity.ok(responseMap);
 
         } catch (Exception e) {
@@ -72,8 +107,12 @@ public class VisitorController {
             HttpServletRequest request) {
 
         log.info("=== Received page view tracking request: {} ===", payload);
+        String sessionId = visitorTrackingService.findSessionId(request);
+        if (sessionId == null) {
+            // No session cookie yet - the client should POST /visitor/session first
+            return ResponseEntity.notFound().build();
+        }
         try {
-            String sessionId = request.getSession().getId();
             String page = (String) payload.get("page");
             String previousPage = (String) payload.get("previousPage");
             Long timeSpent = payload.get("timeSpent") != null ?
@@ -98,17 +137,98 @@ public class VisitorController {
         }
     }
 
+    /**
+     * Track a batch of page view, scroll and heartbeat events in one request
+     * Meant for navigator.sendBeacon: the body is a JSON array, sent as application/json
+     * or as text/plain (a beacon with a text body needs no CORS preflight).
+     * The body is read up to visitor.events.max-body-size and parsed one element at a time,
+     * so an oversized batch is rejected before it is buffered or bound
+     */
+    @PostMapping(value = "/events", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<Map<String, Object>> trackEvents(HttpServletRequest request) throws IOException {
+        String sessionId = visitorTrackingService.findSessionId(request);
+        if (sessionId == null) {
+            // No session cookie yet - the client should POST /visitor/session first
+            return ResponseEntity.notFound().build();
+        }
+        
+        long maxBodyBytes = maxBodySize.toBytes();
+        if (request.getContentLengthLong() > maxBodyBytes) {
+            return batchTooLarge();
+        }
+        // Chunked bodies have no Content-Length: read one byte past the limit to tell
+        byte[] body = request.getInputStream().readNBytes((int) Math.min(maxBodyBytes + 1, Integer.MAX_VALUE));
+        if (body.length > maxBodyBytes) {
+            return batchTooLarge();
+        }
+        
+        List<VisitorEventDTO> batch = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return invalidBatch();
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (batch.size() == maxBatchSize) {
+                    return batchTooLarge();
+                }
+                batch.add(objectMapper.readValue(parser, VisitorEventDTO.class));
+            }
+        } catch (JsonProcessingException e) {
+            return invalidBatch();
+        }
+        
+        int accepted = visitorTrackingService.trackEvents(sessionId, batch);
+        return ResponseEntity.accepted().body(Map.of(
+                STATUS_KEY, SUCCESS_STATUS,
+                "accepted", accepted,
+                "rejected", batch.size() - accepted));
+    }
+
+    private ResponseEntity<Map<String, Object>> invalidBatch() {
+        return ResponseEntity.badRequest().body(Map.of(STATUS_KEY, ERROR_STATUS, MESSAGE_KEY, "Expected a JSON array of events"));
+    }
+
+    private ResponseEntity<Map<String, Object>> batchTooLarge() {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of(STATUS_KEY, ERROR_STATUS,
+                MESSAGE_KEY, "At most " + maxBatchSize + " events and " + maxBodySize.toBytes() + " bytes per batch"));
+    }
+
+    /**
+     * Keep the current session counted as active
+     * Sent periodically by open pages, well within visitor.sessions.idle-timeout
+     */
+    @PostMapping("/heartbeat")
+    public ResponseEntity<Void> heartbeat(HttpServletRequest request) {
+        if (!visitorTrackingService.trackHeartbeat(request)) {
+            // No session cookie yet - the client should POST /visitor/session first
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Pages whose views are accelerating, last visitor.trending.window against the window before;
+     * updates are pushed to /topic/trending
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingPageDTO>> getTrending(@RequestParam(defaultValue = "10") int limit) {
+        if (limit <= 0 || limit > MAX_TRENDING) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(trendingPageService.trending(limit));
+    }
+
     /**
      * Get current session info (for debugging)
      */
     @GetMapping("/session/info")
     public ResponseEntity<Map<String, String>> getSessionInfo(HttpServletRequest request) {
-        String sessionId = request.getSession().getId();
-        String ipAddress = getClientIP(request);
+        String sessionId = visitorTrackingService.findSessionId(request);
+        String ipAddress = clientIpService.resolve(request);
         String userAgent = request.getHeader("User-Agent");
 
         Map<String, String> response = new HashMap<>();
-        response.put(SESSION_ID_KEY, sessionId);
+        response.put(SESSION_ID_KEY, sessionId != null ? sessionId : "None");
         response.put("ipAddress", ipAddress);
         response.put("userAgent", userAgent != null ? userAgent : "Unknown");
         
@@ -142,26 +262,14 @@ public class VisitorController {
         return ResponseEntity.ok(response);
     }
 
-    private String getClientIP(HttpServletRequest request) {
-        String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader != null && !xfHeader.isEmpty()) {
-            return xfHeader.split(",")[0].trim();
-        }
-        
-        String xRealIP = request.getHeader("X-Real-IP");
-        if (xRealIP != null && !xRealIP.isEmpty()) {
-            return xRealIP;
-        }
-        
-        return request.getRemoteAddr();
-    }
-
     @PostConstruct
     public void init() {
         log.info("====== VisitorController created successfully ======");
         log.info("Available endpoints:");
         log.info("POST /api/visitor/session - Track visitor sessions");
         log.info("POST /api/visitor/pageview - Track page views");
+        log.info("POST /api/visitor/events - Track a batch of page view, scroll and heartbeat events");
+        log.info("POST /api/visitor/heartbeat - Keep session active");
         log.info("GET /api/visitor/session/info - Get session info");
         log.info("GET /api/visitor/test - Test endpoint");
         log.info("GET /api/visitor/health - Health check");
@@ -0,0 +1,159 @@
+package com.sweta.portfolio.controller;
+
+import com.sweta.portfolio.dto.EngagementDTO;
+import com.sweta.portfolio.dto.FunnelDTO;
+import com.sweta.portfolio.dto.PagePathDTO;
+import com.sweta.portfolio.dto.PageViewBucketDTO;
+import com.sweta.portfolio.dto.TrafficSourceDTO;
+import com.sweta.portfolio.dto.UniqueVisitorHistoryDTO;
+import com.sweta.portfolio.entity.PageViewRollup.Granularity;
+import com.sweta.portfolio.service.EngagementHistogramService;
+import com.sweta.portfolio.service.LivePageViewerService;
+import com.sweta.portfolio.service.NavigationPathService;
+import com.sweta.portfolio.service.PageViewRollupService;
+import com.sweta.portfolio.service.ReferrerRollupService;
+import com.sweta.portfolio.service.UniqueVisitorService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/visitor/stats")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Visitor Statistics", description = "Aggregated visitor statistics")
+public class VisitorStatsController {
+
+    private static final int MAX_DAYS = 366;
+    private static final int MAX_PATHS = 100;
+
+    // Longest range one page-views request may cover, per bucket size
+    private static final Duration MAX_MINUTE_RANGE = Duration.ofDays(1);
+    private static final Duration MAX_HOUR_RANGE = Duration.ofDays(90);
+
+    private final UniqueVisitorService uniqueVisitorService;
+    private final PageViewRollupService pageViewRollupService;
+    private final NavigationPathService navigationPathService;
+    private final ReferrerRollupService referrerRollupService;
+    private final EngagementHistogramService engagementHistogramService;
+    private final LivePageViewerService livePageViewerService;
+
+    /**
+     * Unique visitors per day for the last N days, with week and month to date
+     * GET /visitor/stats/unique?days=30
+     */
+    @GetMapping("/unique")
+    @Operation(summary = "Unique visitor history",
+            description = "HyperLogLog estimates (about 1.6% error), merged across all instances")
+    public ResponseEntity<UniqueVisitorHistoryDTO> getUniqueVisitors(@RequestParam(defaultValue = "30") int days) {
+        if (days <= 0 || days > MAX_DAYS) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDate today = LocalDate.now();
+        return ResponseEntity.ok(uniqueVisitorService.history(today.minusDays(days - 1L), today));
+    }
+
+    /**
+     * Page views per minute or hour bucket in [from, to), optionally for one page
+     * GET /visitor/stats/page-views?granularity=hour&from=2025-01-01T00:00&to=2025-01-02T00:00&page=projects
+     */
+    @GetMapping("/page-views")
+    @Operation(summary = "Page view history",
+            description = "Time-bucketed page views and average time spent; minute ranges up to 1 day, hour ranges up to 90 days")
+    public ResponseEntity<List<PageViewBucketDTO>> getPageViews(
+            @RequestParam(defaultValue = "hour") String granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String page) {
+        Granularity bucket;
+        try {
+            bucket = Granularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Duration maxRange = bucket == Granularity.MINUTE ? MAX_MINUTE_RANGE : MAX_HOUR_RANGE;
+        if (!from.isBefore(to) || Duration.between(from, to).compareTo(maxRange) > 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(pageViewRollupService.range(bucket, from, to, page));
+    }
+
+    /**
+     * Most frequent page-to-page transitions
+     * GET /visitor/stats/paths?limit=10
+     */
+    @GetMapping("/paths")
+    @Operation(summary = "Top navigation paths",
+            description = "Page-to-page transitions seen by this instance since it started, most frequent first")
+    public ResponseEntity<List<PagePathDTO>> getTopPaths(@RequestParam(defaultValue = "10") int limit) {
+        if (limit <= 0 || limit > MAX_PATHS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(navigationPathService.topPaths(limit));
+    }
+
+    /**
+     * Sessions reaching each step of the configured funnels (visitor.paths.funnels)
+     * GET /visitor/stats/funnels
+     */
+    @GetMapping("/funnels")
+    @Operation(summary = "Funnel conversion",
+            description = "Per-step session counts and conversion rates of the configured funnels")
+    public ResponseEntity<List<FunnelDTO>> getFunnels() {
+        return ResponseEntity.ok(navigationPathService.funnelConversion());
+    }
+
+    /**
+     * Traffic sources with the most sessions in a date range (inclusive)
+     * GET /visitor/stats/sources?from=2025-01-01&to=2025-01-31&limit=10&by=campaign
+     */
+    @GetMapping("/sources")
+    @Operation(summary = "Top traffic sources",
+            description = "Sessions per referrer domain or UTM source and medium, or per campaign with by=campaign; ranges up to a year")
+    public ResponseEntity<List<TrafficSourceDTO>> getTopSources(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "source") String by) {
+        boolean byCampaign = "campaign".equalsIgnoreCase(by);
+        if (from.isAfter(to) || from.plusDays(MAX_DAYS).isBefore(to) || limit <= 0 || limit > MAX_PATHS
+                || (!byCampaign && !"source".equalsIgnoreCase(by))) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(referrerRollupService.topSources(from, to, limit, byCampaign));
+    }
+
+    /**
+     * Time-on-page and scroll depth percentiles per page over the recent window
+     * GET /visitor/stats/engagement?page=projects
+     */
+    @GetMapping("/engagement")
+    @Operation(summary = "Engagement percentiles",
+            description = "p50/p90/p99 of time on page (seconds) and scroll depth (percent) seen by this instance, "
+                    + "over the last visitor.engagement.window-intervals intervals")
+    public ResponseEntity<List<EngagementDTO>> getEngagement(@RequestParam(required = false) String page) {
+        return ResponseEntity.ok(engagementHistogramService.snapshot(page));
+    }
+
+    /**
+     * Active viewers per page right now, the initial state for /topic/live-stats/{page} subscribers
+     * GET /visitor/stats/live-pages
+     */
+    @GetMapping("/live-pages")
+    @Operation(summary = "Live viewers per page",
+            description = "Live sessions of the whole cluster per page they are on; changes are pushed to /topic/live-stats/{page}")
+    public ResponseEntity<Map<String, Long>> getLivePages() {
+        return ResponseEntity.ok(livePageViewerService.globalSnapshot());
+    }
+}
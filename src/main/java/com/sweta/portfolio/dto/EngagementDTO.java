@@ -0,0 +1,30 @@
+package com.sweta.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Time-on-page (seconds) and scroll depth (percent) distributions of one page
+ * over the recent window (visitor.engagement.window-intervals x interval)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EngagementDTO {
+    private String page;
+    private Distribution timeOnPage;
+    private Distribution scrollDepth;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Distribution {
+        private long count;
+        private double mean;
+        private long p50;
+        private long p90;
+        private long p99;
+        private long max;
+    }
+}
@@ -0,0 +1,29 @@
+package com.sweta.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Sessions reaching each step of a funnel, with the conversion from the previous step
+ * and from the first step
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FunnelDTO {
+    private String name;
+    private List<Step> steps;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Step {
+        private String page;
+        private long sessions;
+        private double conversionFromPrevious;
+        private double conversionFromStart;
+    }
+}
@@ -9,4 +9,9 @@ public class LiveStatsDTO {
     private int activeViewers;
     private int countries;
     private int profileViewsThisMonth;
+    
+    // Distinct visitors (HyperLogLog estimates), not raw event counts
+    private long uniqueVisitorsToday;
+    private long uniqueVisitorsThisWeek;
+    private long uniqueVisitorsThisMonth;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.sweta.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How often visitors went from one page to the next; share is the fraction of all
+ * navigation away from the from page that took this path
+ * (from is "(entry)" for a session's first page, to is "(exit)" when the tab closed)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PagePathDTO {
+    private String from;
+    private String to;
+    private long count;
+    private double share;
+}
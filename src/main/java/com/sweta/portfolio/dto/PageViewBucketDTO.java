@@ -0,0 +1,19 @@
+package com.sweta.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Page views of one page in one minute or hour bucket, for traffic charts
+ */
+@Data
+@AllArgsConstructor
+public class PageViewBucketDTO {
+    private String page;
+    private LocalDateTime bucketStart;
+    private long views;
+    // Seconds spent on the page by visitors who left it in this bucket, per view; null when the bucket has no views
+    private Double averageTimeSpent;
+}
@@ -0,0 +1,14 @@
+package com.sweta.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Live viewers of one page, as broadcast on /topic/live-stats/{page}
+ */
+@Data
+@AllArgsConstructor
+public class PageViewersDTO {
+    private String page;
+    private long activeViewers;
+}
@@ -0,0 +1,23 @@
+package com.sweta.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sessions from one traffic source over a date range
+ * (campaign is null when the results are grouped by source and medium only)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrafficSourceDTO {
+    private String source;
+    private String medium;
+    private String campaign;
+    private long sessions;
+
+    public TrafficSourceDTO(String source, String medium, long sessions) {
+        this(source, medium, null, sessions);
+    }
+}
@@ -0,0 +1,20 @@
+package com.sweta.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A page whose views are accelerating: views in the last window against the window before,
+ * growth as a fraction of the previous views, and the score pages are ranked by
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingPageDTO {
+    private String page;
+    private long views;
+    private long previousViews;
+    private double growth;
+    private double score;
+}
@@ -0,0 +1,32 @@
+package com.sweta.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Unique visitors per day plus the de-duplicated total of the whole range
+ * (a visitor seen on several days counts once in uniqueVisitors)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UniqueVisitorHistoryDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private long uniqueVisitors;
+    private long uniqueVisitorsThisWeek;
+    private long uniqueVisitorsThisMonth;
+    private List<Day> days;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Day {
+        private LocalDate date;
+        private long uniqueVisitors;
+    }
+}
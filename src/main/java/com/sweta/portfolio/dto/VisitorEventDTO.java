@@ -0,0 +1,22 @@
+package com.sweta.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a POST /visitor/events beacon batch
+ * type is page_view, scroll or heartbeat; the other fields depend on it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VisitorEventDTO {
+    private String type;
+    private String page;
+    private String previousPage;
+    // Seconds spent on previousPage (page_view)
+    private Long timeSpent;
+    // Percentage of the page seen, 0 - 100 (scroll)
+    private Integer depth;
+}
@@ -0,0 +1,18 @@
+package com.sweta.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional body of POST /visitor/session: how the visit started, as the page itself sees it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VisitorSessionDTO {
+    // document.referrer; an empty string is a visit without referrer
+    private String referrer;
+    // location.href of the page the visit landed on
+    private String landingUrl;
+}
@@ -0,0 +1,46 @@
+package com.sweta.portfolio.dto;
+
+import java.util.Map;
+
+/**
+ * Payloads WebSocketService broadcasts, serialized once per broadcast by ClusterBroadcaster.
+ * Timestamps are epoch milliseconds; type tells clients sharing a destination what they got.
+ */
+public final class WebSocketMessages {
+
+    public static final String CONTACT_UPDATE = "CONTACT_UPDATE";
+    public static final String VISITOR_ACTIVITY = "VISITOR_ACTIVITY";
+    public static final String ANALYTICS_UPDATE = "ANALYTICS_UPDATE";
+    public static final String PRIVATE_MESSAGE = "PRIVATE_MESSAGE";
+    public static final String SNAPSHOT = "SNAPSHOT";
+    public static final String DELTA = "DELTA";
+
+    private WebSocketMessages() {
+    }
+
+    public record ContactUpdate(String type, String id, String name, String email, String status,
+                                String priority, long timestamp) {
+    }
+
+    /**
+     * severity is INFO, WARNING, ERROR or SUCCESS
+     */
+    public record AdminNotification(String title, String message, String severity, long timestamp) {
+    }
+
+    public record VisitorActivity(String type, String page, String action, long timestamp) {
+    }
+
+    public record AnalyticsUpdate(String type, Map<String, Object> analytics, long timestamp) {
+    }
+
+    public record PrivateMessage(String type, String message, long timestamp) {
+    }
+
+    /**
+     * One message of a DeltaFeed: type is SNAPSHOT (fields is the whole state) or DELTA (only
+     * the fields that changed, null for a field that is gone); seq counts within stream
+     */
+    public record FeedUpdate(String type, String stream, long seq, long timestamp, Map<String, Object> fields) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.sweta.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * One windowed aggregate read from a Kafka Streams state store
+ * average is only set for averaged metrics
+ */
+@Data
+@AllArgsConstructor
+public class WindowedStatDTO {
+    private String key;
+    private Instant windowStart;
+    private Instant windowEnd;
+    private long count;
+    private Double average;
+}
@@ -43,6 +43,11 @@ public class Contact {
     @Column(name = "processed_at")
     private LocalDateTime processedAt;
     
+    // Optimistic lock; the default lets ddl-auto add the column to existing rows
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     // Constructors
     public Contact() {
         this.createdAt = LocalDateTime.now();
@@ -146,6 +151,14 @@ public class Contact {
         this.processedAt = processedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     // Enums
     public enum ContactStatus {
         NEW,
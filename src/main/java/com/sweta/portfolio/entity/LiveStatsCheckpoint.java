@@ -0,0 +1,29 @@
+package com.sweta.portfolio.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+import lombok.*;
+
+/**
+ * Latest live-stats checkpoint of one backend node.
+ * The payload is the JSON snapshot (counters, countries, sessions) together with the
+ * visitor-events offsets it covers, written in one row so they can never disagree.
+ */
+@Entity
+@Table(name = "live_stats_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveStatsCheckpoint {
+    
+    @Id
+    @Column(name = "node_id")
+    private String nodeId;
+    
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,52 @@
+package com.sweta.portfolio.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import lombok.*;
+
+/**
+ * Page views of one page in one minute or hour bucket.
+ * Rows are only ever incremented by PageViewRollupService's batched upserts, every instance
+ * adding the counts it accumulated since its last flush.
+ */
+@Entity
+@Table(name = "page_view_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageViewRollup {
+    
+    @EmbeddedId
+    private PageViewRollupId id;
+    
+    @Column(nullable = false)
+    private long views;
+    
+    // Sum of the reported time spent, divide by views for the average
+    @Column(name = "time_spent_seconds", nullable = false)
+    private long timeSpentSeconds;
+    
+    public enum Granularity {
+        MINUTE(ChronoUnit.MINUTES),
+        HOUR(ChronoUnit.HOURS);
+        
+        private final ChronoUnit unit;
+        
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+        
+        public ChronoUnit getUnit() {
+            return unit;
+        }
+        
+        /**
+         * Start of the bucket the time falls in
+         */
+        public LocalDateTime bucketStart(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+    }
+}
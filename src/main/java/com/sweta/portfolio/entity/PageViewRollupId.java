@@ -0,0 +1,27 @@
+package com.sweta.portfolio.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import lombok.*;
+
+/**
+ * Page, bucket size and bucket start of one page view rollup row
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageViewRollupId implements Serializable {
+    
+    @Column(nullable = false, length = 200)
+    private String page;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private PageViewRollup.Granularity granularity;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+}
@@ -0,0 +1,23 @@
+package com.sweta.portfolio.entity;
+
+import jakarta.persistence.*;
+
+import lombok.*;
+
+/**
+ * Sessions started from one traffic source on one day.
+ * Rows are only ever incremented by ReferrerRollupService's batched upserts.
+ */
+@Entity
+@Table(name = "referrer_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReferrerRollup {
+    
+    @EmbeddedId
+    private ReferrerRollupId id;
+    
+    @Column(nullable = false)
+    private long sessions;
+}
@@ -0,0 +1,29 @@
+package com.sweta.portfolio.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import lombok.*;
+
+/**
+ * Day and traffic source (source, medium, campaign) of one referrer rollup row
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReferrerRollupId implements Serializable {
+    
+    @Column(name = "visit_date", nullable = false)
+    private LocalDate day;
+    
+    @Column(nullable = false, length = 100)
+    private String source;
+    
+    @Column(nullable = false, length = 100)
+    private String medium;
+    
+    @Column(nullable = false, length = 100)
+    private String campaign;
+}
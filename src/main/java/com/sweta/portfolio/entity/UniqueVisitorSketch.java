@@ -0,0 +1,29 @@
+package com.sweta.portfolio.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import lombok.*;
+
+/**
+ * HyperLogLog registers of one day's unique visitors.
+ * Every instance merges its own sketch into the row (register-wise max), never overwrites it.
+ */
+@Entity
+@Table(name = "unique_visitor_sketches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UniqueVisitorSketch {
+    
+    @Id
+    @Column(name = "visit_date")
+    private LocalDate day;
+    
+    @Column(nullable = false, length = 4096)
+    private byte[] registers;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
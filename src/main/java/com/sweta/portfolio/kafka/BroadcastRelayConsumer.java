@@ -0,0 +1,43 @@
+package com.sweta.portfolio.kafka;
+
+import com.sweta.portfolio.kafka.events.BroadcastEnvelope;
+import com.sweta.portfolio.service.ClusterBroadcaster;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Follows the ws-broadcasts topic so this node's WebSocket clients get the other nodes' broadcasts.
+ * Every instance needs every record, hence the throw-away group id; its container factory
+ * starts that group at the end of the topic, so a starting node does not replay old broadcasts.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BroadcastRelayConsumer {
+
+    private final ClusterBroadcaster clusterBroadcaster;
+
+    @KafkaListener(
+            topics = "${kafka.topics.ws-broadcasts}",
+            groupId = "${spring.kafka.consumer.group-id}-ws-${random.uuid}",
+            containerFactory = "broadcastRelayContainerFactory",
+            autoStartup = "#{!@eventTransportRouter.isInProcess('${kafka.topics.ws-broadcasts}')}"
+    )
+    public void consumeBroadcast(ConsumerRecord<String, Object> record) {
+        onBroadcast(record.key(), record.value());
+    }
+
+    /**
+     * Relay one broadcast record, also the in-process bus handler
+     */
+    public void onBroadcast(String key, Object value) {
+        if (!(value instanceof BroadcastEnvelope envelope)) {
+            log.warn("Unexpected event on broadcast topic: {}", value);
+            return;
+        }
+        clusterBroadcaster.relay(envelope);
+    }
+}
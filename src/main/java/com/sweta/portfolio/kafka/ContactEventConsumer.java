@@ -1,8 +1,5 @@
 package com.sweta.portfolio.kafka;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.sweta.portfolio.entity.Contact;
 import com.sweta.portfolio.kafka.events.ContactProcessedEvent;
 import com.sweta.portfolio.kafka.events.ContactSubmittedEvent;
@@ -12,7 +9,6 @@ import com.sweta.portfolio.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.springframework.context.annotation.Profile;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
@@ -24,7 +20,6 @@ import java.time.LocalDateTime;
 @Component
 @RequiredArgsConstructor
 @Slf4j
-@Profile("!ci")
 public class ContactEventConsumer {
 
 	private final ContactRepository contactRepository;
@@ -32,61 +27,54 @@ public class ContactEventConsumer {
 	
 	private final ContactEventProducer eventProducer;
 
-	// Configure ObjectMapper with JavaTimeModule for LocalDateTime support
-	private final ObjectMapper objectMapper = new ObjectMapper()
-			.registerModule(new JavaTimeModule());
-
 	/**
 	 * Listen for contact submitted events
 	 */
 	@KafkaListener(
 			topics = "${kafka.topics.contact-events}",
 			groupId = "${spring.kafka.consumer.group-id}",
-			containerFactory = "kafkaListenerContainerFactory"
+			containerFactory = "kafkaListenerContainerFactory",
+			// Stays idle when the topic is delivered by the in-process bus
+			autoStartup = "#{!@eventTransportRouter.isInProcess('${kafka.topics.contact-events}')}"
 	)
 	@Transactional
 	public void handleContactEvent( // Changed method name
-			ConsumerRecord<String, JsonNode> record,
+			ConsumerRecord<String, Object> record,
 			@Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
 			@Header(KafkaHeaders.OFFSET) long offset) {
 		log.info("Received message from partition {} with offset {}: {}",
 				partition, offset, record.value());
+		onContactEvent(record.key(), record.value());
+	}
+
+	/**
+	 * Handle one contact event, called by the Kafka listener above and by the in-process bus
+	 */
+	@Transactional
+	public void onContactEvent(String key, Object event) {
 		try {
-			JsonNode eventNode = record.value();
-			String eventType = eventNode.path("eventType").asText();
-			log.info("Processing event of type: {}", eventType);
-			switch (eventType) {
-				case "CONTACT_SUBMITTED":
-					handleContactSubmittedEvent(eventNode);
-					break;
-				case "CONTACT_PROCESSED":
-					handleContactProcessedEvent(eventNode);
-					break;
-				default:
-					log.warn("Unknown event type: {}", eventType);
+			// The value is already bound to its event class by EventDeserializer
+			if (event instanceof ContactSubmittedEvent submittedEvent) {
+				handleContactSubmittedEvent(submittedEvent);
+			} else if (event instanceof ContactProcessedEvent processedEvent) {
+				handleContactProcessedEvent(processedEvent);
+			} else {
+				log.warn("Unknown event type: {}", event);
 			}
 		} catch (Exception e) {
 			log.error("Error processing contact event", e);
 		}
 	}
 
-	private void handleContactSubmittedEvent(JsonNode eventNode) {
-		try {
-			ContactSubmittedEvent event = objectMapper.treeToValue(eventNode, ContactSubmittedEvent.class);
-			processContactEvent(event);
-		} catch (Exception e) {
-			log.error("Error processing ContactSubmittedEvent", e);
-		}
+	private void handleContactSubmittedEvent(ContactSubmittedEvent event) {
+		log.info("Processing event of type: {}", event.getEventType());
+		processContactEvent(event);
 	}
 
-	private void handleContactProcessedEvent(JsonNode eventNode) {
-		try {
-			ContactProcessedEvent event = objectMapper.treeToValue(eventNode, ContactProcessedEvent.class);
-			// Handle the processed event - just log for now
-			log.info("Contact {} was processed with status: {}", event.getContactId(), event.getStatus());
-		} catch (Exception e) {
-			log.error("Error processing ContactProcessedEvent", e);
-		}
+	private void handleContactProcessedEvent(ContactProcessedEvent event) {
+		// Status events now go to the compacted status topic (see ContactStatusConsumer);
+		// these are leftovers written to contact-events by older versions
+		log.debug("Ignoring legacy ContactProcessedEvent for contact {} on contact-events", event.getContactId());
 	}
 
 	/**
@@ -95,28 +83,30 @@ public class ContactEventConsumer {
 	private void processContactEvent(ContactSubmittedEvent event) {
 		try {
 			log.info("Processing ContactSubmittedEvent for contact: {}", event.getContactId());
-			// Find the contact in database
-			Contact contact = contactRepository.findById(event.getContactId())
-					.orElseThrow(() -> new RuntimeException("Contact not found: " + event.getContactId()));
 			
-			// If the contact is not in the NEW state, it has already been processed.
-	        // Log it and stop execution to avoid sending duplicate emails.
-			
-	        if (contact.getStatus() != Contact.ContactStatus.NEW) {
-	            log.warn("Contact {} has already been processed. Current status: {}. Skipping.",
-	                    contact.getId(), contact.getStatus());
+			// Claim the contact with one conditional UPDATE (NEW -> PROCESSING) instead of
+			// findById + status check + save. The affected-row count decides whether we continue:
+			// 0 means the contact does not exist or another delivery of this event already took it,
+			// so we stop here to avoid sending duplicate emails.
+			int claimed = contactRepository.transitionStatus(event.getContactId(),
+					Contact.ContactStatus.NEW, Contact.ContactStatus.PROCESSING, LocalDateTime.now());
+	        if (claimed == 0) {
+	            log.warn("Contact {} is missing or has already been processed. Skipping.",
+	                    event.getContactId());
 	            return; // Exit the method
 	        }
-			// Update contact status
-			Contact.ContactStatus previousStatus = contact.getStatus();
-			contact.setStatus(Contact.ContactStatus.PROCESSING);
-			contact.setProcessedAt(LocalDateTime.now());
-			Contact updatedContact = contactRepository.save(contact);
 			log.info("Updated contact {} status from {} to {}",
-					contact.getId(), previousStatus, contact.getStatus());
+					event.getContactId(), Contact.ContactStatus.NEW, Contact.ContactStatus.PROCESSING);
+
+			// Everything the analysis needs is in the event, so the row is never read back
+			Contact contact = toContact(event);
 
 			// Perform analysis based on message content
-			analyzeAndProcessContact(updatedContact, event);
+			analyzeAndProcessContact(contact, event);
+			if (contactRepository.markAnalyzed(contact.getId(), contact.getPriority()) == 0) {
+				log.warn("Contact {} changed while it was being analyzed. Skipping.", contact.getId());
+				return;
+			}
 
 			// Send email notification for high priority contacts
 			try {
@@ -134,13 +124,36 @@ public class ContactEventConsumer {
 			}
 
 			// Publish processed event
-			publishProcessedEvent(updatedContact);
+			publishProcessedEvent(contact);
 		} catch (Exception e) {
 			log.error("Failed to process contact event for contactId: {}", event.getContactId(), e);
 		}
 	}
 
-	
+	/**
+	 * Build a detached view of the contact from the event payload
+	 */
+	private Contact toContact(ContactSubmittedEvent event) {
+		Contact contact = Contact.builder()
+				.name(event.getName())
+				.email(event.getEmail())
+				.company(event.getCompany())
+				.message(event.getMessage())
+				.priority(parsePriority(event.getPriority()))
+				.build();
+		contact.setId(event.getContactId());
+		contact.setStatus(Contact.ContactStatus.PROCESSING);
+		return contact;
+	}
+
+	private Contact.Priority parsePriority(String priority) {
+		try {
+			return priority != null ? Contact.Priority.valueOf(priority) : Contact.Priority.MEDIUM;
+		} catch (IllegalArgumentException e) {
+			return Contact.Priority.MEDIUM;
+		}
+	}
+
 	/**
 	 * Analyze the contact and update accordingly
 	 */
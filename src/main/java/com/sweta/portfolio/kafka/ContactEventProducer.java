@@ -3,25 +3,30 @@ package com.sweta.portfolio.kafka;
 import com.sweta.portfolio.entity.Contact;
 import com.sweta.portfolio.kafka.events.ContactSubmittedEvent;
 import com.sweta.portfolio.kafka.events.ContactProcessedEvent;
+import com.sweta.portfolio.kafka.transport.EventTransportRouter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ContactEventProducer {
     
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    // Kafka, or the in-process ring buffer for topics configured that way
+    private final EventTransportRouter transport;
     
     @Value("${kafka.topics.contact-events}")
     private String contactEventsTopic;
     
+    @Value("${kafka.topics.contact-status}")
+    private String contactStatusTopic;
+    
     /**
      * Publish event when a new contact is submitted
      */
@@ -36,34 +41,47 @@ public class ContactEventProducer {
             contact.getPriority() != null ? contact.getPriority().toString() : "MEDIUM"
         );
         
-        // Send to Kafka
-        log.info("Publishing ContactSubmittedEvent for contact: {}", contact.getId());
+        // The consumer claims the row with an UPDATE, so the event must not overtake the insert:
+        // inside a transaction it is published only after commit (the in-process bus is fast enough to win that race)
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendContactSubmittedEvent(event);
+                }
+            });
+        } else {
+            sendContactSubmittedEvent(event);
+        }
+    }
+    
+    private void sendContactSubmittedEvent(ContactSubmittedEvent event) {
+        String contactId = event.getContactId();
         
-        CompletableFuture<SendResult<String, Object>> future = 
-            kafkaTemplate.send(contactEventsTopic, contact.getId(), event);
+        // Send to Kafka (or the in-process bus)
+        log.info("Publishing ContactSubmittedEvent for contact: {}", contactId);
         
         // Handle success/failure
-        future.whenComplete((result, ex) -> {
-            if (ex == null) {
-                log.info("Successfully published event with key: {} to partition: {} at offset: {}", 
-                    contact.getId(),
-                    result.getRecordMetadata().partition(),
-                    result.getRecordMetadata().offset());
-            } else {
-                log.error("Failed to publish event for contact: {}", contact.getId(), ex);
-            }
-        });
+        transport.send(contactEventsTopic, contactId, event)
+            .whenComplete((result, ex) -> {
+                if (ex == null) {
+                    log.info("Successfully published event with key: {}", contactId);
+                } else {
+                    log.error("Failed to publish event for contact: {}", contactId, ex);
+                }
+            });
     }
     
     /**
-     * Publish event when contact is processed
+     * Publish event when contact status changes
+     * Goes to the compacted status topic (keyed by contactId), not back into contact-events
      */
     public void publishContactProcessedEvent(String contactId, String status, String analysisResult) {
         ContactProcessedEvent event = new ContactProcessedEvent(contactId, status, analysisResult);
         
         log.info("Publishing ContactProcessedEvent for contact: {}", contactId);
         
-        kafkaTemplate.send(contactEventsTopic, contactId, event);
+        transport.send(contactStatusTopic, contactId, event);
     }
     
     /**
@@ -72,11 +90,25 @@ public class ContactEventProducer {
     public void publishEvent(String topic, String key, Object event) {
         log.debug("Publishing event to topic: {} with key: {}", topic, key);
         
-        kafkaTemplate.send(topic, key, event)
+        transport.send(topic, key, event)
             .whenComplete((result, ex) -> {
                 if (ex != null) {
                     log.error("Error publishing event to topic: {}", topic, ex);
                 }
             });
     }
+    
+    /**
+     * Publish a batch of events under one key (e.g. one visitor's beacon), in order
+     */
+    public void publishEvents(String topic, String key, List<?> events) {
+        log.debug("Publishing {} events to topic: {} with key: {}", events.size(), topic, key);
+        
+        transport.sendAll(topic, key, events)
+            .whenComplete((result, ex) -> {
+                if (ex != null) {
+                    log.error("Error publishing event batch to topic: {}", topic, ex);
+                }
+            });
+    }
 }
@@ -0,0 +1,46 @@
+package com.sweta.portfolio.kafka;
+
+import com.sweta.portfolio.kafka.events.ContactProcessedEvent;
+import com.sweta.portfolio.service.ContactStatusStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the local ContactStatusStore from the compacted status topic.
+ * Every instance uses its own throw-away group id and never commits offsets,
+ * so it reads all partitions from the beginning at startup and then keeps following.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ContactStatusConsumer {
+
+    private final ContactStatusStore statusStore;
+
+    @KafkaListener(
+            topics = "${kafka.topics.contact-status}",
+            groupId = "${spring.kafka.consumer.group-id}-status-${random.uuid}",
+            containerFactory = "kafkaListenerContainerFactory",
+            autoStartup = "#{!@eventTransportRouter.isInProcess('${kafka.topics.contact-status}')}"
+    )
+    public void consumeStatusEvent(ConsumerRecord<String, Object> record) {
+        onStatusEvent(record.key(), record.value());
+    }
+
+    /**
+     * Apply one status event (null value = tombstone), also the in-process bus handler
+     */
+    public void onStatusEvent(String key, Object value) {
+        if (value == null) {
+            statusStore.remove(key);
+        } else if (value instanceof ContactProcessedEvent event) {
+            statusStore.apply(event);
+            log.debug("Contact {} status is now {}", event.getContactId(), event.getStatus());
+        } else {
+            log.warn("Unexpected event on contact status topic: {}", value);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.sweta.portfolio.kafka;
+
+import com.sweta.portfolio.kafka.events.NodeStatsState;
+import com.sweta.portfolio.service.ClusterStatsService;
+import com.sweta.portfolio.service.LiveStatsPublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Follows the compacted node-stats topic so this node knows the partial live stats of every other node.
+ * Like ContactStatusConsumer it uses a throw-away group id, so every instance reads all of it from the start.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NodeStatsConsumer {
+
+    private final ClusterStatsService clusterStatsService;
+    private final LiveStatsPublisher liveStatsPublisher;
+
+    @KafkaListener(
+            topics = "${kafka.topics.node-stats}",
+            groupId = "${spring.kafka.consumer.group-id}-cluster-${random.uuid}",
+            containerFactory = "kafkaListenerContainerFactory",
+            autoStartup = "#{!@eventTransportRouter.isInProcess('${kafka.topics.node-stats}')}"
+    )
+    public void consumeNodeStats(ConsumerRecord<String, Object> record) {
+        onNodeStats(record.key(), record.value());
+    }
+
+    /**
+     * Apply one node-stats record (null value = tombstone), also the in-process bus handler
+     */
+    public void onNodeStats(String key, Object value) {
+        if (value != null && !(value instanceof NodeStatsState)) {
+            log.warn("Unexpected event on node stats topic: {}", value);
+            return;
+        }
+        if (clusterStatsService.apply(key, (NodeStatsState) value)) {
+            liveStatsPublisher.markDirty();
+            liveStatsPublisher.markPagesDirty();
+        }
+    }
+}
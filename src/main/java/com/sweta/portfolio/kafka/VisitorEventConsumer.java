@@ -1,56 +1,244 @@
 package com.sweta.portfolio.kafka;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.sweta.portfolio.dto.LiveStatsDTO;
+import com.sweta.portfolio.kafka.events.HeartbeatEvent;
+import com.sweta.portfolio.kafka.events.NodeStatsState;
+import com.sweta.portfolio.kafka.events.PageViewEvent;
+import com.sweta.portfolio.kafka.events.ScrollEvent;
+import com.sweta.portfolio.kafka.events.VisitorSessionEvent;
+import com.sweta.portfolio.service.ActiveSessionTracker;
+import com.sweta.portfolio.service.ClusterStatsService;
+import com.sweta.portfolio.service.EngagementHistogramService;
+import com.sweta.portfolio.service.LivePageViewerService;
+import com.sweta.portfolio.service.LiveStatsCheckpointService;
+import com.sweta.portfolio.service.LiveStatsPublisher;
+import com.sweta.portfolio.service.NavigationPathService;
+import com.sweta.portfolio.service.PageViewRollupService;
+import com.sweta.portfolio.service.ReferrerRollupService;
+import com.sweta.portfolio.service.RollupUpsert;
+import com.sweta.portfolio.service.TrendingPageService;
+import com.sweta.portfolio.service.UniqueVisitorService;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.context.annotation.Profile;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.event.EventListener;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Profile("!ci")
-public class VisitorEventConsumer {
+public class VisitorEventConsumer implements ConsumerAwareRebalanceListener {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    // Coalesces changes into at most one /topic/live-stats broadcast per tick
+    private final LiveStatsPublisher liveStatsPublisher;
+    
+    // Live sessions with idle expiry - the active viewer count
+    private final ActiveSessionTracker sessionTracker;
+    
+    // HyperLogLog unique visitors per day/week/month
+    private final UniqueVisitorService uniqueVisitorService;
+    
+    // Periodic checkpoint of the state below, restored at startup
+    private final LiveStatsCheckpointService checkpointService;
+    
+    // Merges this node's partial stats with the other replicas' into the global view
+    private final ClusterStatsService clusterStatsService;
+    
+    // Minute/hour page view buckets, written to page_view_rollups with every checkpoint
+    private final PageViewRollupService pageViewRollupService;
+    
+    // Page-to-page transitions and funnel progress
+    private final NavigationPathService navigationPathService;
+    
+    // Sessions per day and traffic source, written to referrer_rollups with every checkpoint
+    private final ReferrerRollupService referrerRollupService;
+    
+    // Time-on-page and scroll depth histograms per page
+    private final EngagementHistogramService engagementHistogramService;
+    
+    // Which page each live session is on, broadcast per page on /topic/live-stats/{page}
+    private final LivePageViewerService livePageViewerService;
+    
+    // Per-second view buckets ranking the pages that are taking off
+    private final TrendingPageService trendingPageService;
     
     // Counters for live statistics
-    private final AtomicInteger activeViewers = new AtomicInteger(0);
-    private final AtomicLong profileViews = new AtomicLong(247);
+    private final AtomicLong profileViews = new AtomicLong();
     
     // Track unique countries - thread-safe Set
     private final Set<String> uniqueCountries = ConcurrentHashMap.newKeySet();
     
-    // Track active sessions for managing active viewer count
-    private final Set<String> activeSessions = ConcurrentHashMap.newKeySet();
+    // Next offset to read per partition, i.e. how far the state above has got
+    private final Map<TopicPartition, Long> nextOffsets = new ConcurrentHashMap<>();
+    
+    // Offsets covered by the latest saved checkpoint, committed to Kafka by the consumer thread
+    private final AtomicReference<Map<TopicPartition, Long>> checkpointedOffsets = new AtomicReference<>();
+    
+    // Event handling shares the read lock; a checkpoint takes the write lock for a consistent cut
+    private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
 
+    /**
+     * Offsets are only committed once a saved checkpoint covers them (see checkpoint()),
+     * so the committed offset never runs ahead of the state this node could restore
+     */
     @KafkaListener(
+        id = "visitor-events",
+        idIsGroup = false,
         topics = "${kafka.topics.visitor-events}",
         groupId = "${spring.kafka.consumer.group-id}",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "visitorEventsContainerFactory",
+        autoStartup = "#{!@eventTransportRouter.isInProcess('${kafka.topics.visitor-events}')}"
     )
-    public void consumeVisitorEvent(JsonNode event) {
+    public void consumeVisitorRecord(ConsumerRecord<String, Object> record, Consumer<?, ?> consumer) {
+        stateLock.readLock().lock();
         try {
-            String eventType = event.path("eventType").asText();
-            log.info("<<<<<< CONSUMER: Received event of type '{}'", eventType);
-
-            if ("VISITOR_SESSION".equals(eventType)) {
-                String sessionId = event.path("sessionId").asText();
-                String location = event.path("location").asText();
-                
-                // Extract country from location string (e.g., "Amsterdam, Netherlands" -> "Netherlands")
-                String country = extractCountryFromLocation(location);
+            handleEvent(record.value(), eventMillis(record));
+            nextOffsets.put(new TopicPartition(record.topic(), record.partition()), record.offset() + 1);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        commitCheckpointed(consumer);
+    }
+    
+    /**
+     * Handle one visitor event delivered by the in-process bus (no offsets to track)
+     */
+    public void consumeVisitorEvent(Object event) {
+        stateLock.readLock().lock();
+        try {
+            handleEvent(event, eventMillis(event));
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Commits the checkpointed offsets while no records arrive (published on the consumer thread)
+     */
+    @EventListener(condition = "event.listenerId.startsWith('visitor-events')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        commitCheckpointed(event.getConsumer());
+    }
+    
+    /**
+     * Start every partition at the committed offset, unless this node's checkpoint covers more of it
+     * (it was saved but the commit did not happen before a restart). A checkpoint that is behind
+     * is from before another node owned the partition; those events were counted there.
+     */
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            long committed = consumer.position(partition);
+            Long checkpointed = nextOffsets.get(partition);
+            if (checkpointed != null && checkpointed > committed) {
+                log.info("Resuming {} at checkpointed offset {} (committed {})", partition, checkpointed, committed);
+                consumer.seek(partition, checkpointed);
+            } else {
+                nextOffsets.put(partition, committed);
+            }
+        }
+    }
+    
+    /**
+     * Checkpoint and commit what this node has counted before another node takes the partitions over
+     */
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        checkpoint();
+        commitCheckpointed(consumer);
+        partitions.forEach(nextOffsets::remove);
+    }
+    
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        // Already owned by another node, whose commits must not be overwritten
+        partitions.forEach(nextOffsets::remove);
+    }
+    
+    // Sessions and rollup buckets live on event time, so replayed or lagging events are counted when they happened
+    private static long eventMillis(ConsumerRecord<?, ?> record) {
+        long now = System.currentTimeMillis();
+        return record.timestamp() > 0 ? Math.min(record.timestamp(), now) : now;
+    }
+    
+    // In-process events have no record timestamp: the time the event was built, if it says
+    private static long eventMillis(Object event) {
+        LocalDateTime timestamp = null;
+        if (event instanceof VisitorSessionEvent sessionEvent) {
+            timestamp = sessionEvent.getTimestamp();
+        } else if (event instanceof PageViewEvent pageViewEvent) {
+            timestamp = pageViewEvent.getTimestamp();
+        }
+        long now = System.currentTimeMillis();
+        return timestamp != null ? Math.min(timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), now) : now;
+    }
+    
+    // Consumer thread only: KafkaConsumer is not thread-safe, so checkpoint() just hands the offsets over
+    private void commitCheckpointed(Consumer<?, ?> consumer) {
+        Map<TopicPartition, Long> offsets = checkpointedOffsets.getAndSet(null);
+        if (offsets == null) {
+            return;
+        }
+        Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+        Set<TopicPartition> assigned = consumer.assignment();
+        offsets.forEach((partition, offset) -> {
+            if (assigned.contains(partition)) {
+                commits.put(partition, new OffsetAndMetadata(offset));
+            }
+        });
+        if (commits.isEmpty()) {
+            return;
+        }
+        try {
+            consumer.commitSync(commits);
+            log.debug("Committed checkpointed offsets {}", commits);
+        } catch (Exception e) {
+            // The checkpoint still has them; the next one is committed again
+            log.warn("Failed to commit checkpointed offsets: {}", e.getMessage());
+        }
+    }
+    
+    private void handleEvent(Object event, long eventMillis) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(eventMillis), ZoneId.systemDefault());
+        try {
+            // The value is already bound to its event class by EventDeserializer
+            if (event instanceof VisitorSessionEvent sessionEvent) {
+                log.info("<<<<<< CONSUMER: Received event of type '{}'", sessionEvent.getEventType());
+                String sessionId = Objects.toString(sessionEvent.getSessionId(), "");
+                // Bot sessions sampled in by BotFilterService are only for the analytics, not live viewers
+                if (Boolean.TRUE.equals(sessionEvent.getBot())) {
+                    log.debug("Bot session {} not counted in live stats", sessionId);
+                    return;
+                }
+                // ISO code from the GeoIP lookup, null for local and unresolved addresses
+                String country = sessionEvent.getCountryCode();
                 
                 // Track the country if it's new
                 if (country != null && !country.isEmpty()) {
@@ -58,56 +246,84 @@ public class VisitorEventConsumer {
                     log.debug("Added country: {}. Total unique countries: {}", country, uniqueCountries.size());
                 }
                 
-                // Track active sessions
-                boolean isNewSession = activeSessions.add(sessionId);
-                
-                // Only increment active viewers for new sessions
-                int currentViewers;
+                // Track active sessions - a known session is only refreshed
+                boolean isNewSession = sessionTracker.start(sessionId, eventMillis);
+                int currentViewers = sessionTracker.activeCount();
                 if (isNewSession) {
-                    currentViewers = activeViewers.incrementAndGet();
                     log.info("New session detected: {}. Active viewers: {}", sessionId, currentViewers);
+                    referrerRollupService.record(time.toLocalDate(), sessionEvent.getReferrer(),
+                            sessionEvent.getLandingUrl());
                 } else {
-                    currentViewers = activeViewers.get();
                     log.debug("Existing session: {}. Active viewers unchanged: {}", sessionId, currentViewers);
                 }
+                livePageViewerService.enter(sessionId, sessionEvent.getPage());
                 
                 // Always increment total profile views
                 long totalViews = profileViews.incrementAndGet();
                 
-                // Create DTO with actual country count
-                LiveStatsDTO statsUpdate = new LiveStatsDTO(
-                    currentViewers, 
-                    uniqueCountries.size(),  // Real country count!
-                    (int) totalViews
-                );
-
-                log.info("Broadcasting live stats - Viewers: {}, Countries: {}, Total Views: {}", 
+                // Distinct visitors per day (the sketch ignores repeats of the same session)
+                uniqueVisitorService.record(time.toLocalDate(), sessionId);
+                
+                log.debug("Live stats changed - Viewers: {}, Countries: {}, Total Views: {}", 
                     currentViewers, uniqueCountries.size(), totalViews);
-                    
-                messagingTemplate.convertAndSend("/topic/live-stats", statsUpdate);
+                
+                // Only mark dirty - the publisher sends one snapshot per tick however many events arrive
+                liveStatsPublisher.markDirty();
             }
             
             // Handle PAGE_VIEW events to potentially decrement active viewers
-            else if ("PAGE_VIEW".equals(eventType)) {
-                String page = event.path("page").asText();
+            else if (event instanceof PageViewEvent pageViewEvent) {
+                log.info("<<<<<< CONSUMER: Received event of type '{}'", pageViewEvent.getEventType());
+                String page = pageViewEvent.getPage();
+                String sessionId = Objects.toString(pageViewEvent.getSessionId(), "");
+                
+                // Time spent and scroll depth describe the page being left (the page itself on a first view)
+                String leftPage = Objects.requireNonNullElse(pageViewEvent.getPreviousPage(), page);
+                if (pageViewEvent.getTimeSpentSeconds() != null && pageViewEvent.getPreviousPage() != null) {
+                    engagementHistogramService.recordTimeOnPage(leftPage, pageViewEvent.getTimeSpentSeconds());
+                    pageViewRollupService.recordTimeSpent(leftPage, time, pageViewEvent.getTimeSpentSeconds());
+                }
+                int scrollDepth = parseScrollDepth(pageViewEvent.getScrollDepth());
+                if (scrollDepth >= 0) {
+                    engagementHistogramService.recordScrollDepth(leftPage, scrollDepth);
+                }
                 
-                // If user navigates away or closes tab, you could decrement active viewers
+                // If user navigates away or closes tab, end the session right away;
+                // sessions without an exit event idle out in expireIdleSessions
                 if ("exit".equals(page) || "close".equals(page)) {
-                    String sessionId = event.path("sessionId").asText();
-                    if (activeSessions.remove(sessionId)) {
-                        int currentViewers = activeViewers.decrementAndGet();
-                        log.info("Session ended: {}. Active viewers: {}", sessionId, currentViewers);
+                    navigationPathService.recordTransition(pageViewEvent.getPreviousPage(), null);
+                    if (sessionTracker.end(sessionId)) {
+                        log.info("Session ended: {}. Active viewers: {}", sessionId, sessionTracker.activeCount());
                         
                         // Broadcast updated stats
-                        LiveStatsDTO statsUpdate = new LiveStatsDTO(
-                            currentViewers,
-                            uniqueCountries.size(),
-                            (int) profileViews.get()
-                        );
-                        messagingTemplate.convertAndSend("/topic/live-stats", statsUpdate);
+                        liveStatsPublisher.markDirty();
                     }
+                } else {
+                    navigationPathService.recordTransition(pageViewEvent.getPreviousPage(), page);
+                    // Only live sessions have funnel progress, it is dropped when they end
+                    if (sessionTracker.touch(sessionId, eventMillis)) {
+                        navigationPathService.advanceFunnels(sessionId, page);
+                        livePageViewerService.enter(sessionId, page);
+                        trendingPageService.record(page);
+                    }
+                    pageViewRollupService.record(page, time);
                 }
             }
+            
+            // Heartbeats only keep the session alive, nothing to broadcast
+            else if (event instanceof HeartbeatEvent heartbeatEvent) {
+                sessionTracker.touch(Objects.toString(heartbeatEvent.getSessionId(), ""), eventMillis);
+            }
+            
+            // Scrolling is activity too
+            else if (event instanceof ScrollEvent scrollEvent) {
+                sessionTracker.touch(Objects.toString(scrollEvent.getSessionId(), ""), eventMillis);
+                engagementHistogramService.recordScrollDepth(scrollEvent.getPage(), scrollEvent.getDepthPercent());
+            }
+            
+            else {
+                log.warn("<<<<<< CONSUMER: Ignoring unknown visitor event: {}", event);
+            }
 
         } catch (Exception e) {
             log.error("Error processing visitor event from Kafka", e);
@@ -115,40 +331,133 @@ public class VisitorEventConsumer {
     }
     
     /**
-     * Extract country from location string
-     * Examples: 
-     * "Amsterdam, Netherlands" -> "Netherlands"
-     * "Local Development" -> "Local"
-     * "New York, United States" -> "United States"
+     * Scroll depth as sent by the client ("75" or "75%"), -1 when missing or not a percentage.
+     * Parsed by hand so recording a page view allocates nothing.
+     */
+    static int parseScrollDepth(String depth) {
+        if (depth == null) {
+            return -1;
+        }
+        int end = depth.length();
+        if (end > 0 && depth.charAt(end - 1) == '%') {
+            end--;
+        }
+        if (end == 0 || end > 3) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < end; i++) {
+            char c = depth.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value <= 100 ? value : -1;
+    }
+    
+    /**
+     * Expire sessions that went quiet and broadcast the lower viewer count
      */
-    private String extractCountryFromLocation(String location) {
-        if (location == null || location.isEmpty()) {
-            return "Unknown";
+    @Scheduled(fixedRateString = "${visitor.sessions.tick:1s}")
+    public void expireIdleSessions() {
+        int expired;
+        stateLock.readLock().lock();
+        try {
+            expired = sessionTracker.expire(System.currentTimeMillis());
+        } finally {
+            stateLock.readLock().unlock();
         }
-        
-        // Handle special cases
-        if (location.equals("Local Development")) {
-            return "Local";
+        if (expired > 0) {
+            log.info("{} sessions idled out. Active viewers: {}", expired, sessionTracker.activeCount());
+            liveStatsPublisher.markDirty();
         }
-        
-        // Split by comma and take the last part (usually the country)
-        String[] parts = location.split(",");
-        if (parts.length > 1) {
-            return parts[parts.length - 1].trim();
+    }
+    
+    /**
+     * Save counters, countries, sessions and the offsets they cover, together with the rollup
+     * counts gathered since the last checkpoint, then hand those offsets
+     * to the consumer thread to commit. Synchronized so that an older snapshot is never saved
+     * (or committed) after a newer one.
+     */
+    @Scheduled(fixedRateString = "${visitor.checkpoint.interval:30s}", initialDelayString = "${visitor.checkpoint.interval:30s}")
+    public synchronized void checkpoint() {
+        LiveStatsCheckpointService.Snapshot snapshot;
+        Map<TopicPartition, Long> covered;
+        RollupUpsert.Batch<?> pageViews;
+        RollupUpsert.Batch<?> referrers;
+        stateLock.writeLock().lock();
+        try {
+            covered = Map.copyOf(nextOffsets);
+            Map<String, Long> offsets = new HashMap<>();
+            covered.forEach((partition, offset) -> offsets.put(partition.toString(), offset));
+            snapshot = new LiveStatsCheckpointService.Snapshot(profileViews.get(), Set.copyOf(uniqueCountries),
+                    sessionTracker.snapshot(), offsets);
+            // Same cut as the snapshot: events replayed after restoring it are not in these counts
+            pageViews = pageViewRollupService.drain();
+            referrers = referrerRollupService.drain();
+        } finally {
+            stateLock.writeLock().unlock();
         }
-        
-        // If no comma, return the whole location
-        return location.trim();
+        try {
+            // Sketches go first: events replayed after a restore are added to them again, which HyperLogLog ignores
+            uniqueVisitorService.flush();
+            checkpointService.save(snapshot, () -> {
+                pageViews.write();
+                referrers.write();
+            });
+            checkpointedOffsets.set(covered);
+            log.debug("Checkpointed live stats: {} sessions, offsets {}", snapshot.sessions().size(), snapshot.offsets());
+        } catch (Exception e) {
+            // The transaction rolled back: the next checkpoint writes these counts along with its own
+            pageViews.requeue();
+            referrers.requeue();
+            log.warn("Failed to checkpoint live stats: {}", e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+    
+    private void restore(LiveStatsCheckpointService.Snapshot snapshot) {
+        profileViews.set(snapshot.profileViews());
+        uniqueCountries.addAll(snapshot.countries());
+        sessionTracker.restore(snapshot.sessions());
+        snapshot.offsets().forEach((partition, offset) -> {
+            int dash = partition.lastIndexOf('-');
+            nextOffsets.put(new TopicPartition(partition.substring(0, dash),
+                    Integer.parseInt(partition.substring(dash + 1))), offset);
+        });
+        log.info("Restored live stats checkpoint of node {}: {} views, {} sessions, offsets {}",
+                checkpointService.getNodeId(), snapshot.profileViews(), snapshot.sessions().size(), snapshot.offsets());
     }
     
     /**
-     * Get current statistics - useful for initial load or debugging
+     * Get current cluster-wide statistics - useful for initial load or debugging
      */
     public LiveStatsDTO getCurrentStats() {
-        return new LiveStatsDTO(
-            activeViewers.get(),
-            uniqueCountries.size(),
-            (int) profileViews.get()
+        return clusterStatsService.globalStats();
+    }
+    
+    /**
+     * This node's partial statistics, only the partitions it consumes
+     */
+    public NodeStatsState getLocalState() {
+        LocalDate today = LocalDate.now();
+        TrendingPageService.WindowCounts trendCounts = trendingPageService.localCounts();
+        return new NodeStatsState(
+            today,
+            sessionTracker.activeCount(),
+            profileViews.get(),
+            List.copyOf(uniqueCountries),
+            uniqueVisitorService.sketchDay(today).toBytes(),
+            uniqueVisitorService.sketchWeek(today).toBytes(),
+            uniqueVisitorService.sketchMonth(today).toBytes(),
+            livePageViewerService.snapshot(),
+            trendCounts.views(),
+            trendCounts.previousViews()
         );
     }
     
@@ -156,24 +465,26 @@ public class VisitorEventConsumer {
      * Reset statistics - useful for testing or scheduled resets
      */
     public void resetStats() {
-        activeViewers.set(0);
-        activeSessions.clear();
-        uniqueCountries.clear();
-        profileViews.set(0);
+        stateLock.writeLock().lock();
+        try {
+            livePageViewerService.clear();
+            sessionTracker.clear();
+            uniqueCountries.clear();
+            profileViews.set(0);
+        } finally {
+            stateLock.writeLock().unlock();
+        }
         log.info("Statistics reset");
     }
     
     @PostConstruct
     public void init() {
+        // Runs before the listener containers start, so the seek offsets are known on first assignment
+        checkpointService.load().ifPresent(this::restore);
+        clusterStatsService.register(this::getLocalState);
+        liveStatsPublisher.register(this::getCurrentStats);
         log.info("🚀 VisitorEventConsumer STARTED!");
         log.info("📊 Initial stats - Active: {}, Countries: {}, Total views: {}", 
-            activeViewers.get(), uniqueCountries.size(), profileViews.get());
-            
-        // Initialize with some default countries for demo purposes (optional)
-        // Remove these lines for production
-        uniqueCountries.add("Netherlands");
-        uniqueCountries.add("United States");
-        uniqueCountries.add("Germany");
-        log.info("Initialized with {} demo countries", uniqueCountries.size());
+            sessionTracker.activeCount(), uniqueCountries.size(), profileViews.get());
     }
 }
\ No newline at end of file
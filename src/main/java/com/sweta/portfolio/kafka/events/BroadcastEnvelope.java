@@ -0,0 +1,41 @@
+package com.sweta.portfolio.kafka.events;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A WebSocket broadcast made on one node, published to the ws-broadcasts topic (keyed by
+ * destination) so every other node delivers it to its own clients too.
+ *
+ * originEpoch (start time of the origin node's run) and sequence order the broadcasts of one
+ * node: a receiver drops an envelope that is not newer than the last one it delivered for the
+ * same node and destination, which filters redeliveries and keeps each destination in order.
+ * user is set for convertAndSendToUser messages, null for topic broadcasts.
+ * payload is the broadcast's JSON as the origin serialized it (base64 in the JSON wire format).
+ */
+@Data
+@NoArgsConstructor
+public class BroadcastEnvelope {
+    private String eventType = "WS_BROADCAST";
+    private LocalDateTime timestamp = LocalDateTime.now();
+
+    private String originNode;
+    private long originEpoch;
+    private long sequence;
+    private String destination;
+    private String user;
+    private byte[] payload;
+
+    public BroadcastEnvelope(String originNode, long originEpoch, long sequence,
+                             String destination, String user, byte[] payload) {
+        this();
+        this.originNode = originNode;
+        this.originEpoch = originEpoch;
+        this.sequence = sequence;
+        this.destination = destination;
+        this.user = user;
+        this.payload = payload;
+    }
+}
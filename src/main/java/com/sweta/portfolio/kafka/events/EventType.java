@@ -0,0 +1,77 @@
+package com.sweta.portfolio.kafka.events;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of every event we put on Kafka.
+ * Maps the "eventType" value carried in the payload (and in the record header)
+ * to the class it should be bound to.
+ */
+public enum EventType {
+
+    CONTACT_SUBMITTED(1, ContactSubmittedEvent.class),
+    CONTACT_PROCESSED(2, ContactProcessedEvent.class),
+    VISITOR_SESSION(3, VisitorSessionEvent.class),
+    PAGE_VIEW(4, PageViewEvent.class),
+    HEARTBEAT(5, HeartbeatEvent.class),
+    NODE_STATS(6, NodeStatsState.class),
+    SCROLL(7, ScrollEvent.class),
+    WS_BROADCAST(8, BroadcastEnvelope.class);
+
+    /**
+     * Record header carrying the event type, so consumers can pick
+     * the target class without looking into the payload
+     */
+    public static final String HEADER = "eventType";
+
+    private static final Map<String, EventType> BY_NAME = new HashMap<>();
+    private static final Map<Class<?>, EventType> BY_CLASS = new HashMap<>();
+    private static final EventType[] BY_CODE = new EventType[128];
+
+    static {
+        for (EventType type : values()) {
+            BY_NAME.put(type.name(), type);
+            BY_CLASS.put(type.eventClass, type);
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    // Stable one-byte id used by the binary wire format - never reuse or renumber
+    private final int code;
+    private final Class<?> eventClass;
+
+    EventType(int code, Class<?> eventClass) {
+        this.code = code;
+        this.eventClass = eventClass;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public Class<?> getEventClass() {
+        return eventClass;
+    }
+
+    /**
+     * Lookup by binary code, returns null for unknown codes
+     */
+    public static EventType fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    /**
+     * Lookup by name, returns null for unknown types instead of throwing
+     */
+    public static EventType fromName(String name) {
+        return name != null ? BY_NAME.get(name) : null;
+    }
+
+    /**
+     * Lookup by event class, returns null for classes that are not registered
+     */
+    public static EventType fromClass(Class<?> eventClass) {
+        return BY_CLASS.get(eventClass);
+    }
+}
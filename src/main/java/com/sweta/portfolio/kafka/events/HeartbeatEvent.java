@@ -0,0 +1,26 @@
+package com.sweta.portfolio.kafka.events;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Keep-alive sent by an open page so its session does not idle out.
+ * Deliberately minimal - no event id, nothing to look up, only the session to refresh.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeartbeatEvent {
+    private String eventType = "HEARTBEAT";
+    private LocalDateTime timestamp = LocalDateTime.now();
+    
+    private String sessionId;
+    
+    public HeartbeatEvent(String sessionId) {
+        this();
+        this.sessionId = sessionId;
+    }
+}
@@ -0,0 +1,59 @@
+package com.sweta.portfolio.kafka.events;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Partial live stats of one backend node, published to the compacted node-stats topic
+ * keyed by nodeId. Every field merges without double counting: the counters cover only
+ * the node's own partitions (sessions are keyed by session id), and so do the live viewers
+ * per page and the trending window counts per page, countries are a set, and the unique visitor
+ * sketches are HyperLogLog registers merged by register-wise max.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NodeStatsState {
+    private String eventType = "NODE_STATS";
+    private LocalDateTime timestamp = LocalDateTime.now();
+    
+    private String nodeId;
+    // Start time of the publishing node's run, tells a second node publishing under the same id apart
+    private long runEpoch;
+    // Day the unique visitor sketches belong to
+    private LocalDate day;
+    private int activeViewers;
+    private long profileViews;
+    private List<String> countries;
+    private byte[] uniqueToday;
+    private byte[] uniqueThisWeek;
+    private byte[] uniqueThisMonth;
+    // Live sessions of this node per page they are on, pages without any left out
+    private Map<String, Long> pageViewers;
+    // Page views of this node per page over the trending window and over the window before it
+    private Map<String, Long> trendViews;
+    private Map<String, Long> trendPreviousViews;
+    
+    public NodeStatsState(LocalDate day, int activeViewers, long profileViews, List<String> countries,
+                          byte[] uniqueToday, byte[] uniqueThisWeek, byte[] uniqueThisMonth,
+                          Map<String, Long> pageViewers, Map<String, Long> trendViews,
+                          Map<String, Long> trendPreviousViews) {
+        this();
+        this.day = day;
+        this.activeViewers = activeViewers;
+        this.profileViews = profileViews;
+        this.countries = countries;
+        this.uniqueToday = uniqueToday;
+        this.uniqueThisWeek = uniqueThisWeek;
+        this.uniqueThisMonth = uniqueThisMonth;
+        this.pageViewers = pageViewers;
+        this.trendViews = trendViews;
+        this.trendPreviousViews = trendPreviousViews;
+    }
+}
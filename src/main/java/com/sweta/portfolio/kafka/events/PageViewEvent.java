@@ -14,8 +14,11 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 public class PageViewEvent {
+    @Builder.Default
     private String eventId = UUID.randomUUID().toString();
+    @Builder.Default
     private String eventType = "PAGE_VIEW";
+    @Builder.Default
     private LocalDateTime timestamp = LocalDateTime.now();
     
     private String sessionId;
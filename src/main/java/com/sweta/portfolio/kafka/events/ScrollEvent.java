@@ -0,0 +1,30 @@
+package com.sweta.portfolio.kafka.events;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How far down a page the visitor has scrolled, sent from the beacon batch endpoint
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScrollEvent {
+    private String eventType = "SCROLL";
+    private LocalDateTime timestamp = LocalDateTime.now();
+    
+    private String sessionId;
+    private String page;
+    // Percentage of the page seen, 0 - 100
+    private int depthPercent;
+    
+    public ScrollEvent(String sessionId, String page, int depthPercent) {
+        this();
+        this.sessionId = sessionId;
+        this.page = page;
+        this.depthPercent = depthPercent;
+    }
+}
@@ -3,6 +3,9 @@ package com.sweta.portfolio.kafka.events;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import com.sweta.portfolio.analytics.UserAgent;
+import com.sweta.portfolio.analytics.UserAgentParser;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,17 +17,29 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 public class VisitorSessionEvent {
+    @Builder.Default
     private String eventId = UUID.randomUUID().toString();
+    @Builder.Default
     private String eventType = "VISITOR_SESSION";
+    @Builder.Default
     private LocalDateTime timestamp = LocalDateTime.now();
     
     private String sessionId;
     private String ipAddress;
     private String userAgent;
     private String location;
+    // Structured location from the GeoIP lookup: ISO country code and city, null when unknown
+    private String countryCode;
+    private String city;
     private String page;
     private String referrer;
+    // URL the visit landed on, as reported by the client (null when it did not say)
+    private String landingUrl;
     private String deviceType;
+    // Parsed from the User-Agent header (see UserAgentParser)
+    private String browser;
+    private String os;
+    private Boolean bot;
     
     public VisitorSessionEvent(String sessionId, String ipAddress, String userAgent, 
                               String location, String page) {
@@ -34,17 +49,10 @@ public class VisitorSessionEvent {
         this.userAgent = userAgent;
         this.location = location;
         this.page = page;
-        this.deviceType = detectDeviceType(userAgent);
-    }
-    
-    private String detectDeviceType(String userAgent) {
-        if (userAgent == null) return "Unknown";
-        String ua = userAgent.toLowerCase();
-        if (ua.contains("mobile") || ua.contains("android") || ua.contains("iphone")) {
-            return "Mobile";
-        } else if (ua.contains("tablet") || ua.contains("ipad")) {
-            return "Tablet";
-        }
-        return "Desktop";
+        UserAgent client = UserAgentParser.parse(userAgent);
+        this.deviceType = client.deviceType();
+        this.browser = client.browser();
+        this.os = client.os();
+        this.bot = client.bot();
     }
-}
\ No newline at end of file
+}
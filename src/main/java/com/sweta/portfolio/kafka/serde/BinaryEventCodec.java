@@ -0,0 +1,706 @@
+package com.sweta.portfolio.kafka.serde;
+
+import com.sweta.portfolio.kafka.events.BroadcastEnvelope;
+import com.sweta.portfolio.kafka.events.ContactProcessedEvent;
+import com.sweta.portfolio.kafka.events.ContactSubmittedEvent;
+import com.sweta.portfolio.kafka.events.EventType;
+import com.sweta.portfolio.kafka.events.HeartbeatEvent;
+import com.sweta.portfolio.kafka.events.NodeStatsState;
+import com.sweta.portfolio.kafka.events.PageViewEvent;
+import com.sweta.portfolio.kafka.events.ScrollEvent;
+import com.sweta.portfolio.kafka.events.VisitorSessionEvent;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact, versioned binary encoding of our events.
+ *
+ * Layout: MAGIC, VERSION, event type code, then the event fields in a fixed order:
+ * - strings: varint (length + 1) followed by UTF-8 bytes, 0 means null
+ * - ids: one tag byte, then 16 raw bytes for UUID / 32-hex ids, or a string for anything else
+ * - timestamps: varint (epoch millis + 1), 0 means null; the LocalDateTime wall clock is
+ *   encoded against UTC so it round-trips unchanged (truncated to milliseconds)
+ * - counts by name (pageViewers): varint (size + 1), 0 means null, then each name as a
+ *   string followed by its count as a varint
+ * - enums such as eventType, deviceType, priority and status: one byte dictionary index,
+ *   with an escape for values that are not in the dictionary
+ *
+ * JSON payloads always start with '{' (or whitespace), so MAGIC lets readers tell the
+ * two formats apart without a header.
+ * A new VERSION only appends fields to a layout; readers accept every older version and
+ * leave the fields it lacks null. Version 2 added countryCode and city to VISITOR_SESSION,
+ * version 3 its browser, os and bot flag, version 4 its landingUrl; version 5 added
+ * pageViewers to NODE_STATS, version 6 its runEpoch, version 7 its trendViews and
+ * trendPreviousViews.
+ * Dictionaries are append-only: new values go at the end, existing indexes never move.
+ */
+public final class BinaryEventCodec {
+
+    public static final byte MAGIC = (byte) 0xB7;
+    public static final byte VERSION = 7;
+
+    private static final int NULL = 0;
+    private static final int LITERAL = 127;
+
+    private static final int ID_UUID = 1;
+    private static final int ID_HEX_UPPER = 2;
+    private static final int ID_STRING = 3;
+
+    private static final String[] DEVICE_TYPES = {"Desktop", "Mobile", "Tablet", "Unknown", "Bot"};
+    private static final String[] BROWSERS = {"Chrome", "Safari", "Firefox", "Edge", "Opera",
+            "Samsung Internet", "Internet Explorer", "Other", "Unknown"};
+    private static final String[] OPERATING_SYSTEMS = {"Windows", "macOS", "iOS", "Android", "Linux",
+            "ChromeOS", "Other", "Unknown"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "URGENT"};
+    private static final String[] STATUSES = {"NEW", "PROCESSING", "ANALYZED", "RESPONDED", "ARCHIVED"};
+
+    private static final char[] HEX_LOWER = "0123456789abcdef".toCharArray();
+    private static final char[] HEX_UPPER = "0123456789ABCDEF".toCharArray();
+
+    private BinaryEventCodec() {
+    }
+
+    /**
+     * True when the payload was written by this codec
+     */
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 1 && data[0] == MAGIC;
+    }
+
+    /**
+     * Encode a registered event, returns null when the class has no binary layout
+     */
+    public static byte[] encode(Object event) {
+        EventType type = EventType.fromClass(event.getClass());
+        if (type == null) {
+            return null;
+        }
+        Writer out = new Writer();
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(type.getCode());
+        switch (type) {
+            case CONTACT_SUBMITTED -> writeContactSubmitted(out, (ContactSubmittedEvent) event);
+            case CONTACT_PROCESSED -> writeContactProcessed(out, (ContactProcessedEvent) event);
+            case VISITOR_SESSION -> writeVisitorSession(out, (VisitorSessionEvent) event);
+            case PAGE_VIEW -> writePageView(out, (PageViewEvent) event);
+            case HEARTBEAT -> writeHeartbeat(out, (HeartbeatEvent) event);
+            case NODE_STATS -> writeNodeStats(out, (NodeStatsState) event);
+            case SCROLL -> writeScroll(out, (ScrollEvent) event);
+            case WS_BROADCAST -> writeBroadcast(out, (BroadcastEnvelope) event);
+        }
+        return out.toByteArray();
+    }
+
+    public static Object decode(byte[] data) {
+        Reader in = new Reader(data);
+        if ((byte) in.readByte() != MAGIC) {
+            throw new SerializationException("Not a binary event payload");
+        }
+        int version = in.readByte();
+        if (version < 1 || version > VERSION) {
+            throw new SerializationException("Unsupported binary event version: " + version);
+        }
+        int code = in.readByte();
+        EventType type = EventType.fromCode(code);
+        if (type == null) {
+            throw new SerializationException("Unknown binary event type code: " + code);
+        }
+        return switch (type) {
+            case CONTACT_SUBMITTED -> readContactSubmitted(in);
+            case CONTACT_PROCESSED -> readContactProcessed(in);
+            case VISITOR_SESSION -> readVisitorSession(in, version);
+            case PAGE_VIEW -> readPageView(in);
+            case HEARTBEAT -> readHeartbeat(in);
+            case NODE_STATS -> readNodeStats(in, version);
+            case SCROLL -> readScroll(in);
+            case WS_BROADCAST -> readBroadcast(in);
+        };
+    }
+
+    private static void writeContactSubmitted(Writer out, ContactSubmittedEvent event) {
+        out.writeId(event.getEventId());
+        out.writeEventType(event.getEventType());
+        out.writeTimestamp(event.getTimestamp());
+        out.writeId(event.getContactId());
+        out.writeString(event.getEmail());
+        out.writeString(event.getName());
+        out.writeString(event.getCompany());
+        out.writeString(event.getMessage());
+        out.writeDictionary(event.getPriority(), PRIORITIES);
+    }
+
+    private static ContactSubmittedEvent readContactSubmitted(Reader in) {
+        ContactSubmittedEvent event = new ContactSubmittedEvent();
+        event.setEventId(in.readId());
+        event.setEventType(in.readEventType());
+        event.setTimestamp(in.readTimestamp());
+        event.setContactId(in.readId());
+        event.setEmail(in.readString());
+        event.setName(in.readString());
+        event.setCompany(in.readString());
+        event.setMessage(in.readString());
+        event.setPriority(in.readDictionary(PRIORITIES));
+        return event;
+    }
+
+    private static void writeContactProcessed(Writer out, ContactProcessedEvent event) {
+        out.writeId(event.getEventId());
+        out.writeEventType(event.getEventType());
+        out.writeTimestamp(event.getTimestamp());
+        out.writeId(event.getContactId());
+        out.writeDictionary(event.getStatus(), STATUSES);
+        out.writeString(event.getAnalysisResult());
+    }
+
+    private static ContactProcessedEvent readContactProcessed(Reader in) {
+        ContactProcessedEvent event = new ContactProcessedEvent();
+        event.setEventId(in.readId());
+        event.setEventType(in.readEventType());
+        event.setTimestamp(in.readTimestamp());
+        event.setContactId(in.readId());
+        event.setStatus(in.readDictionary(STATUSES));
+        event.setAnalysisResult(in.readString());
+        return event;
+    }
+
+    private static void writeVisitorSession(Writer out, VisitorSessionEvent event) {
+        out.writeId(event.getEventId());
+        out.writeEventType(event.getEventType());
+        out.writeTimestamp(event.getTimestamp());
+        out.writeId(event.getSessionId());
+        out.writeString(event.getIpAddress());
+        out.writeString(event.getUserAgent());
+        out.writeString(event.getLocation());
+        out.writeString(event.getPage());
+        out.writeString(event.getReferrer());
+        out.writeDictionary(event.getDeviceType(), DEVICE_TYPES);
+        out.writeString(event.getCountryCode());
+        out.writeString(event.getCity());
+        out.writeDictionary(event.getBrowser(), BROWSERS);
+        out.writeDictionary(event.getOs(), OPERATING_SYSTEMS);
+        out.writeByte(event.getBot() == null ? NULL : event.getBot() ? 2 : 1);
+        out.writeString(event.getLandingUrl());
+    }
+
+    private static VisitorSessionEvent readVisitorSession(Reader in, int version) {
+        VisitorSessionEvent event = new VisitorSessionEvent();
+        event.setEventId(in.readId());
+        event.setEventType(in.readEventType());
+        event.setTimestamp(in.readTimestamp());
+        event.setSessionId(in.readId());
+        event.setIpAddress(in.readString());
+        event.setUserAgent(in.readString());
+        event.setLocation(in.readString());
+        event.setPage(in.readString());
+        event.setReferrer(in.readString());
+        event.setDeviceType(in.readDictionary(DEVICE_TYPES));
+        if (version >= 2) {
+            event.setCountryCode(in.readString());
+            event.setCity(in.readString());
+        }
+        if (version >= 3) {
+            event.setBrowser(in.readDictionary(BROWSERS));
+            event.setOs(in.readDictionary(OPERATING_SYSTEMS));
+            int bot = in.readByte();
+            event.setBot(bot == NULL ? null : bot == 2);
+        }
+        if (version >= 4) {
+            event.setLandingUrl(in.readString());
+        }
+        return event;
+    }
+
+    private static void writePageView(Writer out, PageViewEvent event) {
+        out.writeId(event.getEventId());
+        out.writeEventType(event.getEventType());
+        out.writeTimestamp(event.getTimestamp());
+        out.writeId(event.getSessionId());
+        out.writeString(event.getPage());
+        out.writeString(event.getPreviousPage());
+        out.writeNullableLong(event.getTimeSpentSeconds());
+        out.writeString(event.getScrollDepth());
+    }
+
+    private static PageViewEvent readPageView(Reader in) {
+        PageViewEvent event = new PageViewEvent();
+        event.setEventId(in.readId());
+        event.setEventType(in.readEventType());
+        event.setTimestamp(in.readTimestamp());
+        event.setSessionId(in.readId());
+        event.setPage(in.readString());
+        event.setPreviousPage(in.readString());
+        event.setTimeSpentSeconds(in.readNullableLong());
+        event.setScrollDepth(in.readString());
+        return event;
+    }
+
+    private static void writeHeartbeat(Writer out, HeartbeatEvent event) {
+        out.writeEventType(event.getEventType());
+        out.writeTimestamp(event.getTimestamp());
+        out.writeId(event.getSessionId());
+    }
+
+    private static HeartbeatEvent readHeartbeat(Reader in) {
+        HeartbeatEvent event = new HeartbeatEvent();
+        event.setEventType(in.readEventType());
+        event.setTimestamp(in.readTimestamp());
+        event.setSessionId(in.readId());
+        return event;
+    }
+
+    private static void writeScroll(Writer out, ScrollEvent event) {
+        out.writeEventType(event.getEventType());
+        out.writeTimestamp(event.getTimestamp());
+        out.writeId(event.getSessionId());
+        out.writeString(event.getPage());
+        out.writeByte(event.getDepthPercent());
+    }
+
+    private static ScrollEvent readScroll(Reader in) {
+        ScrollEvent event = new ScrollEvent();
+        event.setEventType(in.readEventType());
+        event.setTimestamp(in.readTimestamp());
+        event.setSessionId(in.readId());
+        event.setPage(in.readString());
+        event.setDepthPercent(in.readByte());
+        return event;
+    }
+
+    private static void writeNodeStats(Writer out, NodeStatsState event) {
+        out.writeEventType(event.getEventType());
+        out.writeTimestamp(event.getTimestamp());
+        out.writeString(event.getNodeId());
+        out.writeVarLong(event.getDay() == null ? NULL : event.getDay().toEpochDay() + 1);
+        out.writeVarLong(event.getActiveViewers());
+        out.writeVarLong(event.getProfileViews());
+        out.writeStringList(event.getCountries());
+        out.writeBytes(event.getUniqueToday());
+        out.writeBytes(event.getUniqueThisWeek());
+        out.writeBytes(event.getUniqueThisMonth());
+        out.writeCounts(event.getPageViewers());
+        out.writeVarLong(event.getRunEpoch());
+        out.writeCounts(event.getTrendViews());
+        out.writeCounts(event.getTrendPreviousViews());
+    }
+
+    private static NodeStatsState readNodeStats(Reader in, int version) {
+        NodeStatsState event = new NodeStatsState();
+        event.setEventType(in.readEventType());
+        event.setTimestamp(in.readTimestamp());
+        event.setNodeId(in.readString());
+        long day = in.readVarLong();
+        event.setDay(day == NULL ? null : LocalDate.ofEpochDay(day - 1));
+        event.setActiveViewers((int) in.readVarLong());
+        event.setProfileViews(in.readVarLong());
+        event.setCountries(in.readStringList());
+        event.setUniqueToday(in.readBytes());
+        event.setUniqueThisWeek(in.readBytes());
+        event.setUniqueThisMonth(in.readBytes());
+        if (version >= 5) {
+            event.setPageViewers(in.readCounts());
+        }
+        if (version >= 6) {
+            event.setRunEpoch(in.readVarLong());
+        }
+        if (version >= 7) {
+            event.setTrendViews(in.readCounts());
+            event.setTrendPreviousViews(in.readCounts());
+        }
+        return event;
+    }
+
+    private static void writeBroadcast(Writer out, BroadcastEnvelope event) {
+        out.writeEventType(event.getEventType());
+        out.writeTimestamp(event.getTimestamp());
+        out.writeString(event.getOriginNode());
+        out.writeVarLong(event.getOriginEpoch());
+        out.writeVarLong(event.getSequence());
+        out.writeString(event.getDestination());
+        out.writeString(event.getUser());
+        out.writeBytes(event.getPayload());
+    }
+
+    private static BroadcastEnvelope readBroadcast(Reader in) {
+        BroadcastEnvelope event = new BroadcastEnvelope();
+        event.setEventType(in.readEventType());
+        event.setTimestamp(in.readTimestamp());
+        event.setOriginNode(in.readString());
+        event.setOriginEpoch(in.readVarLong());
+        event.setSequence(in.readVarLong());
+        event.setDestination(in.readString());
+        event.setUser(in.readString());
+        event.setPayload(in.readBytes());
+        return event;
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+
+    private static boolean isUuidDash(int i) {
+        return i == 8 || i == 13 || i == 18 || i == 23;
+    }
+
+    /**
+     * Growable output buffer
+     */
+    private static final class Writer {
+
+        private byte[] buf = new byte[256];
+        private int pos;
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(NULL);
+                return;
+            }
+            int length = value.length();
+            if (isAscii(value)) {
+                writeVarLong(length + 1L);
+                ensure(length);
+                for (int i = 0; i < length; i++) {
+                    buf[pos++] = (byte) value.charAt(i);
+                }
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        void writeBytes(byte[] value) {
+            if (value == null) {
+                writeVarLong(NULL);
+                return;
+            }
+            writeVarLong(value.length + 1L);
+            ensure(value.length);
+            System.arraycopy(value, 0, buf, pos, value.length);
+            pos += value.length;
+        }
+
+        void writeStringList(List<String> values) {
+            if (values == null) {
+                writeVarLong(NULL);
+                return;
+            }
+            writeVarLong(values.size() + 1L);
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+
+        void writeCounts(Map<String, Long> counts) {
+            if (counts == null) {
+                writeVarLong(NULL);
+                return;
+            }
+            writeVarLong(counts.size() + 1L);
+            counts.forEach((name, count) -> {
+                writeString(name);
+                writeVarLong(count);
+            });
+        }
+
+        void writeNullableLong(Long value) {
+            // zigzag so that small negative values stay small too; Long.MIN_VALUE wraps to NULL
+            writeVarLong(value == null ? NULL : ((value << 1) ^ (value >> 63)) + 1);
+        }
+
+        void writeTimestamp(LocalDateTime timestamp) {
+            writeVarLong(timestamp == null ? NULL : timestamp.toInstant(ZoneOffset.UTC).toEpochMilli() + 1);
+        }
+
+        void writeEventType(String eventType) {
+            EventType type = EventType.fromName(eventType);
+            if (type != null) {
+                writeByte(type.getCode());
+            } else if (eventType == null) {
+                writeByte(NULL);
+            } else {
+                writeByte(LITERAL);
+                writeString(eventType);
+            }
+        }
+
+        void writeDictionary(String value, String[] dictionary) {
+            if (value == null) {
+                writeByte(NULL);
+                return;
+            }
+            for (int i = 0; i < dictionary.length; i++) {
+                if (dictionary[i].equals(value)) {
+                    writeByte(i + 1);
+                    return;
+                }
+            }
+            writeByte(LITERAL);
+            writeString(value);
+        }
+
+        void writeId(String id) {
+            if (id == null) {
+                writeByte(NULL);
+            } else if (id.length() == 36 && writeUuid(id)) {
+                return;
+            } else if (id.length() == 32 && writeUpperHex(id)) {
+                return;
+            } else {
+                writeByte(ID_STRING);
+                writeString(id);
+            }
+        }
+
+        // Canonical lowercase UUID, as produced by UUID.toString()
+        private boolean writeUuid(String id) {
+            for (int i = 0; i < 36; i++) {
+                char c = id.charAt(i);
+                if (isUuidDash(i) ? c != '-' : hexValue(c) < 0 || (c >= 'A' && c <= 'F')) {
+                    return false;
+                }
+            }
+            writeByte(ID_UUID);
+            ensure(16);
+            for (int i = 0; i < 36; ) {
+                if (isUuidDash(i)) {
+                    i++;
+                    continue;
+                }
+                buf[pos++] = (byte) ((hexValue(id.charAt(i)) << 4) | hexValue(id.charAt(i + 1)));
+                i += 2;
+            }
+            return true;
+        }
+
+        // 32 uppercase hex characters, the shape of Tomcat's session ids
+        private boolean writeUpperHex(String id) {
+            for (int i = 0; i < 32; i++) {
+                char c = id.charAt(i);
+                if (hexValue(c) < 0 || (c >= 'a' && c <= 'f')) {
+                    return false;
+                }
+            }
+            writeByte(ID_HEX_UPPER);
+            ensure(16);
+            for (int i = 0; i < 32; i += 2) {
+                buf[pos++] = (byte) ((hexValue(id.charAt(i)) << 4) | hexValue(id.charAt(i + 1)));
+            }
+            return true;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private static boolean isAscii(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) >= 0x80) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+    }
+
+    /**
+     * Cursor over an encoded payload
+     */
+    private static final class Reader {
+
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        int readByte() {
+            if (pos >= buf.length) {
+                throw new SerializationException("Truncated binary event payload");
+            }
+            return buf[pos++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint in binary event payload");
+        }
+
+        String readString() {
+            long encoded = readVarLong();
+            if (encoded == NULL) {
+                return null;
+            }
+            int length = (int) (encoded - 1);
+            if (length < 0 || pos + length > buf.length) {
+                throw new SerializationException("Truncated binary event payload");
+            }
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        byte[] readBytes() {
+            long encoded = readVarLong();
+            if (encoded == NULL) {
+                return null;
+            }
+            int length = (int) (encoded - 1);
+            if (length < 0 || pos + length > buf.length) {
+                throw new SerializationException("Truncated binary event payload");
+            }
+            byte[] value = Arrays.copyOfRange(buf, pos, pos + length);
+            pos += length;
+            return value;
+        }
+
+        List<String> readStringList() {
+            long encoded = readVarLong();
+            if (encoded == NULL) {
+                return null;
+            }
+            int size = (int) (encoded - 1);
+            if (size < 0 || size > buf.length - pos) {
+                throw new SerializationException("Truncated binary event payload");
+            }
+            List<String> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(readString());
+            }
+            return values;
+        }
+
+        Map<String, Long> readCounts() {
+            long encoded = readVarLong();
+            if (encoded == NULL) {
+                return null;
+            }
+            int size = (int) (encoded - 1);
+            if (size < 0 || size > buf.length - pos) {
+                throw new SerializationException("Truncated binary event payload");
+            }
+            Map<String, Long> counts = new LinkedHashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                counts.put(readString(), readVarLong());
+            }
+            return counts;
+        }
+
+        Long readNullableLong() {
+            long encoded = readVarLong();
+            if (encoded == NULL) {
+                return null;
+            }
+            long zigzag = encoded - 1;
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        LocalDateTime readTimestamp() {
+            long encoded = readVarLong();
+            if (encoded == NULL) {
+                return null;
+            }
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(encoded - 1), ZoneOffset.UTC);
+        }
+
+        String readEventType() {
+            int code = readByte();
+            if (code == NULL) {
+                return null;
+            }
+            if (code == LITERAL) {
+                return readString();
+            }
+            EventType type = EventType.fromCode(code);
+            if (type == null) {
+                throw new SerializationException("Unknown event type code: " + code);
+            }
+            return type.name();
+        }
+
+        String readDictionary(String[] dictionary) {
+            int code = readByte();
+            if (code == NULL) {
+                return null;
+            }
+            if (code == LITERAL) {
+                return readString();
+            }
+            if (code > dictionary.length) {
+                throw new SerializationException("Unknown dictionary code: " + code);
+            }
+            return dictionary[code - 1];
+        }
+
+        String readId() {
+            int tag = readByte();
+            return switch (tag) {
+                case NULL -> null;
+                case ID_UUID -> readHex(HEX_LOWER, true);
+                case ID_HEX_UPPER -> readHex(HEX_UPPER, false);
+                case ID_STRING -> readString();
+                default -> throw new SerializationException("Unknown id tag: " + tag);
+            };
+        }
+
+        private String readHex(char[] digits, boolean uuid) {
+            if (pos + 16 > buf.length) {
+                throw new SerializationException("Truncated binary event payload");
+            }
+            char[] chars = new char[uuid ? 36 : 32];
+            int c = 0;
+            for (int i = 0; i < 16; i++) {
+                if (uuid && (c == 8 || c == 13 || c == 18 || c == 23)) {
+                    chars[c++] = '-';
+                }
+                int b = buf[pos++] & 0xFF;
+                chars[c++] = digits[b >>> 4];
+                chars[c++] = digits[b & 0x0F];
+            }
+            return new String(chars);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.sweta.portfolio.kafka.serde;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.sweta.portfolio.kafka.events.EventType;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Polymorphic deserializer for all our events.
+ * Binary payloads (see {@link BinaryEventCodec}) are recognised by their magic byte,
+ * so a topic can switch formats without breaking reads of older JSON records.
+ * For JSON, the target class is taken from the "eventType" record header, or, for records
+ * written without it, by peeking the "eventType" field with a streaming parser.
+ * The payload is then bound straight from bytes to the event class - no JsonNode tree.
+ * Unknown types fall back to a JsonNode so the listener can still log them.
+ */
+public class EventDeserializer implements Deserializer<Object> {
+
+    private static final String EVENT_TYPE_FIELD = "eventType";
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (BinaryEventCodec.isBinary(data)) {
+            return BinaryEventCodec.decode(data);
+        }
+        try {
+            EventType type = typeFromHeader(headers);
+            if (type == null) {
+                type = peekEventType(data);
+            }
+            if (type == null) {
+                return KafkaEventMapper.mapper().readTree(data);
+            }
+            return KafkaEventMapper.readerFor(type).readValue(data);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to deserialize event from topic " + topic, e);
+        }
+    }
+
+    private EventType typeFromHeader(Headers headers) {
+        if (headers == null) {
+            return null;
+        }
+        Header header = headers.lastHeader(EventType.HEADER);
+        if (header == null || header.value() == null) {
+            return null;
+        }
+        return EventType.fromName(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Walk the top-level fields until "eventType" is found, skipping nested values
+     */
+    private EventType peekEventType(byte[] data) throws IOException {
+        try (JsonParser parser = KafkaEventMapper.mapper().getFactory().createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (EVENT_TYPE_FIELD.equals(field)) {
+                    return EventType.fromName(parser.getValueAsString());
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+}
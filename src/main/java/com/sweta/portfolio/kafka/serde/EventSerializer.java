@@ -0,0 +1,68 @@
+package com.sweta.portfolio.kafka.serde;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.sweta.portfolio.kafka.events.EventType;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Serializer for our events, using the shared mapper.
+ * Writes JSON by default, or the compact {@link BinaryEventCodec} format for the
+ * topics listed in {@link #BINARY_TOPICS_CONFIG}.
+ * Adds an "eventType" header so {@link EventDeserializer} can pick the
+ * target class without parsing the payload.
+ */
+public class EventSerializer implements Serializer<Object> {
+
+    /**
+     * Producer property listing the topics that use the binary format (comma separated or a list)
+     */
+    public static final String BINARY_TOPICS_CONFIG = "portfolio.serializer.binary.topics";
+
+    private Set<String> binaryTopics = Set.of();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object topics = configs.get(BINARY_TOPICS_CONFIG);
+        if (topics instanceof Collection<?> list) {
+            binaryTopics = list.stream().map(Object::toString).map(String::trim)
+                    .filter(topic -> !topic.isEmpty()).collect(Collectors.toUnmodifiableSet());
+        } else if (topics instanceof String list) {
+            binaryTopics = Stream.of(list.split(",")).map(String::trim)
+                    .filter(topic -> !topic.isEmpty()).collect(Collectors.toUnmodifiableSet());
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null) {
+            return null;
+        }
+        EventType type = EventType.fromClass(data.getClass());
+        if (headers != null && type != null) {
+            headers.remove(EventType.HEADER);
+            headers.add(EventType.HEADER, type.name().getBytes(StandardCharsets.UTF_8));
+        }
+        if (type != null && binaryTopics.contains(topic)) {
+            return BinaryEventCodec.encode(data);
+        }
+        try {
+            return KafkaEventMapper.mapper().writeValueAsBytes(data);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Failed to serialize event for topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.sweta.portfolio.kafka.serde;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sweta.portfolio.kafka.events.EventType;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Single ObjectMapper shared by every Kafka serializer/deserializer.
+ * Kafka instantiates serdes by reflection, so this lives in a static holder
+ * instead of being a Spring bean.
+ */
+public final class KafkaEventMapper {
+
+    // Same base configuration as spring-kafka's JsonSerializer, so the wire format does not change
+    private static final ObjectMapper MAPPER = JacksonUtils.enhancedObjectMapper();
+
+    // ObjectReaders are immutable and thread-safe; building them once skips the per-call lookup
+    private static final Map<EventType, ObjectReader> READERS = new EnumMap<>(EventType.class);
+
+    static {
+        for (EventType type : EventType.values()) {
+            READERS.put(type, MAPPER.readerFor(type.getEventClass()));
+        }
+    }
+
+    private KafkaEventMapper() {
+    }
+
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    public static ObjectReader readerFor(EventType type) {
+        return READERS.get(type);
+    }
+}
@@ -0,0 +1,41 @@
+package com.sweta.portfolio.kafka.streams;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Running count and sum of timeSpentSeconds for one window, so the
+ * average can be computed at query time
+ */
+public record TimeSpentAggregate(long count, long totalSeconds) {
+
+    public static final TimeSpentAggregate EMPTY = new TimeSpentAggregate(0, 0);
+
+    public TimeSpentAggregate add(long seconds) {
+        return new TimeSpentAggregate(count + 1, totalSeconds + seconds);
+    }
+
+    public double average() {
+        return count == 0 ? 0.0 : (double) totalSeconds / count;
+    }
+
+    /**
+     * Fixed 16-byte encoding for the state store and changelog
+     */
+    public static Serde<TimeSpentAggregate> serde() {
+        Serializer<TimeSpentAggregate> serializer = (topic, value) -> value == null ? null
+                : ByteBuffer.allocate(16).putLong(value.count).putLong(value.totalSeconds).array();
+        Deserializer<TimeSpentAggregate> deserializer = (topic, data) -> {
+            if (data == null) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            return new TimeSpentAggregate(buffer.getLong(), buffer.getLong());
+        };
+        return Serdes.serdeFrom(serializer, deserializer);
+    }
+}
@@ -0,0 +1,94 @@
+package com.sweta.portfolio.kafka.streams;
+
+import com.sweta.portfolio.kafka.events.PageViewEvent;
+import com.sweta.portfolio.kafka.events.VisitorSessionEvent;
+import com.sweta.portfolio.kafka.serde.EventDeserializer;
+import com.sweta.portfolio.kafka.serde.EventSerializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.state.WindowStore;
+
+import java.time.Duration;
+
+/**
+ * Windowed visitor analytics over visitor-events-topic:
+ * - page views per page, tumbling 1 minute windows
+ * - average timeSpentSeconds per page, tumbling 1 minute windows
+ * - sessions per device type, 5 minute windows hopping every minute
+ *
+ * Results live in persistent (RocksDB) window stores backed by changelog topics,
+ * so they survive restarts, and are read through interactive queries.
+ */
+public final class VisitorAnalyticsTopology {
+
+    public static final String PAGE_VIEWS_STORE = "page-views-per-minute";
+    public static final String TIME_SPENT_STORE = "time-spent-per-minute";
+    public static final String DEVICE_SESSIONS_STORE = "sessions-per-device";
+
+    public static final Duration PAGE_WINDOW = Duration.ofMinutes(1);
+    public static final Duration DEVICE_WINDOW = Duration.ofMinutes(5);
+    public static final Duration DEVICE_WINDOW_ADVANCE = Duration.ofMinutes(1);
+
+    // Marks page views that carry no timeSpentSeconds (null values are dropped by aggregations)
+    private static final long NO_TIME_SPENT = -1L;
+
+    private VisitorAnalyticsTopology() {
+    }
+
+    /**
+     * Add the aggregations to the builder, returns the source stream of visitor events
+     */
+    public static KStream<String, Object> build(StreamsBuilder builder, String visitorEventsTopic) {
+        Serde<Object> eventSerde = Serdes.serdeFrom(new EventSerializer(), new EventDeserializer());
+        KStream<String, Object> events = builder.stream(visitorEventsTopic,
+                Consumed.with(Serdes.String(), eventSerde));
+
+        // Re-key page views by page; only the time spent travels through the repartition topic
+        KStream<String, Long> pageViews = events
+                .filter((key, event) -> event instanceof PageViewEvent pageView && pageView.getPage() != null)
+                .map((key, event) -> {
+                    PageViewEvent pageView = (PageViewEvent) event;
+                    Long timeSpent = pageView.getTimeSpentSeconds();
+                    return KeyValue.pair(pageView.getPage(), timeSpent != null ? timeSpent : NO_TIME_SPENT);
+                });
+
+        pageViews
+                .groupByKey(Grouped.with("page-views-by-page", Serdes.String(), Serdes.Long()))
+                .windowedBy(TimeWindows.ofSizeWithNoGrace(PAGE_WINDOW))
+                .count(Materialized.<String, Long, WindowStore<Bytes, byte[]>>as(PAGE_VIEWS_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long()));
+
+        pageViews
+                .filter((page, timeSpent) -> timeSpent >= 0)
+                .groupByKey(Grouped.with("time-spent-by-page", Serdes.String(), Serdes.Long()))
+                .windowedBy(TimeWindows.ofSizeWithNoGrace(PAGE_WINDOW))
+                .aggregate(() -> TimeSpentAggregate.EMPTY,
+                        (page, timeSpent, aggregate) -> aggregate.add(timeSpent),
+                        Materialized.<String, TimeSpentAggregate, WindowStore<Bytes, byte[]>>as(TIME_SPENT_STORE)
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(TimeSpentAggregate.serde()));
+
+        events
+                .filter((key, event) -> event instanceof VisitorSessionEvent)
+                .map((key, event) -> {
+                    String deviceType = ((VisitorSessionEvent) event).getDeviceType();
+                    return KeyValue.pair(deviceType != null ? deviceType : "Unknown", 1L);
+                })
+                .groupByKey(Grouped.with("sessions-by-device", Serdes.String(), Serdes.Long()))
+                .windowedBy(TimeWindows.ofSizeWithNoGrace(DEVICE_WINDOW).advanceBy(DEVICE_WINDOW_ADVANCE))
+                .count(Materialized.<String, Long, WindowStore<Bytes, byte[]>>as(DEVICE_SESSIONS_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long()));
+
+        return events;
+    }
+}
@@ -0,0 +1,11 @@
+package com.sweta.portfolio.kafka.transport;
+
+/**
+ * Callback for events delivered by the in-process transport.
+ * Receives the same key and bound event a @KafkaListener would.
+ */
+@FunctionalInterface
+public interface EventHandler {
+
+    void onEvent(String key, Object event);
+}
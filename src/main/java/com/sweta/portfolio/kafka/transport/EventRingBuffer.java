@@ -0,0 +1,159 @@
+package com.sweta.portfolio.kafka.transport;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer / single-consumer ring buffer in the style of the LMAX disruptor.
+ *
+ * Producers claim a sequence with one atomic increment, fill the preallocated slot and
+ * publish it by writing the sequence into that slot's marker; no locks on the hot path.
+ * A single dispatcher thread drains published slots in sequence order (so per-topic
+ * ordering matches a single Kafka partition) and hands them to the handler.
+ * When the buffer is full producers wait for the dispatcher instead of dropping events.
+ */
+@Slf4j
+final class EventRingBuffer {
+
+    // Busy-spin this many times before yielding, and yield this many times before parking
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    // Producers unpark a sleeping dispatcher, the timeout only bounds a missed wake-up
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final String name;
+    private final int mask;
+    private final String[] keys;
+    private final Object[] events;
+    // Sequence last published into each slot, -1 while the slot has never been used
+    private final AtomicLongArray published;
+
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong consumed = new AtomicLong(-1);
+
+    private final EventHandler handler;
+    private final Thread dispatcher;
+    private volatile boolean dispatcherSleeping;
+    private volatile boolean running = true;
+
+    EventRingBuffer(String name, int capacity, EventHandler handler) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two, got " + capacity);
+        }
+        this.name = name;
+        this.mask = capacity - 1;
+        this.keys = new String[capacity];
+        this.events = new Object[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.handler = handler;
+        this.dispatcher = new Thread(this::dispatch, "event-bus-" + name);
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Publish one event, waits while the buffer is full
+     */
+    void publish(String key, Object event) {
+        if (!running) {
+            throw new IllegalStateException("Event bus for " + name + " is stopped");
+        }
+        long sequence = claimed.incrementAndGet();
+        long wrapPoint = sequence - keys.length;
+        while (wrapPoint > consumed.get()) {
+            // Full: the slot still holds an event the dispatcher has not handled yet
+            LockSupport.parkNanos(1);
+        }
+
+        int index = (int) sequence & mask;
+        keys[index] = key;
+        events[index] = event;
+        // Volatile write publishes the slot contents; it must be ordered before the sleeping check below
+        published.set(index, sequence);
+
+        if (dispatcherSleeping) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    /**
+     * Number of published events the dispatcher has not handled yet
+     */
+    long backlog() {
+        return claimed.get() - consumed.get();
+    }
+
+    /**
+     * Stop accepting events, drain what was already published and stop the dispatcher
+     */
+    void shutdown(long timeoutMillis) {
+        running = false;
+        LockSupport.unpark(dispatcher);
+        try {
+            dispatcher.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch() {
+        long next = consumed.get() + 1;
+        int idle = 0;
+        while (true) {
+            long available = next - 1;
+            while (isPublished(available + 1)) {
+                available++;
+            }
+
+            if (available >= next) {
+                // Handle the whole published run, then release all its slots with one write
+                for (long sequence = next; sequence <= available; sequence++) {
+                    int index = (int) sequence & mask;
+                    String key = keys[index];
+                    Object event = events[index];
+                    keys[index] = null;
+                    events[index] = null;
+                    try {
+                        handler.onEvent(key, event);
+                    } catch (Exception e) {
+                        log.error("Event handler for {} failed on key {}", name, key, e);
+                    }
+                }
+                consumed.set(available);
+                next = available + 1;
+                idle = 0;
+            } else if (!running && claimed.get() < next) {
+                return;
+            } else {
+                idle = waitForEvents(next, idle);
+            }
+        }
+    }
+
+    private boolean isPublished(long sequence) {
+        return published.get((int) sequence & mask) == sequence;
+    }
+
+    private int waitForEvents(long next, int idle) {
+        if (idle < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            // Announce the sleep before re-checking, so a producer publishing right now sees it and unparks us
+            dispatcherSleeping = true;
+            if (!isPublished(next) && running) {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+            dispatcherSleeping = false;
+        }
+        return idle + 1;
+    }
+}
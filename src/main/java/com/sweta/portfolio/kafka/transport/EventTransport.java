@@ -0,0 +1,29 @@
+package com.sweta.portfolio.kafka.transport;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Delivers an event published on a topic to that topic's handlers.
+ * Kafka is the default; topics that never need to leave the JVM can use the in-process ring buffer.
+ */
+public interface EventTransport {
+
+    /**
+     * Publish one event, the future completes once the transport has accepted it
+     */
+    CompletableFuture<Void> send(String topic, String key, Object event);
+
+    /**
+     * Publish several events under one key back to back, in order.
+     * They share a partition, so the Kafka producer puts them in one batch (one produce request
+     * within linger.ms). The future completes once every event is accepted.
+     */
+    default CompletableFuture<Void> sendAll(String topic, String key, List<?> events) {
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[events.size()];
+        for (int i = 0; i < sends.length; i++) {
+            sends[i] = send(topic, key, events.get(i));
+        }
+        return CompletableFuture.allOf(sends);
+    }
+}
@@ -0,0 +1,57 @@
+package com.sweta.portfolio.kafka.transport;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Picks the transport for each topic.
+ * Topics listed in kafka.transport.in-process-topics stay inside the JVM, all others go through Kafka.
+ */
+@Component
+@Slf4j
+public class EventTransportRouter {
+
+    private final KafkaEventTransport kafkaTransport;
+    private final InProcessEventTransport inProcessTransport;
+    private final Set<String> inProcessTopics;
+
+    public EventTransportRouter(KafkaEventTransport kafkaTransport,
+                                InProcessEventTransport inProcessTransport,
+                                @Value("${kafka.transport.in-process-topics:}") String inProcessTopics) {
+        this.kafkaTransport = kafkaTransport;
+        this.inProcessTransport = inProcessTransport;
+        this.inProcessTopics = Arrays.stream(inProcessTopics.split(","))
+                .map(String::trim)
+                .filter(topic -> !topic.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        if (!this.inProcessTopics.isEmpty()) {
+            log.info("Topics delivered in-process instead of through Kafka: {}", this.inProcessTopics);
+        }
+    }
+
+    /**
+     * Also used by the @KafkaListener autoStartup expressions, so listeners of in-process topics stay idle
+     */
+    public boolean isInProcess(String topic) {
+        return inProcessTopics.contains(topic);
+    }
+
+    public EventTransport transportFor(String topic) {
+        return isInProcess(topic) ? inProcessTransport : kafkaTransport;
+    }
+
+    public CompletableFuture<Void> send(String topic, String key, Object event) {
+        return transportFor(topic).send(topic, key, event);
+    }
+
+    public CompletableFuture<Void> sendAll(String topic, String key, List<?> events) {
+        return transportFor(topic).sendAll(topic, key, events);
+    }
+}
@@ -0,0 +1,68 @@
+package com.sweta.portfolio.kafka.transport;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivers events inside the JVM through one ring buffer per topic.
+ * The event object is handed over as is: no serialization, no broker hop,
+ * but also no persistence - whatever is still in the buffer is lost on a crash.
+ */
+@Component
+@Slf4j
+public class InProcessEventTransport implements EventTransport {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private final int bufferSize;
+    private final Map<String, EventRingBuffer> buffers = new ConcurrentHashMap<>();
+
+    public InProcessEventTransport(@Value("${kafka.transport.ring-buffer-size:8192}") int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Register the single handler of a topic and start its dispatcher thread
+     */
+    public void subscribe(String topic, EventHandler handler) {
+        if (buffers.containsKey(topic)) {
+            throw new IllegalStateException("Topic " + topic + " already has an in-process handler");
+        }
+        buffers.computeIfAbsent(topic, name -> new EventRingBuffer(name, bufferSize, handler));
+        log.info("In-process event bus started for topic {} ({} slots)", topic, bufferSize);
+    }
+
+    @Override
+    public CompletableFuture<Void> send(String topic, String key, Object event) {
+        EventRingBuffer buffer = buffers.get(topic);
+        if (buffer == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("No in-process handler subscribed to topic " + topic));
+        }
+        try {
+            buffer.publish(key, event);
+            return CompletableFuture.completedFuture(null);
+        } catch (IllegalStateException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Events published on the topic but not handled yet, 0 for unknown topics
+     */
+    public long backlog(String topic) {
+        EventRingBuffer buffer = buffers.get(topic);
+        return buffer != null ? buffer.backlog() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        buffers.values().forEach(buffer -> buffer.shutdown(SHUTDOWN_TIMEOUT_MS));
+    }
+}
@@ -0,0 +1,26 @@
+package com.sweta.portfolio.kafka.transport;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes through the KafkaTemplate (serialization, broker round trip, consumer groups)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KafkaEventTransport implements EventTransport {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Override
+    public CompletableFuture<Void> send(String topic, String key, Object event) {
+        return kafkaTemplate.send(topic, key, event)
+                .thenAccept(result -> log.debug("Published event with key: {} to {}-{} at offset: {}",
+                        key, topic, result.getRecordMetadata().partition(), result.getRecordMetadata().offset()));
+    }
+}
@@ -4,6 +4,7 @@ import com.sweta.portfolio.entity.Contact;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -44,6 +45,24 @@ public interface ContactRepository extends JpaRepository<Contact, String> {
            "AND (c.priority = 'HIGH' OR c.priority = 'URGENT')")
     List<Contact> findUnrespondedHighPriorityContacts();
     
+    // Move a contact from one status to another in a single statement.
+    // Returns the number of rows changed: 0 means it does not exist or is no longer in 'from'.
+    @Modifying
+    @Query("UPDATE Contact c SET c.status = :to, c.processedAt = :processedAt, c.version = c.version + 1 " +
+           "WHERE c.id = :id AND c.status = :from")
+    int transitionStatus(
+        @Param("id") String id,
+        @Param("from") Contact.ContactStatus from,
+        @Param("to") Contact.ContactStatus to,
+        @Param("processedAt") LocalDateTime processedAt
+    );
+    
+    // Store the analysis result; only applies while the contact is still PROCESSING
+    @Modifying
+    @Query("UPDATE Contact c SET c.status = 'ANALYZED', c.priority = :priority, c.version = c.version + 1 " +
+           "WHERE c.id = :id AND c.status = 'PROCESSING'")
+    int markAnalyzed(@Param("id") String id, @Param("priority") Contact.Priority priority);
+    
     // Get contacts by company
     @Query("SELECT c.company, COUNT(c) FROM Contact c " +
            "WHERE c.company IS NOT NULL GROUP BY c.company")
@@ -0,0 +1,9 @@
+package com.sweta.portfolio.repository;
+
+import com.sweta.portfolio.entity.LiveStatsCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LiveStatsCheckpointRepository extends JpaRepository<LiveStatsCheckpoint, String> {
+}
@@ -0,0 +1,29 @@
+package com.sweta.portfolio.repository;
+
+import com.sweta.portfolio.entity.PageViewRollup;
+import com.sweta.portfolio.entity.PageViewRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PageViewRollupRepository extends JpaRepository<PageViewRollup, PageViewRollupId> {
+    
+    // Buckets starting in [from, to), served straight from the primary key index
+    @Query("SELECT r FROM PageViewRollup r WHERE r.id.granularity = :granularity "
+            + "AND r.id.bucketStart >= :from AND r.id.bucketStart < :to ORDER BY r.id.bucketStart, r.id.page")
+    List<PageViewRollup> findRange(@Param("granularity") PageViewRollup.Granularity granularity,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to);
+    
+    @Query("SELECT r FROM PageViewRollup r WHERE r.id.granularity = :granularity AND r.id.page = :page "
+            + "AND r.id.bucketStart >= :from AND r.id.bucketStart < :to ORDER BY r.id.bucketStart")
+    List<PageViewRollup> findRangeForPage(@Param("granularity") PageViewRollup.Granularity granularity,
+                                          @Param("page") String page,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+}
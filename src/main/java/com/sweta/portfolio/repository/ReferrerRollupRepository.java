@@ -0,0 +1,32 @@
+package com.sweta.portfolio.repository;
+
+import com.sweta.portfolio.dto.TrafficSourceDTO;
+import com.sweta.portfolio.entity.ReferrerRollup;
+import com.sweta.portfolio.entity.ReferrerRollupId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ReferrerRollupRepository extends JpaRepository<ReferrerRollup, ReferrerRollupId> {
+    
+    // Days in [from, to] summed per source and medium, most sessions first
+    @Query("SELECT new com.sweta.portfolio.dto.TrafficSourceDTO(r.id.source, r.id.medium, SUM(r.sessions)) "
+            + "FROM ReferrerRollup r WHERE r.id.day >= :from AND r.id.day <= :to "
+            + "GROUP BY r.id.source, r.id.medium ORDER BY SUM(r.sessions) DESC")
+    List<TrafficSourceDTO> findTopSources(@Param("from") LocalDate from,
+                                          @Param("to") LocalDate to,
+                                          Pageable page);
+    
+    @Query("SELECT new com.sweta.portfolio.dto.TrafficSourceDTO(r.id.source, r.id.medium, r.id.campaign, SUM(r.sessions)) "
+            + "FROM ReferrerRollup r WHERE r.id.day >= :from AND r.id.day <= :to "
+            + "GROUP BY r.id.source, r.id.medium, r.id.campaign ORDER BY SUM(r.sessions) DESC")
+    List<TrafficSourceDTO> findTopCampaigns(@Param("from") LocalDate from,
+                                            @Param("to") LocalDate to,
+                                            Pageable page);
+}
@@ -0,0 +1,24 @@
+package com.sweta.portfolio.repository;
+
+import com.sweta.portfolio.entity.UniqueVisitorSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UniqueVisitorSketchRepository extends JpaRepository<UniqueVisitorSketch, LocalDate> {
+    
+    // Row lock for merge-on-write, so two instances flushing the same day cannot lose registers
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UniqueVisitorSketch s WHERE s.day = :day")
+    Optional<UniqueVisitorSketch> findForUpdate(@Param("day") LocalDate day);
+    
+    List<UniqueVisitorSketch> findByDayBetween(LocalDate from, LocalDate to);
+}
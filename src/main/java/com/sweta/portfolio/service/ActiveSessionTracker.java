@@ -0,0 +1,168 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.analytics.HierarchicalTimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Live visitor sessions with an idle timeout.
+ *
+ * Any event for a known session only refreshes its volatile lastSeen timestamp; the session
+ * keeps the single timing wheel entry it got when it started. When that entry fires the
+ * deadline is re-checked against lastSeen and the entry is either moved to the new deadline
+ * or the session expires. So memory is one small object per live session, refreshing is
+ * one write, and sessions that go quiet without an exit event still disappear.
+ */
+@Service
+@Slf4j
+public class ActiveSessionTracker {
+
+    private final long idleTimeoutMillis;
+    private final long tickMillis;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final HierarchicalTimingWheel<Session> wheel;
+    private final List<Consumer<String>> endListeners = new CopyOnWriteArrayList<>();
+
+    public ActiveSessionTracker(@Value("${visitor.sessions.idle-timeout:120s}") Duration idleTimeout,
+                                @Value("${visitor.sessions.tick:1s}") Duration tick) {
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.tickMillis = tick.toMillis();
+        // 64 one-second slots cover a minute, the second level about an hour, more levels come on demand
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, 64, System.currentTimeMillis());
+    }
+
+    /**
+     * Called with the session id whenever a session ends, explicitly or by idling out
+     */
+    public void addEndListener(Consumer<String> listener) {
+        endListeners.add(listener);
+    }
+
+    /**
+     * Start (or refresh) a session, returns true when it was not live yet
+     */
+    public boolean start(String sessionId, long nowMillis) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            Session created = new Session(sessionId, nowMillis);
+            session = sessions.putIfAbsent(sessionId, created);
+            if (session == null) {
+                created.timeout = wheel.schedule(created, nowMillis + idleTimeoutMillis);
+                return true;
+            }
+        }
+        session.seen(nowMillis);
+        return false;
+    }
+
+    /**
+     * Refresh a live session (page view, heartbeat), returns false for unknown or expired sessions
+     */
+    public boolean touch(String sessionId, long nowMillis) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return false;
+        }
+        session.seen(nowMillis);
+        return true;
+    }
+
+    /**
+     * End a session explicitly (exit/close), returns false when it was not live
+     */
+    public boolean end(String sessionId) {
+        Session session = sessions.remove(sessionId);
+        if (session == null) {
+            return false;
+        }
+        HierarchicalTimingWheel.Timeout<Session> timeout = session.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        notifyEnded(sessionId);
+        return true;
+    }
+
+    /**
+     * Advance the wheel to nowMillis, returns how many sessions expired
+     */
+    public int expire(long nowMillis) {
+        int[] expired = new int[1];
+        wheel.advance(nowMillis, session -> {
+            if (sessions.get(session.id) != session) {
+                return; // ended explicitly in the meantime
+            }
+            long deadline = session.lastSeen + idleTimeoutMillis;
+            if (deadline > nowMillis + tickMillis) {
+                // Seen since the entry was scheduled: move it instead of expiring
+                session.timeout = wheel.schedule(session, deadline);
+            } else if (sessions.remove(session.id, session)) {
+                expired[0]++;
+                notifyEnded(session.id);
+            }
+        });
+        if (expired[0] > 0) {
+            log.debug("Expired {} idle sessions, {} still active", expired[0], sessions.size());
+        }
+        return expired[0];
+    }
+
+    /**
+     * Last-seen time of every live session, for checkpoints
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> lastSeen = new HashMap<>(sessions.size() * 2);
+        sessions.forEach((id, session) -> lastSeen.put(id, session.lastSeen));
+        return lastSeen;
+    }
+
+    /**
+     * Bring back checkpointed sessions; ones that idled out meanwhile expire on the next tick
+     */
+    public void restore(Map<String, Long> lastSeen) {
+        lastSeen.forEach(this::start);
+    }
+
+    public int activeCount() {
+        return sessions.size();
+    }
+
+    public void clear() {
+        sessions.clear();
+        wheel.clear();
+    }
+
+    private void notifyEnded(String sessionId) {
+        for (Consumer<String> listener : endListeners) {
+            listener.accept(sessionId);
+        }
+    }
+
+    private static final class Session {
+
+        private final String id;
+        private volatile long lastSeen;
+        private volatile HierarchicalTimingWheel.Timeout<Session> timeout;
+
+        Session(String id, long lastSeen) {
+            this.id = id;
+            this.lastSeen = lastSeen;
+        }
+
+        // Times are event times, which can arrive out of order
+        void seen(long millis) {
+            if (millis > lastSeen) {
+                lastSeen = millis;
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.analytics.SlidingWindowCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a visitor tracking request is worth ingesting, before any event is built.
+ *
+ * A request is automated when its User-Agent is a bot (UserAgentService: the parser's rule
+ * plus the known-bot signatures, cached per distinct header) or when its IP starts sessions
+ * faster than visitor.bots.max-sessions-per-minute (uptime pingers, scripted loops). Once
+ * visitor.bots.max-tracked-ips IPs have started sessions within a minute, session starts from
+ * further IPs count as too fast as well. The IP is resolved by ClientIpService.
+ * In drop mode automated requests are rejected; in sample mode one in 1/sample-rate is let
+ * through, flagged as a bot, so bot traffic stays visible in the analytics without flooding them.
+ */
+@Service
+public class BotFilterService {
+
+    // Request attribute marking an automated request that was sampled in
+    public static final String BOT_ATTRIBUTE = BotFilterService.class.getName() + ".bot";
+
+    public enum Verdict { HUMAN, BOT, TOO_FAST }
+
+    private enum Mode { DROP, SAMPLE }
+
+    private final UserAgentService userAgentService;
+    private final SlidingWindowCounter sessionStarts;
+    private final double maxSessionsPerMinute;
+    private final Mode mode;
+    private final double sampleRate;
+
+    private final Counter botDropped;
+    private final Counter botSampled;
+    private final Counter fastDropped;
+    private final Counter fastSampled;
+
+    public BotFilterService(UserAgentService userAgentService,
+                            MeterRegistry meterRegistry,
+                            @Value("${visitor.bots.mode:drop}") String mode,
+                            @Value("${visitor.bots.sample-rate:0.01}") double sampleRate,
+                            @Value("${visitor.bots.max-sessions-per-minute:30}") double maxSessionsPerMinute,
+                            @Value("${visitor.bots.max-tracked-ips:100000}") int maxTrackedIps) {
+        this.userAgentService = userAgentService;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.sampleRate = Math.max(0, Math.min(1, sampleRate));
+        this.maxSessionsPerMinute = maxSessionsPerMinute;
+        this.sessionStarts = new SlidingWindowCounter(60_000, maxTrackedIps, System.currentTimeMillis());
+
+        this.botDropped = filteredCounter(meterRegistry, "user-agent", "dropped");
+        this.botSampled = filteredCounter(meterRegistry, "user-agent", "sampled");
+        this.fastDropped = filteredCounter(meterRegistry, "velocity", "dropped");
+        this.fastSampled = filteredCounter(meterRegistry, "velocity", "sampled");
+    }
+
+    private static Counter filteredCounter(MeterRegistry meterRegistry, String reason, String action) {
+        return Counter.builder("visitor.bots.filtered")
+                .description("Automated visitor tracking requests, by why they were flagged and what happened to them")
+                .tag("reason", reason)
+                .tag("action", action)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Classify a tracking request; sessionStart requests also count towards the IP's session rate
+     */
+    public Verdict classify(String ipAddress, String userAgent, boolean sessionStart) {
+        if (userAgentService.parse(userAgent).bot()) {
+            return Verdict.BOT;
+        }
+        if (sessionStart && ipAddress != null
+                && sessionStarts.increment(ipAddress, System.currentTimeMillis()) > maxSessionsPerMinute) {
+            return Verdict.TOO_FAST;
+        }
+        return Verdict.HUMAN;
+    }
+
+    /**
+     * Whether a request with this verdict should be ingested (always for humans, per mode otherwise)
+     */
+    public boolean admit(Verdict verdict) {
+        if (verdict == Verdict.HUMAN) {
+            return true;
+        }
+        boolean sampled = mode == Mode.SAMPLE && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (verdict == Verdict.BOT) {
+            (sampled ? botSampled : botDropped).increment();
+        } else {
+            (sampled ? fastSampled : fastDropped).increment();
+        }
+        return sampled;
+    }
+}
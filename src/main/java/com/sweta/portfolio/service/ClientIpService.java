@@ -0,0 +1,62 @@
+package com.sweta.portfolio.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Client IP of a request that came through visitor.trusted-proxies reverse proxies.
+ *
+ * Every proxy appends the address it got the request from to X-Forwarded-For, so only the last
+ * trusted-proxies entries were written by our own proxies; anything left of them is whatever the
+ * client sent and may be forged. The client is the entry the outermost trusted proxy appended.
+ * Without trusted proxies, or when the header has fewer hops than there are proxies (the request
+ * did not come through all of them), the headers are ignored and the client is the peer address.
+ * X-Real-IP is never used: nothing guarantees a proxy replaced the client's own.
+ */
+@Service
+@Slf4j
+public class ClientIpService {
+
+    private final int trustedProxies;
+
+    // Set once the ignored-X-Forwarded-For warning has been logged
+    private final AtomicBoolean warnedUntrustedForwardedFor = new AtomicBoolean();
+
+    public ClientIpService(@Value("${visitor.trusted-proxies:0}") int trustedProxies) {
+        if (trustedProxies < 0) {
+            throw new IllegalArgumentException("visitor.trusted-proxies must not be negative");
+        }
+        this.trustedProxies = trustedProxies;
+    }
+
+    public String resolve(HttpServletRequest request) {
+        if (trustedProxies == 0) {
+            if (request.getHeader("X-Forwarded-For") != null && warnedUntrustedForwardedFor.compareAndSet(false, true)) {
+                // Behind a proxy every visitor would share its address (and its bot filter rate limit)
+                log.warn("Ignoring X-Forwarded-For from {} because visitor.trusted-proxies is 0: if the app runs "
+                        + "behind reverse proxies, set TRUSTED_PROXIES to their number", request.getRemoteAddr());
+            }
+            return request.getRemoteAddr();
+        }
+        // A proxy may add its own X-Forwarded-For header instead of appending to the list
+        List<String> hops = new ArrayList<>();
+        Enumeration<String> headers = request.getHeaders("X-Forwarded-For");
+        while (headers != null && headers.hasMoreElements()) {
+            for (String hop : headers.nextElement().split(",")) {
+                hops.add(hop.trim());
+            }
+        }
+        if (hops.size() < trustedProxies) {
+            return request.getRemoteAddr();
+        }
+        String client = hops.get(hops.size() - trustedProxies);
+        return client.isEmpty() ? request.getRemoteAddr() : client;
+    }
+}
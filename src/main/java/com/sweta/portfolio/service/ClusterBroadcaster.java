@@ -0,0 +1,234 @@
+package com.sweta.portfolio.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sweta.portfolio.kafka.ContactEventProducer;
+import com.sweta.portfolio.kafka.events.BroadcastEnvelope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * WebSocket broadcasts that reach the clients of every node, not only the node making them.
+ *
+ * Each node runs its own simple broker, so a broadcast is delivered to the local clients right
+ * away and published once to the ws-broadcasts topic, keyed by destination so one destination's
+ * broadcasts stay in order on one partition. Every node follows that topic (like node-stats,
+ * with a throw-away group id) and relays the broadcasts of the other nodes to its local broker;
+ * its own come back too and are skipped. Envelopes carry the origin node's run epoch and a
+ * sequence number, and a node only relays an envelope newer than the last one it relayed for
+ * that origin and destination, so redelivered records are not sent twice.
+ *
+ * A payload is serialized to JSON once, with a writer cached per payload class, and those bytes
+ * are what every hop carries: the local broker hands the same byte[] to each subscriber session,
+ * the envelope carries it to the other nodes, and they pass it to their brokers as is, so no
+ * node runs the generic message converter for a broadcast.
+ *
+ * A destination whose clients get per-node content, like a delta feed, can take the broadcasts
+ * of other nodes through a relay handler instead, and be fed by forward() on the origin.
+ *
+ * Only for broadcasts whose content is the same on every node. Content every node already merges
+ * cluster-wide itself, like the trending pages, goes to the local clients only, through sendLocal().
+ */
+@Service
+@Slf4j
+public class ClusterBroadcaster {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ContactEventProducer eventProducer;
+    private final ObjectMapper objectMapper;
+    private final String topic;
+    private final String nodeId;
+    private final long epoch = System.currentTimeMillis();
+
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final Map<String, Consumer<byte[]>> relayHandlers = new ConcurrentHashMap<>();
+
+    // Last relayed position per origin node and destination
+    private final Map<String, Stream> streams = new ConcurrentHashMap<>();
+
+    private final Counter publishedCounter;
+    private final Counter relayedCounter;
+    private final Counter duplicateCounter;
+
+    private long sequence;
+
+    // Run epoch of the last other node seen broadcasting under our id, logged once
+    private volatile long duplicateEpoch;
+
+    public ClusterBroadcaster(SimpMessagingTemplate messagingTemplate,
+                              ContactEventProducer eventProducer,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${kafka.topics.ws-broadcasts}") String topic,
+                              @Value("#{@nodeIdentity.id}") String nodeId) {
+        this.messagingTemplate = messagingTemplate;
+        this.eventProducer = eventProducer;
+        this.objectMapper = objectMapper;
+        this.topic = topic;
+        this.nodeId = nodeId;
+        this.publishedCounter = Counter.builder("websocket.cluster.published")
+                .description("Broadcasts published for the other nodes")
+                .register(meterRegistry);
+        this.relayedCounter = Counter.builder("websocket.cluster.relayed")
+                .description("Broadcasts of other nodes delivered to this node's clients")
+                .register(meterRegistry);
+        this.duplicateCounter = Counter.builder("websocket.cluster.duplicates")
+                .description("Redelivered or out-of-order broadcasts dropped")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Send the payload to the destination's subscribers on every node
+     */
+    public void broadcast(String destination, Object payload) {
+        byte[] json = serialize(payload);
+        messagingTemplate.send(destination, jsonMessage(json));
+        publish(destination, null, json);
+    }
+
+    /**
+     * Send the payload to this node's subscribers of the destination only, for content every node computes itself
+     */
+    public void sendLocal(String destination, Object payload) {
+        messagingTemplate.send(destination, jsonMessage(serialize(payload)));
+    }
+
+    /**
+     * Send the payload to the user's sessions, on whichever node they are connected to
+     */
+    public void sendToUser(String user, String destination, Object payload) {
+        byte[] json = serialize(payload);
+        messagingTemplate.send(userDestination(user, destination), jsonMessage(json));
+        publish(destination, user, json);
+    }
+
+    /**
+     * Send the payload to the other nodes only, for a destination whose local delivery is the caller's
+     */
+    public void forward(String destination, Object payload) {
+        publish(destination, null, serialize(payload));
+    }
+
+    /**
+     * Hand the JSON of other nodes' broadcasts to this destination to the handler, not to the local broker
+     */
+    public void onRelay(String destination, Consumer<byte[]> handler) {
+        relayHandlers.put(destination, handler);
+    }
+
+    /**
+     * Deliver another node's broadcast to the local clients, unless it was relayed already
+     */
+    public void relay(BroadcastEnvelope envelope) {
+        if (envelope == null || envelope.getDestination() == null) {
+            return;
+        }
+        if (nodeId.equals(envelope.getOriginNode())) {
+            if (envelope.getOriginEpoch() != epoch) {
+                reportDuplicateNode(envelope.getOriginEpoch());
+            }
+            return;
+        }
+        String key = envelope.getOriginNode() + ' ' + envelope.getDestination()
+                + (envelope.getUser() != null ? ' ' + envelope.getUser() : "");
+        Stream stream = streams.computeIfAbsent(key, ignored -> new Stream());
+        // Checked and delivered under the stream's lock, so concurrent listeners cannot reorder it
+        synchronized (stream) {
+            if (!stream.isNewer(envelope.getOriginEpoch(), envelope.getSequence())) {
+                duplicateCounter.increment();
+                log.debug("Dropping broadcast {} of node {} to {}, already relayed",
+                        envelope.getSequence(), envelope.getOriginNode(), envelope.getDestination());
+                return;
+            }
+            Consumer<byte[]> handler = envelope.getUser() == null ? relayHandlers.get(envelope.getDestination()) : null;
+            if (handler != null) {
+                handler.accept(envelope.getPayload());
+            } else {
+                String destination = envelope.getUser() != null
+                        ? userDestination(envelope.getUser(), envelope.getDestination())
+                        : envelope.getDestination();
+                messagingTemplate.send(destination, jsonMessage(envelope.getPayload()));
+            }
+            stream.epoch = envelope.getOriginEpoch();
+            stream.sequence = envelope.getSequence();
+        }
+        relayedCounter.increment();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Our relay consumers start at the end of the topic, so an envelope of our id but of another run
+     * was published while we run: another replica shares our id, and we drop its broadcasts as ours
+     */
+    private void reportDuplicateNode(long otherEpoch) {
+        if (duplicateEpoch != otherEpoch) {
+            duplicateEpoch = otherEpoch;
+            log.error("Another node broadcasts as {} (run {}, ours is {}): give every replica its own visitor.node-id, "
+                    + "broadcasts between them are being dropped", nodeId, otherEpoch, epoch);
+        }
+    }
+
+    private void publish(String destination, String user, byte[] json) {
+        // Numbering and sending under one lock, so the topic sees each destination's sequence in order
+        synchronized (this) {
+            eventProducer.publishEvent(topic, destination,
+                    new BroadcastEnvelope(nodeId, epoch, ++sequence, destination, user, json));
+        }
+        publishedCounter.increment();
+    }
+
+    private byte[] serialize(Object payload) {
+        try {
+            return writers.computeIfAbsent(payload.getClass(), objectMapper::writerFor).writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new MessageConversionException("Failed to serialize " + payload.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * The JSON as a broker message; the template sets the destination on these mutable headers instead of copying them
+     */
+    private static Message<byte[]> jsonMessage(byte[] json) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        headers.setLeaveMutable(true);
+        return MessageBuilder.createMessage(json, headers.getMessageHeaders());
+    }
+
+    // What convertAndSendToUser sends to: the user destination handler resolves it to the user's sessions
+    private String userDestination(String user, String destination) {
+        return messagingTemplate.getUserDestinationPrefix() + user.replace("/", "%2F")
+                + (destination.startsWith("/") ? destination : "/" + destination);
+    }
+
+    /**
+     * Position of the last relayed broadcast of one origin node to one destination
+     */
+    private static final class Stream {
+
+        private long epoch;
+        private long sequence;
+
+        boolean isNewer(long otherEpoch, long otherSequence) {
+            return otherEpoch != epoch ? otherEpoch > epoch : otherSequence > sequence;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.analytics.HyperLogLog;
+import com.sweta.portfolio.dto.LiveStatsDTO;
+import com.sweta.portfolio.kafka.ContactEventProducer;
+import com.sweta.portfolio.kafka.events.NodeStatsState;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cluster-wide live stats across backend replicas.
+ *
+ * Each node only sees the visitor-events partitions assigned to it, so its counters are partial.
+ * Every node publishes its partial state to the compacted node-stats topic (keyed by node id) and
+ * reads the whole topic back, so all nodes hold the latest state of every other node and merge
+ * them with their own live state into the same global view: counters, live viewers per page and
+ * trending window counts per page are summed, countries are a union and unique visitor sketches are merged register-wise, which never double counts.
+ * A node that stops publishing drops out after the node timeout; a clean shutdown publishes a
+ * tombstone so it drops out right away.
+ */
+@Service
+@Slf4j
+public class ClusterStatsService {
+
+    private final ContactEventProducer eventProducer;
+    private final String topic;
+    private final String nodeId;
+    private final Duration nodeTimeout;
+    private final long epoch = System.currentTimeMillis();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    // Run epoch of the last other node seen publishing under our id, logged once
+    private volatile long duplicateEpoch;
+
+    // Latest state of every other node, by node id
+    private final Map<String, NodeStatsState> remoteNodes = new ConcurrentHashMap<>();
+
+    private volatile Supplier<NodeStatsState> localStateSupplier;
+
+    public ClusterStatsService(ContactEventProducer eventProducer,
+                               @Value("${kafka.topics.node-stats}") String topic,
+                               @Value("#{@nodeIdentity.id}") String nodeId,
+                               @Value("${visitor.cluster.node-timeout:30s}") Duration nodeTimeout) {
+        this.eventProducer = eventProducer;
+        this.topic = topic;
+        this.nodeId = nodeId;
+        this.nodeTimeout = nodeTimeout;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Set where this node's own partial state comes from
+     */
+    public void register(Supplier<NodeStatsState> localStateSupplier) {
+        this.localStateSupplier = localStateSupplier;
+    }
+
+    /**
+     * Publish this node's partial state for the other nodes
+     */
+    @Scheduled(fixedRateString = "${visitor.cluster.publish-interval:2s}")
+    public void publish() {
+        NodeStatsState state = localState();
+        if (state != null) {
+            eventProducer.publishEvent(topic, nodeId, state);
+        }
+    }
+
+    /**
+     * Apply one record of the node-stats topic (null value = tombstone).
+     * Returns true when the global view changed.
+     */
+    public boolean apply(String key, NodeStatsState state) {
+        if (key == null) {
+            return false;
+        }
+        if (key.equals(nodeId)) {
+            // Our own records come back too, the live local state is always newer
+            if (state != null && isDuplicateNode(state)) {
+                reportDuplicateNode(state.getRunEpoch());
+            }
+            return false;
+        }
+        if (state == null) {
+            boolean removed = remoteNodes.remove(key) != null;
+            if (removed) {
+                log.info("Node {} left the cluster", key);
+            }
+            return removed;
+        }
+        if (isExpired(state, LocalDateTime.now())) {
+            // An old record of a node that went away without a tombstone
+            return false;
+        }
+        NodeStatsState previous = remoteNodes.put(key, state);
+        if (previous == null) {
+            log.info("Node {} joined the cluster", key);
+        }
+        return true;
+    }
+
+    /**
+     * Nodes currently part of the global view, this one included
+     */
+    public int nodeCount() {
+        evictExpired();
+        return remoteNodes.size() + 1;
+    }
+
+    /**
+     * Merge this node's live state with the latest state of every other live node
+     */
+    public LiveStatsDTO globalStats() {
+        evictExpired();
+        NodeStatsState local = localState();
+        if (local == null) {
+            return new LiveStatsDTO(0, 0, 0, 0, 0, 0);
+        }
+
+        int activeViewers = local.getActiveViewers();
+        long profileViews = local.getProfileViews();
+        Set<String> countries = new HashSet<>(local.getCountries());
+        HyperLogLog today = new HyperLogLog();
+        HyperLogLog thisWeek = new HyperLogLog();
+        HyperLogLog thisMonth = new HyperLogLog();
+        mergeInto(today, local.getUniqueToday());
+        mergeInto(thisWeek, local.getUniqueThisWeek());
+        mergeInto(thisMonth, local.getUniqueThisMonth());
+
+        for (NodeStatsState remote : remoteNodes.values()) {
+            activeViewers += remote.getActiveViewers();
+            profileViews += remote.getProfileViews();
+            if (remote.getCountries() != null) {
+                countries.addAll(remote.getCountries());
+            }
+            // Sketches of another day (a node publishing just before midnight) do not belong to ours
+            if (local.getDay() != null && local.getDay().equals(remote.getDay())) {
+                mergeInto(today, remote.getUniqueToday());
+                mergeInto(thisWeek, remote.getUniqueThisWeek());
+                mergeInto(thisMonth, remote.getUniqueThisMonth());
+            }
+        }
+
+        return new LiveStatsDTO(activeViewers, countries.size(), (int) profileViews,
+                today.estimate(), thisWeek.estimate(), thisMonth.estimate());
+    }
+
+    /**
+     * Sum this node's live viewers per page with those of every other live node
+     */
+    public Map<String, Long> mergePageViewers(Map<String, Long> local) {
+        return mergeCounts(local, NodeStatsState::getPageViewers);
+    }
+
+    /**
+     * Sum this node's page views over the trending window with those of every other live node
+     */
+    public Map<String, Long> mergeTrendViews(Map<String, Long> local) {
+        return mergeCounts(local, NodeStatsState::getTrendViews);
+    }
+
+    /**
+     * Sum this node's page views over the window before the trending window with those of every other live node
+     */
+    public Map<String, Long> mergeTrendPreviousViews(Map<String, Long> local) {
+        return mergeCounts(local, NodeStatsState::getTrendPreviousViews);
+    }
+
+    private Map<String, Long> mergeCounts(Map<String, Long> local, Function<NodeStatsState, Map<String, Long>> counts) {
+        evictExpired();
+        Map<String, Long> merged = new LinkedHashMap<>(local);
+        for (NodeStatsState remote : remoteNodes.values()) {
+            Map<String, Long> remoteCounts = counts.apply(remote);
+            if (remoteCounts != null) {
+                remoteCounts.forEach((page, count) -> merged.merge(page, count, Long::sum));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Tell the other nodes right away that this one is gone
+     */
+    @PreDestroy
+    public void shutdown() {
+        try {
+            eventProducer.publishEvent(topic, nodeId, null);
+        } catch (Exception e) {
+            log.warn("Failed to publish node-stats tombstone for {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private NodeStatsState localState() {
+        Supplier<NodeStatsState> supplier = localStateSupplier;
+        if (supplier == null) {
+            return null;
+        }
+        NodeStatsState state = supplier.get();
+        state.setNodeId(nodeId);
+        state.setRunEpoch(epoch);
+        return state;
+    }
+
+    /**
+     * A record of our id from another run, published after we started (not the last state of our
+     * previous run): another replica shares our id, its stats and ours overwrite one key
+     */
+    private boolean isDuplicateNode(NodeStatsState state) {
+        return state.getRunEpoch() != 0 && state.getRunEpoch() != epoch
+                && state.getTimestamp() != null && state.getTimestamp().isAfter(startedAt);
+    }
+
+    private void reportDuplicateNode(long otherEpoch) {
+        if (duplicateEpoch != otherEpoch) {
+            duplicateEpoch = otherEpoch;
+            log.error("Another node publishes live stats as {} (run {}, ours is {}): give every replica its own "
+                    + "visitor.node-id, the cluster view is missing it", nodeId, otherEpoch, epoch);
+        }
+    }
+
+    private void evictExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        remoteNodes.entrySet().removeIf(entry -> {
+            boolean expired = isExpired(entry.getValue(), now);
+            if (expired) {
+                log.info("Node {} timed out, dropping it from the cluster view", entry.getKey());
+            }
+            return expired;
+        });
+    }
+
+    private boolean isExpired(NodeStatsState state, LocalDateTime now) {
+        return state.getTimestamp() == null || state.getTimestamp().plus(nodeTimeout).isBefore(now);
+    }
+
+    private static void mergeInto(HyperLogLog target, byte[] registers) {
+        if (registers != null && registers.length == HyperLogLog.REGISTERS) {
+            target.merge(HyperLogLog.fromBytes(registers));
+        }
+    }
+}
@@ -28,6 +28,7 @@ public class ContactService {
     private final ContactRepository contactRepository;
     private final ContactEventProducer eventProducer;
     private final EmailService emailService;
+    private final ContactStatusStore statusStore;
 
     /**
      * Process a new contact form submission
@@ -200,6 +201,23 @@ public class ContactService {
                 .orElseThrow(() -> new RuntimeException("Contact not found with id: " + id));
     }
 
+    /**
+     * Get the latest status of a contact
+     * Answered from the local status store; falls back to the database for
+     * contacts that have no status event yet (e.g. still NEW)
+     */
+    public Map<String, String> getContactStatus(String id) {
+        return statusStore.find(id)
+                .map(event -> Map.of(
+                        "contactId", id,
+                        "status", event.getStatus(),
+                        "source", "status-store"))
+                .orElseGet(() -> Map.of(
+                        "contactId", id,
+                        "status", getContactById(id).getStatus().toString(),
+                        "source", "database"));
+    }
+
     /**
      * Get analytics/statistics about contacts
      */
@@ -244,6 +262,8 @@ public class ContactService {
         contact.setStatus(Contact.ContactStatus.RESPONDED);
         contact.setProcessedAt(LocalDateTime.now());
         contactRepository.save(contact);
+        eventProducer.publishContactProcessedEvent(id, Contact.ContactStatus.RESPONDED.toString(),
+                "Contact marked as responded");
 
         log.info("Contact {} marked as responded", id);
     }
@@ -0,0 +1,56 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.kafka.events.ContactProcessedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local copy of the latest status of every contact.
+ * Filled from the compacted contact-status topic, so status lookups
+ * are answered from memory instead of hitting Postgres.
+ */
+@Service
+@Slf4j
+public class ContactStatusStore {
+
+    private final Map<String, ContactProcessedEvent> latestStatus = new ConcurrentHashMap<>();
+
+    /**
+     * Apply a status event; older events never overwrite newer ones
+     */
+    public void apply(ContactProcessedEvent event) {
+        if (event == null || event.getContactId() == null) {
+            return;
+        }
+        latestStatus.merge(event.getContactId(), event, (current, incoming) ->
+                isNewer(incoming, current) ? incoming : current);
+    }
+
+    /**
+     * Tombstone on the compacted topic - the contact is gone
+     */
+    public void remove(String contactId) {
+        if (contactId != null) {
+            latestStatus.remove(contactId);
+        }
+    }
+
+    public Optional<ContactProcessedEvent> find(String contactId) {
+        return Optional.ofNullable(latestStatus.get(contactId));
+    }
+
+    public int size() {
+        return latestStatus.size();
+    }
+
+    private boolean isNewer(ContactProcessedEvent incoming, ContactProcessedEvent current) {
+        if (incoming.getTimestamp() == null || current.getTimestamp() == null) {
+            return true;
+        }
+        return !incoming.getTimestamp().isBefore(current.getTimestamp());
+    }
+}
@@ -0,0 +1,99 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.dto.WebSocketMessages;
+import com.sweta.portfolio.dto.WebSocketMessages.FeedUpdate;
+import io.micrometer.core.instrument.Counter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A dashboard feed sent as deltas: each publish compares the new fields with the last ones and
+ * sends only those that changed, numbered by seq, and nothing at all when none did.
+ *
+ * Protocol for clients of the destination:
+ * - subscribe to the destination, then to /app/snapshot/{name}, which answers once with the full state;
+ * - apply a DELTA whose stream is the snapshot's and whose seq is the last one plus 1;
+ *   ignore those with an older seq (already in the snapshot);
+ * - on a seq gap or another stream (this node restarted, or the client reconnected to
+ *   another node), ask for a snapshot again.
+ *
+ * The state lives on this node, and so does the snapshot clients resync from. Deltas go to this
+ * node's subscribers only, through ClusterBroadcaster.sendLocal(): each is serialized once and
+ * the same bytes are handed to every session.
+ */
+public final class DeltaFeed {
+
+    private final String name;
+    private final String destination;
+    private final String stream;
+    private final ClusterBroadcaster clusterBroadcaster;
+    private final Counter deltaCounter;
+    private final Counter unchangedCounter;
+
+    private final Map<String, Object> state = new LinkedHashMap<>();
+    private long seq;
+
+    DeltaFeed(String name, String destination, String stream, ClusterBroadcaster clusterBroadcaster,
+              Counter deltaCounter, Counter unchangedCounter) {
+        this.name = name;
+        this.destination = destination;
+        this.stream = stream;
+        this.clusterBroadcaster = clusterBroadcaster;
+        this.deltaCounter = deltaCounter;
+        this.unchangedCounter = unchangedCounter;
+    }
+
+    /**
+     * Make fields the feed's state, sending the difference; false when nothing changed.
+     * Fields missing from the map (or null) are removed. Values are kept, not copied.
+     */
+    public synchronized boolean publish(Map<String, ?> fields) {
+        Map<String, Object> changed = new LinkedHashMap<>();
+        fields.forEach((field, value) -> {
+            if (value != null && !Objects.equals(state.get(field), value)) {
+                changed.put(field, value);
+            }
+        });
+        for (String field : state.keySet()) {
+            if (fields.get(field) == null) {
+                changed.put(field, null);
+            }
+        }
+        if (changed.isEmpty()) {
+            unchangedCounter.increment();
+            return false;
+        }
+        changed.forEach((field, value) -> {
+            if (value == null) {
+                state.remove(field);
+            } else {
+                state.put(field, value);
+            }
+        });
+        seq++;
+        // Sent under the lock, so the broker gets the deltas in seq order
+        clusterBroadcaster.sendLocal(destination, new FeedUpdate(
+                WebSocketMessages.DELTA, stream, seq, System.currentTimeMillis(), Collections.unmodifiableMap(changed)));
+        deltaCounter.increment();
+        return true;
+    }
+
+    /**
+     * The whole state, numbered with the seq of the last delta it includes
+     */
+    public synchronized FeedUpdate snapshot() {
+        return new FeedUpdate(WebSocketMessages.SNAPSHOT, stream, seq, System.currentTimeMillis(),
+                Collections.unmodifiableMap(new LinkedHashMap<>(state)));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+}
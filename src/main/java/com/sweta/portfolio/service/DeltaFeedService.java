@@ -0,0 +1,63 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.dto.WebSocketMessages.FeedUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The delta-encoded WebSocket feeds of this node, by name: analytics (/topic/analytics) and
+ * live-stats (/topic/live-stats). Their stream id is the node id plus this run's start time,
+ * so clients notice a restart or a reconnect to another node and resync.
+ */
+@Service
+public class DeltaFeedService {
+
+    public static final String ANALYTICS = "analytics";
+    public static final String LIVE_STATS = "live-stats";
+
+    private final Map<String, DeltaFeed> feeds;
+    private final Counter resyncCounter;
+
+    public DeltaFeedService(ClusterBroadcaster clusterBroadcaster,
+                            MeterRegistry meterRegistry,
+                            @Value("#{@nodeIdentity.id}") String nodeId) {
+        String stream = nodeId + "-" + System.currentTimeMillis();
+        Counter deltas = Counter.builder("websocket.feed.deltas")
+                .description("Feed updates sent with only their changed fields")
+                .register(meterRegistry);
+        Counter unchanged = Counter.builder("websocket.feed.unchanged")
+                .description("Feed updates not sent because no field changed")
+                .register(meterRegistry);
+        this.resyncCounter = Counter.builder("websocket.feed.resyncs")
+                .description("Full snapshots requested by clients")
+                .register(meterRegistry);
+        this.feeds = Map.of(
+                ANALYTICS, new DeltaFeed(ANALYTICS, "/topic/" + ANALYTICS, stream, clusterBroadcaster, deltas, unchanged),
+                LIVE_STATS, new DeltaFeed(LIVE_STATS, "/topic/" + LIVE_STATS, stream, clusterBroadcaster, deltas, unchanged));
+    }
+
+    public DeltaFeed feed(String name) {
+        DeltaFeed feed = feeds.get(name);
+        if (feed == null) {
+            throw new IllegalArgumentException("Unknown feed " + name);
+        }
+        return feed;
+    }
+
+    /**
+     * Full state of the feed for a client that is starting or missed a delta; empty for unknown feeds
+     */
+    public Optional<FeedUpdate> snapshot(String name) {
+        DeltaFeed feed = feeds.get(name);
+        if (feed == null) {
+            return Optional.empty();
+        }
+        resyncCounter.increment();
+        return Optional.of(feed.snapshot());
+    }
+}
@@ -0,0 +1,179 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.dto.EngagementDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Per-page time-on-page and scroll depth distributions (HdrHistogram, 2 significant digits).
+ *
+ * The consumer records into a Recorder per page and metric: wait-free for any number of writer
+ * threads and, with a fixed value range, free of allocation per sample. Every interval the
+ * recorders are flipped into interval histograms kept in a ring of window-intervals slots (the
+ * evicted slot is recycled as the next interval histogram), and the ring is merged into the
+ * window summary that the endpoint and the Actuator gauges read. So queries cost nothing, and
+ * the numbers lag by at most one interval.
+ */
+@Service
+public class EngagementHistogramService {
+
+    public static final String OTHER = "(other)";
+
+    // Longer times are clamped: a tab left open for hours says nothing about engagement
+    private static final long MAX_TIME_ON_PAGE_SECONDS = 3600;
+    private static final long MAX_SCROLL_DEPTH = 100;
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    // Quantile tag -> summary value, one gauge each per page and metric
+    private static final Map<String, ToDoubleFunction<EngagementDTO.Distribution>> QUANTILES = Map.of(
+            "0.5", EngagementDTO.Distribution::getP50,
+            "0.9", EngagementDTO.Distribution::getP90,
+            "0.99", EngagementDTO.Distribution::getP99);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxPages;
+    private final int windowIntervals;
+    private final Map<String, PageEngagement> pages = new ConcurrentHashMap<>();
+
+    public EngagementHistogramService(MeterRegistry meterRegistry,
+                                      @Value("${visitor.engagement.max-pages:50}") int maxPages,
+                                      @Value("${visitor.engagement.window-intervals:10}") int windowIntervals) {
+        this.meterRegistry = meterRegistry;
+        this.maxPages = maxPages;
+        this.windowIntervals = Math.max(1, windowIntervals);
+    }
+
+    /**
+     * Seconds a visitor spent on the page before navigating away
+     */
+    public void recordTimeOnPage(String page, long seconds) {
+        if (seconds >= 0) {
+            histograms(page).timeOnPage.record(Math.min(seconds, MAX_TIME_ON_PAGE_SECONDS));
+        }
+    }
+
+    /**
+     * How far down the page (0-100 percent) a visitor scrolled
+     */
+    public void recordScrollDepth(String page, long percent) {
+        if (percent >= 0 && percent <= MAX_SCROLL_DEPTH) {
+            histograms(page).scrollDepth.record(percent);
+        }
+    }
+
+    /**
+     * Move the interval's samples into the window; runs on the scheduler thread only
+     */
+    @Scheduled(fixedRateString = "${visitor.engagement.interval:60s}")
+    public void rotate() {
+        pages.values().forEach(page -> {
+            page.timeOnPage.rotate();
+            page.scrollDepth.rotate();
+        });
+    }
+
+    /**
+     * Window distributions of every page (or only the given one), most viewed first
+     */
+    public List<EngagementDTO> snapshot(String page) {
+        List<EngagementDTO> result = new ArrayList<>();
+        pages.forEach((name, histograms) -> {
+            if (page == null || page.equals(name)) {
+                result.add(new EngagementDTO(name, histograms.timeOnPage.summary, histograms.scrollDepth.summary));
+            }
+        });
+        result.sort(Comparator.comparingLong((EngagementDTO dto) -> dto.getTimeOnPage().getCount()).reversed());
+        return result;
+    }
+
+    private PageEngagement histograms(String page) {
+        if (page == null || page.isEmpty()) {
+            page = OTHER;
+        }
+        PageEngagement histograms = pages.get(page);
+        if (histograms != null) {
+            return histograms;
+        }
+        // Beyond maxPages distinct pages, new ones share the (other) histograms
+        return pages.computeIfAbsent(pages.size() >= maxPages ? OTHER : page, this::register);
+    }
+
+    private PageEngagement register(String page) {
+        PageEngagement histograms = new PageEngagement(
+                new WindowedHistogram(MAX_TIME_ON_PAGE_SECONDS, windowIntervals),
+                new WindowedHistogram(MAX_SCROLL_DEPTH, windowIntervals));
+        QUANTILES.forEach((quantile, value) -> {
+            gauge("visitor.engagement.time_on_page", "Time on page over the recent window", "seconds",
+                    page, quantile, histograms.timeOnPage, value);
+            gauge("visitor.engagement.scroll_depth", "Scroll depth over the recent window", "percent",
+                    page, quantile, histograms.scrollDepth, value);
+        });
+        return histograms;
+    }
+
+    private void gauge(String name, String description, String unit, String page, String quantile,
+                       WindowedHistogram histogram, ToDoubleFunction<EngagementDTO.Distribution> value) {
+        Gauge.builder(name, histogram, windowed -> value.applyAsDouble(windowed.summary))
+                .description(description)
+                .baseUnit(unit)
+                .tag("page", page)
+                .tag("quantile", quantile)
+                .register(meterRegistry);
+    }
+
+    private record PageEngagement(WindowedHistogram timeOnPage, WindowedHistogram scrollDepth) {
+    }
+
+    /**
+     * A Recorder for the current interval and a ring of the last intervals' histograms
+     */
+    private static final class WindowedHistogram {
+
+        private final Recorder recorder;
+        private final Histogram[] ring;
+        private final Histogram merged;
+        private int slot;
+
+        private volatile EngagementDTO.Distribution summary = new EngagementDTO.Distribution();
+
+        WindowedHistogram(long highestValue, int intervals) {
+            this.recorder = new Recorder(1, highestValue, SIGNIFICANT_DIGITS);
+            this.ring = new Histogram[intervals];
+            this.merged = new Histogram(1, highestValue, SIGNIFICANT_DIGITS);
+        }
+
+        void record(long value) {
+            recorder.recordValue(value);
+        }
+
+        void rotate() {
+            // getIntervalHistogram resets and reuses the evicted slot, no allocation once the ring is full
+            ring[slot] = recorder.getIntervalHistogram(ring[slot]);
+            slot = (slot + 1) % ring.length;
+
+            merged.reset();
+            for (Histogram interval : ring) {
+                if (interval != null) {
+                    merged.add(interval);
+                }
+            }
+            summary = merged.getTotalCount() == 0
+                    ? new EngagementDTO.Distribution()
+                    : new EngagementDTO.Distribution(merged.getTotalCount(), merged.getMean(),
+                            merged.getValueAtPercentile(50), merged.getValueAtPercentile(90),
+                            merged.getValueAtPercentile(99), merged.getMaxValue());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.analytics.GeoIpIndex;
+import com.sweta.portfolio.analytics.GeoLocation;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Offline IP to country/city resolution.
+ *
+ * The range database (DB-IP city CSV layout, optionally gzipped) is loaded once at startup
+ * into a GeoIpIndex; a small LRU cache in front of it absorbs the repeated lookups of the
+ * same visitor. A missing or unreadable database leaves every address Unknown.
+ */
+@Service
+@Slf4j
+public class GeoIpService {
+
+    private final Resource database;
+    private final Map<String, GeoLocation> cache;
+
+    private volatile GeoIpIndex index = GeoIpIndex.builder().build();
+
+    public GeoIpService(@Value("${visitor.geoip.database:classpath:geoip/ip-ranges.csv}") Resource database,
+                        @Value("${visitor.geoip.cache-size:1024}") int cacheSize) {
+        this.database = database;
+        this.cache = new LinkedHashMap<>(cacheSize * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, GeoLocation> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!database.exists()) {
+            log.warn("GeoIP database {} not found, visitor locations will be Unknown", database);
+            return;
+        }
+        long start = System.nanoTime();
+        GeoIpIndex.Builder builder = GeoIpIndex.builder();
+        int skipped = 0;
+        try (BufferedReader reader = open(database)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                List<String> columns = splitCsv(line);
+                try {
+                    // ip_start, ip_end, continent, country, stateprov, city, ...
+                    builder.add(columns.get(0), columns.get(1),
+                            columns.size() > 3 ? columns.get(3) : null,
+                            columns.size() > 5 ? columns.get(5) : null);
+                } catch (RuntimeException e) {
+                    skipped++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read GeoIP database {}: {}", database, e.getMessage());
+            return;
+        }
+        index = builder.build();
+        synchronized (cache) {
+            cache.clear();
+        }
+        log.info("Loaded {} from {} in {} ms ({} malformed lines skipped)",
+                index, database, (System.nanoTime() - start) / 1_000_000, skipped);
+    }
+
+    /**
+     * Location of a client address, GeoLocation.LOCAL for loopback/private addresses
+     * and GeoLocation.UNKNOWN when the database has no range for it
+     */
+    public GeoLocation resolve(String ipAddress) {
+        if (ipAddress == null || ipAddress.isEmpty()) {
+            return GeoLocation.UNKNOWN;
+        }
+        synchronized (cache) {
+            GeoLocation cached = cache.get(ipAddress);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        GeoLocation location = index.lookup(ipAddress);
+        if (location == null) {
+            location = GeoLocation.UNKNOWN;
+        }
+        synchronized (cache) {
+            cache.put(ipAddress, location);
+        }
+        return location;
+    }
+
+    private static BufferedReader open(Resource resource) throws IOException {
+        InputStream in = resource.getInputStream();
+        String name = resource.getFilename();
+        if (name != null && name.endsWith(".gz")) {
+            in = new GZIPInputStream(in);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    // Comma separated, values may be double quoted (with "" as an escaped quote)
+    private static List<String> splitCsv(String line) {
+        List<String> columns = new ArrayList<>(8);
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        columns.add(value.toString());
+        return columns;
+    }
+}
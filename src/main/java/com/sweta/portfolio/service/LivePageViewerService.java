@@ -0,0 +1,136 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.analytics.PageDictionary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Live viewers per page: how many active sessions are currently on each page.
+ *
+ * Pages are interned into a PageDictionary and counted in one LongAdder per page id, so
+ * sessions moving between pages on many consumer threads update striped cells instead of
+ * contending on one counter per page. Each live session remembers the id of the page it is
+ * on; a move decrements the old page and increments the new one, and ActiveSessionTracker
+ * ending the session decrements its last page.
+ *
+ * These counts cover the sessions this instance consumes; they go out with its node stats, and
+ * ClusterStatsService sums them with every other node's. A local change or new node stats mark
+ * the pages dirty, and on its next tick LiveStatsPublisher has the merged counts compared with
+ * the ones it last sent, broadcasting the changed pages (a page nobody views any more as 0)
+ * to /topic/live-stats/{page}.
+ */
+@Service
+public class LivePageViewerService {
+
+    private final PageDictionary pages;
+    private final LongAdder[] viewers;
+    private final ClusterStatsService clusterStatsService;
+    private final LiveStatsPublisher liveStatsPublisher;
+    // Cluster-wide counts last handed out, only touched by the draining (publisher) thread
+    private Map<String, Long> published = Map.of();
+
+    // Page id each live session is on
+    private final Map<String, Integer> sessionPages = new ConcurrentHashMap<>();
+
+    public LivePageViewerService(ActiveSessionTracker sessionTracker,
+                                 ClusterStatsService clusterStatsService,
+                                 LiveStatsPublisher liveStatsPublisher,
+                                 @Value("${visitor.live-stats.max-pages:256}") int maxPages) {
+        this.pages = new PageDictionary(maxPages);
+        this.viewers = new LongAdder[maxPages];
+        for (int i = 0; i < maxPages; i++) {
+            viewers[i] = new LongAdder();
+        }
+        this.clusterStatsService = clusterStatsService;
+        this.liveStatsPublisher = liveStatsPublisher;
+        sessionTracker.addEndListener(this::leave);
+        liveStatsPublisher.registerPages(this::drainChanged);
+    }
+
+    /**
+     * The live session is now on this page (session start or page view)
+     */
+    public void enter(String sessionId, String page) {
+        if (page == null || page.isEmpty()) {
+            return;
+        }
+        int id = pages.intern(page);
+        sessionPages.compute(sessionId, (key, previous) -> {
+            if (previous != null) {
+                if (previous == id) {
+                    return previous;
+                }
+                viewers[previous].decrement();
+            }
+            viewers[id].increment();
+            liveStatsPublisher.markPagesDirty();
+            return id;
+        });
+    }
+
+    /**
+     * The session ended, it no longer views any page
+     */
+    public void leave(String sessionId) {
+        Integer previous = sessionPages.remove(sessionId);
+        if (previous != null) {
+            viewers[previous].decrement();
+            liveStatsPublisher.markPagesDirty();
+        }
+    }
+
+    /**
+     * Current viewers of every page that has any, on this instance
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int id = 0; id < pages.size(); id++) {
+            long count = viewers[id].sum();
+            if (count > 0) {
+                result.put(pages.name(id), count);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Current viewers of every page that has any, across the cluster
+     */
+    public Map<String, Long> globalSnapshot() {
+        return clusterStatsService.mergePageViewers(snapshot());
+    }
+
+    public long viewers(String page) {
+        int id = pages.idOf(page);
+        return id >= 0 ? viewers[id].sum() : 0;
+    }
+
+    /**
+     * Pass every page whose cluster-wide count changed since the last call to the sink; publisher thread only
+     */
+    void drainChanged(ObjLongConsumer<String> sink) {
+        Map<String, Long> current = globalSnapshot();
+        published.forEach((page, count) -> {
+            if (!current.containsKey(page)) {
+                sink.accept(page, 0);
+            }
+        });
+        // A page left and re-entered within the tick has nothing new to say
+        current.forEach((page, count) -> {
+            if (!count.equals(published.get(page))) {
+                sink.accept(page, count);
+            }
+        });
+        published = current;
+    }
+
+    public void clear() {
+        sessionPages.keySet().forEach(this::leave);
+    }
+}
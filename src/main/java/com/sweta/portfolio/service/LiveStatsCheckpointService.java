@@ -0,0 +1,84 @@
+package com.sweta.portfolio.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sweta.portfolio.entity.LiveStatsCheckpoint;
+import com.sweta.portfolio.repository.LiveStatsCheckpointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Stores and loads this node's live-stats checkpoint (one row per node id)
+ */
+@Service
+@Slf4j
+public class LiveStatsCheckpointService {
+
+    private final LiveStatsCheckpointRepository repository;
+    private final ObjectMapper objectMapper;
+    private final String nodeId;
+
+    public LiveStatsCheckpointService(LiveStatsCheckpointRepository repository,
+                                      ObjectMapper objectMapper,
+                                      @Value("#{@nodeIdentity.id}") String nodeId) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.nodeId = nodeId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Save the snapshot in one transaction with the rollup rows it covers (written by rollups),
+     * so either both are stored or neither
+     */
+    @Transactional
+    public void save(Snapshot snapshot, Runnable rollups) {
+        rollups.run();
+        try {
+            repository.save(new LiveStatsCheckpoint(nodeId, objectMapper.writeValueAsString(snapshot),
+                    LocalDateTime.now()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize live stats checkpoint", e);
+        }
+    }
+
+    /**
+     * Latest checkpoint of this node; empty when there is none or it cannot be read
+     */
+    public Optional<Snapshot> load() {
+        try {
+            return repository.findById(nodeId).map(this::parse);
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable live stats checkpoint for node {}: {}", nodeId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Snapshot parse(LiveStatsCheckpoint checkpoint) {
+        try {
+            return objectMapper.readValue(checkpoint.getPayload(), Snapshot.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Everything needed to resume: counters, session last-seen times, and the next offset
+     * to read per "topic-partition" (absent for the in-process transport)
+     */
+    public record Snapshot(long profileViews,
+                           Set<String> countries,
+                           Map<String, Long> sessions,
+                           Map<String, Long> offsets) {
+    }
+}
@@ -0,0 +1,231 @@
+package com.sweta.portfolio.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sweta.portfolio.dto.LiveStatsDTO;
+import com.sweta.portfolio.dto.PageViewersDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces live-stats updates into at most one /topic/live-stats broadcast per tick.
+ *
+ * Events only mark the stats dirty (no allocation, no STOMP work); a single scheduler thread
+ * builds one snapshot per tick when something changed and publishes it to the live-stats
+ * DeltaFeed, which sends only the fields that differ from the last tick (nothing if none do). The tick adapts to the event rate:
+ * quiet traffic gets the minimum interval so a lone visitor shows up almost immediately,
+ * busy traffic stretches it up to the maximum so subscribers get a bounded message rate.
+ * The current interval is also the staleness bound of what dashboards show.
+ *
+ * Per-page viewer counts ride on the same tick: pages whose cluster-wide count changed are sent to
+ * /topic/live-stats/{page}, one message per changed page, so a client only receives the pages it renders.
+ */
+@Service
+@Slf4j
+public class LiveStatsPublisher {
+
+    private static final String DESTINATION = "/topic/live-stats";
+    private static final String PAGE_DESTINATION_PREFIX = DESTINATION + "/";
+    // Weight of the latest tick in the event rate average
+    private static final double RATE_SMOOTHING = 0.3;
+    private static final TypeReference<Map<String, Object>> FIELDS = new TypeReference<>() { };
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final DeltaFeed feed;
+    private final ObjectMapper objectMapper;
+    private final long minIntervalNanos;
+    private final long maxIntervalNanos;
+    private final double quietRate;
+    private final double busyRate;
+
+    private final LongAdder pendingEvents = new LongAdder();
+    // nanoTime of the first event since the last broadcast, 0 when clean
+    private final AtomicLong dirtySince = new AtomicLong();
+    private final AtomicBoolean pagesDirty = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter eventsCounter;
+    private final Counter broadcastsCounter;
+    private final Counter savedCounter;
+    private final Counter pageBroadcastsCounter;
+    private final Timer stalenessTimer;
+
+    private volatile Supplier<LiveStatsDTO> snapshotSupplier;
+    private volatile Consumer<ObjLongConsumer<String>> changedPages;
+    private volatile long intervalNanos;
+    private double eventRate;
+    private long lastTickNanos;
+
+    public LiveStatsPublisher(SimpMessagingTemplate messagingTemplate,
+                              DeltaFeedService deltaFeedService,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${visitor.live-stats.min-interval:100ms}") Duration minInterval,
+                              @Value("${visitor.live-stats.max-interval:1s}") Duration maxInterval,
+                              @Value("${visitor.live-stats.quiet-rate:10}") double quietRate,
+                              @Value("${visitor.live-stats.busy-rate:1000}") double busyRate) {
+        this.messagingTemplate = messagingTemplate;
+        this.feed = deltaFeedService.feed(DeltaFeedService.LIVE_STATS);
+        this.objectMapper = objectMapper;
+        this.minIntervalNanos = minInterval.toNanos();
+        this.maxIntervalNanos = Math.max(minIntervalNanos, maxInterval.toNanos());
+        this.quietRate = quietRate;
+        this.busyRate = Math.max(quietRate + 1, busyRate);
+        this.intervalNanos = minIntervalNanos;
+
+        this.eventsCounter = Counter.builder("live_stats.events")
+                .description("Events that changed live stats")
+                .register(meterRegistry);
+        this.broadcastsCounter = Counter.builder("live_stats.broadcasts")
+                .description("Live stats deltas sent to " + DESTINATION)
+                .register(meterRegistry);
+        this.savedCounter = Counter.builder("live_stats.broadcasts.saved")
+                .description("Broadcasts avoided by coalescing events into one snapshot, or by nothing changing")
+                .register(meterRegistry);
+        this.pageBroadcastsCounter = Counter.builder("live_stats.page_broadcasts")
+                .description("Per-page viewer counts sent to " + PAGE_DESTINATION_PREFIX + "{page}")
+                .register(meterRegistry);
+        this.stalenessTimer = Timer.builder("live_stats.staleness")
+                .description("Time from the first unpublished change to its broadcast")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("live_stats.staleness.bound", this, publisher -> publisher.intervalNanos / 1_000_000.0)
+                .description("Current tick interval in ms, the maximum staleness of a broadcast")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-stats-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lastTickNanos = System.nanoTime();
+        scheduler.schedule(this::tick, minIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Where snapshots come from; set once by the component that owns the stats
+     */
+    public void register(Supplier<LiveStatsDTO> snapshotSupplier) {
+        this.snapshotSupplier = snapshotSupplier;
+    }
+
+    /**
+     * Where per-page viewer counts come from: drains the pages changed since the last call
+     */
+    public void registerPages(Consumer<ObjLongConsumer<String>> changedPages) {
+        this.changedPages = changedPages;
+    }
+
+    /**
+     * Note that the stats changed, the next tick broadcasts them
+     */
+    public void markDirty() {
+        pendingEvents.increment();
+        if (dirtySince.get() == 0) {
+            dirtySince.compareAndSet(0, System.nanoTime());
+        }
+    }
+
+    /**
+     * Note that some page's viewer count changed, the next tick broadcasts the changed pages
+     */
+    public void markPagesDirty() {
+        if (!pagesDirty.get()) {
+            pagesDirty.set(true);
+        }
+    }
+
+    public Duration currentInterval() {
+        return Duration.ofNanos(intervalNanos);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void tick() {
+        try {
+            long now = System.nanoTime();
+            long events = pendingEvents.sumThenReset();
+            adaptInterval(events, now);
+            publishPages();
+
+            long since = dirtySince.getAndSet(0);
+            Supplier<LiveStatsDTO> supplier = snapshotSupplier;
+            if (since != 0 && supplier == null) {
+                // Nobody to ask for a snapshot yet, keep it dirty
+                dirtySince.compareAndSet(0, since);
+                pendingEvents.add(events);
+                return;
+            }
+
+            int broadcasts = 0;
+            if (since != 0) {
+                // Field names as the JSON of LiveStatsDTO has them
+                if (feed.publish(objectMapper.convertValue(supplier.get(), FIELDS))) {
+                    broadcasts = 1;
+                    broadcastsCounter.increment();
+                }
+                stalenessTimer.record(System.nanoTime() - since, TimeUnit.NANOSECONDS);
+            }
+            eventsCounter.increment(events);
+            if (events > broadcasts) {
+                savedCounter.increment(events - broadcasts);
+            }
+        } catch (Exception e) {
+            log.error("Failed to broadcast live stats", e);
+        } finally {
+            if (!scheduler.isShutdown()) {
+                scheduler.schedule(this::tick, intervalNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void publishPages() {
+        Consumer<ObjLongConsumer<String>> pages = changedPages;
+        if (pages == null || !pagesDirty.getAndSet(false)) {
+            return;
+        }
+        pages.accept((page, viewers) -> {
+            messagingTemplate.convertAndSend(PAGE_DESTINATION_PREFIX + page, new PageViewersDTO(page, viewers));
+            pageBroadcastsCounter.increment();
+        });
+    }
+
+    // Smoothed events/sec mapped log-linearly from [quietRate, busyRate] onto [min, max] interval
+    private void adaptInterval(long events, long now) {
+        double seconds = Math.max(1e-3, (now - lastTickNanos) / 1e9);
+        lastTickNanos = now;
+        eventRate = RATE_SMOOTHING * (events / seconds) + (1 - RATE_SMOOTHING) * eventRate;
+
+        if (eventRate <= quietRate) {
+            intervalNanos = minIntervalNanos;
+        } else if (eventRate >= busyRate) {
+            intervalNanos = maxIntervalNanos;
+        } else {
+            double position = Math.log(eventRate / quietRate) / Math.log(busyRate / quietRate);
+            intervalNanos = minIntervalNanos + (long) (position * (maxIntervalNanos - minIntervalNanos));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.analytics.Funnel;
+import com.sweta.portfolio.analytics.PageDictionary;
+import com.sweta.portfolio.analytics.TransitionMatrix;
+import com.sweta.portfolio.dto.FunnelDTO;
+import com.sweta.portfolio.dto.PagePathDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Navigation paths (page-to-page transitions) and funnel progress, maintained incrementally
+ * from the page view stream and queried straight from memory.
+ *
+ * Pages are interned into a PageDictionary and transitions counted in a TransitionMatrix, so
+ * a page view costs two map lookups and two atomic increments. Funnels are evaluated as the
+ * views arrive: each live session keeps one progress byte per funnel, dropped when
+ * ActiveSessionTracker ends the session. Counts cover the events this instance consumed
+ * since it started.
+ */
+@Service
+@Slf4j
+public class NavigationPathService {
+
+    public static final String ENTRY = "(entry)";
+    public static final String EXIT = "(exit)";
+
+    private final PageDictionary pages;
+    private final TransitionMatrix transitions;
+    private final List<Funnel> funnels = new ArrayList<>();
+    private final int entry;
+    private final int exit;
+
+    // Steps reached so far per live session, one byte per funnel
+    private final Map<String, byte[]> funnelProgress = new ConcurrentHashMap<>();
+
+    public NavigationPathService(ActiveSessionTracker sessionTracker,
+                                 @Value("${visitor.paths.max-pages:256}") int maxPages,
+                                 @Value("${visitor.paths.funnels:home>projects>contact}") String[] funnelSpecs) {
+        this.pages = new PageDictionary(maxPages);
+        this.transitions = new TransitionMatrix(maxPages);
+        this.entry = pages.intern(ENTRY);
+        this.exit = pages.intern(EXIT);
+        for (String spec : funnelSpecs) {
+            String[] steps = Arrays.stream(spec.split(">")).map(String::trim).filter(step -> !step.isEmpty())
+                    .toArray(String[]::new);
+            if (steps.length < 2 || steps.length > Byte.MAX_VALUE) {
+                log.warn("Ignoring funnel '{}': it needs between 2 and {} steps", spec, Byte.MAX_VALUE);
+                continue;
+            }
+            funnels.add(new Funnel(String.join(" > ", steps), steps, pages));
+        }
+        sessionTracker.addEndListener(funnelProgress::remove);
+    }
+
+    /**
+     * Count a move from one page to the next; a missing from is the session's entry, a missing to its exit
+     */
+    public void recordTransition(String from, String to) {
+        transitions.record(idOf(from, entry), idOf(to, exit));
+    }
+
+    /**
+     * Move the live session along every funnel whose next step is this page
+     */
+    public void advanceFunnels(String sessionId, String page) {
+        if (funnels.isEmpty() || page == null || page.isEmpty()) {
+            return;
+        }
+        int id = pages.intern(page);
+        funnelProgress.compute(sessionId, (key, progress) -> {
+            byte[] updated = progress != null ? progress : new byte[funnels.size()];
+            for (int i = 0; i < updated.length; i++) {
+                updated[i] = (byte) funnels.get(i).advance(updated[i], id);
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * The most frequent transitions, most frequent first
+     */
+    public List<PagePathDTO> topPaths(int limit) {
+        List<TransitionMatrix.Transition> top = transitions.top(pages.size(), limit);
+        List<PagePathDTO> paths = new ArrayList<>(top.size());
+        for (TransitionMatrix.Transition transition : top) {
+            long outgoing = transitions.outgoing(transition.from());
+            paths.add(new PagePathDTO(pages.name(transition.from()), pages.name(transition.to()),
+                    transition.count(), outgoing > 0 ? (double) transition.count() / outgoing : 0));
+        }
+        return paths;
+    }
+
+    public List<FunnelDTO> funnelConversion() {
+        List<FunnelDTO> result = new ArrayList<>(funnels.size());
+        for (Funnel funnel : funnels) {
+            List<FunnelDTO.Step> steps = new ArrayList<>(funnel.length());
+            long first = funnel.reached(0);
+            long previous = first;
+            for (int step = 0; step < funnel.length(); step++) {
+                long sessions = funnel.reached(step);
+                steps.add(new FunnelDTO.Step(funnel.page(step), sessions,
+                        ratio(sessions, step == 0 ? first : previous), ratio(sessions, first)));
+                previous = sessions;
+            }
+            result.add(new FunnelDTO(funnel.getName(), steps));
+        }
+        return result;
+    }
+
+    private int idOf(String page, int missing) {
+        return page == null || page.isEmpty() ? missing : pages.intern(page);
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole > 0 ? (double) part / whole : 0;
+    }
+}
@@ -0,0 +1,51 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.kafka.transport.EventTransportRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Id of this backend node, read by the other services as #{@nodeIdentity.id}.
+ *
+ * The id keys the node's live stats checkpoint, its node-stats record and its ws-broadcasts
+ * envelopes, so two replicas sharing it would overwrite each other's checkpoint and ignore each
+ * other's stats and broadcasts as their own. visitor.node-id is therefore required as soon as
+ * one of the topics those go through is delivered by Kafka; only a node whose visitor-events,
+ * node-stats and ws-broadcasts topics all stay in-process (it cannot have peers) falls back to
+ * "local".
+ */
+@Service
+@Slf4j
+public class NodeIdentity {
+
+    static final String LOCAL = "local";
+
+    private final String id;
+
+    public NodeIdentity(EventTransportRouter router,
+                        @Value("${visitor.node-id:}") String nodeId,
+                        @Value("${kafka.topics.visitor-events}") String visitorEventsTopic,
+                        @Value("${kafka.topics.node-stats}") String nodeStatsTopic,
+                        @Value("${kafka.topics.ws-broadcasts}") String broadcastsTopic) {
+        if (nodeId != null && !nodeId.isBlank()) {
+            this.id = nodeId.trim();
+            return;
+        }
+        List<String> kafkaTopics = List.of(visitorEventsTopic, nodeStatsTopic, broadcastsTopic).stream()
+                .filter(topic -> !router.isInProcess(topic))
+                .toList();
+        if (!kafkaTopics.isEmpty()) {
+            throw new IllegalStateException("visitor.node-id (NODE_ID) must be set to a stable id per replica: "
+                    + kafkaTopics + " go through Kafka, where replicas sharing an id would overwrite each other");
+        }
+        log.info("visitor.node-id is not set and every cluster topic is in-process, using \"{}\"", LOCAL);
+        this.id = LOCAL;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,149 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.dto.PageViewBucketDTO;
+import com.sweta.portfolio.entity.PageViewRollup;
+import com.sweta.portfolio.entity.PageViewRollup.Granularity;
+import com.sweta.portfolio.repository.PageViewRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-page page view counts in minute and hour buckets (page_view_rollups).
+ *
+ * Page views only touch in-memory counters. VisitorEventConsumer drains them in the same cut as
+ * its live stats checkpoint and adds them to their rows with one batched RollupUpsert (INSERT ...
+ * ON CONFLICT DO UPDATE on PostgreSQL, MERGE elsewhere) in the checkpoint's transaction, so each
+ * instance adds its share, charts read pre-aggregated buckets instead of raw events, and the
+ * events replayed after a restore from that checkpoint were not counted yet.
+ */
+@Service
+@Slf4j
+public class PageViewRollupService {
+
+    private static final int MAX_PAGE_LENGTH = 200;
+
+    private final PageViewRollupRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final RollupUpsert<Delta> upsert;
+    private final Duration minuteRetention;
+    private final Map<BucketKey, Counts> pending = new ConcurrentHashMap<>();
+
+    public PageViewRollupService(PageViewRollupRepository repository,
+                                 JdbcTemplate jdbcTemplate,
+                                 @Value("${visitor.rollups.minute-retention:7d}") Duration minuteRetention) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.upsert = new RollupUpsert<>(jdbcTemplate, "page_view_rollups",
+                List.of("page VARCHAR(200)", "granularity VARCHAR(10)", "bucket_start TIMESTAMP"),
+                List.of("views", "time_spent_seconds"),
+                (statement, delta) -> {
+                    statement.setString(1, delta.key.page);
+                    statement.setString(2, delta.key.granularity.name());
+                    statement.setTimestamp(3, Timestamp.valueOf(delta.key.bucketStart));
+                    statement.setLong(4, delta.views);
+                    statement.setLong(5, delta.timeSpent);
+                });
+        this.minuteRetention = minuteRetention;
+    }
+
+    /**
+     * Count one view of the page at the given time
+     */
+    public void record(String page, LocalDateTime time) {
+        add(page, time, 1, 0);
+    }
+
+    /**
+     * Add the seconds spent on a page to the buckets of the time it was left
+     */
+    public void recordTimeSpent(String page, LocalDateTime leftAt, long seconds) {
+        if (seconds > 0) {
+            add(page, leftAt, 0, seconds);
+        }
+    }
+
+    private void add(String page, LocalDateTime time, long views, long timeSpent) {
+        if (page == null || page.isEmpty() || page.length() > MAX_PAGE_LENGTH) {
+            return;
+        }
+        for (Granularity granularity : Granularity.values()) {
+            Counts counts = pending.computeIfAbsent(
+                    new BucketKey(page, granularity, granularity.bucketStart(time)), key -> new Counts());
+            counts.views.addAndGet(views);
+            counts.timeSpent.addAndGet(timeSpent);
+        }
+    }
+
+    /**
+     * Take the counts gathered since the last drain, to be written with the checkpoint covering them
+     */
+    public RollupUpsert.Batch<Delta> drain() {
+        List<Delta> deltas = new ArrayList<>();
+        // Buckets this old get no more views, so once drained their counters can go
+        LocalDateTime idle = LocalDateTime.now().minusHours(2);
+        pending.forEach((key, counts) -> {
+            long views = counts.views.getAndSet(0);
+            long timeSpent = counts.timeSpent.getAndSet(0);
+            if (views > 0 || timeSpent > 0) {
+                deltas.add(new Delta(key, views, timeSpent));
+            } else if (key.bucketStart.isBefore(idle)) {
+                pending.remove(key, counts);
+            }
+        });
+        return upsert.batch(deltas, delta -> {
+            Counts counts = pending.computeIfAbsent(delta.key, key -> new Counts());
+            counts.views.addAndGet(delta.views);
+            counts.timeSpent.addAndGet(delta.timeSpent);
+        });
+    }
+
+    /**
+     * Minute buckets are only kept for the recent past, hour buckets stay
+     */
+    @Scheduled(fixedRateString = "${visitor.rollups.purge-interval:1h}", initialDelayString = "${visitor.rollups.purge-interval:1h}")
+    public void purge() {
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM page_view_rollups WHERE granularity = ? AND bucket_start < ?",
+                Granularity.MINUTE.name(), Timestamp.valueOf(LocalDateTime.now().minus(minuteRetention)));
+        if (deleted > 0) {
+            log.info("Purged {} minute page view buckets older than {}", deleted, minuteRetention);
+        }
+    }
+
+    /**
+     * Buckets starting in [from, to), all pages or only one
+     */
+    public List<PageViewBucketDTO> range(Granularity granularity, LocalDateTime from, LocalDateTime to, String page) {
+        List<PageViewRollup> rows = page != null
+                ? repository.findRangeForPage(granularity, page, from, to)
+                : repository.findRange(granularity, from, to);
+        return rows.stream()
+                .map(row -> new PageViewBucketDTO(row.getId().getPage(), row.getId().getBucketStart(), row.getViews(),
+                        row.getViews() > 0 ? (double) row.getTimeSpentSeconds() / row.getViews() : null))
+                .toList();
+    }
+
+    record BucketKey(String page, Granularity granularity, LocalDateTime bucketStart) {
+    }
+
+    record Delta(BucketKey key, long views, long timeSpent) {
+    }
+
+    private static final class Counts {
+
+        private final AtomicLong views = new AtomicLong();
+        private final AtomicLong timeSpent = new AtomicLong();
+    }
+}
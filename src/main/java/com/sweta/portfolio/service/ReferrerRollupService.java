@@ -0,0 +1,130 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.analytics.ReferrerParser;
+import com.sweta.portfolio.analytics.SpaceSaving;
+import com.sweta.portfolio.analytics.TrafficSource;
+import com.sweta.portfolio.analytics.TwoGenerationCache;
+import com.sweta.portfolio.dto.TrafficSourceDTO;
+import com.sweta.portfolio.repository.ReferrerRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Sessions per day and traffic source (referrer domain or UTM source/medium/campaign), in
+ * referrer_rollups.
+ *
+ * Referrers are attributed by ReferrerParser and cached per distinct referrer and landing URL,
+ * so repeated origins share one TrafficSource instance. Each day's sources are counted in a
+ * bounded Space-Saving sketch; with every live stats checkpoint the sketches are drained and
+ * their counts added to the rows with one batched RollupUpsert in the checkpoint's transaction
+ * (like PageViewRollupService), so memory stays bounded however many distinct referrers show up,
+ * every instance adds its share and sessions replayed after a restore are not counted twice.
+ * Only a checkpoint interval with more than visitor.referrers.max-sources distinct sources makes
+ * the counts approximate, and then only for the rare sources.
+ */
+@Service
+@Slf4j
+public class ReferrerRollupService {
+
+    private static final int MAX_CACHED_LENGTH = 1024;
+
+    private final ReferrerRollupRepository repository;
+    private final RollupUpsert<Row> upsert;
+    private final Set<String> internalHosts;
+    private final int maxSources;
+    private final TwoGenerationCache<Origin, TrafficSource> cache;
+    private final Map<LocalDate, SpaceSaving<TrafficSource>> pending = new ConcurrentHashMap<>();
+
+    public ReferrerRollupService(ReferrerRollupRepository repository,
+                                 JdbcTemplate jdbcTemplate,
+                                 @Value("${visitor.referrers.internal-hosts:localhost}") String[] internalHosts,
+                                 @Value("${visitor.referrers.max-sources:200}") int maxSources,
+                                 @Value("${visitor.referrers.cache-size:2048}") int cacheSize) {
+        this.repository = repository;
+        this.upsert = new RollupUpsert<>(jdbcTemplate, "referrer_rollups",
+                List.of("visit_date DATE", "source VARCHAR(100)", "medium VARCHAR(100)", "campaign VARCHAR(100)"),
+                List.of("sessions"),
+                (statement, row) -> {
+                    statement.setDate(1, Date.valueOf(row.day));
+                    statement.setString(2, row.source.source());
+                    statement.setString(3, row.source.medium());
+                    statement.setString(4, row.source.campaign());
+                    statement.setLong(5, row.sessions);
+                });
+        this.internalHosts = Arrays.stream(internalHosts)
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.maxSources = maxSources;
+        this.cache = new TwoGenerationCache<>(cacheSize / 2);
+    }
+
+    public TrafficSource attribute(String referrer, String landingUrl) {
+        if ((referrer != null && referrer.length() > MAX_CACHED_LENGTH)
+                || (landingUrl != null && landingUrl.length() > MAX_CACHED_LENGTH)) {
+            return ReferrerParser.parse(referrer, landingUrl, internalHosts);
+        }
+        return cache.get(new Origin(referrer, landingUrl),
+                origin -> ReferrerParser.parse(origin.referrer, origin.landingUrl, internalHosts));
+    }
+
+    /**
+     * Count one session started on the day from the referrer, landing on landingUrl (null when unknown)
+     */
+    public void record(LocalDate day, String referrer, String landingUrl) {
+        pending.computeIfAbsent(day, key -> new SpaceSaving<>(maxSources)).add(attribute(referrer, landingUrl));
+    }
+
+    /**
+     * Take the sessions counted since the last drain, to be written with the checkpoint covering them
+     */
+    public RollupUpsert.Batch<Row> drain() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        List<Row> rows = new ArrayList<>();
+        pending.forEach((day, sketch) -> {
+            if (sketch.isApproximate()) {
+                log.info("More than {} traffic sources on {} this interval, rare ones are approximate", maxSources, day);
+            }
+            List<SpaceSaving.Entry<TrafficSource>> entries = sketch.drain();
+            if (entries.isEmpty()) {
+                if (day.isBefore(yesterday)) {
+                    pending.remove(day, sketch);
+                }
+                return;
+            }
+            entries.forEach(entry -> rows.add(new Row(day, entry.item(), entry.count())));
+        });
+        return upsert.batch(rows, row -> pending.computeIfAbsent(row.day, key -> new SpaceSaving<>(maxSources))
+                .add(row.source, row.sessions));
+    }
+
+    /**
+     * Traffic sources with the most sessions on the days in [from, to], optionally per campaign
+     */
+    public List<TrafficSourceDTO> topSources(LocalDate from, LocalDate to, int limit, boolean byCampaign) {
+        PageRequest page = PageRequest.of(0, limit);
+        return byCampaign
+                ? repository.findTopCampaigns(from, to, page)
+                : repository.findTopSources(from, to, page);
+    }
+
+    private record Origin(String referrer, String landingUrl) {
+    }
+
+    record Row(LocalDate day, TrafficSource source, long sessions) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.sweta.portfolio.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Adds in-memory counts to the rows of a rollup table with one batched upsert: INSERT ... ON
+ * CONFLICT DO UPDATE on PostgreSQL, standard MERGE on H2 (ci) and other databases without ON
+ * CONFLICT. Both statements are built from the table's key columns and the BIGINT counter
+ * columns the counts are added to, and the dialect is looked up once, on the first write.
+ *
+ * The setter binds a row's keys and then its counters, in the order the columns were given.
+ * Used by PageViewRollupService and ReferrerRollupService, whose drained counts are written
+ * with the live stats checkpoint.
+ */
+@Slf4j
+public final class RollupUpsert<R> {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+    private final String postgresSql;
+    private final String mergeSql;
+    private final ParameterizedPreparedStatementSetter<R> setter;
+
+    private volatile String sql;
+
+    /**
+     * keys are "name SQL-TYPE", like "visit_date DATE", the type being what MERGE casts the parameter to
+     */
+    public RollupUpsert(JdbcTemplate jdbcTemplate, String table, List<String> keys, List<String> counters,
+                        ParameterizedPreparedStatementSetter<R> setter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+        this.setter = setter;
+        List<String> keyNames = keys.stream().map(key -> key.substring(0, key.indexOf(' '))).toList();
+        List<String> columns = new ArrayList<>(keyNames);
+        columns.addAll(counters);
+        List<String> casts = new ArrayList<>(keys.stream()
+                .map(key -> "CAST(? AS " + key.substring(key.indexOf(' ') + 1).trim() + ")").toList());
+        counters.forEach(counter -> casts.add("CAST(? AS BIGINT)"));
+
+        this.postgresSql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") "
+                + "VALUES (" + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ") "
+                + "ON CONFLICT (" + String.join(", ", keyNames) + ") DO UPDATE SET "
+                + counters.stream().map(counter -> counter + " = " + table + "." + counter + " + EXCLUDED." + counter)
+                        .collect(Collectors.joining(", "));
+        this.mergeSql = "MERGE INTO " + table + " r "
+                + "USING (VALUES (" + String.join(", ", casts) + ")) AS s (" + String.join(", ", columns) + ") "
+                + "ON " + keyNames.stream().map(key -> "r." + key + " = s." + key).collect(Collectors.joining(" AND "))
+                + " WHEN MATCHED THEN UPDATE SET "
+                + counters.stream().map(counter -> counter + " = r." + counter + " + s." + counter)
+                        .collect(Collectors.joining(", "))
+                + " WHEN NOT MATCHED THEN INSERT (" + String.join(", ", columns) + ") "
+                + "VALUES (" + columns.stream().map(column -> "s." + column).collect(Collectors.joining(", ")) + ")";
+    }
+
+    /**
+     * Drained rows, with what gives one back to the in-memory counts
+     */
+    public Batch<R> batch(List<R> rows, Consumer<R> requeue) {
+        return new Batch<>(this, rows, requeue);
+    }
+
+    /**
+     * Add the rows' counters to the table in one batch, in the caller's transaction if any
+     */
+    public void write(List<R> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql(), rows, rows.size(), setter);
+        log.debug("Wrote {} {} rows", rows.size(), table);
+    }
+
+    String sql() {
+        String current = sql;
+        if (current == null) {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            current = "PostgreSQL".equalsIgnoreCase(database) ? postgresSql : mergeSql;
+            sql = current;
+        }
+        return current;
+    }
+
+    String postgresSql() {
+        return postgresSql;
+    }
+
+    String mergeSql() {
+        return mergeSql;
+    }
+
+    /**
+     * Drained counts: write() adds them to their rows in one batch (in the caller's transaction),
+     * requeue() gives them back when that transaction failed
+     */
+    public static final class Batch<R> {
+
+        private final RollupUpsert<R> upsert;
+        private final List<R> rows;
+        private final Consumer<R> requeue;
+
+        private Batch(RollupUpsert<R> upsert, List<R> rows, Consumer<R> requeue) {
+            this.upsert = upsert;
+            this.rows = rows;
+            this.requeue = requeue;
+        }
+
+        public void write() {
+            upsert.write(rows);
+        }
+
+        public void requeue() {
+            rows.forEach(requeue);
+        }
+
+        public int size() {
+            return rows.size();
+        }
+    }
+}
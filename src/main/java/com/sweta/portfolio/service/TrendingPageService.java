@@ -0,0 +1,163 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.analytics.PageDictionary;
+import com.sweta.portfolio.analytics.TrendWindow;
+import com.sweta.portfolio.dto.TrendingPageDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trending pages: the pages whose views over the last window grew most against the window before.
+ *
+ * Page views are counted in a TrendWindow (per-second buckets, no allocation and no database per
+ * view). Once a second the window advances and this node's window sums are taken per page. They
+ * go out with its node stats, and the ranking is recomputed in O(pages) from the sums of every
+ * node merged by ClusterStatsService, so every node serves the same cluster-wide ranking. Queries
+ * read that ranking, and each node pushes it to its own /topic/trending clients when the trending
+ * pages change, or every refresh interval while there are any.
+ *
+ * The score is the growth in standard deviations of a Poisson count, (views - previous) / sqrt(previous + 1),
+ * so a small page doubling and a busy page gaining a few percent compete fairly. Pages need
+ * min-views in the last window to trend.
+ */
+@Service
+@Slf4j
+public class TrendingPageService {
+
+    private static final String DESTINATION = "/topic/trending";
+
+    private final ClusterStatsService clusterStatsService;
+    private final ClusterBroadcaster clusterBroadcaster;
+    private final PageDictionary pages;
+    private final TrendWindow window;
+    private final long minViews;
+    private final int limit;
+    private final long refreshMillis;
+
+    private volatile List<TrendingPageDTO> trending = List.of();
+    // This node's window sums as of the last advance, handed out with its node stats
+    private volatile WindowCounts localCounts = new WindowCounts(Map.of(), Map.of());
+    private List<String> published = List.of();
+    private long publishedAt;
+
+    public TrendingPageService(ClusterStatsService clusterStatsService,
+                               ClusterBroadcaster clusterBroadcaster,
+                               @Value("${visitor.trending.window:5m}") Duration window,
+                               @Value("${visitor.trending.max-pages:128}") int maxPages,
+                               @Value("${visitor.trending.min-views:5}") long minViews,
+                               @Value("${visitor.trending.limit:10}") int limit,
+                               @Value("${visitor.trending.refresh:10s}") Duration refresh) {
+        this.clusterStatsService = clusterStatsService;
+        this.clusterBroadcaster = clusterBroadcaster;
+        this.pages = new PageDictionary(maxPages);
+        this.window = new TrendWindow(maxPages, (int) Math.max(1, window.toSeconds()), System.currentTimeMillis());
+        this.minViews = Math.max(1, minViews);
+        this.limit = limit;
+        this.refreshMillis = refresh.toMillis();
+    }
+
+    /**
+     * Count one view of the page now
+     */
+    public void record(String page) {
+        if (page != null && !page.isEmpty()) {
+            window.record(pages.intern(page), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * The top trending pages, at most limit (and at most visitor.trending.limit)
+     */
+    public List<TrendingPageDTO> trending(int limit) {
+        List<TrendingPageDTO> current = trending;
+        return current.size() > limit ? current.subList(0, limit) : current;
+    }
+
+    /**
+     * This node's page views per page over the window and the window before it
+     */
+    public WindowCounts localCounts() {
+        return localCounts;
+    }
+
+    public Duration window() {
+        return Duration.ofSeconds(window.windowSeconds());
+    }
+
+    /**
+     * Fold the past second into the window, re-rank and push changes; the scheduler thread owns the window sums
+     */
+    @Scheduled(fixedRate = 1000)
+    public void advance() {
+        long now = System.currentTimeMillis();
+        try {
+            window.advance(now);
+            WindowCounts local = windowCounts();
+            localCounts = local;
+            trending = rank(clusterStatsService.mergeTrendViews(local.views()),
+                    clusterStatsService.mergeTrendPreviousViews(local.previousViews()));
+            publish(now);
+        } catch (Exception e) {
+            log.error("Failed to update trending pages", e);
+        }
+    }
+
+    private WindowCounts windowCounts() {
+        Map<String, Long> views = new HashMap<>();
+        Map<String, Long> previousViews = new HashMap<>();
+        // Id 0 is the (other) bucket of overflow pages, not a page of its own
+        for (int id = 1; id < pages.size(); id++) {
+            if (window.current(id) > 0) {
+                views.put(pages.name(id), window.current(id));
+            }
+            if (window.previous(id) > 0) {
+                previousViews.put(pages.name(id), window.previous(id));
+            }
+        }
+        return new WindowCounts(Map.copyOf(views), Map.copyOf(previousViews));
+    }
+
+    private List<TrendingPageDTO> rank(Map<String, Long> viewsByPage, Map<String, Long> previousByPage) {
+        List<TrendingPageDTO> ranked = new ArrayList<>();
+        viewsByPage.forEach((page, views) -> {
+            long previous = previousByPage.getOrDefault(page, 0L);
+            if (views < minViews || views <= previous) {
+                return;
+            }
+            double score = (views - previous) / Math.sqrt(previous + 1.0);
+            double growth = (views - previous) / (double) Math.max(1, previous);
+            ranked.add(new TrendingPageDTO(page, views, previous, growth, score));
+        });
+        // Ties by name, so every node orders the merged counts the same way
+        ranked.sort(Comparator.comparingDouble(TrendingPageDTO::getScore).reversed()
+                .thenComparing(TrendingPageDTO::getPage));
+        return ranked.size() > limit ? List.copyOf(ranked.subList(0, limit)) : List.copyOf(ranked);
+    }
+
+    private void publish(long now) {
+        List<TrendingPageDTO> current = trending;
+        List<String> names = current.stream().map(TrendingPageDTO::getPage).toList();
+        boolean changed = !names.equals(published);
+        boolean refresh = !names.isEmpty() && now - publishedAt >= refreshMillis;
+        if (changed || refresh) {
+            clusterBroadcaster.sendLocal(DESTINATION, current);
+            published = names;
+            publishedAt = now;
+        }
+    }
+
+    /**
+     * Views per page over the trending window and over the window before it, pages without any left out
+     */
+    public record WindowCounts(Map<String, Long> views, Map<String, Long> previousViews) {
+    }
+}
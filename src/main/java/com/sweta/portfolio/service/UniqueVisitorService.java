@@ -0,0 +1,209 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.analytics.HyperLogLog;
+import com.sweta.portfolio.dto.UniqueVisitorHistoryDTO;
+import com.sweta.portfolio.entity.UniqueVisitorSketch;
+import com.sweta.portfolio.repository.UniqueVisitorSketchRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unique visitors per day, week and month from one HyperLogLog sketch per day.
+ *
+ * Weeks and months are the merge of their days, so only days are stored. Dirty days are
+ * merged into their database row periodically (merge-on-write under a row lock), and the
+ * merged registers come back into memory, so every instance ends up counting the visitors
+ * seen by all instances.
+ */
+@Service
+@Slf4j
+public class UniqueVisitorService {
+
+    // Days kept in memory: the current and the previous month
+    private static final int RETAINED_DAYS = 62;
+
+    private final UniqueVisitorSketchRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<LocalDate, DaySketch> days = new ConcurrentHashMap<>();
+
+    public UniqueVisitorService(UniqueVisitorSketchRepository repository, TransactionTemplate transactionTemplate) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Count a visitor on the given day
+     */
+    public void record(LocalDate day, String visitorId) {
+        if (visitorId == null || visitorId.isEmpty()) {
+            return;
+        }
+        DaySketch daySketch = days.computeIfAbsent(day, this::load);
+        synchronized (daySketch) {
+            if (daySketch.sketch.add(visitorId)) {
+                daySketch.dirty = true;
+            }
+        }
+    }
+
+    public long countDay(LocalDate day) {
+        return sketchDay(day).estimate();
+    }
+
+    /**
+     * Distinct visitors from Monday of the day's week up to the day
+     */
+    public long countWeek(LocalDate day) {
+        return sketchWeek(day).estimate();
+    }
+
+    /**
+     * Distinct visitors from the first of the day's month up to the day
+     */
+    public long countMonth(LocalDate day) {
+        return sketchMonth(day).estimate();
+    }
+
+    /**
+     * Copy of the day's sketch, e.g. to merge with the sketches of other instances
+     */
+    public HyperLogLog sketchDay(LocalDate day) {
+        return mergeRange(day, day);
+    }
+
+    public HyperLogLog sketchWeek(LocalDate day) {
+        return mergeRange(day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)), day);
+    }
+
+    public HyperLogLog sketchMonth(LocalDate day) {
+        return mergeRange(day.withDayOfMonth(1), day);
+    }
+
+    public UniqueVisitorHistoryDTO history(LocalDate from, LocalDate to) {
+        preload(from, to);
+        List<UniqueVisitorHistoryDTO.Day> history = new ArrayList<>();
+        HyperLogLog total = new HyperLogLog();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            HyperLogLog sketch = snapshot(day);
+            history.add(new UniqueVisitorHistoryDTO.Day(day, sketch.estimate()));
+            total.merge(sketch);
+        }
+        return new UniqueVisitorHistoryDTO(from, to, total.estimate(), countWeek(to), countMonth(to), history);
+    }
+
+    /**
+     * Merge dirty days into their rows and pick up what other instances merged there
+     */
+    @Scheduled(fixedRateString = "${visitor.unique.flush-interval:60s}")
+    public void flush() {
+        days.forEach((day, daySketch) -> {
+            HyperLogLog local;
+            synchronized (daySketch) {
+                if (!daySketch.dirty) {
+                    return;
+                }
+                local = daySketch.sketch.copy();
+                daySketch.dirty = false;
+            }
+            try {
+                HyperLogLog merged = transactionTemplate.execute(status -> mergeIntoRow(day, local));
+                synchronized (daySketch) {
+                    daySketch.sketch.merge(merged);
+                }
+            } catch (Exception e) {
+                // Keep it dirty, the next flush retries (merging twice is harmless)
+                synchronized (daySketch) {
+                    daySketch.dirty = true;
+                }
+                log.warn("Failed to persist unique visitor sketch for {}: {}", day, e.getMessage());
+            }
+        });
+
+        LocalDate oldest = LocalDate.now().minusDays(RETAINED_DAYS);
+        days.entrySet().removeIf(entry -> entry.getKey().isBefore(oldest) && !entry.getValue().dirty);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private HyperLogLog mergeIntoRow(LocalDate day, HyperLogLog local) {
+        UniqueVisitorSketch row = repository.findForUpdate(day)
+                .orElseGet(() -> new UniqueVisitorSketch(day, null, null));
+        if (row.getRegisters() != null) {
+            local.merge(HyperLogLog.fromBytes(row.getRegisters()));
+        }
+        row.setRegisters(local.toBytes());
+        row.setUpdatedAt(LocalDateTime.now());
+        repository.save(row);
+        return local;
+    }
+
+    private HyperLogLog mergeRange(LocalDate from, LocalDate to) {
+        preload(from, to);
+        HyperLogLog merged = new HyperLogLog();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            DaySketch daySketch = days.get(day);
+            if (daySketch != null) {
+                synchronized (daySketch) {
+                    merged.merge(daySketch.sketch);
+                }
+            }
+        }
+        return merged;
+    }
+
+    private HyperLogLog snapshot(LocalDate day) {
+        DaySketch daySketch = days.get(day);
+        if (daySketch == null) {
+            return new HyperLogLog();
+        }
+        synchronized (daySketch) {
+            return daySketch.sketch.copy();
+        }
+    }
+
+    // Pull persisted days of the range that are not in memory yet (restart, or older history).
+    // Days without a row get an empty sketch, so the next read of the range stays in memory
+    private void preload(LocalDate from, LocalDate to) {
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (!days.containsKey(day)) {
+                repository.findByDayBetween(from, to).forEach(row ->
+                        days.putIfAbsent(row.getDay(), new DaySketch(HyperLogLog.fromBytes(row.getRegisters()))));
+                for (LocalDate missing = day; !missing.isAfter(to); missing = missing.plusDays(1)) {
+                    days.putIfAbsent(missing, new DaySketch(new HyperLogLog()));
+                }
+                return;
+            }
+        }
+    }
+
+    private DaySketch load(LocalDate day) {
+        return repository.findById(day)
+                .map(row -> new DaySketch(HyperLogLog.fromBytes(row.getRegisters())))
+                .orElseGet(() -> new DaySketch(new HyperLogLog()));
+    }
+
+    private static final class DaySketch {
+
+        private final HyperLogLog sketch;
+        private volatile boolean dirty;
+
+        DaySketch(HyperLogLog sketch) {
+            this.sketch = sketch;
+        }
+    }
+}
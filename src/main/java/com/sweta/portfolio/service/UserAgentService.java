@@ -0,0 +1,93 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.analytics.TwoGenerationCache;
+import com.sweta.portfolio.analytics.UserAgent;
+import com.sweta.portfolio.analytics.UserAgentParser;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Parsed User-Agent headers, memoized per raw header value.
+ *
+ * Real traffic has few distinct headers, so nearly every call is a cache hit: one
+ * ConcurrentHashMap get, no locking (see TwoGenerationCache).
+ *
+ * Besides the parser's generic bot rule, headers containing one of the known-bot signatures
+ * (visitor.bots.signatures, one case-insensitive substring per line) are classified as bots;
+ * the signatures are matched once per distinct header, the cache keeps the verdict.
+ */
+@Service
+@Slf4j
+public class UserAgentService {
+
+    // Longest header we cache; anything longer is parsed every time rather than pinned in memory
+    private static final int MAX_CACHED_LENGTH = 512;
+
+    private final TwoGenerationCache<String, UserAgent> cache;
+    private final Resource signatures;
+
+    // Alternation of the quoted known-bot signatures, null when there are none
+    private volatile Pattern knownBots;
+
+    public UserAgentService(@Value("${visitor.user-agent.cache-size:2048}") int cacheSize,
+                            @Value("${visitor.bots.signatures:classpath:bots/known-bots.txt}") Resource signatures) {
+        this.cache = new TwoGenerationCache<>(cacheSize / 2);
+        this.signatures = signatures;
+    }
+
+    @PostConstruct
+    public void loadSignatures() {
+        if (signatures == null || !signatures.exists()) {
+            log.warn("Known-bot signatures {} not found, only the built-in bot rule applies", signatures);
+            return;
+        }
+        List<String> tokens = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(signatures.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    tokens.add(line.toLowerCase(Locale.ROOT));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read known-bot signatures {}: {}", signatures, e.getMessage());
+            return;
+        }
+        knownBots = tokens.isEmpty() ? null : Pattern.compile(
+                tokens.stream().distinct().map(Pattern::quote).collect(Collectors.joining("|")),
+                Pattern.CASE_INSENSITIVE);
+        cache.clear();
+        log.info("Loaded {} known-bot signatures from {}", tokens.size(), signatures);
+    }
+
+    public UserAgent parse(String userAgent) {
+        if (userAgent == null || userAgent.length() > MAX_CACHED_LENGTH) {
+            return classify(userAgent);
+        }
+        return cache.get(userAgent, this::classify);
+    }
+
+    private UserAgent classify(String userAgent) {
+        UserAgent parsed = UserAgentParser.parse(userAgent);
+        Pattern bots = knownBots;
+        if (!parsed.bot() && bots != null && bots.matcher(userAgent).find()) {
+            return new UserAgent(parsed.browser(), parsed.os(), "Bot", true);
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,86 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.dto.WindowedStatDTO;
+import com.sweta.portfolio.kafka.streams.TimeSpentAggregate;
+import com.sweta.portfolio.kafka.streams.VisitorAnalyticsTopology;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Interactive queries against the visitor analytics window stores.
+ * Only this instance's partitions are visible; with several instances each one
+ * answers for the partitions it owns.
+ */
+@Service
+@RequiredArgsConstructor
+@Profile("!ci")
+public class VisitorAnalyticsQueryService {
+
+    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+
+    /**
+     * Page views per page per minute over the last lookback
+     */
+    public List<WindowedStatDTO> getPageViewsPerMinute(Duration lookback) {
+        return this.<Long>query(VisitorAnalyticsTopology.PAGE_VIEWS_STORE, lookback,
+                (key, count) -> new WindowedStatDTO(key.key(), key.window().startTime(), key.window().endTime(), count, null));
+    }
+
+    /**
+     * Sessions per device type, 5 minute windows hopping every minute
+     */
+    public List<WindowedStatDTO> getSessionsPerDevice(Duration lookback) {
+        return this.<Long>query(VisitorAnalyticsTopology.DEVICE_SESSIONS_STORE, lookback,
+                (key, count) -> new WindowedStatDTO(key.key(), key.window().startTime(), key.window().endTime(), count, null));
+    }
+
+    /**
+     * Average timeSpentSeconds per page per minute
+     */
+    public List<WindowedStatDTO> getAverageTimeSpent(Duration lookback) {
+        return this.<TimeSpentAggregate>query(VisitorAnalyticsTopology.TIME_SPENT_STORE, lookback,
+                (key, aggregate) -> new WindowedStatDTO(key.key(), key.window().startTime(), key.window().endTime(),
+                        aggregate.count(), aggregate.average()));
+    }
+
+    private <V> List<WindowedStatDTO> query(String storeName, Duration lookback, BiFunction<Windowed<String>, V, WindowedStatDTO> mapper) {
+        ReadOnlyWindowStore<String, V> store = store(storeName);
+        Instant to = Instant.now();
+        Instant from = to.minus(lookback);
+
+        List<WindowedStatDTO> result = new ArrayList<>();
+        try (KeyValueIterator<Windowed<String>, V> iterator = store.fetchAll(from, to)) {
+            while (iterator.hasNext()) {
+                KeyValue<Windowed<String>, V> entry = iterator.next();
+                result.add(mapper.apply(entry.key, entry.value));
+            }
+        }
+        result.sort(Comparator.comparing(WindowedStatDTO::getWindowStart).thenComparing(WindowedStatDTO::getKey));
+        return result;
+    }
+
+    private <V> ReadOnlyWindowStore<String, V> store(String storeName) {
+        KafkaStreams kafkaStreams = streamsBuilderFactoryBean.getKafkaStreams();
+        if (kafkaStreams == null || kafkaStreams.state() != KafkaStreams.State.RUNNING) {
+            throw new IllegalStateException("Visitor analytics streams are not running yet");
+        }
+        return kafkaStreams.store(StoreQueryParameters.fromNameAndType(storeName,
+                QueryableStoreTypes.<String, V>windowStore()));
+    }
+}
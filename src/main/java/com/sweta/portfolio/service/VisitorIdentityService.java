@@ -0,0 +1,180 @@
+package com.sweta.portfolio.service;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Visitor session identity carried entirely in a signed cookie, so no HttpSession (or any
+ * other per-visitor server state) is needed to recognise a returning request.
+ *
+ * The cookie value is 48 base64url characters: the session UUID (16 bytes), the time it was
+ * issued in epoch seconds (4 bytes) and the first 16 bytes of an HMAC-SHA256 over both.
+ * Verifying it is one HMAC over 20 bytes; a tampered, foreign or expired value is ignored as
+ * if there were no cookie. Every replica must share visitor.identity.secret to accept the
+ * others' cookies.
+ */
+@Service
+@Slf4j
+public class VisitorIdentityService {
+
+    public static final String COOKIE_NAME = "PORTFOLIO_SESSION_ID";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int PAYLOAD_LENGTH = 20;
+    private static final int MAC_LENGTH = 16;
+    private static final int TOKEN_LENGTH = PAYLOAD_LENGTH + MAC_LENGTH;
+    private static final int ENCODED_LENGTH = 48;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final long maxAgeSeconds;
+
+    // Mac is not thread-safe; one initialised instance per request thread
+    private final ThreadLocal<Mac> macs;
+
+    public VisitorIdentityService(@Value("${visitor.identity.secret:}") String secret,
+                                  @Value("${visitor.identity.max-age:1h}") Duration maxAge) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("visitor.identity.secret is not set, using a random key: visitor cookies will not survive "
+                    + "a restart or be accepted by other replicas");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.maxAgeSeconds = maxAge.toSeconds();
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Session id of the request's valid identity cookie, null when it has none
+     */
+    public String findSessionId(HttpServletRequest request) {
+        String token = cookieValue(request);
+        if (token == null) {
+            return null;
+        }
+        ByteBuffer payload = verify(token);
+        return payload != null ? new UUID(payload.getLong(0), payload.getLong(8)).toString() : null;
+    }
+
+    /**
+     * Session id of the request's identity cookie, issuing a new identity when it has no valid one.
+     * A cookie past half its lifetime is re-issued for the same session, so active visitors keep it.
+     */
+    public String getOrCreateSessionId(HttpServletRequest request, HttpServletResponse response) {
+        String token = cookieValue(request);
+        ByteBuffer payload = token != null ? verify(token) : null;
+        long now = nowSeconds();
+        UUID sessionId;
+        if (payload != null) {
+            sessionId = new UUID(payload.getLong(0), payload.getLong(8));
+            long issued = Integer.toUnsignedLong(payload.getInt(16));
+            if (now - issued < maxAgeSeconds / 2) {
+                return sessionId.toString();
+            }
+        } else {
+            sessionId = UUID.randomUUID();
+        }
+        addCookie(response, issue(sessionId, now));
+        return sessionId.toString();
+    }
+
+    String issue(UUID sessionId, long issuedSeconds) {
+        byte[] token = new byte[TOKEN_LENGTH];
+        ByteBuffer.wrap(token)
+                .putLong(sessionId.getMostSignificantBits())
+                .putLong(sessionId.getLeastSignificantBits())
+                .putInt((int) issuedSeconds);
+        Mac mac = macs.get();
+        mac.update(token, 0, PAYLOAD_LENGTH);
+        System.arraycopy(mac.doFinal(), 0, token, PAYLOAD_LENGTH, MAC_LENGTH);
+        return ENCODER.encodeToString(token);
+    }
+
+    /**
+     * The signed payload of a genuine, unexpired token, null otherwise
+     */
+    ByteBuffer verify(String token) {
+        if (token.length() != ENCODED_LENGTH) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(token);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        Mac mac = macs.get();
+        mac.update(bytes, 0, PAYLOAD_LENGTH);
+        byte[] expected = Arrays.copyOf(mac.doFinal(), MAC_LENGTH);
+        // Constant-time comparison, so response timing does not reveal how much of a forged MAC matched
+        if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(bytes, PAYLOAD_LENGTH, TOKEN_LENGTH))) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.wrap(bytes, 0, PAYLOAD_LENGTH);
+        long issued = Integer.toUnsignedLong(payload.getInt(16));
+        long age = nowSeconds() - issued;
+        return age >= 0 && age < maxAgeSeconds ? payload : null;
+    }
+
+    private void addCookie(HttpServletResponse response, String token) {
+        // SameSite=None: the frontend is on another site, and a Lax cookie would not be sent on its fetch/beacon calls
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, token)
+                .maxAge(maxAgeSeconds)
+                .path("/")
+                .httpOnly(true)
+                .secure(true)
+                .sameSite("None")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    private static String cookieValue(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.sweta.portfolio.service;
 
+import com.sweta.portfolio.analytics.GeoLocation;
+import com.sweta.portfolio.analytics.UserAgent;
+import com.sweta.portfolio.dto.VisitorEventDTO;
 import com.sweta.portfolio.kafka.ContactEventProducer;
+import com.sweta.portfolio.kafka.events.HeartbeatEvent;
 import com.sweta.portfolio.kafka.events.VisitorSessionEvent;
 import com.sweta.portfolio.kafka.events.PageViewEvent;
+import com.sweta.portfolio.kafka.events.ScrollEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -11,9 +16,10 @@ import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
@@ -21,64 +27,133 @@ import java.util.UUID;
 public class VisitorTrackingService {
 
     private final ContactEventProducer eventProducer;
+    private final GeoIpService geoIpService;
+    private final UserAgentService userAgentService;
+    private final VisitorIdentityService identityService;
+    private final ClientIpService clientIpService;
     @Value("${kafka.topics.visitor-events}")
     private String visitorEventsTopic;
-    private static final String SESSION_COOKIE_NAME = "PORTFOLIO_SESSION_ID";
-    private static final int SESSION_COOKIE_MAX_AGE = 3600; // 1 hour
+    private static final int MAX_PAGE_LENGTH = 200;
+    private static final long MAX_TIME_SPENT_SECONDS = 86_400;
+    private static final int MAX_URL_LENGTH = 2048;
     
     /**
-     * Track a visitor session (when someone first visits the portfolio)
+     * Track a visitor session (when someone first visits the portfolio), returns its session id.
+     * referrer (document.referrer) and landingUrl are what the client reports, null when it did not;
+     * without a referrer from the client the Referer header is used instead
      */
-    public void trackVisitorSession(HttpServletRequest request ,HttpServletResponse response) {
+    public String trackVisitorSession(HttpServletRequest request, HttpServletResponse response,
+                                      String referrer, String landingUrl) {
+        String sessionId = identityService.getOrCreateSessionId(request, response);
         try {
-        	String sessionId = getOrCreateSessionId(request, response);
-            String ipAddress = getClientIP(request);
+            String ipAddress = clientIpService.resolve(request);
             String userAgent = request.getHeader("User-Agent");
-            String location = getLocationFromIP(ipAddress);
-            String page = getPageFromRequest(request);
-            String referrer = request.getHeader("Referer");
+            UserAgent client = userAgentService.parse(userAgent);
+            GeoLocation location = geoIpService.resolve(ipAddress);
+            String page = landingUrl != null ? getPage(urlPath(landingUrl)) : getPageFromRequest(request);
+            if (referrer == null) {
+                referrer = request.getHeader("Referer");
+            }
 
             VisitorSessionEvent event = VisitorSessionEvent.builder()
                     .sessionId(sessionId)
                     .ipAddress(ipAddress)
                     .userAgent(userAgent)
-                    .location(location)
+                    .location(location.label())
+                    .countryCode(location.countryCode())
+                    .city(location.city())
                     .page(page)
-                    .referrer(referrer)
-                    .deviceType(detectDeviceType(userAgent))
+                    .referrer(truncate(referrer))
+                    .landingUrl(truncate(landingUrl))
+                    .deviceType(client.deviceType())
+                    .browser(client.browser())
+                    .os(client.os())
+                    .bot(client.bot() || request.getAttribute(BotFilterService.BOT_ATTRIBUTE) != null)
                     .eventType("VISITOR_SESSION")
                     .build();
             log.info(">>>>>> PRODUCER: Attempting to publish event to topic 'visitor-events'");
             
             eventProducer.publishEvent(visitorEventsTopic, sessionId, event);
             
-            log.info("Visitor session tracked: {} from {}", sessionId, location);
+            log.info("Visitor session tracked: {} from {}", sessionId, location.label());
             
         } catch (Exception e) {
             log.error("Failed to track visitor session", e);
         }
+        return sessionId;
     }
-    private String getOrCreateSessionId(HttpServletRequest request, HttpServletResponse response) {
-        // Check for existing session cookie
-        Cookie[] cookies = request.getCookies();
-        if (cookies != null) {
-            for (Cookie cookie : cookies) {
-                if (SESSION_COOKIE_NAME.equals(cookie.getName())) {
-                    return cookie.getValue();
-                }
+
+    /**
+     * Session id from the signed session cookie, null when the visitor has no valid one yet
+     */
+    public String findSessionId(HttpServletRequest request) {
+        return identityService.findSessionId(request);
+    }
+
+    /**
+     * Keep the visitor's session alive, returns false when the request has no session cookie
+     */
+    public boolean trackHeartbeat(HttpServletRequest request) {
+        String sessionId = findSessionId(request);
+        if (sessionId == null) {
+            return false;
+        }
+        eventProducer.publishEvent(visitorEventsTopic, sessionId, new HeartbeatEvent(sessionId));
+        return true;
+    }
+
+    /**
+     * Validate a beacon batch in one pass and publish the valid events as one batch.
+     * Invalid entries are dropped (a beacon cannot be retried anyway); returns how many were accepted.
+     */
+    public int trackEvents(String sessionId, List<VisitorEventDTO> batch) {
+        List<Object> events = new ArrayList<>(batch.size());
+        for (VisitorEventDTO entry : batch) {
+            Object event = toEvent(sessionId, entry);
+            if (event != null) {
+                events.add(event);
             }
         }
-        
-        // Create new session ID
-        String newSessionId = UUID.randomUUID().toString();
-        Cookie sessionCookie = new Cookie(SESSION_COOKIE_NAME, newSessionId);
-        sessionCookie.setMaxAge(SESSION_COOKIE_MAX_AGE);
-        sessionCookie.setPath("/");
-        sessionCookie.setHttpOnly(true);
-        sessionCookie.setSecure(true);
-        response.addCookie(sessionCookie);
-        
-        return newSessionId;
+        if (!events.isEmpty()) {
+            eventProducer.publishEvents(visitorEventsTopic, sessionId, events);
+        }
+        log.debug("Beacon batch for {}: {} of {} events accepted", sessionId, events.size(), batch.size());
+        return events.size();
+    }
+
+    private Object toEvent(String sessionId, VisitorEventDTO entry) {
+        if (entry == null || entry.getType() == null) {
+            return null;
+        }
+        switch (entry.getType().toUpperCase(Locale.ROOT).replace('-', '_')) {
+            case "PAGE_VIEW":
+                Long timeSpent = entry.getTimeSpent();
+                if (!isValidPage(entry.getPage())
+                        || (entry.getPreviousPage() != null && entry.getPreviousPage().length() > MAX_PAGE_LENGTH)
+                        || (timeSpent != null && (timeSpent < 0 || timeSpent > MAX_TIME_SPENT_SECONDS))) {
+                    return null;
+                }
+                PageViewEvent pageView = new PageViewEvent();
+                pageView.setSessionId(sessionId);
+                pageView.setPage(entry.getPage());
+                pageView.setPreviousPage(entry.getPreviousPage());
+                pageView.setTimeSpentSeconds(timeSpent != null ? timeSpent : 0L);
+                return pageView;
+            case "SCROLL":
+                Integer depth = entry.getDepth();
+                if (!isValidPage(entry.getPage()) || depth == null || depth < 0 || depth > 100) {
+                    return null;
+                }
+                return new ScrollEvent(sessionId, entry.getPage(), depth);
+            case "HEARTBEAT":
+                return new HeartbeatEvent(sessionId);
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isValidPage(String page) {
+        return page != null && !page.isBlank() && page.length() <= MAX_PAGE_LENGTH;
     }
 
     /**
@@ -104,68 +179,14 @@ public class VisitorTrackingService {
         }
     }
 
-    /**
-     * Extract client IP address from request
-     */
-    private String getClientIP(HttpServletRequest request) {
-        String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader != null && !xfHeader.isEmpty()) {
-            return xfHeader.split(",")[0].trim();
-        }
-        
-        String xRealIP = request.getHeader("X-Real-IP");
-        if (xRealIP != null && !xRealIP.isEmpty()) {
-            return xRealIP;
-        }
-        
-        return request.getRemoteAddr();
-    }
-
-    /**
-     * Get location from IP address (simplified for demo)
-     */
-    private String getLocationFromIP(String ipAddress) {
-        // For demo purposes, we'll simulate location detection
-        // In production, you'd use a service like MaxMind GeoIP2
-        
-        if (ipAddress == null || ipAddress.equals("127.0.0.1") || ipAddress.equals("0:0:0:0:0:0:0:1")) {
-            return "Local Development";
-        }
-        
-        // Simulate different Dutch locations for demo
-        String[] locations = {
-            "Amsterdam, Netherlands",
-            "Rotterdam, Netherlands", 
-            "Utrecht, Netherlands",
-            "Eindhoven, Netherlands",
-            "Den Haag, Netherlands"
-        };
-        
-        // Use IP hash to consistently assign same location to same IP
-        int locationIndex = Math.abs(ipAddress.hashCode()) % locations.length;
-        return locations[locationIndex];
-    }
-
-    /**
-     * Detect device type from user agent
-     */
-    private String detectDeviceType(String userAgent) {
-        if (userAgent == null) return "Unknown";
-        
-        String ua = userAgent.toLowerCase();
-        if (ua.contains("mobile") || ua.contains("android") || ua.contains("iphone")) {
-            return "Mobile";
-        } else if (ua.contains("tablet") || ua.contains("ipad")) {
-            return "Tablet";
-        }
-        return "Desktop";
-    }
-
     /**
      * Extract page name from request
      */
     private String getPageFromRequest(HttpServletRequest request) {
-        String uri = request.getRequestURI();
+        return getPage(request.getRequestURI());
+    }
+
+    private String getPage(String uri) {
         if (uri == null || uri.equals("/") || uri.equals("/api")) {
             return "home";
         }
@@ -177,6 +198,26 @@ public class VisitorTrackingService {
         
         return uri.replaceFirst("^/", "").replaceAll("/.*", "");
     }
+
+    /**
+     * Path of an absolute URL, or of a path, without query string and fragment
+     */
+    private static String urlPath(String url) {
+        int start = url.indexOf("://");
+        start = start >= 0 ? url.indexOf('/', start + 3) : 0;
+        if (start < 0) {
+            return "/";
+        }
+        int end = start;
+        while (end < url.length() && "?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return url.substring(start, end);
+    }
+
+    private static String truncate(String url) {
+        return url != null && url.length() > MAX_URL_LENGTH ? url.substring(0, MAX_URL_LENGTH) : url;
+    }
     @PostConstruct
     public void init() {
         log.info("====== VisitorController created successfully ======");
@@ -1,13 +1,14 @@
 package com.sweta.portfolio.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sweta.portfolio.dto.WebSocketMessages;
 import com.sweta.portfolio.entity.Contact;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.io.IOException;
 import java.util.Map;
 
 @Service
@@ -15,82 +16,97 @@ import java.util.Map;
 @Slf4j
 public class WebSocketService {
     
-    private final SimpMessagingTemplate messagingTemplate;
-    private static final String TIMESTAMP_KEY = "timestamp";
+    // Delivers to the clients of every node, not only the ones connected here
+    private final ClusterBroadcaster clusterBroadcaster;
+    private final DeltaFeedService deltaFeedService;
+    private final ObjectMapper objectMapper;
+    
+    @PostConstruct
+    public void init() {
+        // Other nodes' analytics reach this node's clients as deltas of this node's feed
+        clusterBroadcaster.onRelay(deltaFeedService.feed(DeltaFeedService.ANALYTICS).getDestination(),
+                this::applyRelayedAnalytics);
+    }
+    
     /**
      * Broadcast contact update to all connected clients
      */
     public void broadcastContactUpdate(Contact contact) {
-        Map<String, Object> update = new HashMap<>();
-        update.put("id", contact.getId());
-        update.put("name", contact.getName());
-        update.put("email", contact.getEmail());
-        update.put("status", contact.getStatus().toString());
-        update.put("priority", contact.getPriority() != null ? contact.getPriority().toString() : "MEDIUM");
-        update.put(TIMESTAMP_KEY, LocalDateTime.now().toString());
-        update.put("type", "CONTACT_UPDATE");
+        WebSocketMessages.ContactUpdate update = new WebSocketMessages.ContactUpdate(
+                WebSocketMessages.CONTACT_UPDATE,
+                contact.getId(),
+                contact.getName(),
+                contact.getEmail(),
+                contact.getStatus().toString(),
+                contact.getPriority() != null ? contact.getPriority().toString() : "MEDIUM",
+                System.currentTimeMillis());
         
         log.info("Broadcasting contact update for: {}", contact.getId());
         
         // Send to all subscribers of /topic/contacts
-        messagingTemplate.convertAndSend("/topic/contacts", update);
+        clusterBroadcaster.broadcast("/topic/contacts", update);
     }
     
     /**
      * Send notification to all admin users
      */
     public void sendAdminNotification(String title, String message, String severity) {
-        Map<String, Object> notification = new HashMap<>();
-        notification.put("title", title);
-        notification.put("message", message);
-        notification.put("severity", severity); // INFO, WARNING, ERROR, SUCCESS
-        notification.put(TIMESTAMP_KEY, LocalDateTime.now().toString());
+        WebSocketMessages.AdminNotification notification = new WebSocketMessages.AdminNotification(
+                title, message, severity, System.currentTimeMillis());
         
         log.info("Sending admin notification: {}", title);
         
         // Broadcast to all admins
-        messagingTemplate.convertAndSend("/topic/admin-notifications", notification);
+        clusterBroadcaster.broadcast("/topic/admin-notifications", notification);
     }
     
     /**
      * Send visitor activity update
      */
     public void broadcastVisitorActivity(String page, String action) {
-        Map<String, Object> activity = new HashMap<>();
-        activity.put("page", page);
-        activity.put("action", action);
-        activity.put(TIMESTAMP_KEY, LocalDateTime.now().toString());
-        activity.put("type", "VISITOR_ACTIVITY");
+        WebSocketMessages.VisitorActivity activity = new WebSocketMessages.VisitorActivity(
+                WebSocketMessages.VISITOR_ACTIVITY, page, action, System.currentTimeMillis());
         
         log.debug("Broadcasting visitor activity: {} on {}", action, page);
         
-        messagingTemplate.convertAndSend("/topic/visitor-activity", activity);
+        clusterBroadcaster.broadcast("/topic/visitor-activity", activity);
     }
     
     /**
-     * Send analytics update
+     * Send analytics update: subscribers get the fields that changed, see DeltaFeed
      */
     public void broadcastAnalyticsUpdate(Map<String, Object> analytics) {
-        analytics.put(TIMESTAMP_KEY, LocalDateTime.now().toString());
-        analytics.put("type", "ANALYTICS_UPDATE");
+        DeltaFeed feed = deltaFeedService.feed(DeltaFeedService.ANALYTICS);
         
         log.info("Broadcasting analytics update");
         
-        messagingTemplate.convertAndSend("/topic/analytics", analytics);
+        feed.publish(analytics);
+        // The other nodes get it whole and diff it against their own feed
+        clusterBroadcaster.forward(feed.getDestination(), new WebSocketMessages.AnalyticsUpdate(
+                WebSocketMessages.ANALYTICS_UPDATE, analytics, System.currentTimeMillis()));
     }
     
     /**
      * Send a private message to a specific user
      */
     public void sendPrivateMessage(String userId, String message) {
-        Map<String, Object> privateMsg = new HashMap<>();
-        privateMsg.put("message", message);
-        privateMsg.put(TIMESTAMP_KEY, LocalDateTime.now().toString());
-        privateMsg.put("type", "PRIVATE_MESSAGE");
+        WebSocketMessages.PrivateMessage privateMsg = new WebSocketMessages.PrivateMessage(
+                WebSocketMessages.PRIVATE_MESSAGE, message, System.currentTimeMillis());
         
         log.info("Sending private message to user: {}", userId);
         
         // Send to specific user
-        messagingTemplate.convertAndSendToUser(userId, "/queue/messages", privateMsg);
+        clusterBroadcaster.sendToUser(userId, "/queue/messages", privateMsg);
+    }
+    
+    private void applyRelayedAnalytics(byte[] json) {
+        try {
+            WebSocketMessages.AnalyticsUpdate update = objectMapper.readValue(json, WebSocketMessages.AnalyticsUpdate.class);
+            if (update.analytics() != null) {
+                deltaFeedService.feed(DeltaFeedService.ANALYTICS).publish(update.analytics());
+            }
+        } catch (IOException e) {
+            log.warn("Dropping unreadable analytics update from another node", e);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.sweta.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FunnelTest {
+
+    private final PageDictionary pages = new PageDictionary(8);
+    private final Funnel funnel = new Funnel("signup", new String[] {"home", "projects", "contact"}, pages);
+
+    @Test
+    void stepsAreReachedInOrderWithOtherPagesBetween() {
+        int progress = 0;
+        progress = funnel.advance(progress, pages.intern("home"));
+        progress = funnel.advance(progress, pages.intern("blog"));
+        progress = funnel.advance(progress, pages.intern("projects"));
+        assertEquals(2, progress);
+        progress = funnel.advance(progress, pages.intern("contact"));
+        assertEquals(3, progress);
+        // Past the last step nothing more is counted
+        assertEquals(3, funnel.advance(progress, pages.intern("home")));
+
+        assertEquals(1, funnel.reached(0));
+        assertEquals(1, funnel.reached(1));
+        assertEquals(1, funnel.reached(2));
+    }
+
+    @Test
+    void aStepViewedOutOfOrderDoesNotCount() {
+        int progress = funnel.advance(0, pages.intern("projects"));
+        assertEquals(0, progress);
+        progress = funnel.advance(progress, pages.intern("home"));
+        progress = funnel.advance(progress, pages.intern("contact"));
+        assertEquals(1, progress);
+
+        assertEquals(1, funnel.reached(0));
+        assertEquals(0, funnel.reached(1));
+        assertEquals(0, funnel.reached(2));
+    }
+
+    @Test
+    void overflowPagesNeverMatchAStep() {
+        PageDictionary full = new PageDictionary(2);
+        full.intern("home");
+        // The dictionary is full, so projects and contact are both (other)
+        Funnel overflowing = new Funnel("signup", new String[] {"home", "projects", "contact"}, full);
+
+        int progress = overflowing.advance(0, full.intern("home"));
+        assertEquals(1, progress);
+        assertEquals(1, overflowing.advance(progress, full.intern("some-other-page")));
+        assertEquals(0, overflowing.reached(1));
+    }
+
+    @Test
+    void aFunnelHasAtLeastTwoSteps() {
+        assertThrows(IllegalArgumentException.class, () -> new Funnel("single", new String[] {"home"}, pages));
+    }
+}
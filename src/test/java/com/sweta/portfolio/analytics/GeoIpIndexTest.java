@@ -0,0 +1,154 @@
+package com.sweta.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GeoIpIndexTest {
+
+    private static final GeoIpIndex INDEX = GeoIpIndex.builder()
+            .add("1.0.0.0", "1.0.0.255", "au", "Sydney")
+            // Adjacent ranges, then a gap before the next one
+            .add("2.16.0.0", "2.16.255.255", "DE", "Frankfurt")
+            .add("2.17.0.0", "2.17.127.255", "FR", null)
+            .add("2.18.0.0", "2.18.0.0", "GB", "London")
+            .add("255.255.255.0", "255.255.255.255", "US", " ")
+            .add("2001:db8::", "2001:db8:0:ffff:ffff:ffff:ffff:ffff", "NL", "Amsterdam")
+            .add("2001:db8:1::", "2001:db8:1::ff", "BE", "Brussels")
+            // Above 7fff:: the high half is negative as a signed long
+            .add("8000::", "bfff:ffff:ffff:ffff:ffff:ffff:ffff:ffff", "JP", "Tokyo")
+            .add("c000::1:0", "c000::1:ffff", "KR", "Seoul")
+            .add("f000::", "fbff:ffff:ffff:ffff:ffff:ffff:ffff:ffff", "BR", null)
+            .add("ff00::", "ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff", "CA", "Toronto")
+            .build();
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource(nullValues = "-", value = {
+            // IPv4 range boundaries and the addresses just outside them
+            "0.255.255.255,                           -",
+            "1.0.0.0,                                 AU",
+            "1.0.0.128,                               AU",
+            "1.0.0.255,                               AU",
+            "1.0.1.0,                                 -",
+            "2.15.255.255,                            -",
+            "2.16.0.0,                                DE",
+            "2.16.255.255,                            DE",
+            "2.17.0.0,                                FR",
+            "2.17.127.255,                            FR",
+            "2.17.128.0,                              -",
+            "2.18.0.0,                                GB",
+            "2.18.0.1,                                -",
+            "255.255.255.255,                         US",
+            "0.0.0.0,                                 -",
+            "001.000.000.010,                         AU",
+            // IPv6 range boundaries, compressed and in full
+            "2001:db7:ffff:ffff:ffff:ffff:ffff:ffff,  -",
+            "2001:db8::,                              NL",
+            "2001:0db8:0000:0000:0000:0000:0000:0000, NL",
+            "2001:DB8::42,                            NL",
+            "2001:db8:0:ffff:ffff:ffff:ffff:ffff,     NL",
+            "2001:db8:1::,                            BE",
+            "2001:db8:1::ff,                          BE",
+            "2001:db8:1::100,                         -",
+            "2001:db8:1:0:0:0:0:ff,                   BE",
+            "2001:db8:1::0.0.0.255,                   BE",
+            // Unsigned 128-bit compares in both halves
+            "7fff:ffff:ffff:ffff:ffff:ffff:ffff:ffff, -",
+            "8000::,                                  JP",
+            "a000::1,                                 JP",
+            "bfff:ffff:ffff:ffff:ffff:ffff:ffff:ffff, JP",
+            "c000::,                                  -",
+            "c000::ffff,                              -",
+            "c000::1:0,                               KR",
+            "c000::1:ffff,                            KR",
+            "c000::2:0,                               -",
+            "c000::8000:0:0:0,                        -",
+            "f000::,                                  BR",
+            "fbff:ffff:ffff:ffff:ffff:ffff:ffff:ffff, BR",
+            "ff00::,                                  CA",
+            "ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff, CA",
+            "ff02::1%eth0,                            CA",
+            // IPv4-mapped IPv6 addresses are IPv4 lookups
+            "::ffff:1.0.0.7,                          AU",
+            "::FFFF:2.17.0.0,                         FR",
+            "::ffff:0102:0304,                        -",
+            "::ffff:0100:0001,                        AU",
+            "0:0:0:0:0:ffff:2.16.1.1,                 DE",
+            // but not the deprecated IPv4-compatible form
+            "::1.0.0.7,                               -",
+            "::,                                      -",
+    })
+    void findsTheRangeCoveringAnAddress(String ip, String countryCode) {
+        GeoLocation location = INDEX.lookup(ip.trim());
+        if (countryCode == null) {
+            assertNull(location, ip);
+        } else {
+            assertEquals(countryCode, location.countryCode(), ip);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "127.0.0.1", "127.255.255.255", "10.0.0.0", "10.255.255.255", "172.16.0.0", "172.31.255.255",
+            "192.168.0.0", "192.168.255.255", "169.254.1.1",
+            "::1", "0:0:0:0:0:0:0:1", "fc00::", "fdff:ffff::1", "fe80::1", "fe80::1%eth0", "febf:ffff::",
+            "::ffff:127.0.0.1", "::ffff:192.168.1.10", "::ffff:0a00:0001"})
+    void privateAndLoopbackAddressesAreLocal(String ip) {
+        assertSame(GeoLocation.LOCAL, INDEX.lookup(ip));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"9.255.255.255", "11.0.0.0", "172.15.255.255", "172.32.0.0", "192.167.255.255",
+            "192.169.0.0", "169.253.255.255", "126.255.255.255", "128.0.0.0",
+            "::2", "fbff:ffff::", "fec0::", "::ffff:11.0.0.1"})
+    void addressesNextToPrivateNetworksAreNot(String ip) {
+        assertFalse(GeoLocation.LOCAL.equals(INDEX.lookup(ip)), ip);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "", " ", "1.0.0", "1.0.0.0.0", "1.0.0.256", "1.0.0.-1", "1..0.0", ".1.0.0.0", "1.0.0.0.", "1.0.0.0 ",
+            " 1.0.0.0", "1.0.0.0000", "1.0.0.a", "localhost", "1.0.0.0/24", "１.0.0.0",
+            ":", ":::", "2001:db8::1::1", "2001:db8:::1", "2001:db8::1:", ":2001:db8::1", "2001:db8:0:0:0:0:0",
+            "2001:db8:0:0:0:0:0:0:0", "1:2:3:4:5:6:7:8::", "12345::", "2001:db8::g", "::ffff:1.0.0",
+            "::ffff:1.0.0.0.0", "::ffff:256.0.0.1", "::1.0.0.0:1", "2001:db8:: 1", "２００１:db8::1", "2001:db8::١"})
+    void malformedAddressesAreNotFound(String ip) {
+        assertNull(INDEX.lookup(ip), ip);
+    }
+
+    @Test
+    void nullIsNotFound() {
+        assertNull(INDEX.lookup(null));
+    }
+
+    @Test
+    void locationsCarryTheEnglishCountryNameAndTrimmedCity() {
+        assertEquals(new GeoLocation("AU", "Australia", "Sydney"), INDEX.lookup("1.0.0.1"));
+        assertEquals(new GeoLocation("FR", "France", null), INDEX.lookup("2.17.0.1"));
+        assertEquals(new GeoLocation("US", "United States", null), INDEX.lookup("255.255.255.254"));
+        // Ranges with the same location share one instance
+        assertSame(INDEX.lookup("2001:db8::1"), INDEX.lookup("2001:db8::2"));
+        assertEquals(11, INDEX.size());
+    }
+
+    @Test
+    void emptyIndexOnlyKnowsLocalAddresses() {
+        GeoIpIndex empty = GeoIpIndex.builder().build();
+        assertNull(empty.lookup("1.0.0.1"));
+        assertNull(empty.lookup("2001:db8::1"));
+        assertSame(GeoLocation.LOCAL, empty.lookup("::1"));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1.0.0.0, 1.0.0", "1.0.0.0, ::1x", "2001:db8::, 2001:db8::g", "::ffff:1.0.0.0, 1.0.0.0"})
+    void builderRejectsMalformedRanges(String start, String end) {
+        assertThrows(IllegalArgumentException.class, () -> GeoIpIndex.builder().add(start, end, "NL", null));
+    }
+}
@@ -0,0 +1,176 @@
+package com.sweta.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void firesOnTheFirstAdvanceIntoTheDeadlineTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 3);
+        wheel.schedule("a", 25);
+
+        assertEquals(List.of(), advance(wheel, 19));
+        assertEquals(List.of("a"), advance(wheel, 20));
+        assertEquals(0, wheel.size());
+        assertEquals(List.of(), advance(wheel, 1000));
+    }
+
+    @Test
+    void deadlinesAlreadyPassedFireOnTheNextAdvance() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 100);
+        wheel.schedule("past", 50);
+        wheel.schedule("this tick", 105);
+
+        assertEquals(2, wheel.size());
+        assertEquals(List.of("past", "this tick"), advance(wheel, 100));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledTimeoutsNeverFire() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 4, 0);
+        HierarchicalTimingWheel.Timeout<String> near = wheel.schedule("near", 2);
+        HierarchicalTimingWheel.Timeout<String> far = wheel.schedule("far", 500);
+        HierarchicalTimingWheel.Timeout<String> overdue = wheel.schedule("overdue", -1);
+        HierarchicalTimingWheel.Timeout<String> kept = wheel.schedule("kept", 3);
+
+        assertTrue(near.cancel());
+        assertTrue(far.cancel());
+        assertTrue(overdue.cancel());
+        assertFalse(near.cancel());
+        assertEquals(1, wheel.size());
+
+        assertEquals(List.of("kept"), advance(wheel, 1000));
+        assertFalse(kept.cancel());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cascadesThroughEveryLevelToTheExactTick() {
+        // Levels of 4, 16, 64, 256 and 1024 ms
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, 4, 0);
+        List<Long> deadlines = List.of(1L, 3L, 4L, 5L, 15L, 16L, 17L, 63L, 64L, 65L, 255L, 256L, 700L, 1023L, 1024L, 1025L);
+        deadlines.forEach(deadline -> wheel.schedule(deadline, deadline));
+
+        Map<Long, Long> firedAt = new HashMap<>();
+        for (long now = 1; now <= 1100; now++) {
+            long time = now;
+            wheel.advance(now, deadline -> firedAt.put(deadline, time));
+        }
+
+        assertEquals(deadlines.size(), firedAt.size());
+        firedAt.forEach((deadline, time) -> assertEquals(deadline, time, "deadline " + deadline));
+    }
+
+    @Test
+    void largeClockJumpFiresEverythingDueAndKeepsLaterTimeouts() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 64, 0);
+        for (long deadline = 0; deadline < 10_000_000; deadline += 7919) {
+            wheel.schedule(deadline, deadline);
+        }
+        wheel.schedule(20_000_000L, 20_000_000);
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(9_999_999, fired::add);
+
+        assertEquals(1263, fired.size());
+        assertEquals(1, wheel.size());
+        // The wheel goes on from the new time
+        wheel.schedule(10_000_500L, 10_000_500);
+        assertEquals(List.of(), advance(wheel, 9_999_999));
+        assertEquals(List.of(10_000_500L), advance(wheel, 10_000_000));
+        assertEquals(List.of(20_000_000L), advance(wheel, 20_000_000));
+    }
+
+    @Test
+    void entriesRescheduledOnTouchExpireAfterTheLastTouch() {
+        // The way ActiveSessionTracker uses it: one entry per session, touches only move lastSeen
+        long idle = 120;
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 8, 0);
+        Map<String, Long> lastSeen = new HashMap<>();
+        Map<String, Long> expiredAt = new HashMap<>();
+        for (String session : List.of("quiet", "busy", "late")) {
+            lastSeen.put(session, 0L);
+            wheel.schedule(session, idle);
+        }
+
+        for (long now = 1; now <= 1000; now++) {
+            if (now <= 500 && now % 50 == 0) {
+                lastSeen.put("busy", now);
+            }
+            if (now == 119) {
+                lastSeen.put("late", now);
+            }
+            long time = now;
+            wheel.advance(now, session -> {
+                long deadline = lastSeen.get(session) + idle;
+                if (deadline > time) {
+                    wheel.schedule(session, deadline);
+                } else {
+                    expiredAt.put(session, time);
+                }
+            });
+        }
+
+        assertEquals(Map.of("quiet", 120L, "busy", 620L, "late", 239L), expiredAt);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void matchesAListOfDeadlines() {
+        Random random = new Random(42);
+        long tick = 7;
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(tick, 4, 1000);
+        Map<Integer, Long> pending = new HashMap<>();
+        Map<Integer, HierarchicalTimingWheel.Timeout<Integer>> handles = new HashMap<>();
+        long now = 1000;
+        int next = 0;
+
+        for (int step = 0; step < 5000; step++) {
+            int action = random.nextInt(10);
+            if (action < 5) {
+                // Mostly near, sometimes far ahead or already due
+                long deadline = now + (random.nextInt(4) == 0 ? random.nextInt(20_000) : random.nextInt(200)) - 10;
+                handles.put(next, wheel.schedule(next, deadline));
+                pending.put(next++, deadline);
+            } else if (action < 7 && !pending.isEmpty()) {
+                Integer item = List.copyOf(pending.keySet()).get(random.nextInt(pending.size()));
+                assertTrue(handles.remove(item).cancel());
+                pending.remove(item);
+            } else {
+                now += random.nextInt(4) == 0 ? random.nextInt(5000) : random.nextInt(30);
+                long dueBefore = now - Math.floorMod(now, tick) + tick;
+                Set<Integer> expected = pending.entrySet().stream()
+                        .filter(entry -> entry.getValue() < dueBefore)
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toSet());
+                Set<Integer> fired = new HashSet<>(advance(wheel, now));
+                assertEquals(expected, fired, "advance to " + now);
+                fired.forEach(item -> {
+                    pending.remove(item);
+                    assertFalse(handles.remove(item).cancel());
+                });
+            }
+            assertEquals(pending.size(), wheel.size());
+        }
+    }
+
+    private static <T> List<T> advance(HierarchicalTimingWheel<T> wheel, long nowMillis) {
+        List<T> fired = new ArrayList<>();
+        wheel.advance(nowMillis, fired::add);
+        return fired;
+    }
+}
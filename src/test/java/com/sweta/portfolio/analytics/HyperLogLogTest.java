@@ -0,0 +1,122 @@
+package com.sweta.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    // 1.04 / sqrt(2^12) is about 1.6%; three standard errors
+    private static final double LARGE_RANGE_ERROR = 0.05;
+
+    @Test
+    void emptySketchEstimatesZero() {
+        HyperLogLog sketch = new HyperLogLog();
+        assertTrue(sketch.isEmpty());
+        assertEquals(0, sketch.estimate());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 10, 50, 100, 500})
+    void smallCardinalitiesAreNearlyExact(int cardinality) {
+        // Linear counting range: only a few registers collide
+        HyperLogLog sketch = sketchOf(0, cardinality);
+        assertEquals(cardinality, sketch.estimate(), Math.max(1, cardinality * 0.01), "cardinality " + cardinality);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 5_000, 10_000, 12_000, 20_000, 50_000, 200_000, 1_000_000})
+    void largerCardinalitiesStayWithinTheStandardError(int cardinality) {
+        HyperLogLog sketch = sketchOf(0, cardinality);
+        double error = Math.abs(sketch.estimate() - cardinality) / (double) cardinality;
+        assertTrue(error < LARGE_RANGE_ERROR, "cardinality " + cardinality + " estimated " + sketch.estimate());
+    }
+
+    @Test
+    void duplicatesDoNotCount() {
+        HyperLogLog sketch = sketchOf(0, 1000);
+        long estimate = sketch.estimate();
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(sketch.add("visitor-" + i));
+        }
+        assertEquals(estimate, sketch.estimate());
+    }
+
+    @Test
+    void mergeEqualsTheSketchOfTheUnion() {
+        // Overlapping days: 0..30k and 20k..50k
+        HyperLogLog monday = sketchOf(0, 30_000);
+        HyperLogLog tuesday = sketchOf(20_000, 50_000);
+        HyperLogLog union = sketchOf(0, 50_000);
+
+        HyperLogLog merged = monday.copy();
+        merged.merge(tuesday);
+        assertEquals(union, merged);
+        assertEquals(union.estimate(), merged.estimate());
+
+        // Order and repetition do not matter
+        HyperLogLog other = tuesday.copy();
+        other.merge(monday);
+        other.merge(monday);
+        assertEquals(union, other);
+
+        // The inputs are untouched
+        assertEquals(sketchOf(0, 30_000), monday);
+    }
+
+    @Test
+    void mergingAnEmptySketchChangesNothing() {
+        HyperLogLog sketch = sketchOf(0, 100);
+        HyperLogLog merged = sketch.copy();
+        merged.merge(new HyperLogLog());
+        assertEquals(sketch, merged);
+    }
+
+    @Test
+    void bytesRoundTrip() {
+        HyperLogLog sketch = sketchOf(0, 10_000);
+        byte[] bytes = sketch.toBytes();
+        assertEquals(HyperLogLog.REGISTERS, bytes.length);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+        assertEquals(sketch, restored);
+        assertEquals(sketch.estimate(), restored.estimate());
+        assertArrayEquals(bytes, restored.toBytes());
+
+        // Both directions copy, so neither side sees later changes of the other
+        bytes[0] = 60;
+        assertEquals(sketch, restored);
+        restored.add("visitor-new");
+        assertNotSame(restored.toBytes(), restored.toBytes());
+        assertArrayEquals(sketch.toBytes(), HyperLogLog.fromBytes(sketch.toBytes()).toBytes());
+    }
+
+    @Test
+    void rejectsRegistersOfTheWrongSize() {
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(null));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[HyperLogLog.REGISTERS - 1]));
+    }
+
+    @Test
+    void rankIsCappedByTheGuardBit() {
+        HyperLogLog sketch = new HyperLogLog();
+        assertTrue(sketch.addHash(0));
+        assertEquals(64 - HyperLogLog.PRECISION + 1, sketch.toBytes()[0]);
+        assertFalse(sketch.addHash(0));
+    }
+
+    private static HyperLogLog sketchOf(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            sketch.add("visitor-" + i);
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,42 @@
+package com.sweta.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageDictionaryTest {
+
+    @Test
+    void pagesGetDenseIdsInFirstSeenOrder() {
+        PageDictionary pages = new PageDictionary(8);
+
+        assertEquals(1, pages.intern("/"));
+        assertEquals(2, pages.intern("/projects"));
+        assertEquals(1, pages.intern("/"));
+        assertEquals(2, pages.idOf("/projects"));
+        assertEquals(-1, pages.idOf("/blog"));
+        assertEquals("/projects", pages.name(2));
+        assertEquals(PageDictionary.OTHER_NAME, pages.name(PageDictionary.OTHER));
+        assertEquals(3, pages.size());
+    }
+
+    @Test
+    void pagesSeenOnceFullAreOther() {
+        PageDictionary pages = new PageDictionary(3);
+        pages.intern("/");
+        pages.intern("/projects");
+
+        assertEquals(PageDictionary.OTHER, pages.intern("/blog"));
+        assertEquals(PageDictionary.OTHER, pages.intern("/made-up-" + System.nanoTime()));
+        // Overflow pages are not remembered, and known pages keep their ids
+        assertEquals(-1, pages.idOf("/blog"));
+        assertEquals(2, pages.intern("/projects"));
+        assertEquals(3, pages.size());
+    }
+
+    @Test
+    void capacityLeavesRoomForARealPage() {
+        assertThrows(IllegalArgumentException.class, () -> new PageDictionary(1));
+    }
+}
@@ -0,0 +1,34 @@
+package com.sweta.portfolio.analytics;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReferrerParserTest {
+
+    private static final Set<String> INTERNAL = Set.of("portfolio.example.com");
+
+    @ParameterizedTest(name = "{0} landing on {1} -> {2}/{3}/{4}")
+    @CsvSource(nullValues = "-", value = {
+            // Referer header only: the page itself, carrying the landing URL's tags
+            "https://portfolio.example.com/?utm_source=newsletter&utm_medium=email, -,  newsletter, email,    (none)",
+            "https://portfolio.example.com/projects,         -,                          (direct),   (none),   (none)",
+            "https://www.google.com/,                        -,                          google,     organic,  (none)",
+            "-,                                              -,                          (direct),   (none),   (none)",
+            // document.referrer and the landing URL from the client
+            "https://www.linkedin.com/feed/,   https://portfolio.example.com/,                   linkedin, social,   (none)",
+            "'',                               https://portfolio.example.com/?utm_source=cv,     cv,       (none),   (none)",
+            "https://t.co/abc,                 /projects?utm_campaign=launch,                     twitter,  social,   launch",
+            "https://blog.example.org/post,    https://portfolio.example.com/?gclid=xyz,         google,   cpc,      (none)",
+            // Tags on the referrer belong to the other site once the landing URL is known
+            "https://news.example.net/?utm_source=spam, https://portfolio.example.com/#top,     news.example.net, referral, (none)",
+            "'',                               https://portfolio.example.com/about#?utm_source=x, (direct), (none),  (none)",
+    })
+    void tagsComeFromTheLandingUrlAndTheSourceFromTheReferrer(String referrer, String landingUrl,
+                                                              String source, String medium, String campaign) {
+        assertEquals(new TrafficSource(source, medium, campaign), ReferrerParser.parse(referrer, landingUrl, INTERNAL));
+    }
+}
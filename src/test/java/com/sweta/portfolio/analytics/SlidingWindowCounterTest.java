@@ -0,0 +1,69 @@
+package com.sweta.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SlidingWindowCounterTest {
+
+    // Start of a fixed window
+    private static final long START = 1_741_964_940_000L;
+    private static final long MINUTE = 60_000;
+
+    @Test
+    void countsWithinTheCurrentWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(MINUTE, 10, START);
+
+        assertEquals(1, counter.increment("a", START));
+        assertEquals(2, counter.increment("a", START + 30_000));
+        assertEquals(1, counter.increment("b", START + 30_000));
+        assertEquals(3, counter.increment("a", START + MINUTE - 1));
+    }
+
+    @Test
+    void previousWindowCountsByHowMuchOfItIsStillInside() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(MINUTE, 10, START);
+        for (int i = 0; i < 40; i++) {
+            counter.increment("a", START + i * 1000L);
+        }
+
+        // A quarter into the next window, three quarters of the previous one still slide in
+        assertEquals(1 + 40 * 0.75, counter.increment("a", START + MINUTE + 15_000), 1e-9);
+        // Half way: half of it
+        assertEquals(2 + 40 * 0.5, counter.increment("a", START + MINUTE + 30_000), 1e-9);
+        // Keys of the previous window only do not carry anything into a new key
+        assertEquals(1, counter.increment("b", START + MINUTE + 30_000));
+    }
+
+    @Test
+    void gapOfMoreThanOneWindowForgetsEverything() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(MINUTE, 10, START);
+        for (int i = 0; i < 40; i++) {
+            counter.increment("a", START);
+        }
+
+        assertEquals(1, counter.increment("a", START + 2 * MINUTE + 1));
+        // And the window it skipped to is the one that started then, not one window on
+        assertEquals(1 + 1 * (1 - 59_998.0 / MINUTE), counter.increment("a", START + 3 * MINUTE + 59_998), 1e-9);
+    }
+
+    @Test
+    void keysBeyondMaxKeysCountAsOverAnyLimit() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(MINUTE, 2, START);
+        counter.increment("a", START);
+        counter.increment("b", START);
+
+        assertEquals(Double.POSITIVE_INFINITY, counter.increment("c", START + 1));
+        // Tracked keys keep counting
+        assertEquals(2, counter.increment("a", START + 2));
+        // The next window tracks new keys again
+        assertEquals(1, counter.increment("c", START + MINUTE));
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowCounter(0, 10, START));
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowCounter(MINUTE, 0, START));
+    }
+}
@@ -0,0 +1,83 @@
+package com.sweta.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingTest {
+
+    @Test
+    void countsAreExactUntilTheCapacityIsReached() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(3);
+        sketch.add("google");
+        sketch.add("google");
+        sketch.add("linkedin", 5);
+        sketch.add("(direct)");
+
+        assertFalse(sketch.isApproximate());
+        assertEquals(List.of(new SpaceSaving.Entry<>("linkedin", 5, 0), new SpaceSaving.Entry<>("google", 2, 0),
+                new SpaceSaving.Entry<>("(direct)", 1, 0)), sketch.top());
+    }
+
+    @Test
+    void aNewItemTakesOverTheSmallestCounter() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(2);
+        sketch.add("google", 4);
+        sketch.add("linkedin", 2);
+        sketch.add("twitter");
+
+        assertTrue(sketch.isApproximate());
+        // linkedin's 2 are inherited as twitter's error: at most 3, at least 1
+        assertEquals(List.of(new SpaceSaving.Entry<>("google", 4, 0), new SpaceSaving.Entry<>("twitter", 3, 2)),
+                sketch.top());
+    }
+
+    @Test
+    void frequentItemsSurviveARareTail() {
+        Random random = new Random(11);
+        SpaceSaving<String> sketch = new SpaceSaving<>(10);
+        long total = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String item = i % 4 == 0 ? "google" : i % 7 == 0 ? "linkedin" : "rare-" + random.nextInt(1000);
+            sketch.add(item);
+            total++;
+        }
+
+        List<SpaceSaving.Entry<String>> top = sketch.top();
+        assertEquals("google", top.get(0).item());
+        assertEquals("linkedin", top.get(1).item());
+        for (SpaceSaving.Entry<String> entry : top) {
+            assertTrue(entry.error() <= total / 10, entry.toString());
+        }
+        // Counts and errors bound the true count from both sides
+        assertTrue(top.get(0).count() >= 2500 && top.get(0).count() - top.get(0).error() <= 2500);
+        assertEquals(total, top.stream().mapToLong(SpaceSaving.Entry::count).sum());
+    }
+
+    @Test
+    void drainEmptiesTheSketchForTheNextInterval() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(1);
+        sketch.add("google");
+        sketch.add("linkedin");
+
+        assertEquals(List.of(new SpaceSaving.Entry<>("linkedin", 2, 1)), sketch.drain());
+        assertTrue(sketch.isEmpty());
+        assertFalse(sketch.isApproximate());
+
+        // Requeued counts are added back as they were
+        sketch.add("linkedin", 2);
+        sketch.add("linkedin");
+        assertEquals(List.of(new SpaceSaving.Entry<>("linkedin", 3, 0)), sketch.top());
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSaving<>(0));
+    }
+}
@@ -0,0 +1,84 @@
+package com.sweta.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransitionMatrixTest {
+
+    @Test
+    void countsTransitionsAndWhatLeftEachPage() {
+        TransitionMatrix matrix = new TransitionMatrix(4);
+        matrix.record(1, 2);
+        matrix.record(1, 2);
+        matrix.record(1, 3);
+        matrix.record(2, 1);
+
+        assertEquals(2, matrix.count(1, 2));
+        assertEquals(0, matrix.count(2, 3));
+        assertEquals(3, matrix.outgoing(1));
+        assertEquals(1, matrix.outgoing(2));
+        assertEquals(0, matrix.outgoing(3));
+    }
+
+    @Test
+    void topIsTheMostFrequentTransitionsFirst() {
+        TransitionMatrix matrix = new TransitionMatrix(4);
+        record(matrix, 1, 2, 5);
+        record(matrix, 2, 3, 9);
+        record(matrix, 3, 1, 1);
+        record(matrix, 0, 1, 7);
+
+        assertEquals(List.of(new TransitionMatrix.Transition(2, 3, 9), new TransitionMatrix.Transition(0, 1, 7)),
+                matrix.top(4, 2));
+        assertEquals(4, matrix.top(4, 10).size());
+        // Only the first pages ids are scanned
+        assertEquals(List.of(new TransitionMatrix.Transition(0, 1, 7), new TransitionMatrix.Transition(1, 2, 5)),
+                matrix.top(3, 10));
+    }
+
+    @Test
+    void topOfNothingIsEmpty() {
+        TransitionMatrix matrix = new TransitionMatrix(4);
+        assertEquals(List.of(), matrix.top(4, 3));
+
+        record(matrix, 1, 2, 5);
+        assertEquals(List.of(), matrix.top(4, 0));
+        assertThrows(IllegalArgumentException.class, () -> matrix.top(4, -1));
+    }
+
+    @Test
+    void topMatchesSortingEveryCell() {
+        Random random = new Random(7);
+        TransitionMatrix matrix = new TransitionMatrix(32);
+        List<TransitionMatrix.Transition> all = new ArrayList<>();
+        // Distinct counts, so the expected order is unambiguous
+        int count = 1;
+        for (int from = 0; from < 32; from++) {
+            for (int to = 0; to < 32; to++) {
+                if (random.nextInt(4) == 0) {
+                    record(matrix, from, to, count);
+                    all.add(new TransitionMatrix.Transition(from, to, count));
+                    count += 1 + random.nextInt(3);
+                }
+            }
+        }
+        all.sort(Comparator.comparingLong(TransitionMatrix.Transition::count).reversed());
+
+        for (int limit : new int[] {1, 5, 20, all.size(), all.size() + 5}) {
+            assertEquals(all.subList(0, Math.min(limit, all.size())), matrix.top(32, limit), "limit " + limit);
+        }
+    }
+
+    private static void record(TransitionMatrix matrix, int from, int to, int times) {
+        for (int i = 0; i < times; i++) {
+            matrix.record(from, to);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.sweta.portfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrendWindowTest {
+
+    private static final long START = 1_741_964_966_000L;
+
+    @Test
+    void secondsMoveFromTheCurrentToThePreviousWindowAndOut() {
+        TrendWindow window = new TrendWindow(1, 3, START);
+        // 1, 2, ... 9 views in the seconds START+0s .. START+8s
+        for (int second = 0; second < 9; second++) {
+            for (int view = 0; view <= second; view++) {
+                assertTrue(window.record(0, START + second * 1000L + 999));
+            }
+            window.advance(START + (second + 1) * 1000L);
+        }
+
+        assertEquals(7 + 8 + 9, window.current(0));
+        assertEquals(4 + 5 + 6, window.previous(0));
+
+        // Quiet seconds push everything out
+        window.advance(START + 12_000);
+        assertEquals(0, window.current(0));
+        assertEquals(7 + 8 + 9, window.previous(0));
+        window.advance(START + 15_000);
+        assertEquals(0, window.previous(0));
+    }
+
+    @Test
+    void onlyOpenSecondsAcceptViews() {
+        TrendWindow window = new TrendWindow(1, 10, START);
+        window.advance(START + 5_000);
+
+        assertFalse(window.record(0, START + 4_999));
+        assertTrue(window.record(0, START + 5_000));
+        assertTrue(window.record(0, START + 12_999));
+        assertFalse(window.record(0, START + 13_000));
+    }
+
+    @Test
+    void stallLongerThanBothWindowsStartsOver() {
+        TrendWindow window = new TrendWindow(2, 5, START);
+        for (int second = 0; second < 10; second++) {
+            window.record(0, START + second * 1000L);
+            window.advance(START + (second + 1) * 1000L);
+        }
+        assertEquals(5, window.current(0));
+        assertEquals(5, window.previous(0));
+        // The latest second still open before the stall
+        assertTrue(window.record(1, START + 17_999));
+
+        // Folded up to 10s; catching up to 10 + 2 * 5 + 8 seconds still folds second by second,
+        // and by then all of it has left both windows
+        window.advance(START + 28_000);
+        assertEquals(0, window.current(0));
+        assertEquals(0, window.previous(0));
+        assertEquals(0, window.current(1));
+        assertEquals(0, window.previous(1));
+
+        // Stalling longer than that is a reset, which also drops the views still open
+        assertTrue(window.record(0, START + 28_500));
+        window.advance(START + 47_000);
+        assertEquals(0, window.current(0));
+        assertEquals(0, window.previous(0));
+        assertFalse(window.record(0, START + 46_999));
+        assertTrue(window.record(0, START + 47_000));
+        window.advance(START + 48_000);
+        assertEquals(1, window.current(0));
+    }
+
+    @Test
+    void matchesBruteForceSumsOverManyWindows() {
+        int pages = 4;
+        int windowSeconds = 7;
+        Random random = new Random(7);
+        TrendWindow window = new TrendWindow(pages, windowSeconds, START);
+        // Accepted views per page, by epoch second
+        Map<Long, long[]> views = new HashMap<>();
+        long firstOpen = START / 1000;
+        long now = START;
+
+        // About 20 windows, with late scheduler ticks and a few stalls
+        while (now < START + 20 * windowSeconds * 1000L) {
+            for (int i = random.nextInt(30); i > 0; i--) {
+                int page = random.nextInt(pages);
+                long at = now - 3000 + random.nextInt(12_000);
+                long second = Math.floorDiv(at, 1000);
+                boolean accepted = second >= firstOpen && second < firstOpen + 8;
+                assertEquals(accepted, window.record(page, at), "record at " + at);
+                if (accepted) {
+                    views.computeIfAbsent(second, key -> new long[pages])[page]++;
+                }
+            }
+
+            int roll = random.nextInt(100);
+            now += roll < 3 ? 10_000 + random.nextInt(20_000) : roll < 20 ? random.nextInt(4000) : random.nextInt(1000);
+            window.advance(now);
+            long nowSecond = Math.floorDiv(now, 1000);
+            if (nowSecond - firstOpen > 2L * windowSeconds + 8) {
+                views.clear();
+                firstOpen = nowSecond;
+            } else {
+                firstOpen = Math.max(firstOpen, nowSecond);
+            }
+
+            for (int page = 0; page < pages; page++) {
+                assertEquals(sum(views, page, firstOpen - windowSeconds, firstOpen), window.current(page),
+                        "current of page " + page + " at " + now);
+                assertEquals(sum(views, page, firstOpen - 2L * windowSeconds, firstOpen - windowSeconds),
+                        window.previous(page), "previous of page " + page + " at " + now);
+            }
+        }
+    }
+
+    // Views of the page in the seconds [from, to)
+    private static long sum(Map<Long, long[]> views, int page, long from, long to) {
+        long sum = 0;
+        for (long second = from; second < to; second++) {
+            long[] counts = views.get(second);
+            if (counts != null) {
+                sum += counts[page];
+            }
+        }
+        return sum;
+    }
+}
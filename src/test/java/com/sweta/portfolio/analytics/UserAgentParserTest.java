@@ -0,0 +1,107 @@
+package com.sweta.portfolio.analytics;
+
+import com.sweta.portfolio.service.UserAgentService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserAgentParserTest {
+
+    @ParameterizedTest(name = "{1} / {2} / {3}: {0}")
+    @CsvSource(delimiter = '|', value = {
+            // Desktop browsers; Edge and Opera also send Chrome and Safari, Chrome also sends Safari
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36 | Chrome | Windows | Desktop",
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36 Edg/124.0.2478.51 | Edge | Windows | Desktop",
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36 OPR/109.0.0.0 | Opera | macOS | Desktop",
+            "Opera/9.80 (Windows NT 6.1; WOW64) Presto/2.12.388 Version/12.18 | Opera | Windows | Desktop",
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Safari/605.1.15 | Safari | macOS | Desktop",
+            "Mozilla/5.0 (X11; Ubuntu; Linux x86_64; rv:125.0) Gecko/20100101 Firefox/125.0 | Firefox | Linux | Desktop",
+            "Mozilla/5.0 (X11; CrOS x86_64 14541.0.0) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36 | Chrome | ChromeOS | Desktop",
+            "Mozilla/5.0 (Windows NT 10.0; WOW64; Trident/7.0; rv:11.0) like Gecko | Internet Explorer | Windows | Desktop",
+            // iPhone: Chrome (CriOS), Firefox (FxiOS), Edge (EdgiOS) and Safari all run on WebKit and send Safari
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_4 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) CriOS/124.0.6367.88 Mobile/15E148 Safari/604.1 | Chrome | iOS | Mobile",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_4 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) FxiOS/125.0 Mobile/15E148 Safari/605.1.15 | Firefox | iOS | Mobile",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_4 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Mobile/15E148 EdgiOS/124.2478.50 Safari/605.1.15 | Edge | iOS | Mobile",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_4 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Mobile/15E148 Safari/604.1 | Safari | iOS | Mobile",
+            // In-app browser without a Safari token
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_4 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Mobile/15E148 | Safari | iOS | Mobile",
+            // iPads also send Mac OS X, and are tablets
+            "Mozilla/5.0 (iPad; CPU OS 17_4 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Mobile/15E148 Safari/604.1 | Safari | iOS | Tablet",
+            // Android phones send Mobile, Android tablets leave it out
+            "Mozilla/5.0 (Linux; Android 14; Pixel 8) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Mobile Safari/537.36 | Chrome | Android | Mobile",
+            "Mozilla/5.0 (Linux; Android 13; SM-X710) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36 | Chrome | Android | Tablet",
+            "Mozilla/5.0 (Linux; Android 14; SM-S918B) AppleWebKit/537.36 (KHTML, like Gecko) SamsungBrowser/24.0 Chrome/117.0.0.0 Mobile Safari/537.36 | Samsung Internet | Android | Mobile",
+            "Mozilla/5.0 (Android 14; Mobile; rv:125.0) Gecko/125.0 Firefox/125.0 | Firefox | Android | Mobile",
+            "Mozilla/5.0 (Linux; Android 11; KFTRWI) AppleWebKit/537.36 (KHTML, like Gecko) Silk/124.1.1 like Chrome/124.0.6367.88 Safari/537.36 | Chrome | Android | Tablet",
+            // Crawlers and tools are bots, whatever they claim to run on
+            "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html) | Other | Other | Bot",
+            "Mozilla/5.0 (Linux; Android 6.0.1; Nexus 5X Build/MMB29P) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Mobile Safari/537.36 (compatible; Googlebot/2.1; +http://www.google.com/bot.html) | Chrome | Android | Bot",
+            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) HeadlessChrome/124.0.0.0 Safari/537.36 | Other | Linux | Bot",
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36 Chrome-Lighthouse | Chrome | Windows | Bot",
+            "facebookexternalhit/1.1 (+http://www.facebook.com/externalhit_uatext.php) | Other | Other | Bot",
+            "curl/8.4.0 | Other | Other | Bot",
+            "Wget/1.21.4 | Other | Other | Bot",
+            "python-requests/2.31.0 | Other | Other | Bot",
+            "PostmanRuntime/7.37.3 | Other | Other | Bot",
+            // Nothing recognisable is not a bot
+            "SomeClient/1.0 | Other | Other | Desktop",
+    })
+    void classifies(String userAgent, String browser, String os, String deviceType) {
+        UserAgent parsed = UserAgentParser.parse(userAgent);
+
+        assertEquals(new UserAgent(browser, os, deviceType, "Bot".equals(deviceType)), parsed);
+    }
+
+    @Test
+    void missingHeaderIsUnknown() {
+        assertEquals(UserAgent.UNKNOWN, UserAgentParser.parse(null));
+        assertEquals(UserAgent.UNKNOWN, UserAgentParser.parse(" "));
+    }
+
+    @Test
+    void botWordsOnlyMatchAsTokens() {
+        // "bot" inside another word is not a crawler
+        assertFalse(UserAgentParser.parse("Mozilla/5.0 (Linux; Android 14; Robotics-Tab) AppleWebKit/537.36 "
+                + "(KHTML, like Gecko) Chrome/124.0.0.0 Mobile Safari/537.36").bot());
+        assertTrue(UserAgentParser.parse("my-bot/1.0").bot());
+        assertTrue(UserAgentParser.parse("Some Bot").bot());
+    }
+
+    @Test
+    void knownBotSignaturesMakeAnyHeaderABot() {
+        UserAgentService service = new UserAgentService(64, new ClassPathResource("bots/known-bots.txt"));
+        service.loadSignatures();
+
+        // No generic bot token, only the signature gives it away; browser and OS are kept
+        String uptimeRobot = "Mozilla/5.0+(compatible; UptimeRobot/2.0; http://www.uptimerobot.com/)";
+        String twitter = "Twitterbot/1.0";
+        String gpt = "Mozilla/5.0 AppleWebKit/537.36 (KHTML, like Gecko); compatible; GPTBot/1.2; +https://openai.com/gptbot";
+        String ahrefs = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) "
+                + "Chrome/124.0.0.0 Safari/537.36 AhrefsSiteAudit/6.1";
+        assertFalse(UserAgentParser.parse(ahrefs).bot());
+        assertEquals(new UserAgent("Chrome", "Windows", "Bot", true), service.parse(ahrefs));
+        assertTrue(service.parse(uptimeRobot).bot());
+        assertTrue(service.parse(twitter).bot());
+        assertTrue(service.parse(gpt).bot());
+        // Cached verdicts stay the same
+        assertEquals(service.parse(ahrefs), service.parse(ahrefs));
+    }
+
+    @Test
+    void signaturesAreCaseInsensitiveAndSkipComments() {
+        UserAgentService service = new UserAgentService(64, new ByteArrayResource(
+                "# comment\n\n  Acme-Fetcher \n".getBytes(StandardCharsets.UTF_8)));
+        service.loadSignatures();
+
+        assertTrue(service.parse("acme-fetcher/2.0").bot());
+        assertFalse(service.parse("# comment").bot());
+    }
+}
@@ -0,0 +1,156 @@
+package com.sweta.portfolio.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sweta.portfolio.entity.Contact;
+import com.sweta.portfolio.kafka.ContactEventProducer;
+import com.sweta.portfolio.kafka.transport.EventTransportRouter;
+import com.sweta.portfolio.kafka.transport.InProcessEventTransport;
+import com.sweta.portfolio.kafka.transport.KafkaEventTransport;
+import com.sweta.portfolio.service.ClusterBroadcaster;
+import com.sweta.portfolio.service.DeltaFeedService;
+import com.sweta.portfolio.service.WebSocketService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of one /topic/contacts broadcast through a real simple broker with many subscribed
+ * sessions; the outbound channel drops the messages, so STOMP framing and socket writes are
+ * left out. Run with -prof gc (main adds it) and compare gc.alloc.rate.norm per broadcast;
+ * the single subscriber case shows the per-broadcast part, the rest grows per session.
+ *
+ * map: the former WebSocketService path, a HashMap with LocalDateTime.now().toString()
+ * through convertAndSend and the Jackson message converter.
+ * typed: WebSocketService now, a record serialized once by ClusterBroadcaster, including the
+ * envelope it publishes for the other nodes (in-process bus, discarding handler).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BroadcastBenchmark {
+
+    private static final String TOPIC = "ws-broadcasts-benchmark";
+    private static final String DESTINATION = "/topic/contacts";
+
+    @Param({"1", "1000"})
+    public int subscribers;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private Contact contact;
+
+    private SimpleBrokerMessageHandler broker;
+    private SimpMessagingTemplate messagingTemplate;
+    private InProcessEventTransport inProcess;
+    private WebSocketService webSocketService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Without Spring Boot, logback's default configuration logs everything to the console
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        contact = Contact.builder()
+                .id("5F3C2A9B7D1E4F60A8B2C4D6E8F01234")
+                .name("Ada Lovelace")
+                .email("ada@example.com")
+                .status(Contact.ContactStatus.NEW)
+                .priority(Contact.Priority.HIGH)
+                .build();
+
+        MessageChannel outbound = (message, timeout) -> {
+            delivered.incrementAndGet();
+            return true;
+        };
+        broker = new SimpleBrokerMessageHandler(new ExecutorSubscribableChannel(), outbound,
+                new ExecutorSubscribableChannel(), List.of("/topic", "/queue"));
+        broker.start();
+        for (int i = 0; i < subscribers; i++) {
+            SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            subscribe.setSessionId("session-" + i);
+            subscribe.setSubscriptionId("sub-0");
+            subscribe.setDestination(DESTINATION);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+        }
+
+        // The converters the STOMP configuration registers by default
+        messagingTemplate = new SimpMessagingTemplate((message, timeout) -> {
+            broker.handleMessage(message);
+            return true;
+        });
+        messagingTemplate.setMessageConverter(new CompositeMessageConverter(List.of(
+                new StringMessageConverter(), new ByteArrayMessageConverter(), new MappingJackson2MessageConverter())));
+
+        inProcess = new InProcessEventTransport(8192);
+        inProcess.subscribe(TOPIC, (key, value) -> { });
+        EventTransportRouter router = new EventTransportRouter(new KafkaEventTransport(null), inProcess, TOPIC);
+        ObjectMapper objectMapper = new ObjectMapper();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ClusterBroadcaster broadcaster = new ClusterBroadcaster(messagingTemplate, new ContactEventProducer(router),
+                objectMapper, meterRegistry, TOPIC, "benchmark");
+        webSocketService = new WebSocketService(broadcaster,
+                new DeltaFeedService(broadcaster, meterRegistry, "benchmark"), objectMapper);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        broker.stop();
+        inProcess.shutdown();
+    }
+
+    @Benchmark
+    public long map() {
+        Map<String, Object> update = new HashMap<>();
+        update.put("id", contact.getId());
+        update.put("name", contact.getName());
+        update.put("email", contact.getEmail());
+        update.put("status", contact.getStatus().toString());
+        update.put("priority", contact.getPriority() != null ? contact.getPriority().toString() : "MEDIUM");
+        update.put("timestamp", LocalDateTime.now().toString());
+        update.put("type", "CONTACT_UPDATE");
+        messagingTemplate.convertAndSend(DESTINATION, update);
+        return delivered.get();
+    }
+
+    @Benchmark
+    public long typed() {
+        webSocketService.broadcastContactUpdate(contact);
+        return delivered.get();
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(BroadcastBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
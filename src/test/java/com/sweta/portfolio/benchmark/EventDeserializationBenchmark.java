@@ -0,0 +1,117 @@
+package com.sweta.portfolio.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sweta.portfolio.kafka.events.ContactSubmittedEvent;
+import com.sweta.portfolio.kafka.events.VisitorSessionEvent;
+import com.sweta.portfolio.kafka.serde.EventDeserializer;
+import com.sweta.portfolio.kafka.serde.EventSerializer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Old path (JsonDeserializer to JsonNode, then treeToValue on a second mapper)
+ * against EventDeserializer binding straight from bytes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventDeserializationBenchmark {
+
+    private static final String TOPIC = "contact-events-topic";
+
+    private JsonDeserializer<JsonNode> treeDeserializer;
+    private ObjectMapper treeMapper;
+    private EventDeserializer eventDeserializer;
+
+    private byte[] contactPayload;
+    private byte[] visitorPayload;
+    private RecordHeaders contactHeaders;
+    private RecordHeaders visitorHeaders;
+
+    @Setup
+    public void setUp() {
+        treeDeserializer = new JsonDeserializer<>();
+        treeDeserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                JsonDeserializer.USE_TYPE_INFO_HEADERS, false,
+                JsonDeserializer.VALUE_DEFAULT_TYPE, "com.fasterxml.jackson.databind.JsonNode"), false);
+        treeMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        eventDeserializer = new EventDeserializer();
+
+        EventSerializer serializer = new EventSerializer();
+        contactHeaders = new RecordHeaders();
+        contactPayload = serializer.serialize(TOPIC, contactHeaders, new ContactSubmittedEvent(
+                "6f1c2a8e-93b1-4c1e-9a57-0b1f4e1f2d3c", "recruiter@example.com", "Jane Doe",
+                "Example BV", "We have an urgent Java/Kafka position and would like to talk asap.", "URGENT"));
+        visitorHeaders = new RecordHeaders();
+        visitorPayload = serializer.serialize(TOPIC, visitorHeaders, VisitorSessionEvent.builder()
+                .eventId("0d6c1f4e-5b7a-4a53-8c1e-2f7d9e3b6a10")
+                .eventType("VISITOR_SESSION")
+                .timestamp(java.time.LocalDateTime.now())
+                .sessionId("a3b9c7d1-2e4f-4a6b-8c0d-1e2f3a4b5c6d")
+                .ipAddress("203.0.113.42")
+                .userAgent("Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.0 Safari/605.1.15")
+                .location("Amsterdam, Netherlands")
+                .page("home")
+                .referrer("https://www.linkedin.com/")
+                .deviceType("Desktop")
+                .build());
+    }
+
+    @Benchmark
+    public Object contactViaJsonNode() throws Exception {
+        JsonNode node = treeDeserializer.deserialize(TOPIC, contactPayload);
+        node.path("eventType").asText();
+        return treeMapper.treeToValue(node, ContactSubmittedEvent.class);
+    }
+
+    @Benchmark
+    public Object contactDirectWithHeader() {
+        return eventDeserializer.deserialize(TOPIC, contactHeaders, contactPayload);
+    }
+
+    @Benchmark
+    public Object contactDirectPeeked() {
+        return eventDeserializer.deserialize(TOPIC, contactPayload);
+    }
+
+    @Benchmark
+    public Object visitorViaJsonNode() throws Exception {
+        JsonNode node = treeDeserializer.deserialize(TOPIC, visitorPayload);
+        node.path("eventType").asText();
+        return treeMapper.treeToValue(node, VisitorSessionEvent.class);
+    }
+
+    @Benchmark
+    public Object visitorDirectWithHeader() {
+        return eventDeserializer.deserialize(TOPIC, visitorHeaders, visitorPayload);
+    }
+
+    @Benchmark
+    public Object visitorDirectPeeked() {
+        return eventDeserializer.deserialize(TOPIC, visitorPayload);
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(EventDeserializationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,164 @@
+package com.sweta.portfolio.benchmark;
+
+import com.sweta.portfolio.kafka.events.PageViewEvent;
+import com.sweta.portfolio.kafka.serde.EventDeserializer;
+import com.sweta.portfolio.kafka.serde.EventSerializer;
+import com.sweta.portfolio.kafka.transport.InProcessEventTransport;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publish-to-handler latency and throughput of the in-process ring buffer against
+ * a real Kafka round trip (embedded single-node KRaft broker, same serializers as production).
+ *
+ * roundTrip: one event, wait until the handler has seen it (use -bm sample for percentiles).
+ * burst: BATCH events back to back, wait for the last one; reported per event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventTransportBenchmark {
+
+    private static final String TOPIC = "benchmark-events";
+    private static final int BATCH = 1000;
+
+    @Param({"in-process", "kafka"})
+    public String transport;
+
+    private final AtomicLong received = new AtomicLong();
+    private long sent;
+    private PageViewEvent event;
+
+    private InProcessEventTransport inProcess;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private KafkaProducer<String, Object> producer;
+    private Thread pollThread;
+    private volatile boolean polling;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        event = new PageViewEvent();
+        event.setSessionId("5F3C2A9B7D1E4F60A8B2C4D6E8F01234");
+        event.setPage("/projects");
+        event.setPreviousPage("/home");
+        event.setTimeSpentSeconds(42L);
+
+        if ("in-process".equals(transport)) {
+            inProcess = new InProcessEventTransport(8192);
+            inProcess.subscribe(TOPIC, (key, value) -> received.incrementAndGet());
+        } else {
+            startKafka();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (inProcess != null) {
+            inProcess.shutdown();
+        }
+        if (broker != null) {
+            polling = false;
+            pollThread.join();
+            producer.close();
+            broker.destroy();
+        }
+    }
+
+    @Benchmark
+    public long roundTrip() {
+        send();
+        return awaitReceived(sent);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long burst() {
+        for (int i = 0; i < BATCH; i++) {
+            send();
+        }
+        return awaitReceived(sent);
+    }
+
+    private void send() {
+        sent++;
+        if (inProcess != null) {
+            inProcess.send(TOPIC, event.getSessionId(), event);
+        } else {
+            producer.send(new ProducerRecord<>(TOPIC, event.getSessionId(), event));
+        }
+    }
+
+    private long awaitReceived(long target) {
+        long seen;
+        while ((seen = received.get()) < target) {
+            // Yield rather than spin: the handler thread may need this core
+            Thread.yield();
+        }
+        return seen;
+    }
+
+    private void startKafka() {
+        broker = new EmbeddedKafkaKraftBroker(1, 1, TOPIC);
+        broker.afterPropertiesSet();
+
+        producer = new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, EventSerializer.class,
+                ProducerConfig.ACKS_CONFIG, "1",
+                ProducerConfig.LINGER_MS_CONFIG, 0));
+
+        KafkaConsumer<String, Object> consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, EventDeserializer.class,
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false));
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+        consumer.assign(List.of(partition));
+        consumer.seekToEnd(List.of(partition));
+        consumer.position(partition);
+
+        polling = true;
+        pollThread = new Thread(() -> {
+            try (consumer) {
+                while (polling) {
+                    // Values are fully deserialized, like the listener would see them
+                    consumer.poll(Duration.ofMillis(100)).forEach(record -> received.incrementAndGet());
+                }
+            }
+        }, "benchmark-poll");
+        pollThread.start();
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(EventTransportBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
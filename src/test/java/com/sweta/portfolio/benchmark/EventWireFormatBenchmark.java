@@ -0,0 +1,157 @@
+package com.sweta.portfolio.benchmark;
+
+import com.sweta.portfolio.kafka.events.PageViewEvent;
+import com.sweta.portfolio.kafka.events.VisitorSessionEvent;
+import com.sweta.portfolio.kafka.serde.EventDeserializer;
+import com.sweta.portfolio.kafka.serde.EventSerializer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON against the binary wire format for the two visitor-topic events:
+ * bytes per record (printed by main) and ser/de cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventWireFormatBenchmark {
+
+    private static final String JSON_TOPIC = "json-topic";
+    private static final String BINARY_TOPIC = "binary-topic";
+
+    private EventSerializer serializer;
+    private EventDeserializer deserializer;
+    private RecordHeaders headers;
+
+    private VisitorSessionEvent sessionEvent;
+    private PageViewEvent pageViewEvent;
+    private byte[] sessionJson;
+    private byte[] sessionBinary;
+    private byte[] pageViewJson;
+    private byte[] pageViewBinary;
+
+    @Setup
+    public void setUp() {
+        serializer = newSerializer();
+        deserializer = new EventDeserializer();
+        headers = new RecordHeaders();
+        sessionEvent = sampleSession();
+        pageViewEvent = samplePageView();
+        sessionJson = serializer.serialize(JSON_TOPIC, headers, sessionEvent);
+        sessionBinary = serializer.serialize(BINARY_TOPIC, headers, sessionEvent);
+        pageViewJson = serializer.serialize(JSON_TOPIC, headers, pageViewEvent);
+        pageViewBinary = serializer.serialize(BINARY_TOPIC, headers, pageViewEvent);
+
+        // both formats must decode back to the same event
+        if (!sessionEvent.equals(deserializer.deserialize(BINARY_TOPIC, sessionBinary))
+                || !sessionEvent.equals(deserializer.deserialize(JSON_TOPIC, sessionJson))
+                || !pageViewEvent.equals(deserializer.deserialize(BINARY_TOPIC, pageViewBinary))) {
+            throw new IllegalStateException("Round trip mismatch");
+        }
+    }
+
+    @Benchmark
+    public byte[] sessionSerializeJson() {
+        return serializer.serialize(JSON_TOPIC, headers, sessionEvent);
+    }
+
+    @Benchmark
+    public byte[] sessionSerializeBinary() {
+        return serializer.serialize(BINARY_TOPIC, headers, sessionEvent);
+    }
+
+    @Benchmark
+    public Object sessionDeserializeJson() {
+        return deserializer.deserialize(JSON_TOPIC, headers, sessionJson);
+    }
+
+    @Benchmark
+    public Object sessionDeserializeBinary() {
+        return deserializer.deserialize(BINARY_TOPIC, headers, sessionBinary);
+    }
+
+    @Benchmark
+    public byte[] pageViewSerializeJson() {
+        return serializer.serialize(JSON_TOPIC, headers, pageViewEvent);
+    }
+
+    @Benchmark
+    public byte[] pageViewSerializeBinary() {
+        return serializer.serialize(BINARY_TOPIC, headers, pageViewEvent);
+    }
+
+    @Benchmark
+    public Object pageViewDeserializeJson() {
+        return deserializer.deserialize(JSON_TOPIC, headers, pageViewJson);
+    }
+
+    @Benchmark
+    public Object pageViewDeserializeBinary() {
+        return deserializer.deserialize(BINARY_TOPIC, headers, pageViewBinary);
+    }
+
+    private static EventSerializer newSerializer() {
+        EventSerializer serializer = new EventSerializer();
+        serializer.configure(Map.of(EventSerializer.BINARY_TOPICS_CONFIG, BINARY_TOPIC), false);
+        return serializer;
+    }
+
+    private static VisitorSessionEvent sampleSession() {
+        return VisitorSessionEvent.builder()
+                .eventId("0d6c1f4e-5b7a-4a53-8c1e-2f7d9e3b6a10")
+                .eventType("VISITOR_SESSION")
+                .timestamp(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS))
+                .sessionId("a3b9c7d1-2e4f-4a6b-8c0d-1e2f3a4b5c6d")
+                .ipAddress("203.0.113.42")
+                .userAgent("Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.0 Safari/605.1.15")
+                .location("Amsterdam, Netherlands")
+                .page("home")
+                .referrer("https://www.linkedin.com/")
+                .deviceType("Desktop")
+                .build();
+    }
+
+    private static PageViewEvent samplePageView() {
+        return PageViewEvent.builder()
+                .eventId("5e0f7c2a-1b3d-4e6f-8a9b-0c1d2e3f4a5b")
+                .eventType("PAGE_VIEW")
+                .timestamp(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS))
+                .sessionId("9F2B6C1D4E7A8B3C5D6E7F8091A2B3C4")
+                .page("projects")
+                .previousPage("home")
+                .timeSpentSeconds(42L)
+                .scrollDepth("75")
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        EventSerializer serializer = newSerializer();
+        RecordHeaders headers = new RecordHeaders();
+        System.out.printf("VisitorSessionEvent: json=%d bytes, binary=%d bytes%n",
+                serializer.serialize(JSON_TOPIC, headers, sampleSession()).length,
+                serializer.serialize(BINARY_TOPIC, headers, sampleSession()).length);
+        System.out.printf("PageViewEvent:       json=%d bytes, binary=%d bytes%n",
+                serializer.serialize(JSON_TOPIC, headers, samplePageView()).length,
+                serializer.serialize(BINARY_TOPIC, headers, samplePageView()).length);
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(EventWireFormatBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
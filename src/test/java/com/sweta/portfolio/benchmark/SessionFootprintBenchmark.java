@@ -0,0 +1,83 @@
+package com.sweta.portfolio.benchmark;
+
+import com.sweta.portfolio.service.VisitorIdentityService;
+import jakarta.servlet.http.Cookie;
+import org.apache.catalina.Session;
+import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.session.StandardManager;
+import org.apache.catalina.util.StandardSessionIdGenerator;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * Server heap held for VISITORS simulated visitors: one Tomcat HttpSession each (what
+ * request.getSession() used to allocate), against the signed cookie identity, where each
+ * visitor's first request issues a cookie and a second request presents it back.
+ *
+ * Not a JMH benchmark, retained heap is what matters here. Run the main method with a fixed
+ * heap (e.g. -Xms1g -Xmx1g) so GC sizing does not blur the numbers.
+ */
+public class SessionFootprintBenchmark {
+
+    private static final int VISITORS = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        int visitors = args.length > 0 ? Integer.parseInt(args[0]) : VISITORS;
+
+        long before = usedHeap();
+        StandardManager manager = tomcatManager();
+        for (int i = 0; i < visitors; i++) {
+            Session session = manager.createSession(null);
+            session.getSession().setAttribute("visited", Boolean.TRUE);
+        }
+        long httpSessions = usedHeap() - before;
+        System.out.printf("HttpSession:     %,d sessions live, %,d bytes retained (%,d per visitor)%n",
+                manager.getActiveSessions(), httpSessions, httpSessions / visitors);
+        manager = null;
+
+        before = usedHeap();
+        VisitorIdentityService identity = new VisitorIdentityService("footprint-benchmark-secret", Duration.ofHours(1));
+        int recognised = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < visitors; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            String sessionId = identity.getOrCreateSessionId(new MockHttpServletRequest(), response);
+            MockHttpServletRequest next = new MockHttpServletRequest();
+            next.setCookies(new Cookie(VisitorIdentityService.COOKIE_NAME,
+                    response.getCookie(VisitorIdentityService.COOKIE_NAME).getValue()));
+            if (sessionId.equals(identity.findSessionId(next))) {
+                recognised++;
+            }
+            if (next.getSession(false) != null) {
+                throw new IllegalStateException("An HttpSession was created");
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long signedCookies = usedHeap() - before;
+        // What is left is class metadata and the per-thread Mac, not per-visitor state
+        System.out.printf("Signed cookie:   %,d of %,d visitors recognised, %,d bytes retained (%,d per visitor), "
+                        + "%,d ns per visitor for both mock requests%n",
+                recognised, visitors, Math.max(0, signedCookies), Math.max(0, signedCookies) / visitors, elapsed / visitors);
+    }
+
+    private static StandardManager tomcatManager() throws Exception {
+        StandardContext context = new StandardContext();
+        context.setName("footprint");
+        context.setPath("");
+        StandardManager manager = new StandardManager();
+        manager.setContext(context);
+        manager.setSessionIdGenerator(new StandardSessionIdGenerator());
+        return manager;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,97 @@
+package com.sweta.portfolio.benchmark;
+
+import com.sweta.portfolio.analytics.UserAgent;
+import com.sweta.portfolio.analytics.UserAgentParser;
+import com.sweta.portfolio.service.UserAgentService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per request of classifying the User-Agent header: the old lowercase-and-contains
+ * device check, a full parse with the precompiled patterns, and a UserAgentService cache hit.
+ * The headers are fresh copies, so hits pay for hashing the string like a real request does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UserAgentParserBenchmark {
+
+    private static final String[] USER_AGENTS = {
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36",
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Safari/605.1.15",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_4 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Mobile/15E148 Safari/604.1",
+            "Mozilla/5.0 (Linux; Android 14; Pixel 8) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.6367.82 Mobile Safari/537.36",
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36 Edg/124.0.2478.67",
+            "Mozilla/5.0 (X11; Ubuntu; Linux x86_64; rv:125.0) Gecko/20100101 Firefox/125.0",
+            "Mozilla/5.0 (iPad; CPU OS 17_4 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Mobile/15E148 Safari/604.1",
+            "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)"
+    };
+
+    private String[] headers;
+    private UserAgentService service;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        service = new UserAgentService(2048, new ClassPathResource("bots/known-bots.txt"));
+        service.loadSignatures();
+        headers = new String[USER_AGENTS.length];
+        for (int i = 0; i < USER_AGENTS.length; i++) {
+            // Distinct String instances with no cached hash, as read from a request
+            headers[i] = new String(USER_AGENTS[i].toCharArray());
+            service.parse(USER_AGENTS[i]);
+        }
+    }
+
+    private String nextHeader() {
+        String header = headers[next];
+        next = (next + 1) % headers.length;
+        return new String(header.toCharArray());
+    }
+
+    @Benchmark
+    public String legacyDeviceType() {
+        String ua = nextHeader().toLowerCase();
+        if (ua.contains("mobile") || ua.contains("android") || ua.contains("iphone")) {
+            return "Mobile";
+        } else if (ua.contains("tablet") || ua.contains("ipad")) {
+            return "Tablet";
+        }
+        return "Desktop";
+    }
+
+    @Benchmark
+    public UserAgent parseUncached() {
+        return UserAgentParser.parse(nextHeader());
+    }
+
+    @Benchmark
+    public UserAgent parseCacheHit() {
+        return service.parse(nextHeader());
+    }
+
+    // Baseline for the header copy every benchmark above makes
+    @Benchmark
+    public String copyOnly() {
+        return nextHeader();
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(UserAgentParserBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
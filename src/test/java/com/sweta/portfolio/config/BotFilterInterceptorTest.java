@@ -0,0 +1,87 @@
+package com.sweta.portfolio.config;
+
+import com.sweta.portfolio.service.BotFilterService;
+import com.sweta.portfolio.service.ClientIpService;
+import com.sweta.portfolio.service.UserAgentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BotFilterInterceptorTest {
+
+    private static final String BROWSER = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+            + "(KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36";
+    private static final String CRAWLER = "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)";
+
+    @Test
+    void humansPassUnmarked() {
+        MockHttpServletRequest request = request("POST", "/api/visitor/pageview", BROWSER);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor("drop", 0, 30).preHandle(request, response, new Object()));
+        assertNull(request.getAttribute(BotFilterService.BOT_ATTRIBUTE));
+    }
+
+    @Test
+    void dropModeAnswersBotsWithAnEmptyNoContent() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor("drop", 1, 30).preHandle(request("POST", "/api/visitor/session", CRAWLER), response, new Object()));
+        assertEquals(204, response.getStatus());
+        assertEquals(0, response.getContentLength());
+    }
+
+    @Test
+    void sampleModeLetsBotsThroughMarked() {
+        MockHttpServletRequest request = request("POST", "/api/visitor/session", CRAWLER);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor("sample", 1, 30).preHandle(request, response, new Object()));
+        assertEquals(Boolean.TRUE, request.getAttribute(BotFilterService.BOT_ATTRIBUTE));
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void preflightsAreNeverFiltered() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor("drop", 0, 30).preHandle(request("OPTIONS", "/api/visitor/session", CRAWLER), response, new Object()));
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void onlySessionStartsCountTowardsTheRate() {
+        BotFilterInterceptor interceptor = interceptor("drop", 0, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(interceptor.preHandle(request("POST", "/api/visitor/pageview", BROWSER),
+                    new MockHttpServletResponse(), new Object()));
+        }
+        assertTrue(interceptor.preHandle(request("POST", "/api/visitor/session", BROWSER),
+                new MockHttpServletResponse(), new Object()));
+        assertFalse(interceptor.preHandle(request("POST", "/api/visitor/session", BROWSER),
+                new MockHttpServletResponse(), new Object()));
+    }
+
+    private static BotFilterInterceptor interceptor(String mode, double sampleRate, double maxSessionsPerMinute) {
+        UserAgentService userAgentService = new UserAgentService(64, new ClassPathResource("bots/known-bots.txt"));
+        userAgentService.loadSignatures();
+        return new BotFilterInterceptor(
+                new BotFilterService(userAgentService, new SimpleMeterRegistry(), mode, sampleRate, maxSessionsPerMinute, 100),
+                new ClientIpService(0));
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String userAgent) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr("203.0.113.9");
+        request.addHeader("User-Agent", userAgent);
+        return request;
+    }
+}
@@ -0,0 +1,180 @@
+package com.sweta.portfolio.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sweta.portfolio.kafka.ContactEventProducer;
+import com.sweta.portfolio.service.ClientIpService;
+import com.sweta.portfolio.service.GeoIpService;
+import com.sweta.portfolio.service.TrendingPageService;
+import com.sweta.portfolio.service.UserAgentService;
+import com.sweta.portfolio.service.VisitorIdentityService;
+import com.sweta.portfolio.service.VisitorTrackingService;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class VisitorControllerTest {
+
+    private static final String TOPIC = "visitor-events-topic";
+    private static final int MAX_BATCH_SIZE = 5;
+    private static final int MAX_BODY_BYTES = 1024;
+
+    private final ContactEventProducer eventProducer = mock(ContactEventProducer.class);
+    private final VisitorIdentityService identityService = new VisitorIdentityService("test-secret", Duration.ofHours(1));
+    private MockMvc mockMvc;
+    private Cookie identity;
+
+    @BeforeEach
+    void setUp() {
+        ClientIpService clientIpService = new ClientIpService(0);
+        VisitorTrackingService trackingService = new VisitorTrackingService(eventProducer, mock(GeoIpService.class),
+                mock(UserAgentService.class), identityService, clientIpService);
+        ReflectionTestUtils.setField(trackingService, "visitorEventsTopic", TOPIC);
+        VisitorController controller = new VisitorController(trackingService, new ObjectMapper(),
+                mock(TrendingPageService.class), clientIpService);
+        ReflectionTestUtils.setField(controller, "maxBatchSize", MAX_BATCH_SIZE);
+        ReflectionTestUtils.setField(controller, "maxBodySize", DataSize.ofBytes(MAX_BODY_BYTES));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).addFilters(chunkedRequests()).build();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        identityService.getOrCreateSessionId(new MockHttpServletRequest(), response);
+        identity = response.getCookie(VisitorIdentityService.COOKIE_NAME);
+    }
+
+    @Test
+    void withoutTheCookieTheBatchIsNotFound() throws Exception {
+        mockMvc.perform(post("/visitor/events").contentType(MediaType.APPLICATION_JSON).content("[{\"type\":\"heartbeat\"}]"))
+                .andExpect(status().isNotFound());
+
+        verify(eventProducer, never()).publishEvents(anyString(), anyString(), anyList());
+    }
+
+    @Test
+    void mixedBatchReportsAcceptedAndRejectedEvents() throws Exception {
+        String batch = """
+                [{"type":"page_view","page":"/projects","previousPage":"/","timeSpent":12},
+                 {"type":"scroll","page":"/projects","depth":60},
+                 {"type":"heartbeat"},
+                 {"type":"page_view","timeSpent":5},
+                 {"type":"scroll","page":"/projects","depth":160}]""";
+
+        mockMvc.perform(events(MediaType.APPLICATION_JSON, batch))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("SUCCESS"))
+                .andExpect(jsonPath("$.accepted").value(3))
+                .andExpect(jsonPath("$.rejected").value(2));
+
+        verify(eventProducer).publishEvents(eq(TOPIC), anyString(), argThat(events -> events.size() == 3));
+    }
+
+    @Test
+    void beaconsMaySendTextPlain() throws Exception {
+        mockMvc.perform(events(MediaType.TEXT_PLAIN, "[{\"type\":\"heartbeat\"},{\"type\":\"heartbeat\"}]"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(0));
+    }
+
+    @Test
+    void emptyBatchIsAccepted() throws Exception {
+        mockMvc.perform(events(MediaType.APPLICATION_JSON, "[]"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted").value(0));
+
+        verify(eventProducer, never()).publishEvents(anyString(), anyString(), anyList());
+    }
+
+    @Test
+    void tooManyEventsAreRejected() throws Exception {
+        String batch = "[" + "{\"type\":\"heartbeat\"},".repeat(MAX_BATCH_SIZE) + "{\"type\":\"heartbeat\"}]";
+
+        mockMvc.perform(events(MediaType.APPLICATION_JSON, batch))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.status").value("ERROR"));
+
+        verify(eventProducer, never()).publishEvents(anyString(), anyString(), anyList());
+    }
+
+    @Test
+    void oversizedContentLengthIsRejected() throws Exception {
+        // A single event, padded past the limit
+        String batch = "[{\"type\":\"heartbeat\",\"page\":\"/" + "x".repeat(MAX_BODY_BYTES) + "\"}]";
+
+        mockMvc.perform(events(MediaType.APPLICATION_JSON, batch))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    void oversizedChunkedBodyIsRejected() throws Exception {
+        String batch = "[{\"type\":\"heartbeat\",\"page\":\"/" + "x".repeat(MAX_BODY_BYTES) + "\"}]";
+
+        mockMvc.perform(events(MediaType.APPLICATION_JSON, batch).header("Transfer-Encoding", "chunked"))
+                .andExpect(status().isPayloadTooLarge());
+        // Under the limit, a chunked body is read as usual
+        mockMvc.perform(events(MediaType.APPLICATION_JSON, "[{\"type\":\"heartbeat\"}]").header("Transfer-Encoding", "chunked"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted").value(1));
+    }
+
+    @Test
+    void bodiesThatAreNotAnArrayAreBadRequests() throws Exception {
+        for (String body : List.of("{\"type\":\"heartbeat\"}", "\"heartbeat\"", "[{\"type\":\"heartbeat\"}", "not json", "")) {
+            mockMvc.perform(events(MediaType.APPLICATION_JSON, body))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.status").value("ERROR"));
+        }
+        verify(eventProducer, never()).publishEvents(anyString(), anyString(), anyList());
+    }
+
+    private MockHttpServletRequestBuilder events(MediaType contentType, String body) {
+        return post("/visitor/events").cookie(identity).contentType(contentType).content(body);
+    }
+
+    /**
+     * What the servlet container does for a chunked request: no Content-Length
+     */
+    private static Filter chunkedRequests() {
+        return (request, response, chain) -> {
+            HttpServletRequest http = (HttpServletRequest) request;
+            if (!"chunked".equals(http.getHeader("Transfer-Encoding"))) {
+                chain.doFilter(request, response);
+                return;
+            }
+            chain.doFilter(new HttpServletRequestWrapper(http) {
+                @Override
+                public int getContentLength() {
+                    return -1;
+                }
+
+                @Override
+                public long getContentLengthLong() {
+                    return -1;
+                }
+            }, response);
+        };
+    }
+}
@@ -0,0 +1,409 @@
+package com.sweta.portfolio.kafka;
+
+import com.sweta.portfolio.config.KafkaConsumerConfig;
+import com.sweta.portfolio.kafka.events.PageViewEvent;
+import com.sweta.portfolio.kafka.events.VisitorSessionEvent;
+import com.sweta.portfolio.kafka.serde.EventSerializer;
+import com.sweta.portfolio.repository.PageViewRollupRepository;
+import com.sweta.portfolio.repository.ReferrerRollupRepository;
+import com.sweta.portfolio.service.ActiveSessionTracker;
+import com.sweta.portfolio.service.ClusterStatsService;
+import com.sweta.portfolio.service.EngagementHistogramService;
+import com.sweta.portfolio.service.LivePageViewerService;
+import com.sweta.portfolio.service.LiveStatsCheckpointService;
+import com.sweta.portfolio.service.LiveStatsCheckpointService.Snapshot;
+import com.sweta.portfolio.service.LiveStatsPublisher;
+import com.sweta.portfolio.service.NavigationPathService;
+import com.sweta.portfolio.service.PageViewRollupService;
+import com.sweta.portfolio.service.ReferrerRollupService;
+import com.sweta.portfolio.service.TrendingPageService;
+import com.sweta.portfolio.service.UniqueVisitorService;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ConsumerAwareMessageListener;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Nodes consuming visitor-events from an embedded broker through the production container
+ * factory, each with its own checkpoint, restarting and taking partitions over from each other
+ */
+@EmbeddedKafka(kraft = true)
+class VisitorEventConsumerTest {
+
+    private static final int PARTITIONS = 2;
+    private static final String GROUP = "portfolio-group";
+
+    // A fresh topic per test, so the group starts without committed offsets
+    private String topic;
+    private EmbeddedKafkaBroker broker;
+    private DefaultKafkaProducerFactory<String, Object> producerFactory;
+    private KafkaTemplate<String, Object> template;
+    private final List<Node> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp(EmbeddedKafkaBroker broker) {
+        this.broker = broker;
+        topic = "visitor-events-" + System.nanoTime();
+        broker.addTopics(new NewTopic(topic, PARTITIONS, (short) 1));
+        producerFactory = new DefaultKafkaProducerFactory<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, EventSerializer.class));
+        template = new KafkaTemplate<>(producerFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(Node::stop);
+        producerFactory.destroy();
+    }
+
+    @Test
+    void restartedNodeResumesWhereItsCheckpointEnds() throws Exception {
+        AtomicReference<Snapshot> store = new AtomicReference<>();
+        Node node = start(store);
+        send(5, System.currentTimeMillis());
+        node.awaitViews(5);
+
+        node.stop();
+        assertEquals(committed(), store.get().offsets().values().stream().mapToLong(Long::longValue).sum());
+
+        Node restarted = start(store);
+        send(2, System.currentTimeMillis());
+        restarted.awaitViews(7);
+        settle();
+        assertEquals(7, restarted.checkpoint().profileViews());
+    }
+
+    @Test
+    void checkpointAheadOfTheCommittedOffsetIsNotReadAgain() throws Exception {
+        AtomicReference<Snapshot> store = new AtomicReference<>();
+        // Crashes between saving a checkpoint and committing its offsets
+        Node node = start(store, false);
+        send(4, System.currentTimeMillis());
+        node.awaitViews(4);
+        node.stop();
+        assertEquals(0, committed());
+
+        Node restarted = start(store);
+        send(1, System.currentTimeMillis());
+        restarted.awaitViews(5);
+        settle();
+        assertEquals(5, restarted.checkpoint().profileViews());
+    }
+
+    @Test
+    void nodeWithoutCheckpointStartsAtTheCommittedOffset() throws Exception {
+        Node first = start(new AtomicReference<>());
+        send(6, System.currentTimeMillis());
+        first.awaitViews(6);
+        first.stop();
+
+        // Another node id: its own, empty checkpoint
+        Node second = start(new AtomicReference<>());
+        send(3, System.currentTimeMillis());
+        second.awaitViews(3);
+        settle();
+        assertEquals(3, second.checkpoint().profileViews());
+    }
+
+    @Test
+    void replayedSessionsStartAtTheirEventTime() throws Exception {
+        Node node = start(new AtomicReference<>());
+        long now = System.currentTimeMillis();
+        send(3, now - Duration.ofHours(1).toMillis());
+        send(2, now);
+        node.awaitViews(5);
+
+        node.consumer.expireIdleSessions();
+        assertEquals(2, node.sessionTracker.activeCount());
+    }
+
+    @Test
+    void failedCheckpointLeavesItsRollupCountsToTheNextOne() {
+        // Rows the rollup services write, dropped again when the checkpoint transaction fails
+        List<List<Object>> rows = new ArrayList<>();
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        LiveStatsCheckpointService checkpointService = mock(LiveStatsCheckpointService.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            if (databaseDown.get()) {
+                rows.clear();
+                throw new IllegalStateException("database down");
+            }
+            return null;
+        }).when(checkpointService).save(any(), any());
+        VisitorEventConsumer consumer = rollupConsumer(checkpointService, rows);
+
+        VisitorSessionEvent session = new VisitorSessionEvent();
+        session.setSessionId("session");
+        session.setPage("/projects");
+        session.setReferrer("https://news.ycombinator.com/item?id=1");
+        consumer.consumeVisitorEvent(session);
+        consumer.consumeVisitorEvent(pageView("/projects"));
+        consumer.consumeVisitorEvent(pageView("/projects"));
+        consumer.checkpoint();
+        assertEquals(List.of(), rows);
+
+        databaseDown.set(false);
+        consumer.consumeVisitorEvent(pageView("/projects"));
+        consumer.checkpoint();
+        // All three views, each counted in a minute and in an hour bucket, and the one referred session
+        assertEquals(3L * 2, rows.stream().filter(row -> row.get(0) instanceof String)
+                .mapToLong(row -> (Long) row.get(3)).sum());
+        assertEquals(1L, rows.stream().filter(row -> row.get(0) instanceof Date)
+                .mapToLong(row -> (Long) row.get(4)).sum());
+
+        rows.clear();
+        consumer.checkpoint();
+        assertEquals(List.of(), rows);
+    }
+
+    @Test
+    void timeSpentCountsForThePageBeingLeft() {
+        List<List<Object>> rows = new ArrayList<>();
+        LiveStatsCheckpointService checkpointService = mock(LiveStatsCheckpointService.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(checkpointService).save(any(), any());
+        VisitorEventConsumer consumer = rollupConsumer(checkpointService, rows);
+
+        // One timestamp, so that every count lands in the same minute bucket
+        LocalDateTime now = LocalDateTime.now();
+        PageViewEvent home = pageView("/");
+        home.setTimestamp(now);
+        consumer.consumeVisitorEvent(home);
+        PageViewEvent projects = pageView("/projects");
+        projects.setTimestamp(now);
+        projects.setPreviousPage("/");
+        projects.setTimeSpentSeconds(30L);
+        consumer.consumeVisitorEvent(projects);
+        PageViewEvent exit = pageView("exit");
+        exit.setTimestamp(now);
+        exit.setPreviousPage("/projects");
+        exit.setTimeSpentSeconds(45L);
+        consumer.consumeVisitorEvent(exit);
+        consumer.checkpoint();
+
+        // Minute buckets only: page -> [views, seconds]
+        Map<Object, List<Object>> minutes = new HashMap<>();
+        rows.stream().filter(row -> "MINUTE".equals(row.get(1)))
+                .forEach(row -> minutes.put(row.get(0), List.of(row.get(3), row.get(4))));
+        assertEquals(Map.of("/", List.of(1L, 30L), "/projects", List.of(1L, 45L)), minutes);
+    }
+
+    @Test
+    void rollupsAreBucketedByTheRecordTimestamp() {
+        List<List<Object>> rows = new ArrayList<>();
+        LiveStatsCheckpointService checkpointService = mock(LiveStatsCheckpointService.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(checkpointService).save(any(), any());
+        VisitorEventConsumer consumer = rollupConsumer(checkpointService, rows);
+
+        // Read two days late (consumer lag, or replayed after a restore), built the way VisitorTrackingService does
+        LocalDateTime sent = LocalDateTime.now().minusDays(2).withMinute(7).withSecond(30).withNano(0);
+        long sentMillis = sent.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        consumer.consumeVisitorRecord(record(sentMillis, VisitorSessionEvent.builder()
+                .sessionId("session").page("/").referrer("https://news.ycombinator.com/").build()), mock(Consumer.class));
+        consumer.consumeVisitorRecord(record(sentMillis, PageViewEvent.builder()
+                .sessionId("session").page("/projects").previousPage("/").build()), mock(Consumer.class));
+        consumer.checkpoint();
+
+        assertEquals(Set.of(Timestamp.valueOf(sent.withSecond(0)), Timestamp.valueOf(sent.withMinute(0).withSecond(0))),
+                rows.stream().filter(row -> "/projects".equals(row.get(0))).map(row -> row.get(2)).collect(Collectors.toSet()));
+        assertEquals(List.of(Date.valueOf(sent.toLocalDate())),
+                rows.stream().filter(row -> row.get(0) instanceof Date).map(row -> row.get(0)).toList());
+    }
+
+    private ConsumerRecord<String, Object> record(long timestamp, Object event) {
+        return new ConsumerRecord<>(topic, 0, 0, timestamp, TimestampType.CREATE_TIME, -1, -1, "session", event,
+                new RecordHeaders(), Optional.empty());
+    }
+
+    /**
+     * A consumer with real rollup services, whose batched rows are added to rows in parameter order
+     */
+    private static VisitorEventConsumer rollupConsumer(LiveStatsCheckpointService checkpointService,
+                                                       List<List<Object>> rows) {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+            for (Object row : invocation.<Collection<?>>getArgument(1)) {
+                List<Object> values = new ArrayList<>();
+                setter.setValues(mock(PreparedStatement.class, call -> {
+                    values.add(call.getArguments()[call.getArguments().length - 1]);
+                    return null;
+                }), row);
+                rows.add(values);
+            }
+            return new int[0][];
+        });
+        return new VisitorEventConsumer(mock(LiveStatsPublisher.class),
+                new ActiveSessionTracker(Duration.ofMinutes(2), Duration.ofSeconds(1)),
+                mock(UniqueVisitorService.class), checkpointService, mock(ClusterStatsService.class),
+                new PageViewRollupService(mock(PageViewRollupRepository.class), jdbcTemplate, Duration.ofDays(7)),
+                mock(NavigationPathService.class),
+                new ReferrerRollupService(mock(ReferrerRollupRepository.class), jdbcTemplate, new String[0], 200, 64),
+                mock(EngagementHistogramService.class), mock(LivePageViewerService.class), mock(TrendingPageService.class));
+    }
+
+    private static PageViewEvent pageView(String page) {
+        PageViewEvent event = new PageViewEvent();
+        event.setSessionId("session");
+        event.setPage(page);
+        return event;
+    }
+
+    private Node start(AtomicReference<Snapshot> store) throws Exception {
+        return start(store, true);
+    }
+
+    private Node start(AtomicReference<Snapshot> store, boolean commits) throws Exception {
+        Node node = new Node(store, commits);
+        nodes.add(node);
+        ContainerTestUtils.waitForAssignment(node.container, PARTITIONS);
+        return node;
+    }
+
+    private int sessions;
+
+    private void send(int count, long timestamp) {
+        for (int i = 0; i < count; i++) {
+            VisitorSessionEvent event = new VisitorSessionEvent();
+            event.setSessionId("session-" + sessions++);
+            event.setPage("/projects");
+            template.send(new ProducerRecord<>(topic, null, timestamp, event.getSessionId(), event));
+        }
+        template.flush();
+    }
+
+    // Sum of the group's committed offsets over all partitions
+    private long committed() throws Exception {
+        long sum = 0;
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            OffsetAndMetadata offset = KafkaTestUtils.getCurrentOffset(broker.getBrokersAsString(), GROUP, topic, partition);
+            sum += offset == null ? 0 : offset.offset();
+        }
+        return sum;
+    }
+
+    // Give a wrongly replayed record the chance to arrive
+    private static void settle() throws InterruptedException {
+        Thread.sleep(1000);
+    }
+
+    private final class Node {
+
+        private final AtomicReference<Snapshot> store;
+        private final ActiveSessionTracker sessionTracker = new ActiveSessionTracker(Duration.ofMinutes(2), Duration.ofSeconds(1));
+        private final VisitorEventConsumer consumer;
+        private final ConcurrentMessageListenerContainer<String, Object> container;
+
+        Node(AtomicReference<Snapshot> store, boolean commits) {
+            this.store = store;
+            LiveStatsCheckpointService checkpointService = mock(LiveStatsCheckpointService.class);
+            doAnswer(invocation -> {
+                store.set(invocation.getArgument(0));
+                return null;
+            }).when(checkpointService).save(any(), any());
+            when(checkpointService.load()).thenAnswer(invocation -> Optional.ofNullable(store.get()));
+
+            consumer = new VisitorEventConsumer(mock(LiveStatsPublisher.class), sessionTracker,
+                    mock(UniqueVisitorService.class), checkpointService, mock(ClusterStatsService.class),
+                    mock(PageViewRollupService.class), mock(NavigationPathService.class),
+                    mock(ReferrerRollupService.class), mock(EngagementHistogramService.class),
+                    mock(LivePageViewerService.class), mock(TrendingPageService.class));
+            consumer.init();
+
+            KafkaConsumerConfig consumerConfig = new KafkaConsumerConfig();
+            ReflectionTestUtils.setField(consumerConfig, "bootstrapServers", broker.getBrokersAsString());
+            ReflectionTestUtils.setField(consumerConfig, "groupId", GROUP);
+            container = consumerConfig.visitorEventsContainerFactory(consumer, Duration.ofMillis(200)).createContainer(topic);
+            if (!commits) {
+                // Only the records after a checkpoint would commit it
+                container.getContainerProperties().setConsumerRebalanceListener(null);
+                container.getContainerProperties().setIdleEventInterval(null);
+            }
+            container.setupMessageListener(
+                    (ConsumerAwareMessageListener<String, Object>) (record, kafkaConsumer) ->
+                            consumer.consumeVisitorRecord(record, kafkaConsumer));
+            // What the application context does for the @EventListener
+            container.setApplicationEventPublisher(event -> {
+                if (event instanceof ListenerContainerIdleEvent idle) {
+                    consumer.onIdle(idle);
+                }
+            });
+            container.start();
+        }
+
+        Snapshot checkpoint() {
+            consumer.checkpoint();
+            return store.get();
+        }
+
+        void awaitViews(long views) throws InterruptedException {
+            long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+            while (checkpoint() == null || store.get().profileViews() < views) {
+                if (System.nanoTime() > deadline) {
+                    fail("Expected " + views + " views, checkpoint has " + store.get());
+                }
+                Thread.sleep(50);
+            }
+            assertEquals(views, store.get().profileViews());
+        }
+
+        void stop() {
+            container.stop();
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.sweta.portfolio.kafka.serde;
+
+import com.sweta.portfolio.kafka.events.BroadcastEnvelope;
+import com.sweta.portfolio.kafka.events.ContactProcessedEvent;
+import com.sweta.portfolio.kafka.events.ContactSubmittedEvent;
+import com.sweta.portfolio.kafka.events.EventType;
+import com.sweta.portfolio.kafka.events.HeartbeatEvent;
+import com.sweta.portfolio.kafka.events.NodeStatsState;
+import com.sweta.portfolio.kafka.events.PageViewEvent;
+import com.sweta.portfolio.kafka.events.ScrollEvent;
+import com.sweta.portfolio.kafka.events.VisitorSessionEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryEventCodecTest {
+
+    // Millisecond precision, which is what the format keeps
+    private static final LocalDateTime TIME = LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_000_000);
+    private static final String UUID = "3f2504e0-4f89-41d3-9a0c-0305e82c3301";
+    private static final String SESSION_ID = "5F3C2A9B7D1E4F60A8B2C4D6E8F01234";
+
+    // Written by the codec at versions 1, 2 and 3 (before countryCode/city, browser/os/bot and landingUrl)
+    private static final String VISITOR_SESSION_V1 = "b70103013f2504e04f8941d39a0c0305e82c33010388f5cfa9d93202"
+            + "5f3c2a9b7d1e4f60a8b2c4d6e8f012340c3230332e302e3131332e370c4d6f7a696c6c612f352e300c5ac3bc726963682c"
+            + "2043480a2f70726f6a656374730001";
+    private static final String VISITOR_SESSION_V2 = "b70203013f2504e04f8941d39a0c0305e82c33010388f5cfa9d93202"
+            + "5f3c2a9b7d1e4f60a8b2c4d6e8f012340c3230332e302e3131332e370c4d6f7a696c6c612f352e300c5ac3bc726963682c"
+            + "2043480a2f70726f6a656374730001034348085ac3bc72696368";
+    private static final String VISITOR_SESSION_V3 = "b70303013f2504e04f8941d39a0c0305e82c33010388f5cfa9d93202"
+            + "5f3c2a9b7d1e4f60a8b2c4d6e8f012340c3230332e302e3131332e370c4d6f7a696c6c612f352e300c5ac3bc726963682c"
+            + "2043480a2f70726f6a656374731868747470733a2f2f7777772e676f6f676c652e636f6d2f01034348085ac3bc72696368"
+            + "010101";
+    // NODE_STATS at version 4, before pageViewers, runEpoch and the trend counts
+    private static final String NODE_STATS_V4 = "b704060688f5cfa9d932076e6f64652d31c29d010c801b0403434803444503494e040102030100";
+
+    @Test
+    void everyEventTypeRoundTrips() {
+        Map<EventType, Object> samples = samples();
+        assertEquals(EventType.values().length, samples.size(), "every event type needs a sample");
+        samples.forEach((type, event) -> {
+            byte[] encoded = BinaryEventCodec.encode(event);
+            assertTrue(BinaryEventCodec.isBinary(encoded), type.name());
+            assertEquals(BinaryEventCodec.VERSION, encoded[1]);
+            assertEquals(type.getCode(), encoded[2]);
+            assertEquals(event, BinaryEventCodec.decode(encoded), type.name());
+        });
+    }
+
+    @Test
+    void nullFieldsStayNull() {
+        VisitorSessionEvent session = new VisitorSessionEvent();
+        session.setEventId(null);
+        session.setEventType(null);
+        session.setTimestamp(null);
+        assertEquals(session, roundTrip(session));
+
+        PageViewEvent pageView = new PageViewEvent();
+        pageView.setEventId(null);
+        pageView.setTimestamp(null);
+        assertEquals(pageView, roundTrip(pageView));
+
+        ContactSubmittedEvent contact = new ContactSubmittedEvent();
+        contact.setEventId(null);
+        assertEquals(contact, roundTrip(contact));
+
+        NodeStatsState state = new NodeStatsState();
+        state.setTimestamp(null);
+        assertEquals(state, roundTrip(state));
+
+        BroadcastEnvelope envelope = new BroadcastEnvelope();
+        envelope.setTimestamp(null);
+        assertEquals(envelope, roundTrip(envelope));
+    }
+
+    @Test
+    void unicodeAndEmptyStringsRoundTrip() {
+        VisitorSessionEvent session = visitorSession();
+        session.setLocation("São Paulo, BR");
+        session.setCity("東京");
+        session.setUserAgent("Bot 🤖 \u0000 tab\t");
+        session.setReferrer("");
+        session.setPage("/");
+        assertEquals(session, roundTrip(session));
+
+        ContactSubmittedEvent contact = contactSubmitted();
+        contact.setMessage("Grüße 👋🏽 — ".repeat(200));
+        assertEquals(contact, roundTrip(contact));
+    }
+
+    @Test
+    void valuesOutsideTheDictionariesAreWrittenLiterally() {
+        VisitorSessionEvent session = visitorSession();
+        session.setEventType("VISITOR_SESSION_V9");
+        session.setDeviceType("Smart TV");
+        session.setBrowser("Lynx");
+        session.setOs("Plan 9");
+        assertEquals(session, roundTrip(session));
+
+        ContactSubmittedEvent contact = contactSubmitted();
+        contact.setPriority("CRITICAL");
+        assertEquals(contact, roundTrip(contact));
+
+        ContactProcessedEvent processed = contactProcessed();
+        processed.setStatus("spam");
+        assertEquals(processed, roundTrip(processed));
+    }
+
+    @Test
+    void idsOfEveryShapeRoundTrip() {
+        for (String id : List.of(UUID, UUID.toUpperCase(), SESSION_ID, SESSION_ID.toLowerCase(),
+                "3f2504e0-4f89-41d3-9a0c-0305e82c330g", "not-an-id", "", "ä".repeat(36))) {
+            HeartbeatEvent heartbeat = new HeartbeatEvent(id);
+            heartbeat.setTimestamp(TIME);
+            assertEquals(heartbeat, roundTrip(heartbeat), id);
+        }
+        // The compact shapes take 16 bytes instead of their text
+        assertEquals(1 + 16, idLength(UUID));
+        assertEquals(1 + 16, idLength(SESSION_ID));
+    }
+
+    @Test
+    void signedAndLargeNumbersRoundTrip() {
+        PageViewEvent pageView = pageView();
+        // Long.MIN_VALUE is the one value the nullable encoding cannot hold: its zigzag + 1 wraps to NULL
+        for (long seconds : new long[] {0, -1, 1, Long.MIN_VALUE + 1, Long.MAX_VALUE}) {
+            pageView.setTimeSpentSeconds(seconds);
+            assertEquals(pageView, roundTrip(pageView));
+        }
+        BroadcastEnvelope envelope = broadcast();
+        envelope.setOriginEpoch(Long.MAX_VALUE);
+        envelope.setSequence(Long.MIN_VALUE);
+        assertEquals(envelope, roundTrip(envelope));
+    }
+
+    @Test
+    void readsVersionOneVisitorSessions() {
+        VisitorSessionEvent event = (VisitorSessionEvent) BinaryEventCodec.decode(HexFormat.of().parseHex(VISITOR_SESSION_V1));
+
+        assertEquals(UUID, event.getEventId());
+        assertEquals("VISITOR_SESSION", event.getEventType());
+        assertEquals(TIME, event.getTimestamp());
+        assertEquals(SESSION_ID, event.getSessionId());
+        assertEquals("203.0.113.7", event.getIpAddress());
+        assertEquals("Mozilla/5.0", event.getUserAgent());
+        assertEquals("Zürich, CH", event.getLocation());
+        assertEquals("/projects", event.getPage());
+        assertNull(event.getReferrer());
+        assertEquals("Desktop", event.getDeviceType());
+        assertNull(event.getCountryCode());
+        assertNull(event.getCity());
+        assertNull(event.getBrowser());
+        assertNull(event.getOs());
+        assertNull(event.getBot());
+    }
+
+    @Test
+    void readsVersionTwoVisitorSessions() {
+        VisitorSessionEvent event = (VisitorSessionEvent) BinaryEventCodec.decode(HexFormat.of().parseHex(VISITOR_SESSION_V2));
+
+        assertEquals(SESSION_ID, event.getSessionId());
+        assertEquals("Desktop", event.getDeviceType());
+        assertEquals("CH", event.getCountryCode());
+        assertEquals("Zürich", event.getCity());
+        assertNull(event.getBrowser());
+        assertNull(event.getOs());
+        assertNull(event.getBot());
+    }
+
+    @Test
+    void readsVersionThreeVisitorSessions() {
+        VisitorSessionEvent event = (VisitorSessionEvent) BinaryEventCodec.decode(HexFormat.of().parseHex(VISITOR_SESSION_V3));
+
+        VisitorSessionEvent expected = visitorSession();
+        expected.setIpAddress("203.0.113.7");
+        expected.setUserAgent("Mozilla/5.0");
+        expected.setLandingUrl(null);
+        assertEquals(expected, event);
+    }
+
+    @Test
+    void readsVersionFourNodeStats() {
+        NodeStatsState state = (NodeStatsState) BinaryEventCodec.decode(HexFormat.of().parseHex(NODE_STATS_V4));
+
+        NodeStatsState expected = nodeStats();
+        expected.setPageViewers(null);
+        expected.setRunEpoch(0);
+        expected.setTrendViews(null);
+        expected.setTrendPreviousViews(null);
+        assertEquals(expected, state);
+    }
+
+    @Test
+    void rejectsPayloadsItCannotRead() {
+        byte[] encoded = BinaryEventCodec.encode(visitorSession());
+
+        assertFalse(BinaryEventCodec.isBinary("{\"eventType\":\"HEARTBEAT\"}".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(BinaryEventCodec.isBinary(new byte[] {BinaryEventCodec.MAGIC}));
+        for (int length = 3; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThrows(SerializationException.class, () -> BinaryEventCodec.decode(truncated), "length " + length);
+        }
+
+        byte[] newer = encoded.clone();
+        newer[1] = BinaryEventCodec.VERSION + 1;
+        assertThrows(SerializationException.class, () -> BinaryEventCodec.decode(newer));
+        byte[] unknownType = encoded.clone();
+        unknownType[2] = 100;
+        assertThrows(SerializationException.class, () -> BinaryEventCodec.decode(unknownType));
+        byte[] unknownDictionaryCode = BinaryEventCodec.encode(contactProcessed());
+        unknownDictionaryCode[unknownDictionaryCode.length - 1 - "analysed".length() - 1] = 50;
+        assertThrows(SerializationException.class, () -> BinaryEventCodec.decode(unknownDictionaryCode));
+    }
+
+    @Test
+    void unregisteredClassesHaveNoBinaryLayout() {
+        assertNull(BinaryEventCodec.encode("not an event"));
+    }
+
+    private static Object roundTrip(Object event) {
+        return BinaryEventCodec.decode(BinaryEventCodec.encode(event));
+    }
+
+    private static int idLength(String id) {
+        HeartbeatEvent heartbeat = new HeartbeatEvent(id);
+        heartbeat.setTimestamp(null);
+        // magic, version, type, event type code, null timestamp, then the id
+        return BinaryEventCodec.encode(heartbeat).length - 5;
+    }
+
+    private static Map<EventType, Object> samples() {
+        Map<EventType, Object> samples = new EnumMap<>(EventType.class);
+        samples.put(EventType.CONTACT_SUBMITTED, contactSubmitted());
+        samples.put(EventType.CONTACT_PROCESSED, contactProcessed());
+        samples.put(EventType.VISITOR_SESSION, visitorSession());
+        samples.put(EventType.PAGE_VIEW, pageView());
+        HeartbeatEvent heartbeat = new HeartbeatEvent(SESSION_ID);
+        heartbeat.setTimestamp(TIME);
+        samples.put(EventType.HEARTBEAT, heartbeat);
+        samples.put(EventType.NODE_STATS, nodeStats());
+        ScrollEvent scroll = new ScrollEvent(SESSION_ID, "/projects", 100);
+        scroll.setTimestamp(TIME);
+        samples.put(EventType.SCROLL, scroll);
+        samples.put(EventType.WS_BROADCAST, broadcast());
+        return samples;
+    }
+
+    private static ContactSubmittedEvent contactSubmitted() {
+        ContactSubmittedEvent event = new ContactSubmittedEvent(UUID, "ada@example.com", "Ada Lovelace",
+                "Analytical Engines Ltd", "Hello", "HIGH");
+        event.setTimestamp(TIME);
+        return event;
+    }
+
+    private static ContactProcessedEvent contactProcessed() {
+        ContactProcessedEvent event = new ContactProcessedEvent(UUID, "ANALYZED", "analysed");
+        event.setTimestamp(TIME);
+        return event;
+    }
+
+    private static VisitorSessionEvent visitorSession() {
+        VisitorSessionEvent event = new VisitorSessionEvent();
+        event.setEventId(UUID);
+        event.setTimestamp(TIME);
+        event.setSessionId(SESSION_ID);
+        event.setIpAddress("2001:db8::1");
+        event.setUserAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) Chrome/124.0");
+        event.setLocation("Zürich, CH");
+        event.setCountryCode("CH");
+        event.setCity("Zürich");
+        event.setPage("/projects");
+        event.setReferrer("https://www.google.com/");
+        event.setLandingUrl("https://portfolio.example.com/projects?utm_source=newsletter");
+        event.setDeviceType("Desktop");
+        event.setBrowser("Chrome");
+        event.setOs("Windows");
+        event.setBot(false);
+        return event;
+    }
+
+    private static PageViewEvent pageView() {
+        PageViewEvent event = new PageViewEvent();
+        event.setEventId(UUID);
+        event.setTimestamp(TIME);
+        event.setSessionId(SESSION_ID);
+        event.setPage("/contact");
+        event.setPreviousPage("/projects");
+        event.setTimeSpentSeconds(42L);
+        event.setScrollDepth("75%");
+        return event;
+    }
+
+    private static NodeStatsState nodeStats() {
+        NodeStatsState state = new NodeStatsState(LocalDate.of(2025, 3, 14), 12, 3456L, List.of("CH", "DE", "IN"),
+                new byte[] {1, 2, 3}, new byte[0], null, Map.of("/projects", 9L, "/über", 3L),
+                Map.of("/projects", 40L), Map.of("/projects", 12L, "/blog", 1L));
+        state.setTimestamp(TIME);
+        state.setNodeId("node-1");
+        state.setRunEpoch(1_741_964_966_535L);
+        return state;
+    }
+
+    private static BroadcastEnvelope broadcast() {
+        BroadcastEnvelope envelope = new BroadcastEnvelope("node-1", 1_741_964_966_535L, 42, "/queue/messages", "admin",
+                "{\"message\":\"hi\"}".getBytes(StandardCharsets.UTF_8));
+        envelope.setTimestamp(TIME);
+        return envelope;
+    }
+}
@@ -0,0 +1,109 @@
+package com.sweta.portfolio.kafka.streams;
+
+import com.sweta.portfolio.kafka.events.PageViewEvent;
+import com.sweta.portfolio.kafka.events.VisitorSessionEvent;
+import com.sweta.portfolio.kafka.serde.EventSerializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.WindowStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class VisitorAnalyticsTopologyTest {
+
+    private static final String TOPIC = "visitor-events-topic";
+    private static final Instant START = Instant.parse("2025-01-01T10:00:00Z");
+
+    @TempDir
+    Path stateDir;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, Object> input;
+
+    @BeforeEach
+    void setUp() {
+        StreamsBuilder builder = new StreamsBuilder();
+        VisitorAnalyticsTopology.build(builder, TOPIC);
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "visitor-analytics-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+
+        driver = new TopologyTestDriver(builder.build(), props, START);
+        input = driver.createInputTopic(TOPIC, new StringSerializer(), new EventSerializer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    void countsPageViewsPerPagePerMinute() {
+        input.pipeInput("s1", pageView("s1", "/home", 10L), START);
+        input.pipeInput("s2", pageView("s2", "/home", null), START.plusSeconds(20));
+        input.pipeInput("s1", pageView("s1", "/projects", 30L), START.plusSeconds(30));
+        input.pipeInput("s1", pageView("s1", "/home", 20L), START.plusSeconds(70));
+
+        WindowStore<String, Long> store = driver.getWindowStore(VisitorAnalyticsTopology.PAGE_VIEWS_STORE);
+        assertEquals(2L, store.fetch("/home", START.toEpochMilli()));
+        assertEquals(1L, store.fetch("/projects", START.toEpochMilli()));
+        assertEquals(1L, store.fetch("/home", START.plusSeconds(60).toEpochMilli()));
+    }
+
+    @Test
+    void averagesTimeSpentIgnoringViewsWithoutIt() {
+        input.pipeInput("s1", pageView("s1", "/home", 10L), START);
+        input.pipeInput("s2", pageView("s2", "/home", 30L), START.plusSeconds(5));
+        input.pipeInput("s3", pageView("s3", "/home", null), START.plusSeconds(10));
+
+        WindowStore<String, TimeSpentAggregate> store = driver.getWindowStore(VisitorAnalyticsTopology.TIME_SPENT_STORE);
+        TimeSpentAggregate aggregate = store.fetch("/home", START.toEpochMilli());
+        assertEquals(2L, aggregate.count());
+        assertEquals(20.0, aggregate.average());
+    }
+
+    @Test
+    void countsSessionsPerDeviceInHoppingWindows() {
+        input.pipeInput("s1", session("s1", "Mobile"), START.plusSeconds(90));
+        input.pipeInput("s2", session("s2", "Mobile"), START.plusSeconds(100));
+        input.pipeInput("s3", session("s3", "Desktop"), START.plusSeconds(110));
+
+        WindowStore<String, Long> store = driver.getWindowStore(VisitorAnalyticsTopology.DEVICE_SESSIONS_STORE);
+        // 10:01:30 falls into the windows starting 09:57 .. 10:01
+        assertEquals(2L, store.fetch("Mobile", START.toEpochMilli()));
+        assertEquals(2L, store.fetch("Mobile", START.plusSeconds(60).toEpochMilli()));
+        assertEquals(1L, store.fetch("Desktop", START.minusSeconds(180).toEpochMilli()));
+        assertNull(store.fetch("Desktop", START.plusSeconds(120).toEpochMilli()));
+    }
+
+    private static PageViewEvent pageView(String sessionId, String page, Long timeSpentSeconds) {
+        PageViewEvent event = new PageViewEvent();
+        event.setSessionId(sessionId);
+        event.setPage(page);
+        event.setTimeSpentSeconds(timeSpentSeconds);
+        return event;
+    }
+
+    private static VisitorSessionEvent session(String sessionId, String deviceType) {
+        VisitorSessionEvent event = new VisitorSessionEvent();
+        event.setSessionId(sessionId);
+        event.setDeviceType(deviceType);
+        return event;
+    }
+}
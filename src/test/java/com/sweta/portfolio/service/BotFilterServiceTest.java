@@ -0,0 +1,95 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.service.BotFilterService.Verdict;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BotFilterServiceTest {
+
+    private static final String BROWSER = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+            + "(KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            // Crawlers, by the parser's rule and by the bundled signatures
+            "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)                            | BOT",
+            "DuckDuckBot/1.1; (+http://duckduckgo.com/duckduckbot.html)                                         | BOT",
+            "Mozilla/5.0 (compatible; YandexImages/3.0; +http://yandex.com/bots)                                | BOT",
+            "Mozilla/5.0 (compatible; UptimeRobot/2.0; http://www.uptimerobot.com/)                             | BOT",
+            "Mozilla/5.0 AppleWebKit/537.36 (KHTML, like Gecko; compatible; GPTBot/1.2; +https://openai.com/gptbot) | BOT",
+            // Browsers of the same vendors are real visitors
+            "Mozilla/5.0 (Linux; Android 14; Pixel 8) AppleWebKit/537.36 (KHTML, like Gecko) Version/4.0 Chrome/124.0.0.0 Mobile DuckDuckGo/5 Safari/537.36 | HUMAN",
+            "Mozilla/5.0 (Linux; Android 14) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 YandexSearch/24.40 Mobile Safari/537.36 | HUMAN",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_4 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Mobile/15E148 Safari/604.1 | HUMAN",
+    })
+    void classifiesByUserAgent(String userAgent, Verdict verdict) {
+        assertEquals(verdict, service("drop", 0, 30, 100).classify("203.0.113.9", userAgent, true));
+    }
+
+    @Test
+    void ipStartingSessionsTooFastIsFlagged() {
+        BotFilterService service = service("drop", 0, 3, 100);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Verdict.HUMAN, service.classify("203.0.113.9", BROWSER, true));
+        }
+        assertEquals(Verdict.TOO_FAST, service.classify("203.0.113.9", BROWSER, true));
+
+        // Page views of its sessions are not session starts, other IPs have their own rate
+        assertEquals(Verdict.HUMAN, service.classify("203.0.113.9", BROWSER, false));
+        assertEquals(Verdict.HUMAN, service.classify("198.51.100.7", BROWSER, true));
+    }
+
+    @Test
+    void ipsBeyondTheTrackedLimitAreTooFast() {
+        BotFilterService service = service("drop", 0, 30, 2);
+        assertEquals(Verdict.HUMAN, service.classify("203.0.113.1", BROWSER, true));
+        assertEquals(Verdict.HUMAN, service.classify("203.0.113.2", BROWSER, true));
+
+        assertEquals(Verdict.TOO_FAST, service.classify("203.0.113.3", BROWSER, true));
+        // Without an IP there is nothing to rate
+        assertEquals(Verdict.HUMAN, service.classify(null, BROWSER, true));
+    }
+
+    @Test
+    void dropModeAdmitsHumansOnly() {
+        BotFilterService service = service("drop", 1, 30, 100);
+
+        assertTrue(service.admit(Verdict.HUMAN));
+        assertFalse(service.admit(Verdict.BOT));
+        assertFalse(service.admit(Verdict.TOO_FAST));
+        assertEquals(1, filtered("user-agent", "dropped"));
+        assertEquals(1, filtered("velocity", "dropped"));
+    }
+
+    @Test
+    void sampleModeLetsTheSampleRateThrough() {
+        BotFilterService all = service("sample", 1, 30, 100);
+        assertTrue(all.admit(Verdict.BOT));
+        assertTrue(all.admit(Verdict.TOO_FAST));
+        assertEquals(1, filtered("user-agent", "sampled"));
+        assertEquals(1, filtered("velocity", "sampled"));
+
+        BotFilterService none = service(" Sample ", 0, 30, 100);
+        assertFalse(none.admit(Verdict.BOT));
+        assertEquals(1, filtered("user-agent", "dropped"));
+    }
+
+    private BotFilterService service(String mode, double sampleRate, double maxSessionsPerMinute, int maxTrackedIps) {
+        UserAgentService userAgentService = new UserAgentService(64, new ClassPathResource("bots/known-bots.txt"));
+        userAgentService.loadSignatures();
+        return new BotFilterService(userAgentService, meterRegistry, mode, sampleRate, maxSessionsPerMinute, maxTrackedIps);
+    }
+
+    private double filtered(String reason, String action) {
+        return meterRegistry.get("visitor.bots.filtered").tag("reason", reason).tag("action", action).counter().count();
+    }
+}
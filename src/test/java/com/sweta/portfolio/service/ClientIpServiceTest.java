@@ -0,0 +1,54 @@
+package com.sweta.portfolio.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClientIpServiceTest {
+
+    private static final String PEER = "10.0.0.2";
+
+    @ParameterizedTest(name = "{0} proxies, X-Forwarded-For {1} -> {2}")
+    @CsvSource(nullValues = "-", delimiter = '|', value = {
+            // No trusted proxy: whatever the client put in the headers is ignored
+            "0 | 198.51.100.7                           | 10.0.0.2",
+            "0 | -                                      | 10.0.0.2",
+            // One proxy appends the client; anything before it came from the client itself
+            "1 | 203.0.113.9                            | 203.0.113.9",
+            "1 | 198.51.100.7, 203.0.113.9              | 203.0.113.9",
+            "1 | -                                      | 10.0.0.2",
+            "1 | ' '                                    | 10.0.0.2",
+            // CDN then load balancer: the client is the second entry from the right
+            "2 | 198.51.100.7, 203.0.113.9, 192.0.2.44  | 203.0.113.9",
+            "2 | 2001:db8::1,192.0.2.44                 | 2001:db8::1",
+            // Fewer hops than proxies: the request went around them
+            "2 | 198.51.100.7                           | 10.0.0.2",
+    })
+    void clientIsTheEntryAppendedByTheOutermostTrustedProxy(int trustedProxies, String forwardedFor, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(PEER);
+        request.addHeader("X-Real-IP", "198.51.100.99");
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        assertEquals(client, new ClientIpService(trustedProxies).resolve(request));
+    }
+
+    @Test
+    void hopsMaySpanSeveralHeaders() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(PEER);
+        request.addHeader("X-Forwarded-For", "198.51.100.7, 203.0.113.9");
+        request.addHeader("X-Forwarded-For", "192.0.2.44");
+        assertEquals("203.0.113.9", new ClientIpService(2).resolve(request));
+    }
+
+    @Test
+    void rejectsNegativeProxyCounts() {
+        assertThrows(IllegalArgumentException.class, () -> new ClientIpService(-1));
+    }
+}
@@ -0,0 +1,216 @@
+package com.sweta.portfolio.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sweta.portfolio.config.KafkaConsumerConfig;
+import com.sweta.portfolio.kafka.BroadcastRelayConsumer;
+import com.sweta.portfolio.kafka.ContactEventProducer;
+import com.sweta.portfolio.kafka.serde.EventSerializer;
+import com.sweta.portfolio.kafka.serde.KafkaEventMapper;
+import com.sweta.portfolio.kafka.transport.EventTransportRouter;
+import com.sweta.portfolio.kafka.transport.InProcessEventTransport;
+import com.sweta.portfolio.kafka.transport.KafkaEventTransport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Several backend nodes in one JVM, each with its own (mocked) simple broker, sharing the
+ * ws-broadcasts topic of an embedded broker
+ */
+@EmbeddedKafka(kraft = true, partitions = 3, topics = ClusterBroadcasterTest.TOPIC)
+class ClusterBroadcasterTest {
+
+    static final String TOPIC = "ws-broadcasts-topic";
+    private static final int NODES = 3;
+    private static final int BROADCASTS = 50;
+    private static final List<String> DESTINATIONS = List.of("/topic/admin-notifications", "/topic/contacts");
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp(EmbeddedKafkaBroker broker) throws Exception {
+        for (int i = 0; i < NODES; i++) {
+            // The last node reads every record twice, as after a rebalance or a redelivery
+            nodes.add(new Node(broker, "node-" + i, i % 2 == 0, i == NODES - 1));
+        }
+        for (Node node : nodes) {
+            node.awaitAssignment(broker.getPartitionsPerTopic());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(Node::stop);
+    }
+
+    @Test
+    void everyNodeDeliversEveryBroadcastOnceAndInOrder() {
+        for (int n = 0; n < BROADCASTS; n++) {
+            for (Node node : nodes) {
+                for (String destination : DESTINATIONS) {
+                    node.broadcaster.broadcast(destination, Map.of("origin", node.id, "n", n));
+                }
+            }
+        }
+
+        int expected = NODES * DESTINATIONS.size() * BROADCASTS;
+        awaitOnAll(node -> node.delivered.size() >= expected);
+        // Give late duplicates a chance to show up
+        sleep(500);
+
+        List<Integer> inOrder = IntStream.range(0, BROADCASTS).boxed().toList();
+        for (Node node : nodes) {
+            assertEquals(expected, node.delivered.size(), node.id + " delivered a broadcast twice");
+            Map<String, List<Integer>> perOriginAndDestination = node.delivered.stream().collect(
+                    Collectors.groupingBy(Delivery::stream, Collectors.mapping(Delivery::n, Collectors.toList())));
+            assertEquals(NODES * DESTINATIONS.size(), perOriginAndDestination.size());
+            perOriginAndDestination.forEach((stream, numbers) -> assertEquals(inOrder, numbers, node.id + " " + stream));
+        }
+    }
+
+    @Test
+    void aStartingNodeOnlyRelaysBroadcastsMadeAfterItStarted(EmbeddedKafkaBroker broker) throws Exception {
+        Node sender = nodes.get(0);
+        for (int n = 0; n < 5; n++) {
+            sender.broadcaster.broadcast("/topic/contacts", Map.of("origin", sender.id, "n", n));
+        }
+        awaitOnAll(node -> node.delivered.size() == 5);
+
+        Node late = new Node(broker, "node-late", true, false);
+        nodes.add(late);
+        late.awaitAssignment(broker.getPartitionsPerTopic());
+        sender.broadcaster.broadcast("/topic/contacts", Map.of("origin", sender.id, "n", 5));
+
+        awaitOnAll(node -> node.delivered.size() >= (node == late ? 1 : 6));
+        sleep(500);
+        assertEquals(List.of(new Delivery("/topic/contacts", sender.id, 5)), late.delivered);
+    }
+
+    @Test
+    void userMessagesReachTheUserOnEveryNode() {
+        Node sender = nodes.get(0);
+        sender.broadcaster.sendToUser("admin", "/queue/messages", Map.of("origin", sender.id, "n", 1));
+
+        awaitOnAll(node -> node.delivered.size() == 1);
+        for (Node node : nodes) {
+            assertEquals(new Delivery("/user/admin/queue/messages", sender.id, 1), node.delivered.get(0));
+        }
+    }
+
+    private void awaitOnAll(java.util.function.Predicate<Node> condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!nodes.stream().allMatch(condition)) {
+            if (System.nanoTime() > deadline) {
+                fail("Broadcasts did not arrive: " + nodes.stream().map(node -> node.id + "=" + node.delivered.size()).toList());
+            }
+            sleep(50);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Delivery(String destination, String origin, int n) {
+
+        String stream() {
+            return origin + " " + destination;
+        }
+
+        static Delivery of(String destination, Message<?> message) throws IOException {
+            JsonNode tree = KafkaEventMapper.mapper().readTree((byte[]) message.getPayload());
+            return new Delivery(destination, tree.get("origin").asText(), tree.get("n").asInt());
+        }
+    }
+
+    private static final class Node {
+
+        private final String id;
+        private final ClusterBroadcaster broadcaster;
+        private final DefaultKafkaProducerFactory<String, Object> producerFactory;
+        private final List<ConcurrentMessageListenerContainer<String, Object>> containers = new ArrayList<>();
+        // What this node's simple broker was asked to send, local and relayed
+        private final List<Delivery> delivered = Collections.synchronizedList(new ArrayList<>());
+
+        Node(EmbeddedKafkaBroker broker, String id, boolean binary, boolean duplicateDelivery) {
+            this.id = id;
+            SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+            when(messagingTemplate.getUserDestinationPrefix()).thenReturn("/user/");
+            doAnswer(invocation -> delivered.add(Delivery.of(invocation.getArgument(0), invocation.getArgument(1))))
+                    .when(messagingTemplate).send(anyString(), any(Message.class));
+
+            // Mixed wire formats, as during a rolling switch to the binary format
+            producerFactory = new DefaultKafkaProducerFactory<>(Map.of(
+                    ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                    ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                    ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, EventSerializer.class,
+                    EventSerializer.BINARY_TOPICS_CONFIG, binary ? TOPIC : ""));
+            EventTransportRouter router = new EventTransportRouter(
+                    new KafkaEventTransport(new KafkaTemplate<>(producerFactory)), new InProcessEventTransport(16), "");
+            broadcaster = new ClusterBroadcaster(messagingTemplate, new ContactEventProducer(router),
+                    new ObjectMapper(), new SimpleMeterRegistry(), TOPIC, id);
+
+            // The relay listener's production container factory, as the application builds it
+            KafkaConsumerConfig consumerConfig = new KafkaConsumerConfig();
+            ReflectionTestUtils.setField(consumerConfig, "bootstrapServers", broker.getBrokersAsString());
+            ReflectionTestUtils.setField(consumerConfig, "groupId", "portfolio");
+            BroadcastRelayConsumer consumer = new BroadcastRelayConsumer(broadcaster);
+            for (int copy = 0; copy < (duplicateDelivery ? 2 : 1); copy++) {
+                ConcurrentMessageListenerContainer<String, Object> container =
+                        consumerConfig.broadcastRelayContainerFactory().createContainer(TOPIC);
+                container.getContainerProperties().setGroupId(id + "-" + copy + "-" + System.nanoTime());
+                container.setupMessageListener(
+                        (MessageListener<String, Object>) record -> consumer.consumeBroadcast(record));
+                container.start();
+                containers.add(container);
+            }
+        }
+
+        void awaitAssignment(int partitions) throws Exception {
+            for (ConcurrentMessageListenerContainer<String, Object> container : containers) {
+                ContainerTestUtils.waitForAssignment(container, partitions);
+            }
+        }
+
+        void stop() {
+            containers.forEach(ConcurrentMessageListenerContainer::stop);
+            producerFactory.destroy();
+        }
+    }
+}
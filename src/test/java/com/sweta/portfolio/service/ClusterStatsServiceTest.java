@@ -0,0 +1,215 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.analytics.HyperLogLog;
+import com.sweta.portfolio.dto.LiveStatsDTO;
+import com.sweta.portfolio.kafka.ContactEventProducer;
+import com.sweta.portfolio.kafka.NodeStatsConsumer;
+import com.sweta.portfolio.kafka.events.NodeStatsState;
+import com.sweta.portfolio.kafka.serde.EventDeserializer;
+import com.sweta.portfolio.kafka.serde.EventSerializer;
+import com.sweta.portfolio.kafka.transport.EventTransportRouter;
+import com.sweta.portfolio.kafka.transport.InProcessEventTransport;
+import com.sweta.portfolio.kafka.transport.KafkaEventTransport;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Several backend nodes in one JVM, sharing the node-stats topic of an embedded broker
+ */
+@EmbeddedKafka(kraft = true, partitions = 1, topics = ClusterStatsServiceTest.TOPIC)
+class ClusterStatsServiceTest {
+
+    static final String TOPIC = "node-stats-topic";
+    private static final int NODES = 3;
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp(EmbeddedKafkaBroker broker) {
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(new Node(broker, "node-" + i, i % 2 == 0, localState(i)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(Node::stop);
+    }
+
+    @Test
+    void everyNodeServesTheSameMergedView() {
+        nodes.forEach(node -> node.service.publish());
+
+        LiveStatsDTO expected = merged(0, 1, 2);
+        awaitOnAll(stats -> stats.equals(expected));
+
+        // Viewers and views are summed; the overlapping country and visitors count once
+        assertEquals(1 + 2 + 3, expected.getActiveViewers());
+        assertEquals(10 + 20 + 30, expected.getProfileViewsThisMonth());
+        assertEquals(4, expected.getCountries());
+        for (Node node : nodes) {
+            assertEquals(NODES, node.service.nodeCount());
+        }
+    }
+
+    @Test
+    void pageViewersAreSummedOverTheNodes() {
+        nodes.forEach(node -> node.service.publish());
+        awaitOnAll(stats -> stats.equals(merged(0, 1, 2)));
+
+        // Every node adds the other nodes' pages to its own
+        Map<String, Long> expected = Map.of("/", 1L + 2 + 3, "/page-0", 1L, "/page-1", 1L, "/page-2", 1L);
+        for (int i = 0; i < NODES; i++) {
+            assertEquals(expected, nodes.get(i).service.mergePageViewers(localState(i).getPageViewers()));
+        }
+    }
+
+    @Test
+    void trendCountsAreSummedOverTheNodes() {
+        nodes.forEach(node -> node.service.publish());
+        awaitOnAll(stats -> stats.equals(merged(0, 1, 2)));
+
+        for (int i = 0; i < NODES; i++) {
+            NodeStatsState local = localState(i);
+            assertEquals(Map.of("/", 30L, "/page-0", 1L, "/page-1", 2L, "/page-2", 3L),
+                    nodes.get(i).service.mergeTrendViews(local.getTrendViews()));
+            assertEquals(Map.of("/", 15L), nodes.get(i).service.mergeTrendPreviousViews(local.getTrendPreviousViews()));
+        }
+    }
+
+    @Test
+    void nodeLeavingDropsOutOfTheView() {
+        nodes.forEach(node -> node.service.publish());
+        awaitOnAll(stats -> stats.equals(merged(0, 1, 2)));
+
+        Node leaving = nodes.remove(NODES - 1);
+        leaving.service.shutdown();
+        leaving.stop();
+
+        awaitOnAll(stats -> stats.equals(merged(0, 1)));
+        assertEquals(Map.of("/", 1L + 2, "/page-0", 1L, "/page-1", 1L),
+                nodes.get(0).service.mergePageViewers(localState(0).getPageViewers()));
+    }
+
+    private void awaitOnAll(Predicate<LiveStatsDTO> condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!nodes.stream().allMatch(node -> condition.test(node.service.globalStats()))) {
+            if (System.nanoTime() > deadline) {
+                fail("Nodes did not converge: " + nodes.stream().map(node -> node.service.globalStats()).toList());
+            }
+            sleep();
+        }
+    }
+
+    /**
+     * What a single node holding all the given nodes' events would report
+     */
+    private static LiveStatsDTO merged(int... indexes) {
+        int viewers = 0;
+        long views = 0;
+        Set<String> countries = new HashSet<>();
+        HyperLogLog visitors = new HyperLogLog();
+        for (int i : indexes) {
+            NodeStatsState state = localState(i);
+            viewers += state.getActiveViewers();
+            views += state.getProfileViews();
+            countries.addAll(state.getCountries());
+            visitors.merge(HyperLogLog.fromBytes(state.getUniqueToday()));
+        }
+        long unique = visitors.estimate();
+        return new LiveStatsDTO(viewers, countries.size(), (int) views, unique, unique, unique);
+    }
+
+    // Node i: i + 1 viewers, 10 * (i + 1) views, one shared and one own country,
+    // 150 visitors of which 50 are also seen by the next node, i + 1 viewers on / and one on its own page,
+    // 10 views of / in the trending window (5 before it) and i + 1 of its own page
+    private static NodeStatsState localState(int i) {
+        HyperLogLog visitors = new HyperLogLog();
+        for (int v = i * 100; v < i * 100 + 150; v++) {
+            visitors.add("visitor-" + v);
+        }
+        byte[] registers = visitors.toBytes();
+        return new NodeStatsState(LocalDate.now(), i + 1, 10L * (i + 1), List.of("Netherlands", "Country " + i),
+                registers, registers, registers, Map.of("/", (long) i + 1, "/page-" + i, 1L),
+                Map.of("/", 10L, "/page-" + i, (long) i + 1), Map.of("/", 5L));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Node {
+
+        private final ClusterStatsService service;
+        private final DefaultKafkaProducerFactory<String, Object> producerFactory;
+        private final KafkaMessageListenerContainer<String, Object> container;
+
+        Node(EmbeddedKafkaBroker broker, String nodeId, boolean binary, NodeStatsState localState) {
+            // Mixed wire formats, as during a rolling switch to the binary format
+            producerFactory = new DefaultKafkaProducerFactory<>(Map.of(
+                    ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                    ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                    ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, EventSerializer.class,
+                    EventSerializer.BINARY_TOPICS_CONFIG, binary ? TOPIC : ""));
+            EventTransportRouter router = new EventTransportRouter(
+                    new KafkaEventTransport(new KafkaTemplate<>(producerFactory)), new InProcessEventTransport(16), "");
+            service = new ClusterStatsService(new ContactEventProducer(router), TOPIC, nodeId, Duration.ofSeconds(30));
+            service.register(() -> copy(localState));
+
+            NodeStatsConsumer consumer = new NodeStatsConsumer(service, mock(LiveStatsPublisher.class));
+            ContainerProperties containerProperties = new ContainerProperties(TOPIC);
+            containerProperties.setGroupId(nodeId);
+            containerProperties.setMessageListener(
+                    (MessageListener<String, Object>) record -> consumer.consumeNodeStats(record));
+            container = new KafkaMessageListenerContainer<>(new DefaultKafkaConsumerFactory<>(Map.of(
+                    ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                    ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                    ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                    ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, EventDeserializer.class)), containerProperties);
+            container.start();
+        }
+
+        void stop() {
+            container.stop();
+            producerFactory.destroy();
+        }
+
+        // The supplier hands out a fresh state per call, like VisitorEventConsumer does
+        private static NodeStatsState copy(NodeStatsState state) {
+            return new NodeStatsState(state.getDay(), state.getActiveViewers(), state.getProfileViews(),
+                    state.getCountries(), state.getUniqueToday(), state.getUniqueThisWeek(), state.getUniqueThisMonth(),
+                    state.getPageViewers(), state.getTrendViews(), state.getTrendPreviousViews());
+        }
+    }
+}
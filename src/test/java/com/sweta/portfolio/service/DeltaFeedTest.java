@@ -0,0 +1,114 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.dto.WebSocketMessages;
+import com.sweta.portfolio.dto.WebSocketMessages.FeedUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A client that applies what a DeltaFeed sends, with a snapshot whenever it falls behind, ends
+ * up with the feed's state
+ */
+class DeltaFeedTest {
+
+    private final List<FeedUpdate> sent = new ArrayList<>();
+    private DeltaFeedService feeds;
+    private DeltaFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        ClusterBroadcaster clusterBroadcaster = mock(ClusterBroadcaster.class);
+        doAnswer(invocation -> sent.add(invocation.getArgument(1)))
+                .when(clusterBroadcaster).sendLocal(eq("/topic/live-stats"), any(Object.class));
+        feeds = new DeltaFeedService(clusterBroadcaster, new SimpleMeterRegistry(), "node-0");
+        feed = feeds.feed(DeltaFeedService.LIVE_STATS);
+    }
+
+    @Test
+    void sendsOnlyChangedFieldsInSequence() {
+        assertTrue(feed.publish(Map.of("activeViewers", 3, "countries", 2)));
+        assertFalse(feed.publish(Map.of("activeViewers", 3, "countries", 2)));
+        assertTrue(feed.publish(Map.of("activeViewers", 4, "countries", 2)));
+        assertTrue(feed.publish(Map.of("activeViewers", 4)));
+
+        assertEquals(3, sent.size());
+        assertEquals(List.of(1L, 2L, 3L), sent.stream().map(FeedUpdate::seq).toList());
+        assertTrue(sent.stream().allMatch(update -> WebSocketMessages.DELTA.equals(update.type())));
+        assertEquals(Map.of("activeViewers", 4), sent.get(1).fields());
+        Map<String, Object> removed = new HashMap<>();
+        removed.put("countries", null);
+        assertEquals(removed, sent.get(2).fields());
+
+        FeedUpdate snapshot = feeds.snapshot(DeltaFeedService.LIVE_STATS).orElseThrow();
+        assertEquals(WebSocketMessages.SNAPSHOT, snapshot.type());
+        assertEquals(3, snapshot.seq());
+        assertEquals(Map.of("activeViewers", 4), snapshot.fields());
+        assertTrue(feeds.snapshot("unknown").isEmpty());
+    }
+
+    @Test
+    void clientThatMissesDeltasResyncsToTheFeedState() {
+        Client client = new Client();
+        for (int n = 0; n < 50; n++) {
+            feed.publish(Map.of("activeViewers", n % 7, "countries", n / 10, "profileViewsThisMonth", n));
+            // Lose every fifth message on the way
+            FeedUpdate update = sent.get(sent.size() - 1);
+            if (n % 5 != 3) {
+                client.receive(update);
+            }
+        }
+        assertEquals(feed.snapshot().fields(), client.fields);
+        assertEquals(feed.snapshot().seq(), client.seq);
+    }
+
+    /**
+     * The client side of the protocol described on DeltaFeed
+     */
+    private final class Client {
+
+        private final Map<String, Object> fields = new LinkedHashMap<>();
+        private String stream;
+        private long seq = -1;
+
+        void receive(FeedUpdate update) {
+            if (update.seq() <= seq && update.stream().equals(stream)) {
+                return;
+            }
+            if (!update.stream().equals(stream) || update.seq() != seq + 1) {
+                resync();
+                return;
+            }
+            update.fields().forEach((field, value) -> {
+                if (value == null) {
+                    fields.remove(field);
+                } else {
+                    fields.put(field, value);
+                }
+            });
+            seq = update.seq();
+        }
+
+        private void resync() {
+            FeedUpdate snapshot = feeds.snapshot(DeltaFeedService.LIVE_STATS).orElseThrow();
+            fields.clear();
+            fields.putAll(snapshot.fields());
+            stream = snapshot.stream();
+            seq = snapshot.seq();
+        }
+    }
+}
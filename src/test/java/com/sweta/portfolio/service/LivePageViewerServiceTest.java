@@ -0,0 +1,59 @@
+package com.sweta.portfolio.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LivePageViewerServiceTest {
+
+    // Viewers of the other nodes, as ClusterStatsService would have them from node-stats
+    private final Map<String, Long> remote = new HashMap<>();
+    private final LivePageViewerService service;
+
+    LivePageViewerServiceTest() {
+        ClusterStatsService clusterStatsService = mock(ClusterStatsService.class);
+        when(clusterStatsService.mergePageViewers(any())).thenAnswer(invocation -> {
+            Map<String, Long> merged = new LinkedHashMap<>(invocation.<Map<String, Long>>getArgument(0));
+            remote.forEach((page, viewers) -> merged.merge(page, viewers, Long::sum));
+            return merged;
+        });
+        service = new LivePageViewerService(new ActiveSessionTracker(Duration.ofMinutes(2), Duration.ofSeconds(1)),
+                clusterStatsService, mock(LiveStatsPublisher.class), 16);
+    }
+
+    @Test
+    void broadcastsChangedClusterWideCountsAndPagesDroppingToZero() {
+        service.enter("s1", "/");
+        service.enter("s2", "/projects");
+        remote.put("/", 2L);
+        remote.put("/blog", 4L);
+        assertEquals(Map.of("/", 3L, "/projects", 1L, "/blog", 4L), drain());
+        assertEquals(Map.of("/", 3L, "/projects", 1L, "/blog", 4L), service.globalSnapshot());
+        assertEquals(Map.of("/", 1L, "/projects", 1L), service.snapshot());
+
+        // Only what changed since: a local move and a remote node's page going quiet
+        service.enter("s1", "/projects");
+        remote.remove("/blog");
+        assertEquals(Map.of("/", 2L, "/projects", 2L, "/blog", 0L), drain());
+        assertEquals(Map.of(), drain());
+
+        service.leave("s2");
+        service.leave("s1");
+        remote.clear();
+        assertEquals(Map.of("/", 0L, "/projects", 0L), drain());
+    }
+
+    private Map<String, Long> drain() {
+        Map<String, Long> sent = new HashMap<>();
+        service.drainChanged(sent::put);
+        return sent;
+    }
+}
@@ -0,0 +1,77 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.dto.FunnelDTO;
+import com.sweta.portfolio.dto.PagePathDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NavigationPathServiceTest {
+
+    private final ActiveSessionTracker sessionTracker = new ActiveSessionTracker(Duration.ofMinutes(2), Duration.ofSeconds(1));
+    private final NavigationPathService service = new NavigationPathService(sessionTracker, 16,
+            new String[] {"home > projects > contact", "single", "blog>"});
+
+    @Test
+    void topPathsCarryTheirShareOfTheFromPage() {
+        record(null, "/", 4);
+        record("/", "/projects", 3);
+        record("/", "/blog", 1);
+        record("/projects", "", 2);
+
+        assertEquals(List.of(
+                        new PagePathDTO(NavigationPathService.ENTRY, "/", 4, 1.0),
+                        new PagePathDTO("/", "/projects", 3, 0.75),
+                        new PagePathDTO("/projects", NavigationPathService.EXIT, 2, 1.0),
+                        new PagePathDTO("/", "/blog", 1, 0.25)),
+                service.topPaths(10));
+        assertEquals(2, service.topPaths(2).size());
+    }
+
+    @Test
+    void funnelsConvertStepByStep() {
+        // Only the well-formed funnel is kept
+        service.advanceFunnels("a", "home");
+        service.advanceFunnels("a", "projects");
+        service.advanceFunnels("a", "contact");
+        service.advanceFunnels("b", "home");
+        service.advanceFunnels("b", "blog");
+        service.advanceFunnels("b", "projects");
+        service.advanceFunnels("c", "home");
+        service.advanceFunnels("d", "contact");
+
+        List<FunnelDTO> funnels = service.funnelConversion();
+
+        assertEquals(1, funnels.size());
+        assertEquals("home > projects > contact", funnels.get(0).getName());
+        assertEquals(List.of(new FunnelDTO.Step("home", 3, 1.0, 1.0),
+                        new FunnelDTO.Step("projects", 2, 2 / 3.0, 2 / 3.0),
+                        new FunnelDTO.Step("contact", 1, 0.5, 1 / 3.0)),
+                funnels.get(0).getSteps());
+    }
+
+    @Test
+    void anEndedSessionStartsTheFunnelOver() {
+        sessionTracker.start("a", System.currentTimeMillis());
+        service.advanceFunnels("a", "home");
+        service.advanceFunnels("a", "projects");
+        sessionTracker.end("a");
+        // A new session under the same id: contact is not its third step
+        service.advanceFunnels("a", "contact");
+        service.advanceFunnels("a", "home");
+
+        List<FunnelDTO.Step> steps = service.funnelConversion().get(0).getSteps();
+        assertEquals(2, steps.get(0).getSessions());
+        assertEquals(1, steps.get(1).getSessions());
+        assertEquals(0, steps.get(2).getSessions());
+    }
+
+    private void record(String from, String to, int times) {
+        for (int i = 0; i < times; i++) {
+            service.recordTransition(from, to);
+        }
+    }
+}
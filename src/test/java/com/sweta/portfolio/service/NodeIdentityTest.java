@@ -0,0 +1,40 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.kafka.transport.EventTransportRouter;
+import com.sweta.portfolio.kafka.transport.InProcessEventTransport;
+import com.sweta.portfolio.kafka.transport.KafkaEventTransport;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class NodeIdentityTest {
+
+    private static final String ALL_TOPICS = "visitor-events-topic,node-stats-topic,ws-broadcasts-topic";
+
+    @Test
+    void configuredIdIsUsed() {
+        assertEquals("node-1", identity(" node-1 ", "").getId());
+        assertEquals("node-1", identity("node-1", ALL_TOPICS).getId());
+    }
+
+    @Test
+    void singleInProcessNodeFallsBackToLocal() {
+        assertEquals(NodeIdentity.LOCAL, identity("", ALL_TOPICS).getId());
+        assertEquals(NodeIdentity.LOCAL, identity(null, ALL_TOPICS + ",contact-events-topic").getId());
+    }
+
+    @Test
+    void missingIdFailsWhenAnyClusterTopicGoesThroughKafka() {
+        assertThrows(IllegalStateException.class, () -> identity("", ""));
+        assertThrows(IllegalStateException.class, () -> identity(" ", "visitor-events-topic,node-stats-topic"));
+        assertThrows(IllegalStateException.class, () -> identity(null, "node-stats-topic,ws-broadcasts-topic"));
+    }
+
+    private static NodeIdentity identity(String nodeId, String inProcessTopics) {
+        EventTransportRouter router = new EventTransportRouter(mock(KafkaEventTransport.class),
+                mock(InProcessEventTransport.class), inProcessTopics);
+        return new NodeIdentity(router, nodeId, "visitor-events-topic", "node-stats-topic", "ws-broadcasts-topic");
+    }
+}
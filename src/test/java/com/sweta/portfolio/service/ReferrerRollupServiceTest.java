@@ -0,0 +1,111 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.analytics.TrafficSource;
+import com.sweta.portfolio.repository.ReferrerRollupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Drained sessions against an in-memory H2 database, through the same MERGE upsert the ci profile uses
+ */
+class ReferrerRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.now();
+    private static final String GOOGLE = "https://www.google.com/";
+    private static final String LINKEDIN = "https://www.linkedin.com/feed/";
+
+    private JdbcTemplate jdbcTemplate;
+    private ReferrerRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:referrers-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE referrer_rollups (visit_date DATE NOT NULL, source VARCHAR(100) NOT NULL, "
+                + "medium VARCHAR(100) NOT NULL, campaign VARCHAR(100) NOT NULL, sessions BIGINT NOT NULL, "
+                + "PRIMARY KEY (visit_date, source, medium, campaign))");
+        service = new ReferrerRollupService(mock(ReferrerRollupRepository.class), jdbcTemplate,
+                new String[] {"portfolio.example.com"}, 3, 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void drainedSessionsAreAddedToTheirRows() {
+        service.record(DAY, GOOGLE, null);
+        service.record(DAY, GOOGLE, null);
+        service.record(DAY, LINKEDIN, "https://portfolio.example.com/?utm_campaign=launch");
+        service.record(DAY.minusDays(1), null, null);
+        service.drain().write();
+
+        service.record(DAY, GOOGLE, null);
+        service.drain().write();
+
+        assertEquals(Map.of(
+                DAY + " google/organic/(none)", 3L,
+                DAY + " linkedin/social/launch", 1L,
+                DAY.minusDays(1) + " (direct)/(none)/(none)", 1L), rows());
+        // Nothing new since: nothing to write
+        assertEquals(0, service.drain().size());
+    }
+
+    @Test
+    void requeuedSessionsGoOutWithTheNextDrain() {
+        service.record(DAY, GOOGLE, null);
+        service.record(DAY, LINKEDIN, null);
+        // The checkpoint transaction failed
+        service.drain().requeue();
+
+        service.record(DAY, GOOGLE, null);
+        service.drain().write();
+
+        assertEquals(Map.of(DAY + " google/organic/(none)", 2L, DAY + " linkedin/social/(none)", 1L), rows());
+    }
+
+    @Test
+    void moreSourcesThanTheSketchHoldsKeepTheTotal() {
+        for (int i = 0; i < 5; i++) {
+            service.record(DAY, GOOGLE, null);
+        }
+        for (int i = 0; i < 4; i++) {
+            service.record(DAY, "https://site-" + i + ".example.org/", null);
+        }
+        service.drain().write();
+
+        Map<String, Long> rows = rows();
+        assertEquals(3, rows.size());
+        assertEquals(5L, rows.get(DAY + " google/organic/(none)"));
+        assertEquals(9L, rows.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void attributionIsCachedPerOrigin() {
+        TrafficSource source = service.attribute(LINKEDIN, "https://portfolio.example.com/");
+
+        assertEquals(new TrafficSource("linkedin", "social", TrafficSource.NONE), source);
+        assertSame(source, service.attribute(LINKEDIN, "https://portfolio.example.com/"));
+    }
+
+    private Map<String, Long> rows() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT visit_date, source, medium, campaign, sessions FROM referrer_rollups");
+        return rows.stream().collect(Collectors.toMap(
+                row -> row.get("VISIT_DATE") + " " + row.get("SOURCE") + "/" + row.get("MEDIUM") + "/" + row.get("CAMPAIGN"),
+                row -> ((Number) row.get("SESSIONS")).longValue()));
+    }
+}
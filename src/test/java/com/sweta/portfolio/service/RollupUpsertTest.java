@@ -0,0 +1,42 @@
+package com.sweta.portfolio.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class RollupUpsertTest {
+
+    private final RollupUpsert<Object> upsert = new RollupUpsert<>(mock(JdbcTemplate.class), "page_view_rollups",
+            List.of("page VARCHAR(200)", "granularity VARCHAR(10)", "bucket_start TIMESTAMP"),
+            List.of("views", "time_spent_seconds"),
+            (statement, row) -> { });
+
+    @Test
+    void postgresAddsTheCountersOnConflict() {
+        assertEquals("INSERT INTO page_view_rollups (page, granularity, bucket_start, views, time_spent_seconds) "
+                + "VALUES (?, ?, ?, ?, ?) "
+                + "ON CONFLICT (page, granularity, bucket_start) DO UPDATE SET "
+                + "views = page_view_rollups.views + EXCLUDED.views, "
+                + "time_spent_seconds = page_view_rollups.time_spent_seconds + EXCLUDED.time_spent_seconds",
+                upsert.postgresSql());
+    }
+
+    @Test
+    void otherDatabasesMergeWithTypedParameters() {
+        assertEquals("MERGE INTO page_view_rollups r "
+                + "USING (VALUES (CAST(? AS VARCHAR(200)), CAST(? AS VARCHAR(10)), CAST(? AS TIMESTAMP), "
+                + "CAST(? AS BIGINT), CAST(? AS BIGINT))) AS s (page, granularity, bucket_start, views, time_spent_seconds) "
+                + "ON r.page = s.page AND r.granularity = s.granularity AND r.bucket_start = s.bucket_start "
+                + "WHEN MATCHED THEN UPDATE SET views = r.views + s.views, "
+                + "time_spent_seconds = r.time_spent_seconds + s.time_spent_seconds "
+                + "WHEN NOT MATCHED THEN INSERT (page, granularity, bucket_start, views, time_spent_seconds) "
+                + "VALUES (s.page, s.granularity, s.bucket_start, s.views, s.time_spent_seconds)",
+                upsert.mergeSql());
+        // The mock reports no database product
+        assertEquals(upsert.mergeSql(), upsert.sql());
+    }
+}
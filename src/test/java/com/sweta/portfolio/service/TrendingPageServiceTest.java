@@ -0,0 +1,69 @@
+package com.sweta.portfolio.service;
+
+import com.sweta.portfolio.dto.TrendingPageDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TrendingPageServiceTest {
+
+    private final ClusterStatsService clusterStatsService = mock(ClusterStatsService.class);
+    private final ClusterBroadcaster clusterBroadcaster = mock(ClusterBroadcaster.class);
+    private final TrendingPageService service = new TrendingPageService(clusterStatsService, clusterBroadcaster,
+            Duration.ofMinutes(5), 16, 5, 3, Duration.ofHours(1));
+
+    @Test
+    void ranksTheCountsMergedOverTheCluster() {
+        // Views of other nodes only: this one has not seen any of these pages
+        when(clusterStatsService.mergeTrendViews(anyMap())).thenReturn(Map.of(
+                "/projects", 40L, "/blog", 12L, "/about", 4L, "/contact", 30L, "/cv", 10L, "/talks", 10L));
+        when(clusterStatsService.mergeTrendPreviousViews(anyMap())).thenReturn(Map.of(
+                "/projects", 1L, "/blog", 2L, "/contact", 35L));
+
+        service.advance();
+
+        // /about has too few views, /contact is falling; equal scores are ordered by name
+        assertEquals(List.of("/projects", "/cv", "/talks"),
+                service.trending(10).stream().map(TrendingPageDTO::getPage).toList());
+        TrendingPageDTO top = service.trending(1).get(0);
+        assertEquals(40, top.getViews());
+        assertEquals(1, top.getPreviousViews());
+        assertEquals(39 / Math.sqrt(2), top.getScore(), 1e-9);
+        verify(clusterBroadcaster).sendLocal(eq("/topic/trending"), any());
+    }
+
+    @Test
+    void unchangedRankingIsNotPushedAgainBeforeTheRefresh() {
+        when(clusterStatsService.mergeTrendViews(anyMap())).thenReturn(Map.of("/projects", 40L));
+        when(clusterStatsService.mergeTrendPreviousViews(anyMap())).thenReturn(Map.of());
+
+        service.advance();
+        service.advance();
+
+        verify(clusterBroadcaster, times(1)).sendLocal(eq("/topic/trending"), any());
+    }
+
+    @Test
+    void nothingTrendingIsNotPushed() {
+        when(clusterStatsService.mergeTrendViews(anyMap())).thenReturn(Map.of());
+        when(clusterStatsService.mergeTrendPreviousViews(anyMap())).thenReturn(Map.of());
+
+        service.advance();
+
+        assertEquals(List.of(), service.trending(10));
+        assertEquals(new TrendingPageService.WindowCounts(Map.of(), Map.of()), service.localCounts());
+        verify(clusterBroadcaster, never()).sendLocal(any(), any());
+    }
+}
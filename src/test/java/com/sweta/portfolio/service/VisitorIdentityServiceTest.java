@@ -0,0 +1,56 @@
+package com.sweta.portfolio.service;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VisitorIdentityServiceTest {
+
+    private final VisitorIdentityService identity = new VisitorIdentityService("test-secret", Duration.ofHours(1));
+
+    @Test
+    void issuedCookieIsSentOnCrossSiteRequests() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        identity.getOrCreateSessionId(new MockHttpServletRequest(), response);
+
+        String header = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertTrue(header.startsWith(VisitorIdentityService.COOKIE_NAME + "="), header);
+        assertTrue(header.contains("SameSite=None"), header);
+        assertTrue(header.contains("Secure"), header);
+        assertTrue(header.contains("HttpOnly"), header);
+    }
+
+    @Test
+    void issuedCookieIdentifiesTheNextRequest() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String sessionId = identity.getOrCreateSessionId(new MockHttpServletRequest(), response);
+
+        MockHttpServletRequest next = new MockHttpServletRequest();
+        next.setCookies(response.getCookie(VisitorIdentityService.COOKIE_NAME));
+        MockHttpServletResponse nextResponse = new MockHttpServletResponse();
+        assertEquals(sessionId, identity.getOrCreateSessionId(next, nextResponse));
+        // Still fresh, so it is not re-issued
+        assertNull(nextResponse.getHeader(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    void tamperedCookieIsIgnored() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        identity.getOrCreateSessionId(new MockHttpServletRequest(), response);
+        String token = response.getCookie(VisitorIdentityService.COOKIE_NAME).getValue();
+        char last = token.charAt(token.length() - 1);
+        String tampered = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(VisitorIdentityService.COOKIE_NAME, tampered));
+        assertNull(identity.findSessionId(request));
+    }
+}